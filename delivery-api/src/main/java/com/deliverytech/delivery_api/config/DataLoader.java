@@ -55,11 +55,11 @@ public class DataLoader implements CommandLineRunner {
 
             // 2. INSERIR RESTAURANTES
             RestauranteResponseDTO r1 = restauranteService.cadastrarRestaurante(
-                    criarRestauranteDTO("Pizzaria Bella Napoli", "Italiana", "Av. Paulista, 1000", "11991929394", 5.0));
+                    criarRestauranteDTO("Pizzaria Bella Napoli", "Italiana", "Av. Paulista, 1000", "11991929394", 5.0, -23.5632, -46.6543));
             RestauranteResponseDTO r2 = restauranteService.cadastrarRestaurante(
-                    criarRestauranteDTO("Burger House", "Hamburgueria", "Rua Augusta, 500", "11995554444", 3.5));
+                    criarRestauranteDTO("Burger House", "Hamburgueria", "Rua Augusta, 500", "11995554444", 3.5, -23.5530, -46.6527));
             RestauranteResponseDTO r3 = restauranteService.cadastrarRestaurante(
-                    criarRestauranteDTO("Sushi Master", "Japonesa", "Rua Liberdade, 200", "11993332222", 8.0));
+                    criarRestauranteDTO("Sushi Master", "Japonesa", "Rua Liberdade, 200", "11993332222", 8.0, -23.5581, -46.6351));
 
             // 3. INSERIR PRODUTOS (Usando os IDs dos restaurantes criados acima)
             ProdutoResponseDTO p1 = produtoService.cadastrarProduto(
@@ -107,7 +107,8 @@ public class DataLoader implements CommandLineRunner {
         return dto;
     }
 
-    private RestauranteRequestDTO criarRestauranteDTO(String nome, String cat, String end, String tel, Double taxa) {
+    private RestauranteRequestDTO criarRestauranteDTO(String nome, String cat, String end, String tel, Double taxa,
+                                                      Double latitude, Double longitude) {
         RestauranteRequestDTO dto = new RestauranteRequestDTO();
         dto.setNome(nome);
         dto.setCategoria(cat);
@@ -115,6 +116,8 @@ public class DataLoader implements CommandLineRunner {
         dto.setTelefone(tel);
         dto.setTaxaEntrega(BigDecimal.valueOf(taxa));
         dto.setAtivo(true);
+        dto.setLatitude(latitude);
+        dto.setLongitude(longitude);
         return dto;
     }
 
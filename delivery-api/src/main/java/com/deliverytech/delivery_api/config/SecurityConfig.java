@@ -35,7 +35,7 @@ public class SecurityConfig {
                     req.requestMatchers("/login").permitAll();
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll();
                     req.requestMatchers(HttpMethod.POST, "/api/auth/login", "/api/auth/register").permitAll();
-                    req.requestMatchers(HttpMethod.GET, "/api/restaurantes/**", "/api/produtos/**").permitAll();
+                    req.requestMatchers(HttpMethod.GET, "/api/restaurantes/**", "/api/produtos/**", "/api/busca/**").permitAll();
                     req.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll();
                     req.requestMatchers("/actuator/health").permitAll();
                     req.requestMatchers("/actuator/prometheus/**").permitAll();
@@ -0,0 +1,51 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
+import com.deliverytech.delivery_api.dto.response.SugestaoDTO;
+import com.deliverytech.delivery_api.service.SugestaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/api/busca")
+@Tag(name = "Busca", description = "Sugestões para a caixa de busca")
+public class BuscaController {
+
+    private final SugestaoService sugestaoService;
+
+    public BuscaController(SugestaoService sugestaoService) {
+        this.sugestaoService = sugestaoService;
+    }
+
+    // GET /api/busca/sugestoes?q=piz
+    @Operation(summary = "Sugestões para autocompletar",
+            description = "Nomes de produtos, restaurantes e categorias que começam pelo texto digitado, ou com uma " +
+                    "palavra que começa por ele, dos mais populares aos menos. Respondido da memória, sem consultar o banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões encontradas (lista vazia se nenhuma)"),
+            @ApiResponse(responseCode = "422", description = "Limite fora do intervalo de 1 a 10")
+    })
+    @GetMapping("/sugestoes")
+    public ResponseEntity<ApiSucessResponse<List<SugestaoDTO>>> sugerir(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        List<SugestaoDTO> sugestoes = sugestaoService.sugerir(q, limite);
+
+        return ResponseEntity.ok(ApiSucessResponse.<List<SugestaoDTO>>builder()
+                .sucesso(true)
+                .mensagem("Sugestões para: " + q)
+                .dados(sugestoes)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+}
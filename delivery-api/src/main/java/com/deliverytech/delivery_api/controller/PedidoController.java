@@ -2,9 +2,15 @@ package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
 import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
+import com.deliverytech.delivery_api.dto.response.CursorResponse;
 import com.deliverytech.delivery_api.dto.response.PagedResponse;
 import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.ProcessamentoPedidoDTO;
+import com.deliverytech.delivery_api.dto.response.ResultadoLotePedidoDTO;
 import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.service.IdempotenciaService;
+import com.deliverytech.delivery_api.service.PedidoEventosService;
+import com.deliverytech.delivery_api.service.PedidoFilaService;
 import com.deliverytech.delivery_api.service.PedidoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,9 +20,11 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.math.BigDecimal;
 import java.net.URI;
@@ -30,20 +38,37 @@ import java.util.List;
 public class PedidoController {
 
     private final PedidoService pedidoService;
+    private final PedidoFilaService pedidoFilaService;
+    private final IdempotenciaService idempotenciaService;
+    private final PedidoEventosService pedidoEventosService;
 
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService, PedidoFilaService pedidoFilaService,
+                            IdempotenciaService idempotenciaService, PedidoEventosService pedidoEventosService) {
         this.pedidoService = pedidoService;
+        this.pedidoFilaService = pedidoFilaService;
+        this.idempotenciaService = idempotenciaService;
+        this.pedidoEventosService = pedidoEventosService;
     }
 
     // POST /api/pedidos - Criar pedido
-    @Operation(summary = "Cadastrar novo pedido", description = "Cria um novo pedido no sistema com status ativo por padrão.")
+    @Operation(summary = "Cadastrar novo pedido", description = "Cria um novo pedido no sistema com status ativo por padrão. Com o header Idempotency-Key, repetições da mesma requisição devolvem o pedido já criado.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Pedido criado com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos")
+            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key reutilizada com outro conteúdo")
     })
     @PostMapping
-    public ResponseEntity<ApiSucessResponse<PedidoResponseDTO>> criar(@Valid @RequestBody PedidoRequestDTO dto) {
-        PedidoResponseDTO novoPedido = pedidoService.criarPedido(dto);
+    public ResponseEntity<ApiSucessResponse<PedidoResponseDTO>> criar(@Valid @RequestBody PedidoRequestDTO dto,
+                                                                      @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        PedidoResponseDTO novoPedido;
+        boolean repetido = false;
+        if (chaveIdempotencia != null) {
+            IdempotenciaService.ResultadoIdempotente resultado = idempotenciaService.criarPedido(chaveIdempotencia, dto);
+            novoPedido = resultado.pedido();
+            repetido = resultado.repetido();
+        } else {
+            novoPedido = pedidoService.criarPedido(dto);
+        }
 
         // Header Location
         URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
@@ -58,7 +83,79 @@ public class PedidoController {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        return ResponseEntity.created(uri).body(response);
+        return ResponseEntity.created(uri)
+                .header("Idempotent-Replayed", String.valueOf(repetido))
+                .body(response);
+    }
+
+    // POST /api/pedidos com "Prefer: respond-async" - Enfileira o pedido e responde 202 sem esperar a transação
+    @Operation(summary = "Cadastrar pedido de forma assíncrona", description = "Com o header Prefer: respond-async e a ingestão assíncrona habilitada, valida e enfileira o pedido, retornando o número para acompanhamento.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Pedido recebido e enfileirado"),
+            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos"),
+            @ApiResponse(responseCode = "503", description = "Fila de pedidos cheia")
+    })
+    @PostMapping(headers = "Prefer")
+    public ResponseEntity<?> criarAssincrono(@Valid @RequestBody PedidoRequestDTO dto, @RequestHeader("Prefer") String prefer,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        // Sem o modo habilitado a preferência é ignorada e o pedido segue o fluxo síncrono.
+        // Com Idempotency-Key também: a deduplicação precisa do resultado da criação.
+        if (!pedidoFilaService.isHabilitado() || !prefer.toLowerCase().contains("respond-async") || chaveIdempotencia != null) {
+            return criar(dto, chaveIdempotencia);
+        }
+
+        ProcessamentoPedidoDTO processamento = pedidoFilaService.enfileirar(dto);
+
+        URI uri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/pedidos/processamento/{numero}")
+                .buildAndExpand(processamento.getNumeroPedido())
+                .toUri();
+
+        ApiSucessResponse<ProcessamentoPedidoDTO> response = ApiSucessResponse.<ProcessamentoPedidoDTO>builder()
+                .sucesso(true)
+                .mensagem("Pedido recebido e aguardando processamento")
+                .dados(processamento)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.accepted().location(uri).body(response);
+    }
+
+    // GET /api/pedidos/processamento/{numero} - Acompanhar pedido enviado de forma assíncrona
+    @Operation(summary = "Consultar processamento de pedido", description = "Retorna a situação de um pedido enviado com Prefer: respond-async.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação do processamento"),
+            @ApiResponse(responseCode = "404", description = "Número de pedido desconhecido")
+    })
+    @GetMapping("/processamento/{numero}")
+    public ResponseEntity<ApiSucessResponse<ProcessamentoPedidoDTO>> consultarProcessamento(@PathVariable String numero) {
+        ProcessamentoPedidoDTO processamento = pedidoFilaService.consultar(numero);
+
+        return ResponseEntity.ok(ApiSucessResponse.<ProcessamentoPedidoDTO>builder()
+                .sucesso(true)
+                .mensagem("Situação do pedido: " + processamento.getSituacao())
+                .dados(processamento)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // POST /api/pedidos/lote - Ingestão em lote (parceiros/agregadores)
+    @Operation(summary = "Cadastrar pedidos em lote", description = "Valida e grava um lote de pedidos em uma única transação, retornando o resultado de cada pedido.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; consulte o resultado de cada pedido"),
+            @ApiResponse(responseCode = "422", description = "Lote vazio ou acima do tamanho máximo")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<ApiSucessResponse<List<ResultadoLotePedidoDTO>>> criarLote(@RequestBody List<PedidoRequestDTO> dtos) {
+        List<ResultadoLotePedidoDTO> resultados = pedidoService.criarPedidosEmLote(dtos);
+        long criados = resultados.stream().filter(ResultadoLotePedidoDTO::isSucesso).count();
+
+        return ResponseEntity.ok(ApiSucessResponse.<List<ResultadoLotePedidoDTO>>builder()
+                .sucesso(true)
+                .mensagem("Lote processado: " + criados + " de " + resultados.size() + " pedidos criados")
+                .dados(resultados)
+                .timestamp(LocalDateTime.now())
+                .build());
     }
 
     // GET /api/pedidos/{id} - Buscar pedido completo
@@ -79,6 +176,24 @@ public class PedidoController {
                 .build());
     }
 
+    // GET /api/pedidos/numero/{numero} - Buscar pedido pelo número
+    @Operation(summary = "Buscar pedido por número", description = "Localiza um pedido pelo número informado ao cliente.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedido encontrado com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Pedido não encontrado")
+    })
+    @GetMapping("/numero/{numero}")
+    public ResponseEntity<ApiSucessResponse<PedidoResponseDTO>> buscarPorNumero(@PathVariable String numero) {
+        PedidoResponseDTO pedido = pedidoService.buscarPedidoPorNumero(numero);
+
+        return ResponseEntity.ok(ApiSucessResponse.<PedidoResponseDTO>builder()
+                .sucesso(true)
+                .mensagem("Pedido localizado")
+                .dados(pedido)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
     // GET /api/pedidos - Listar com filtros (status, data)
     @Operation(summary = "Listar pedido", description = "Lista um novo pedido no sistema.")
     @ApiResponses(value = {
@@ -100,15 +215,40 @@ public class PedidoController {
                 .build());
     }
 
+    // GET /api/pedidos/cursor - Listar com filtros (status, data) paginando por cursor
+    @Operation(summary = "Listar pedidos por cursor", description = "Lista pedidos do mais recente ao mais antigo. Envie o nextCursor recebido para obter a página seguinte; não calcula o total de elementos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de pedidos"),
+            @ApiResponse(responseCode = "422", description = "Cursor ou tamanho de página inválido")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiSucessResponse<CursorResponse<PedidoResponseDTO>>> listarPorCursor(
+            @RequestParam(required = false) StatusPedidos status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime data,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int tamanho) {
+
+        CursorResponse<PedidoResponseDTO> pagina = pedidoService.listarComFiltrosPorCursor(status, data, cursor, tamanho);
+        return ResponseEntity.ok(ApiSucessResponse.<CursorResponse<PedidoResponseDTO>>builder()
+                .sucesso(true)
+                .mensagem("Consulta de pedidos realizada")
+                .dados(pagina)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
     // PATCH /api/pedidos/{id}/status - Atualizar status
     @Operation(summary = "Listar pedido por status", description = "Lista um novo pedido no sistema com filtros de status.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pedido encontrado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Pedido não encontrado")
+            @ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Pedido alterado por outra operação (versão divergente ou status já aplicado)"),
+            @ApiResponse(responseCode = "422", description = "Transição de status não permitida")
     })
     @PatchMapping("/{id}/status")
-    public ResponseEntity<ApiSucessResponse<PedidoResponseDTO>> atualizarStatus(@PathVariable Long id, @RequestParam StatusPedidos status) {
-        PedidoResponseDTO atualizado = pedidoService.atualizarStatusPedido(id, status);
+    public ResponseEntity<ApiSucessResponse<PedidoResponseDTO>> atualizarStatus(@PathVariable Long id, @RequestParam StatusPedidos status,
+                                                                                @RequestParam(required = false) Long versao) {
+        PedidoResponseDTO atualizado = pedidoService.atualizarStatusPedido(id, status, versao);
 
         return ResponseEntity.ok(ApiSucessResponse.<PedidoResponseDTO>builder()
                 .sucesso(true)
@@ -122,7 +262,9 @@ public class PedidoController {
     @Operation(summary = "Cancelar pedido", description = "Cancelar um pedido no sistema.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pedido cancelado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Pedido não encontrado")
+            @ApiResponse(responseCode = "404", description = "Pedido não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Pedido já cancelado"),
+            @ApiResponse(responseCode = "422", description = "Pedido não está PENDENTE")
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelar(@PathVariable Long id) {
@@ -167,6 +309,19 @@ public class PedidoController {
                 .build());
     }
 
+    // GET /api/pedidos/restaurantes/{restauranteId}/eventos - Feed SSE de pedidos do restaurante (substitui o polling)
+    @Operation(summary = "Acompanhar pedidos do restaurante em tempo real", description = "Stream text/event-stream com os eventos pedido-criado e pedido-status. Reconexões com Last-Event-ID recebem os eventos perdidos; o evento ressincronizar indica que a lista deve ser recarregada.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de eventos aberto"),
+            @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+    })
+    @GetMapping(value = "/restaurantes/{restauranteId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('RESTAURANTE')")
+    public SseEmitter eventosPorRestaurante(@PathVariable Long restauranteId,
+                                            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return pedidoEventosService.assinar(restauranteId, ultimoEventoId);
+    }
+
     // POST /api/pedidos/calcular - calculo total sem salvar (Simulação)
     @Operation(summary = "Calcular total por pedido", description = "Taxa de cálculo total por pedido no sistema.")
     @ApiResponses(value = {
@@ -3,11 +3,13 @@ package com.deliverytech.delivery_api.controller;
 import com.deliverytech.delivery_api.dto.request.ProdutoRequestDTO;
 import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
 import com.deliverytech.delivery_api.dto.response.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.service.CatalogoCacheService;
 import com.deliverytech.delivery_api.service.ProdutoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,9 +25,14 @@ import java.util.List;
 public class ProdutoController {
 
     private final ProdutoService produtoService;
+    private final CatalogoCacheService catalogoCacheService;
+    private final RespostaCatalogo respostaCatalogo;
 
-    public ProdutoController(ProdutoService produtoService) {
+    public ProdutoController(ProdutoService produtoService, CatalogoCacheService catalogoCacheService,
+                             RespostaCatalogo respostaCatalogo) {
         this.produtoService = produtoService;
+        this.catalogoCacheService = catalogoCacheService;
+        this.respostaCatalogo = respostaCatalogo;
     }
 
     // POST /api/produtos
@@ -113,22 +120,19 @@ public class ProdutoController {
         return ResponseEntity.noContent().build();
     }
 
-    // GET /api/restaurantes/{restauranteId}/produtos
-    @Operation(summary = "Produtos por restaurante", description = "Busca produtos no sistema por restaurante.")
+    // GET /api/restaurantes/{restauranteId}/produtos - Cardápio; ETag da versão do restaurante
+    @Operation(summary = "Produtos por restaurante", description = "Busca produtos no sistema por restaurante. Responde 304 quando o If-None-Match corresponde à versão atual do cardápio.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto por restaurante com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Cardápio não modificado desde a versão informada"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado")
     })
     @GetMapping("/restaurantes/{restauranteId}/produtos")
-    public ResponseEntity<ApiSucessResponse<List<ProdutoResponseDTO>>> listarPorRestaurante(@PathVariable Long restauranteId) {
-        List<ProdutoResponseDTO> produtos = produtoService.buscarProdutosPorRestaurante(restauranteId);
-
-        return ResponseEntity.ok(ApiSucessResponse.<List<ProdutoResponseDTO>>builder()
-                .sucesso(true)
-                .mensagem("Produtos do restaurante " + restauranteId)
-                .dados(produtos)
-                .timestamp(LocalDateTime.now())
-                .build());
+    public ResponseEntity<ApiSucessResponse<List<ProdutoResponseDTO>>> listarPorRestaurante(@PathVariable Long restauranteId,
+                                                                                          HttpServletRequest request) {
+        return respostaCatalogo.responder(request, catalogoCacheService.versaoDoRestaurante(restauranteId),
+                "Produtos do restaurante " + restauranteId,
+                () -> produtoService.buscarProdutosPorRestaurante(restauranteId));
     }
 
     // GET /api/produtos/categoria/{categoria}
@@ -149,15 +153,19 @@ public class ProdutoController {
                 .build());
     }
 
-    // GET /api/produtos/buscar?nome={nome}
-    @Operation(summary = "Buscar produtos", description = "Buscar um produto no sistema.")
+    // GET /api/produtos/buscar?nome={nome}&restauranteId=&disponivel=&limite= - Mais relevantes primeiro
+    @Operation(summary = "Buscar produtos", description = "Busca produtos por nome, descrição e categoria, ignorando acentos e maiúsculas, com prefixos e tolerância a erros de digitação. Filtros opcionais por restaurante e disponibilidade; retorna os mais relevantes até o limite.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto ecnontrado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+            @ApiResponse(responseCode = "422", description = "Termo da busca ausente ou limite inválido")
     })
     @GetMapping("/buscar")
-    public ResponseEntity<ApiSucessResponse<List<ProdutoResponseDTO>>> buscarPorNome(@RequestParam String nome) {
-        List<ProdutoResponseDTO> produtos = produtoService.buscarProdutosPorNome(nome);
+    public ResponseEntity<ApiSucessResponse<List<ProdutoResponseDTO>>> buscarPorNome(
+            @RequestParam String nome,
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(required = false) Boolean disponivel,
+            @RequestParam(defaultValue = "20") int limite) {
+        List<ProdutoResponseDTO> produtos = produtoService.buscarProdutosPorNome(nome, restauranteId, disponivel, limite);
 
         return ResponseEntity.ok(ApiSucessResponse.<List<ProdutoResponseDTO>>builder()
                 .sucesso(true)
@@ -1,19 +1,50 @@
 package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
+import com.deliverytech.delivery_api.dto.request.RelatorioJobRequestDTO;
 import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
+import com.deliverytech.delivery_api.dto.response.ClientesDistintosDTO;
+import com.deliverytech.delivery_api.dto.response.CompactacaoRollupDTO;
 import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.RankingDTO;
+import com.deliverytech.delivery_api.dto.response.ReconstrucaoVendasDTO;
+import com.deliverytech.delivery_api.dto.response.RelatorioJobDTO;
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.FormatoExportacao;
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import com.deliverytech.delivery_api.enums.PeriodoClientes;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.service.ClientesDistintosService;
+import com.deliverytech.delivery_api.service.RelatorioCacheService;
+import com.deliverytech.delivery_api.service.RelatorioCacheService.Resultado;
+import com.deliverytech.delivery_api.service.RelatorioJobService;
 import com.deliverytech.delivery_api.service.RelatorioService;
+import com.deliverytech.delivery_api.service.RollupService;
+import com.deliverytech.delivery_api.service.VendasRestauranteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,9 +55,21 @@ import java.util.List;
 public class RelatorioController {
 
     private final RelatorioService relatorioService;
+    private final RelatorioCacheService relatorioCacheService;
+    private final VendasRestauranteService vendasRestauranteService;
+    private final RollupService rollupService;
+    private final RelatorioJobService relatorioJobService;
+    private final ClientesDistintosService clientesDistintosService;
 
-    public RelatorioController(RelatorioService relatorioService) {
+    public RelatorioController(RelatorioService relatorioService, RelatorioCacheService relatorioCacheService,
+                               VendasRestauranteService vendasRestauranteService, RollupService rollupService, RelatorioJobService relatorioJobService,
+                               ClientesDistintosService clientesDistintosService) {
         this.relatorioService = relatorioService;
+        this.relatorioCacheService = relatorioCacheService;
+        this.vendasRestauranteService = vendasRestauranteService;
+        this.rollupService = rollupService;
+        this.relatorioJobService = relatorioJobService;
+        this.clientesDistintosService = clientesDistintosService;
     }
 
     // GET /api/relatorios/vendas-por-restaurante
@@ -37,47 +80,223 @@ public class RelatorioController {
     })
     @GetMapping("/vendas-por-restaurante")
     public ResponseEntity<ApiSucessResponse<List<TotalVendasPorRestauranteDTO>>> getVendasPorRestaurante() {
-        List<TotalVendasPorRestauranteDTO> dados = relatorioService.totalVendasPorRestaurante();
+        Resultado<List<TotalVendasPorRestauranteDTO>> resultado = relatorioCacheService.totalVendasPorRestaurante();
 
-        return ResponseEntity.ok(ApiSucessResponse.<List<TotalVendasPorRestauranteDTO>>builder()
+        return respostaEmCache(resultado).body(ApiSucessResponse.<List<TotalVendasPorRestauranteDTO>>builder()
                 .sucesso(true)
                 .mensagem("Relatório de vendas gerado com sucesso")
+                .dados(resultado.dados())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // POST /api/relatorios/vendas-por-restaurante/reconstruir
+    @Operation(summary = "Reconstruir agregado de vendas", description = "Recalcula as vendas por restaurante a partir dos pedidos e informa os restaurantes cujo agregado divergia.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Agregado recalculado e verificado"),
+            @ApiResponse(responseCode = "403", description = "Operação restrita a administradores")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/vendas-por-restaurante/reconstruir")
+    public ResponseEntity<ApiSucessResponse<ReconstrucaoVendasDTO>> reconstruirVendasPorRestaurante() {
+        ReconstrucaoVendasDTO dados = vendasRestauranteService.reconstruir();
+        relatorioCacheService.invalidarTudo();
+
+        return ResponseEntity.ok(ApiSucessResponse.<ReconstrucaoVendasDTO>builder()
+                .sucesso(true)
+                .mensagem(dados.isConsistente() ? "Agregado de vendas consistente com os pedidos"
+                        : "Agregado de vendas corrigido para " + dados.getRestaurantesDivergentes().size() + " restaurante(s)")
+                .dados(dados)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/relatorios/vendas?inicio=...&fim=...&agrupamento=CATEGORIA&restauranteId=1&status=ENTREGUE
+    @Operation(summary = "Relatório de vendas por período", description = "Pedidos, unidades, receita e taxas de entrega em [inicio, fim), agrupados por restaurante, status, produto ou categoria. Horas e dias já compactados são lidos dos rollups e o restante dos pedidos, com o mesmo resultado da consulta direta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vendas do período calculadas com sucesso"),
+            @ApiResponse(responseCode = "422", description = "Período inválido")
+    })
+    @GetMapping("/vendas")
+    public ResponseEntity<ApiSucessResponse<List<VendasAgrupadasDTO>>> getVendasPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "RESTAURANTE") AgrupamentoVendas agrupamento,
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(required = false) StatusPedidos status) {
+        Resultado<List<VendasAgrupadasDTO>> resultado =
+                relatorioCacheService.vendasPorPeriodo(inicio, fim, agrupamento, restauranteId, status);
+
+        return respostaEmCache(resultado).body(ApiSucessResponse.<List<VendasAgrupadasDTO>>builder()
+                .sucesso(true)
+                .mensagem(String.format("Vendas por %s entre %s e %s", agrupamento, inicio, fim))
+                .dados(resultado.dados())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // POST /api/relatorios/vendas/compactar
+    @Operation(summary = "Compactar rollups de vendas", description = "Executa agora a compactação das horas encerradas, normalmente feita pelo job agendado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollups compactados até a hora informada"),
+            @ApiResponse(responseCode = "403", description = "Operação restrita a administradores")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/vendas/compactar")
+    public ResponseEntity<ApiSucessResponse<CompactacaoRollupDTO>> compactarRollups() {
+        CompactacaoRollupDTO dados = new CompactacaoRollupDTO(rollupService.compactar());
+
+        return ResponseEntity.ok(ApiSucessResponse.<CompactacaoRollupDTO>builder()
+                .sucesso(true)
+                .mensagem("Rollups de vendas compactados até " + dados.getCompactadoAte())
+                .dados(dados)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // POST /api/relatorios/jobs - Agenda o relatório de vendas e responde 202 sem esperar o cálculo
+    @Operation(summary = "Agendar relatório de vendas", description = "Recebe a definição do relatório de vendas por período e o calcula em segundo plano, em partes processadas em paralelo. Cada usuário pode ter um número limitado de relatórios em andamento.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Relatório agendado"),
+            @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos"),
+            @ApiResponse(responseCode = "422", description = "Período inválido"),
+            @ApiResponse(responseCode = "429", description = "Limite de relatórios em andamento do usuário atingido")
+    })
+    @PostMapping("/jobs")
+    public ResponseEntity<ApiSucessResponse<RelatorioJobDTO>> agendarRelatorio(@Valid @RequestBody RelatorioJobRequestDTO dto) {
+        RelatorioJobDTO job = relatorioJobService.submeter(dto);
+
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+
+        return ResponseEntity.accepted().location(uri).body(ApiSucessResponse.<RelatorioJobDTO>builder()
+                .sucesso(true)
+                .mensagem("Relatório agendado")
+                .dados(job)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/relatorios/jobs/{id} - Situação e progresso do relatório agendado
+    @Operation(summary = "Consultar relatório agendado", description = "Retorna a situação do relatório e quantas partes do período já foram calculadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação do relatório"),
+            @ApiResponse(responseCode = "404", description = "Relatório não encontrado")
+    })
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ApiSucessResponse<RelatorioJobDTO>> consultarRelatorio(@PathVariable String id) {
+        RelatorioJobDTO job = relatorioJobService.consultar(id);
+
+        return ResponseEntity.ok(ApiSucessResponse.<RelatorioJobDTO>builder()
+                .sucesso(true)
+                .mensagem("Situação do relatório: " + job.getSituacao())
+                .dados(job)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/relatorios/jobs/{id}/resultado - Vendas calculadas pelo relatório concluído
+    @Operation(summary = "Baixar resultado do relatório agendado", description = "Retorna as vendas do período, agrupadas como na definição, quando o relatório está concluído.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado do relatório"),
+            @ApiResponse(responseCode = "404", description = "Relatório não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Relatório ainda não concluído")
+    })
+    @GetMapping("/jobs/{id}/resultado")
+    public ResponseEntity<ApiSucessResponse<List<VendasAgrupadasDTO>>> resultadoRelatorio(@PathVariable String id) {
+        List<VendasAgrupadasDTO> dados = relatorioJobService.resultado(id);
+
+        return ResponseEntity.ok(ApiSucessResponse.<List<VendasAgrupadasDTO>>builder()
+                .sucesso(true)
+                .mensagem("Resultado do relatório " + id)
                 .dados(dados)
                 .timestamp(LocalDateTime.now())
                 .build());
     }
 
-    // GET /api/relatorios/produtos-mais-vendidos
-    @Operation(summary = "Relatório de produtos mais vendidos", description = "Buscar um relatório de produtos mais vendidosno sistema.")
+    // DELETE /api/relatorios/jobs/{id} - Cancela o relatório agendado
+    @Operation(summary = "Cancelar relatório agendado", description = "Interrompe o cálculo do relatório; partes ainda não iniciadas não chegam a consultar o banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório cancelado"),
+            @ApiResponse(responseCode = "404", description = "Relatório não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Relatório já finalizado")
+    })
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<ApiSucessResponse<RelatorioJobDTO>> cancelarRelatorio(@PathVariable String id) {
+        RelatorioJobDTO job = relatorioJobService.cancelar(id);
+
+        return ResponseEntity.ok(ApiSucessResponse.<RelatorioJobDTO>builder()
+                .sucesso(true)
+                .mensagem("Relatório cancelado")
+                .dados(job)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/relatorios/produtos-mais-vendidos?limite=10&restauranteId=1&janela=HORA&exato=false
+    @Operation(summary = "Relatório de produtos mais vendidos", description = "Ranking de produtos por quantidade vendida, no geral ou de um restaurante, na última hora (HORA), no último dia (DIA) ou no total (TOTAL). Por padrão é estimado em memória, com o erro de cada item informado; exato=true calcula no banco.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Relatório de produtos mais vendidos encontrado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Relatório de produtos mais vendidos não encontrado")
+            @ApiResponse(responseCode = "422", description = "Limite fora do intervalo permitido")
     })
     @GetMapping("/produtos-mais-vendidos")
-    public ResponseEntity<ApiSucessResponse<List<?>>> getProdutosMaisVendidos() {
-        List<?> dados = relatorioService.produtosMaisVendidos();
+    public ResponseEntity<ApiSucessResponse<RankingDTO>> getProdutosMaisVendidos(
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(defaultValue = "TOTAL") JanelaRanking janela,
+            @RequestParam(defaultValue = "false") boolean exato) {
+        Resultado<RankingDTO> resultado = relatorioCacheService.produtosMaisVendidos(restauranteId, janela, limite, exato);
 
-        return ResponseEntity.ok(ApiSucessResponse.<List<?>>builder()
+        return respostaEmCache(resultado).body(ApiSucessResponse.<RankingDTO>builder()
                 .sucesso(true)
                 .mensagem("Ranking de produtos mais vendidos")
-                .dados(dados)
+                .dados(resultado.dados())
                 .timestamp(LocalDateTime.now())
                 .build());
     }
 
-    // GET /api/relatorios/clientes-ativos
-    @Operation(summary = "Relatório de clientes ativos", description = "Buscar um relatório de clientes ativos no sistema.")
+    // GET /api/relatorios/clientes-ativos?limite=10&restauranteId=1&janela=DIA&exato=false
+    @Operation(summary = "Relatório de clientes ativos", description = "Ranking de clientes por número de pedidos, no geral ou de um restaurante, na última hora (HORA), no último dia (DIA) ou no total (TOTAL). Por padrão é estimado em memória, com o erro de cada item informado; exato=true calcula no banco.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Relatório de clientes ativos encontrado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Relatório de clientes ativos não encontrado")
+            @ApiResponse(responseCode = "422", description = "Limite fora do intervalo permitido")
     })
     @GetMapping("/clientes-ativos")
-    public ResponseEntity<ApiSucessResponse<List<?>>> getClientesAtivos() {
-        List<?> dados = relatorioService.clientesMaisAtivos();
+    public ResponseEntity<ApiSucessResponse<RankingDTO>> getClientesAtivos(
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(defaultValue = "TOTAL") JanelaRanking janela,
+            @RequestParam(defaultValue = "false") boolean exato) {
+        Resultado<RankingDTO> resultado = relatorioCacheService.clientesMaisAtivos(restauranteId, janela, limite, exato);
 
-        return ResponseEntity.ok(ApiSucessResponse.<List<?>>builder()
+        return respostaEmCache(resultado).body(ApiSucessResponse.<RankingDTO>builder()
                 .sucesso(true)
                 .mensagem("Relatório de clientes mais ativos recuperado")
+                .dados(resultado.dados())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/relatorios/clientes-distintos?inicio=2025-01-01&fim=2025-04-01&periodo=MES&restauranteId=1&exato=false
+    @Operation(summary = "Relatório de clientes distintos", description = "Clientes únicos que fizeram pedidos em [inicio, fim), no total e por dia, semana ou mês, de um restaurante ou de todos. Por padrão é estimado por sketches HyperLogLog diários, com erro padrão relativo de 1,6% (95% das estimativas a até 3,3% do valor real; abaixo de ~10 mil clientes o erro é bem menor); exato=true conta nos pedidos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clientes distintos calculados com sucesso"),
+            @ApiResponse(responseCode = "422", description = "Intervalo inválido ou maior que 366 dias")
+    })
+    @GetMapping("/clientes-distintos")
+    public ResponseEntity<ApiSucessResponse<ClientesDistintosDTO>> getClientesDistintos(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(defaultValue = "DIA") PeriodoClientes periodo,
+            @RequestParam(required = false) Long restauranteId,
+            @RequestParam(defaultValue = "false") boolean exato) {
+        ClientesDistintosDTO dados = clientesDistintosService.clientesDistintos(restauranteId, inicio, fim, periodo, exato);
+
+        return ResponseEntity.ok(ApiSucessResponse.<ClientesDistintosDTO>builder()
+                .sucesso(true)
+                .mensagem(String.format("Clientes distintos por %s entre %s e %s", periodo, inicio, fim))
                 .dados(dados)
                 .timestamp(LocalDateTime.now())
                 .build());
@@ -94,13 +313,54 @@ public class RelatorioController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
 
-        List<PedidoResponseDTO> dados = relatorioService.pedidosPorPeriodo(inicio, fim);
+        Resultado<List<PedidoResponseDTO>> resultado = relatorioCacheService.pedidosPorPeriodo(inicio, fim);
 
-        return ResponseEntity.ok(ApiSucessResponse.<List<PedidoResponseDTO>>builder()
+        return respostaEmCache(resultado).body(ApiSucessResponse.<List<PedidoResponseDTO>>builder()
                 .sucesso(true)
                 .mensagem(String.format("Pedidos encontrados entre %s e %s", inicio, fim))
-                .dados(dados)
+                .dados(resultado.dados())
                 .timestamp(LocalDateTime.now())
                 .build());
     }
-}
\ No newline at end of file
+
+    // GET /api/relatorios/pedidos-por-periodo com Accept: application/x-ndjson
+    @Operation(summary = "Exportar pedidos por período em NDJSON", description = "Escreve um pedido (com itens) por linha diretamente na resposta, sem montar a lista inteira em memória.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedidos do período exportados em NDJSON")
+    })
+    @GetMapping(value = "/pedidos-por-periodo", produces = "application/x-ndjson")
+    public void exportarPedidosPorPeriodoNdjson(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            HttpServletResponse response) throws IOException {
+        exportarPedidosPorPeriodo(inicio, fim, FormatoExportacao.NDJSON, response);
+    }
+
+    // GET /api/relatorios/pedidos-por-periodo com Accept: text/csv
+    @Operation(summary = "Exportar pedidos por período em CSV", description = "Escreve um pedido por linha (sem itens) diretamente na resposta, como anexo CSV.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pedidos do período exportados em CSV")
+    })
+    @GetMapping(value = "/pedidos-por-periodo", produces = "text/csv")
+    public void exportarPedidosPorPeriodoCsv(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"pedidos.csv\"");
+        exportarPedidosPorPeriodo(inicio, fim, FormatoExportacao.CSV, response);
+    }
+
+    // Age: segundos desde o cálculo do relatório (0 se acabou de ser calculado); Last-Modified: o instante do cálculo
+    private ResponseEntity.BodyBuilder respostaEmCache(Resultado<?> resultado) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(resultado.idadeSegundos()))
+                .lastModified(resultado.calculadoEm());
+    }
+
+    private void exportarPedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato,
+                                           HttpServletResponse response) throws IOException {
+        response.setContentType(formato.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        relatorioService.exportarPedidosPorPeriodo(inicio, fim, formato, response.getOutputStream());
+    }
+}
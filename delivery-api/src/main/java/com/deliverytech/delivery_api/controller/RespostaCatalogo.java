@@ -0,0 +1,146 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
+import com.deliverytech.delivery_api.service.CardapioSnapshotService.Snapshot;
+import com.deliverytech.delivery_api.service.CatalogoCacheService.Versao;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+
+// Respostas condicionais das leituras do catálogo: a versão (ETag forte e Last-Modified) vem do
+// CatalogoCacheService e é conferida com If-None-Match / If-Modified-Since ANTES de buscar os dados, então um
+// 304 não consulta o banco nem serializa nada. Para a ETag ser forte o corpo de uma versão é sempre o mesmo:
+// o timestamp da resposta é o instante da versão, não o da requisição.
+@Component
+public class RespostaCatalogo {
+
+    private final String cacheControl;
+
+    public RespostaCatalogo(@Value("${delivery.catalogo.http.cache-control:no-cache}") String cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    // A versão deve ser lida antes dos dados: se mudar no meio, o cliente recebe o conteúdo novo com a ETag
+    // antiga e apenas o baixa de novo na próxima vez (o contrário serviria conteúdo antigo como atual)
+    public <T> ResponseEntity<ApiSucessResponse<T>> responder(HttpServletRequest request, Versao versao,
+                                                              String mensagem, Supplier<T> dados) {
+        if (naoModificado(request, versao)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(versao.etag())
+                    .lastModified(versao.alteradaEm())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(versao.etag())
+                .lastModified(versao.alteradaEm())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .body(ApiSucessResponse.<T>builder()
+                        .sucesso(true)
+                        .mensagem(mensagem)
+                        .dados(dados.get())
+                        .timestamp(LocalDateTime.ofInstant(versao.alteradaEm(), ZoneId.systemDefault()))
+                        .build());
+    }
+
+    // Corpo já serializado (snapshots do cardápio): gzip quando o Accept-Encoding aceita, sem passar pelo Jackson.
+    // Cada codificação é uma representação, com ETag própria (sufixo -gzip) e Vary: Accept-Encoding
+    public ResponseEntity<byte[]> responderSerializado(HttpServletRequest request, Versao versao,
+                                                       Supplier<Snapshot> snapshot) {
+        boolean gzip = aceitaGzip(request);
+        if (naoModificado(request, representacao(versao, gzip))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(representacao(versao, gzip).etag())
+                    .lastModified(versao.alteradaEm())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        // A versão do snapshot pode ser mais nova que a consultada acima: os cabeçalhos seguem o corpo
+        Snapshot atual = snapshot.get();
+        var resposta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(representacao(atual.versao(), gzip).etag())
+                .lastModified(atual.versao().alteradaEm())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(atual.gzip());
+        }
+        return resposta.body(atual.json());
+    }
+
+    private static Versao representacao(Versao versao, boolean gzip) {
+        if (!gzip) {
+            return versao;
+        }
+        String etag = versao.etag();
+        return new Versao(etag.substring(0, etag.length() - 1) + "-gzip\"", versao.alteradaEm());
+    }
+
+    // gzip (ou *) com qualidade diferente de zero
+    private static boolean aceitaGzip(HttpServletRequest request) {
+        for (String valor : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String codificacao : valor.split(",")) {
+                String[] partes = codificacao.split(";");
+                String nome = partes[0].trim();
+                if (!nome.equalsIgnoreCase("gzip") && !nome.equals("*")) {
+                    continue;
+                }
+                boolean recusada = false;
+                for (int i = 1; i < partes.length; i++) {
+                    String parametro = partes[i].trim();
+                    if (parametro.startsWith("q=")) {
+                        try {
+                            recusada = Double.parseDouble(parametro.substring(2)) <= 0;
+                        } catch (NumberFormatException e) {
+                            recusada = true;
+                        }
+                    }
+                }
+                if (!recusada) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // If-None-Match tem precedência; If-Modified-Since só vale sem ele (RFC 9110, 13.2.2)
+    private boolean naoModificado(HttpServletRequest request, Versao versao) {
+        var ifNoneMatch = Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH));
+        if (!ifNoneMatch.isEmpty()) {
+            for (String valor : ifNoneMatch) {
+                for (String etag : valor.split(",")) {
+                    String candidata = etag.trim();
+                    // Em If-None-Match a comparação é fraca: W/"x" também corresponde a "x"
+                    if (candidata.startsWith("W/")) {
+                        candidata = candidata.substring(2);
+                    }
+                    if (candidata.equals("*") || candidata.equals(versao.etag())) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            // Last-Modified tem precisão de segundos
+            return ifModifiedSince >= 0 && versao.alteradaEm().getEpochSecond() <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false; // data inválida: o cabeçalho é ignorado
+        }
+    }
+}
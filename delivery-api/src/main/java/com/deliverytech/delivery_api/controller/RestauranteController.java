@@ -1,14 +1,21 @@
 package com.deliverytech.delivery_api.controller;
 
 import com.deliverytech.delivery_api.dto.request.RestauranteRequestDTO;
+import com.deliverytech.delivery_api.dto.request.TaxaZonaRequestDTO;
 import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
 import com.deliverytech.delivery_api.dto.response.PagedResponse;
 import com.deliverytech.delivery_api.dto.response.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.dto.response.TaxaEntregaDTO;
+import com.deliverytech.delivery_api.dto.response.TaxaZonaResponseDTO;
+import com.deliverytech.delivery_api.service.CardapioSnapshotService;
+import com.deliverytech.delivery_api.service.CatalogoCacheService;
 import com.deliverytech.delivery_api.service.RestauranteService;
+import com.deliverytech.delivery_api.service.TaxaEntregaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,9 +33,19 @@ import java.util.List;
 public class RestauranteController {
 
     private final RestauranteService restauranteService;
+    private final TaxaEntregaService taxaEntregaService;
+    private final CatalogoCacheService catalogoCacheService;
+    private final CardapioSnapshotService cardapioSnapshotService;
+    private final RespostaCatalogo respostaCatalogo;
 
-    public RestauranteController(RestauranteService restauranteService) {
+    public RestauranteController(RestauranteService restauranteService, TaxaEntregaService taxaEntregaService,
+                                 CatalogoCacheService catalogoCacheService,
+                                 CardapioSnapshotService cardapioSnapshotService, RespostaCatalogo respostaCatalogo) {
         this.restauranteService = restauranteService;
+        this.taxaEntregaService = taxaEntregaService;
+        this.catalogoCacheService = catalogoCacheService;
+        this.cardapioSnapshotService = cardapioSnapshotService;
+        this.respostaCatalogo = respostaCatalogo;
     }
 
     // POST /api/restaurantes - Cadastrar restaurante
@@ -57,44 +74,50 @@ public class RestauranteController {
         return ResponseEntity.created(uri).body(response);
     }
 
-    // GET /api/restaurantes - Listar com filtros opcionais (categoria, ativo)
-    @Operation(summary = "Listar restaurantes", description = "Lista um novo restaurante no sistema com filtros opcionais.")
+    // GET /api/restaurantes - Listar com filtros opcionais (categoria, ativo); ETag da versão das listas
+    @Operation(summary = "Listar restaurantes", description = "Lista um novo restaurante no sistema com filtros opcionais. Responde 304 quando o If-None-Match corresponde à versão atual.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Restaurante encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Lista não modificada desde a versão informada"),
             @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
     })
     @GetMapping
     public ResponseEntity<ApiSucessResponse<PagedResponse<RestauranteResponseDTO>>> listar(
             @RequestParam(required = false) String categoria,
             @RequestParam(required = false) Boolean ativo,
-            @org.springframework.data.web.PageableDefault(size = 10) org.springframework.data.domain.Pageable pageable) {
+            @org.springframework.data.web.PageableDefault(size = 10) org.springframework.data.domain.Pageable pageable,
+            HttpServletRequest request) {
 
-        PagedResponse<RestauranteResponseDTO> pagedData = restauranteService.listarComFiltrosPaginado(categoria, ativo, pageable);
-
-        return ResponseEntity.ok(ApiSucessResponse.<PagedResponse<RestauranteResponseDTO>>builder()
-                .sucesso(true)
-                .mensagem("Busca realizada com sucesso")
-                .dados(pagedData)
-                .timestamp(LocalDateTime.now())
-                .build());
+        return respostaCatalogo.responder(request, catalogoCacheService.versaoDosRestaurantes(),
+                "Busca realizada com sucesso",
+                () -> restauranteService.listarComFiltrosPaginado(categoria, ativo, pageable));
     }
 
-    // GET /api/restaurantes/{id} - Buscar por ID
-    @Operation(summary = "Listar restaurantes por ID", description = "Lista um novo restaurante no sistema com filtros de ID.")
+    // GET /api/restaurantes/{id} - Buscar por ID; ETag da versão do restaurante
+    @Operation(summary = "Listar restaurantes por ID", description = "Lista um novo restaurante no sistema com filtros de ID. Responde 304 quando o If-None-Match corresponde à versão atual.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Restaurante encontrado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Restaurante não modificado desde a versão informada"),
             @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ApiSucessResponse<RestauranteResponseDTO>> buscarPorId(@PathVariable Long id) {
-        RestauranteResponseDTO restaurante = restauranteService.buscarRestaurantePorId(id);
+    public ResponseEntity<ApiSucessResponse<RestauranteResponseDTO>> buscarPorId(@PathVariable Long id, HttpServletRequest request) {
+        return respostaCatalogo.responder(request, catalogoCacheService.versaoDoRestaurante(id),
+                "Restaurante localizado",
+                () -> restauranteService.buscarRestaurantePorId(id));
+    }
 
-        return ResponseEntity.ok(ApiSucessResponse.<RestauranteResponseDTO>builder()
-                .sucesso(true)
-                .mensagem("Restaurante localizado")
-                .dados(restaurante)
-                .timestamp(LocalDateTime.now())
-                .build());
+    // GET /api/restaurantes/{id}/cardapio - Restaurante e produtos disponíveis, servidos do snapshot pré-serializado
+    @Operation(summary = "Cardápio do restaurante", description = "Retorna o restaurante e seus produtos disponíveis em uma única resposta, já serializada (e compactada em gzip quando o Accept-Encoding permite). Responde 304 quando o If-None-Match corresponde à versão atual do cardápio.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cardápio retornado com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Cardápio não modificado desde a versão informada"),
+            @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+    })
+    @GetMapping("/{id}/cardapio")
+    public ResponseEntity<byte[]> cardapio(@PathVariable Long id, HttpServletRequest request) {
+        return respostaCatalogo.responderSerializado(request, catalogoCacheService.versaoDoRestaurante(id),
+                () -> cardapioSnapshotService.cardapio(id));
     }
 
     // PUT /api/restaurantes/{id} - Atualizar restaurante completo
@@ -130,22 +153,18 @@ public class RestauranteController {
         return ResponseEntity.noContent().build();
     }
 
-    // GET /api/restaurantes/categoria/{categoria} - Busca direta por categoria na URL
+    // GET /api/restaurantes/categoria/{categoria} - Busca direta por categoria na URL; ETag da versão das listas
     @Operation(summary = "Buscar restaurantes por categoria", description = "Buscar um restaurante no sistema por categorias.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Restaurante encontrado com sucesso"),
             @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
     })
     @GetMapping("/categoria/{categoria}")
-    public ResponseEntity<ApiSucessResponse<List<RestauranteResponseDTO>>> buscarPorCategoria(@PathVariable String categoria) {
-        List<RestauranteResponseDTO> lista = restauranteService.buscarRestaurantesPorCategoria(categoria);
-
-        return ResponseEntity.ok(ApiSucessResponse.<List<RestauranteResponseDTO>>builder()
-                .sucesso(true)
-                .mensagem("Resultados para a categoria: " + categoria)
-                .dados(lista)
-                .timestamp(LocalDateTime.now())
-                .build());
+    public ResponseEntity<ApiSucessResponse<List<RestauranteResponseDTO>>> buscarPorCategoria(@PathVariable String categoria,
+                                                                                              HttpServletRequest request) {
+        return respostaCatalogo.responder(request, catalogoCacheService.versaoDosRestaurantes(),
+                "Resultados para a categoria: " + categoria,
+                () -> restauranteService.buscarRestaurantesPorCategoria(categoria));
     }
 
     // GET /api/restaurantes/{id}/taxa-entrega/{cep} - Calcular taxa dinâmica
@@ -166,15 +185,79 @@ public class RestauranteController {
                 .build());
     }
 
-    // GET /api/restaurantes/proximos/{cep} - Buscar por proximidade de CEP
-    @Operation(summary = "Buscar restaurantes por CEP", description = "Buscar um restaurante no sistema por CEP.")
+    // GET /api/restaurantes/taxa-entrega/{cep}?restaurantes=1,2,3 - Taxas de vários restaurantes para um CEP
+    @Operation(summary = "Cotar taxas de entrega para um CEP", description = "Taxa de entrega de cada restaurante informado (até 100) para o CEP, pela zona de entrega do CEP. Restaurantes inexistentes ou inativos ficam fora da resposta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Taxas calculadas com sucesso"),
+            @ApiResponse(responseCode = "422", description = "CEP inválido ou quantidade de restaurantes fora do limite")
+    })
+    @GetMapping("/taxa-entrega/{cep}")
+    public ResponseEntity<ApiSucessResponse<List<TaxaEntregaDTO>>> cotarTaxas(@PathVariable String cep,
+                                                                              @RequestParam List<Long> restaurantes) {
+        List<TaxaEntregaDTO> taxas = taxaEntregaService.cotar(cep, restaurantes);
+
+        return ResponseEntity.ok(ApiSucessResponse.<List<TaxaEntregaDTO>>builder()
+                .sucesso(true)
+                .mensagem("Taxas calculadas para o CEP: " + cep)
+                .dados(taxas)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/restaurantes/{id}/taxas-zona - Taxas próprias do restaurante por zona de entrega
+    @Operation(summary = "Listar taxas por zona", description = "Taxas que o restaurante cobra em zonas específicas, no lugar da taxa base mais o acréscimo da zona.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Taxas listadas com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Restaurante não encontrado")
+    })
+    @GetMapping("/{id}/taxas-zona")
+    public ResponseEntity<ApiSucessResponse<List<TaxaZonaResponseDTO>>> listarTaxasZona(@PathVariable Long id) {
+        List<TaxaZonaResponseDTO> taxas = taxaEntregaService.listarTaxasZona(id);
+
+        return ResponseEntity.ok(ApiSucessResponse.<List<TaxaZonaResponseDTO>>builder()
+                .sucesso(true)
+                .mensagem("Taxas por zona do restaurante")
+                .dados(taxas)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // PUT /api/restaurantes/{id}/taxas-zona - Substituir as taxas próprias por zona (lista vazia remove todas)
+    @Operation(summary = "Definir taxas por zona", description = "Substitui as taxas próprias do restaurante por zona de entrega.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Taxas atualizadas com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Restaurante ou zona não encontrados"),
+            @ApiResponse(responseCode = "422", description = "Taxa inválida ou zona repetida")
+    })
+    @PutMapping("/{id}/taxas-zona")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('RESTAURANTE') and @restauranteService.isOwner(#id))")
+    public ResponseEntity<ApiSucessResponse<List<TaxaZonaResponseDTO>>> definirTaxasZona(
+            @PathVariable Long id, @RequestBody List<TaxaZonaRequestDTO> dtos) {
+        List<TaxaZonaResponseDTO> taxas = taxaEntregaService.definirTaxasZona(id, dtos);
+
+        return ResponseEntity.ok(ApiSucessResponse.<List<TaxaZonaResponseDTO>>builder()
+                .sucesso(true)
+                .mensagem("Taxas por zona atualizadas")
+                .dados(taxas)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    // GET /api/restaurantes/proximos/{cep}?raioKm=5&limite=20 - Buscar por proximidade de CEP
+    @Operation(summary = "Buscar restaurantes por CEP", description = "Restaurantes ativos a até raioKm (máximo 50) do centro do CEP, ou da latitude/longitude informadas, ordenados pela distância (distanciaKm) e limitados aos limite mais próximos.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Restaurante/CEP encontrado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Restaurante/CEP não encontrado")
+            @ApiResponse(responseCode = "404", description = "Localização do CEP desconhecida"),
+            @ApiResponse(responseCode = "422", description = "CEP, raio, limite ou coordenadas inválidos")
     })
     @GetMapping("/proximos/{cep}")
-    public ResponseEntity<ApiSucessResponse<List<RestauranteResponseDTO>>> buscarProximos(@PathVariable String cep) {
-        List<RestauranteResponseDTO> lista = restauranteService.buscarRestaurantesProximos(cep);
+    public ResponseEntity<ApiSucessResponse<List<RestauranteResponseDTO>>> buscarProximos(
+            @PathVariable String cep,
+            @RequestParam(defaultValue = "5") double raioKm,
+            @RequestParam(defaultValue = "20") int limite,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude) {
+        List<RestauranteResponseDTO> lista = restauranteService.buscarRestaurantesProximos(cep, latitude, longitude, raioKm, limite);
 
         return ResponseEntity.ok(ApiSucessResponse.<List<RestauranteResponseDTO>>builder()
                 .sucesso(true)
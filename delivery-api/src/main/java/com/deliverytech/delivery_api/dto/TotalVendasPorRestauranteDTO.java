@@ -3,19 +3,38 @@ package com.deliverytech.delivery_api.dto;
 import java.math.BigDecimal;
 
 public class TotalVendasPorRestauranteDTO {
+    private Long restauranteId;
     private String restaurante;
+    private Long quantidadePedidos;
     private BigDecimal totalVendas;
+    private BigDecimal totalTaxasEntrega;
 
-    public TotalVendasPorRestauranteDTO(String restaurante, BigDecimal totalVendas) {
+    public TotalVendasPorRestauranteDTO(Long restauranteId, String restaurante, Long quantidadePedidos,
+                                        BigDecimal totalVendas, BigDecimal totalTaxasEntrega) {
+        this.restauranteId = restauranteId;
         this.restaurante = restaurante;
+        this.quantidadePedidos = quantidadePedidos;
         this.totalVendas = totalVendas;
+        this.totalTaxasEntrega = totalTaxasEntrega;
+    }
+
+    public Long getRestauranteId(){
+        return restauranteId;
     }
 
     public String getRestaurante(){
         return restaurante;
     }
 
+    public Long getQuantidadePedidos(){
+        return quantidadePedidos;
+    }
+
     public BigDecimal getTotalVendas(){
         return totalVendas;
     }
+
+    public BigDecimal getTotalTaxasEntrega(){
+        return totalTaxasEntrega;
+    }
 }
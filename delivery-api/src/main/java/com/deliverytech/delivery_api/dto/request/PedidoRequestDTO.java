@@ -1,7 +1,11 @@
 package com.deliverytech.delivery_api.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -25,8 +29,24 @@ public class PedidoRequestDTO {
     @Schema(example = "Rua das Flores, 123", description = "Endereço de entrega específico para este pedido")
     private String enderecoEntrega;
 
+    @DecimalMin(value = "-90.0", message = "A latitude deve estar entre -90 e 90")
+    @DecimalMax(value = "90.0", message = "A latitude deve estar entre -90 e 90")
+    @Schema(example = "-23.5587", description = "Latitude do endereço de entrega (opcional)")
+    private Double latitudeEntrega;
+
+    @DecimalMin(value = "-180.0", message = "A longitude deve estar entre -180 e 180")
+    @DecimalMax(value = "180.0", message = "A longitude deve estar entre -180 e 180")
+    @Schema(example = "-46.6347", description = "Longitude do endereço de entrega (opcional)")
+    private Double longitudeEntrega;
+
     @NotEmpty(message = "O pedido deve conter pelo menos um item")
     @Valid
     @Schema(description = "Lista de itens selecionados")
     private List<ItemPedidoRequestDTO> itens;
+
+    @JsonIgnore
+    @AssertTrue(message = "Latitude e longitude de entrega devem ser informadas juntas")
+    public boolean isCoordenadasCompletas() {
+        return (latitudeEntrega == null) == (longitudeEntrega == null);
+    }
 }
@@ -0,0 +1,32 @@
+package com.deliverytech.delivery_api.dto.request;
+
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+
+@Getter
+@Setter
+public class RelatorioJobRequestDTO {
+
+    @NotNull(message = "O início do período é obrigatório")
+    @Schema(example = "2025-01-01T00:00:00", description = "Início do período (inclusive)")
+    private LocalDateTime inicio;
+
+    @NotNull(message = "O fim do período é obrigatório")
+    @Schema(example = "2026-01-01T00:00:00", description = "Fim do período (exclusive)")
+    private LocalDateTime fim;
+
+    @Schema(example = "CATEGORIA", description = "Dimensão do relatório: RESTAURANTE, STATUS, PRODUTO ou CATEGORIA")
+    private AgrupamentoVendas agrupamento = AgrupamentoVendas.RESTAURANTE;
+
+    @Schema(example = "1", description = "Restringe o relatório a um restaurante (opcional)")
+    private Long restauranteId;
+
+    @Schema(example = "ENTREGUE", description = "Restringe o relatório a um status de pedido (opcional)")
+    private StatusPedidos status;
+}
@@ -1,6 +1,7 @@
 package com.deliverytech.delivery_api.dto.request;
 
 import com.deliverytech.delivery_api.validation.validTelefone.ValidTelefone;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
@@ -38,4 +39,20 @@ public class RestauranteRequestDTO {
     @NotNull(message = "O status de atividade deve ser informado")
     @Schema(example = "true", description = "Define se o restaurante aparece na listagem pública")
     private Boolean ativo;
+
+    @DecimalMin(value = "-90.0", message = "A latitude deve estar entre -90 e 90")
+    @DecimalMax(value = "90.0", message = "A latitude deve estar entre -90 e 90")
+    @Schema(example = "-23.5614", description = "Latitude do restaurante (opcional; sem coordenadas ele não aparece na busca por proximidade)")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "A longitude deve estar entre -180 e 180")
+    @DecimalMax(value = "180.0", message = "A longitude deve estar entre -180 e 180")
+    @Schema(example = "-46.6559", description = "Longitude do restaurante")
+    private Double longitude;
+
+    @JsonIgnore
+    @AssertTrue(message = "Latitude e longitude devem ser informadas juntas")
+    public boolean isCoordenadasCompletas() {
+        return (latitude == null) == (longitude == null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+
+@Getter
+@Setter
+public class TaxaZonaRequestDTO {
+
+    @NotNull(message = "A zona é obrigatória")
+    @Schema(example = "3", description = "ID da zona de entrega")
+    private Integer zonaId;
+
+    @NotNull(message = "A taxa é obrigatória")
+    @DecimalMin(value = "0.00", message = "A taxa de entrega não pode ser negativa")
+    @Schema(example = "4.90", description = "Taxa cobrada pelo restaurante nesta zona (substitui taxa base + acréscimo da zona)")
+    private BigDecimal taxa;
+}
@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+
+@Getter
+@AllArgsConstructor
+public class CardapioDTO {
+    private RestauranteResponseDTO restaurante;
+    private List<ProdutoResponseDTO> produtos; // Apenas os disponíveis
+}
@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import com.deliverytech.delivery_api.enums.PeriodoClientes;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+import java.util.List;
+
+
+@Getter
+@Setter
+public class ClientesDistintosDTO {
+    private Long restauranteId;        // Nulo: todos os restaurantes
+    private LocalDate inicio;
+    private LocalDate fim;             // Exclusive
+    private PeriodoClientes periodo;
+    private boolean exato;
+    private double erroPadrao;         // Erro padrão relativo das estimativas (zero na consulta exata)
+    private long clientesDistintos;    // No intervalo inteiro (um cliente de vários períodos conta uma vez)
+    private List<ClientesDistintosPeriodoDTO> periodos;
+}
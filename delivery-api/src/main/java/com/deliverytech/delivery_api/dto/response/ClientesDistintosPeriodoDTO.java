@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDate;
+
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class ClientesDistintosPeriodoDTO {
+    private LocalDate inicio;
+    private LocalDate fim; // Exclusive; os períodos das pontas são cortados pelo intervalo pedido
+    private long clientesDistintos;
+}
@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class CompactacaoRollupDTO {
+    private LocalDateTime compactadoAte; // Pedidos anteriores a este instante são lidos dos rollups
+}
@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.Data;
+import java.util.List;
+
+
+// Página de uma listagem por cursor: sem total de elementos, apenas o cursor da próxima página
+@Data
+public class CursorResponse<T> {
+    private List<T> conteudo;
+    private int tamanhoPagina;
+    private String nextCursor; // null na última página
+    private boolean ultima;
+
+    public CursorResponse(List<T> conteudo, int tamanhoPagina, String nextCursor) {
+        this.conteudo = conteudo;
+        this.tamanhoPagina = tamanhoPagina;
+        this.nextCursor = nextCursor;
+        this.ultima = nextCursor == null;
+    }
+}
@@ -15,9 +15,12 @@ public class PedidoResponseDTO {
     private String numeroPedido;
     private LocalDateTime dataPedido;
     private StatusPedidos status;
+    private Long versao;
     private BigDecimal taxaEntrega;
     private BigDecimal valorTotal;
     private String enderecoEntrega;
+    private Double latitudeEntrega;
+    private Double longitudeEntrega;
 
     // Dados resumidos
     private String nomeCliente;
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import com.deliverytech.delivery_api.enums.SituacaoProcessamento;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProcessamentoPedidoDTO {
+    private String numeroPedido;
+    private SituacaoProcessamento situacao;
+    private LocalDateTime recebidoEm;
+    private LocalDateTime concluidoEm;
+    private PedidoResponseDTO pedido; // Preenchido quando CONCLUIDO
+    private String erro; // Preenchido quando REJEITADO ou ERRO
+
+    public static ProcessamentoPedidoDTO naFila(String numeroPedido) {
+        ProcessamentoPedidoDTO dto = new ProcessamentoPedidoDTO();
+        dto.setNumeroPedido(numeroPedido);
+        dto.setSituacao(SituacaoProcessamento.NA_FILA);
+        dto.setRecebidoEm(LocalDateTime.now());
+        return dto;
+    }
+
+    // Cada transição gera uma nova instância: quem consulta nunca vê um estado pela metade
+    public ProcessamentoPedidoDTO avancar(SituacaoProcessamento situacao, PedidoResponseDTO pedido, String erro) {
+        ProcessamentoPedidoDTO dto = new ProcessamentoPedidoDTO();
+        dto.setNumeroPedido(numeroPedido);
+        dto.setSituacao(situacao);
+        dto.setRecebidoEm(recebidoEm);
+        dto.setPedido(pedido);
+        dto.setErro(erro);
+        if (situacao != SituacaoProcessamento.PROCESSANDO) {
+            dto.setConcluidoEm(LocalDateTime.now());
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+
+@Getter
+@Setter
+public class RankingDTO {
+    private JanelaRanking janela;
+    private Long restauranteId;
+    private boolean exato;
+    private long erroMaximo; // Nenhum total listado excede o real por mais que isso, nem um item fora da lista passa disso
+    private List<RankingItemDTO> itens;
+}
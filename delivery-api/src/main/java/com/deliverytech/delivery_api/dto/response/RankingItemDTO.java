@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class RankingItemDTO {
+    private Long id;
+    private String nome;
+    private Long total; // Quantidade vendida (produtos) ou nº de pedidos (clientes)
+    private Long erro;  // O valor real está entre total - erro e total (zero na consulta exata)
+}
@@ -0,0 +1,14 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.util.List;
+
+
+@Getter
+@Setter
+public class ReconstrucaoVendasDTO {
+    private int restaurantesVerificados;
+    private List<Long> restaurantesDivergentes; // Linhas do agregado que não batiam com os pedidos (já corrigidas)
+    private boolean consistente;
+}
@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.SituacaoRelatorio;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RelatorioJobDTO {
+    private String id;
+    private SituacaoRelatorio situacao;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private AgrupamentoVendas agrupamento;
+    private int partesConcluidas;
+    private int totalPartes;
+    private LocalDateTime criadoEm;
+    private LocalDateTime concluidoEm; // Preenchido quando CONCLUIDO, CANCELADO ou ERRO
+    private String erro;               // Preenchido quando ERRO
+}
@@ -1,5 +1,6 @@
 package com.deliverytech.delivery_api.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 import java.math.BigDecimal;
@@ -14,4 +15,10 @@ public class RestauranteResponseDTO {
     private String categoria;
     private BigDecimal taxaEntrega;
     private Boolean ativo;
+    private Double latitude;
+    private Double longitude;
+
+    // Só na busca por proximidade: distância em km da origem da busca
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanciaKm;
 }
\ No newline at end of file
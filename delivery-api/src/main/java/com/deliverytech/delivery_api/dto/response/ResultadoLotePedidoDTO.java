@@ -0,0 +1,32 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoLotePedidoDTO {
+    private int indice; // Posição do pedido no array enviado
+    private boolean sucesso;
+    private PedidoResponseDTO pedido;
+    private String erro;
+
+    public static ResultadoLotePedidoDTO sucesso(int indice, PedidoResponseDTO pedido) {
+        ResultadoLotePedidoDTO resultado = new ResultadoLotePedidoDTO();
+        resultado.setIndice(indice);
+        resultado.setSucesso(true);
+        resultado.setPedido(pedido);
+        return resultado;
+    }
+
+    public static ResultadoLotePedidoDTO falha(int indice, String erro) {
+        ResultadoLotePedidoDTO resultado = new ResultadoLotePedidoDTO();
+        resultado.setIndice(indice);
+        resultado.setSucesso(false);
+        resultado.setErro(erro);
+        return resultado;
+    }
+}
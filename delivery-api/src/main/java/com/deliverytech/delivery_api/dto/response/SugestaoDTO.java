@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import com.deliverytech.delivery_api.enums.TipoSugestao;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+@Getter
+@AllArgsConstructor
+public class SugestaoDTO {
+    private String texto; // Nome como cadastrado, para exibir e buscar
+    private TipoSugestao tipo;
+}
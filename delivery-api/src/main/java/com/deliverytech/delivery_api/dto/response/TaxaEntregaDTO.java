@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TaxaEntregaDTO {
+    private Long restauranteId;
+    private Integer zonaId; // Nulo: CEP fora das zonas de entrega cadastradas
+    private String zona;
+    private BigDecimal taxa;
+}
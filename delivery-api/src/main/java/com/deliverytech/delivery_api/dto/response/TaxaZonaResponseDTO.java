@@ -0,0 +1,16 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TaxaZonaResponseDTO {
+    private Integer zonaId;
+    private String zona;
+    private BigDecimal taxa;
+}
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.dto.response;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+
+@Getter
+@Setter
+public class VendasAgrupadasDTO {
+    private Long id;                  // Restaurante ou produto (nulo nos agrupamentos por status e categoria)
+    private String grupo;             // Nome do restaurante ou do produto, status ou categoria
+    private Long quantidadePedidos;   // Nulo nos agrupamentos por produto e categoria
+    private Long unidades;
+    private BigDecimal receita;       // Valor total dos pedidos, ou subtotal dos itens por produto e categoria
+    private BigDecimal taxasEntrega;  // Nulo nos agrupamentos por produto e categoria
+}
@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.enums;
+
+// Dimensão do relatório de vendas por período. RESTAURANTE e STATUS somam pedidos; PRODUTO e CATEGORIA somam itens.
+public enum AgrupamentoVendas {
+    RESTAURANTE,
+    STATUS,
+    PRODUTO,
+    CATEGORIA;
+
+    public boolean porItens() {
+        return this == PRODUTO || this == CATEGORIA;
+    }
+}
@@ -0,0 +1,17 @@
+package com.deliverytech.delivery_api.enums;
+
+// Formatos da exportação em streaming (uma linha por pedido, escrita direto na resposta)
+public enum FormatoExportacao {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    FormatoExportacao(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,35 @@
+package com.deliverytech.delivery_api.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Período somado em cada linha dos rollups de vendas
+public enum GranularidadeRollup {
+    HORA(ChronoUnit.HOURS),
+    DIA(ChronoUnit.DAYS);
+
+    private final ChronoUnit unidade;
+
+    GranularidadeRollup(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    // Início do período que contém o instante
+    public LocalDateTime truncar(LocalDateTime instante) {
+        return instante.truncatedTo(unidade);
+    }
+
+    // Início do primeiro período que começa no instante ou depois dele
+    public LocalDateTime teto(LocalDateTime instante) {
+        LocalDateTime inicio = truncar(instante);
+        return inicio.equals(instante) ? inicio : inicio.plus(1, unidade);
+    }
+
+    public LocalDateTime seguinte(LocalDateTime instante) {
+        return truncar(instante).plus(1, unidade);
+    }
+
+    public boolean alinhado(LocalDateTime instante) {
+        return truncar(instante).equals(instante);
+    }
+}
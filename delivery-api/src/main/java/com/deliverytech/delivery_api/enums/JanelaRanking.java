@@ -0,0 +1,26 @@
+package com.deliverytech.delivery_api.enums;
+
+import java.time.Duration;
+
+// Período considerado nos rankings de produtos e clientes (TOTAL: desde o início)
+public enum JanelaRanking {
+    HORA(Duration.ofHours(1), 12),
+    DIA(Duration.ofDays(1), 24),
+    TOTAL(null, 1);
+
+    private final Duration duracao;
+    private final int baldes; // divisões da janela no ranking em memória
+
+    JanelaRanking(Duration duracao, int baldes) {
+        this.duracao = duracao;
+        this.baldes = baldes;
+    }
+
+    public Duration getDuracao() {
+        return duracao;
+    }
+
+    public int getBaldes() {
+        return baldes;
+    }
+}
@@ -0,0 +1,30 @@
+package com.deliverytech.delivery_api.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// Divisão do relatório de clientes distintos: dia, semana (de segunda a domingo) ou mês do calendário
+public enum PeriodoClientes {
+    DIA,
+    SEMANA,
+    MES;
+
+    // Início do período que contém o dia
+    public LocalDate inicio(LocalDate dia) {
+        return switch (this) {
+            case DIA -> dia;
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> dia.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate seguinte(LocalDate dia) {
+        LocalDate inicio = inicio(dia);
+        return switch (this) {
+            case DIA -> inicio.plusDays(1);
+            case SEMANA -> inicio.plusWeeks(1);
+            case MES -> inicio.plusMonths(1);
+        };
+    }
+}
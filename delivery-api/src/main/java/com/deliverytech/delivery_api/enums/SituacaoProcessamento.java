@@ -0,0 +1,9 @@
+package com.deliverytech.delivery_api.enums;
+
+public enum SituacaoProcessamento {
+    NA_FILA,
+    PROCESSANDO,
+    CONCLUIDO,
+    REJEITADO,
+    ERRO
+}
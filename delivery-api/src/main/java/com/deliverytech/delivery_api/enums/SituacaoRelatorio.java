@@ -0,0 +1,13 @@
+package com.deliverytech.delivery_api.enums;
+
+public enum SituacaoRelatorio {
+    NA_FILA,
+    PROCESSANDO,
+    CONCLUIDO,
+    CANCELADO,
+    ERRO;
+
+    public boolean emAndamento() {
+        return this == NA_FILA || this == PROCESSANDO;
+    }
+}
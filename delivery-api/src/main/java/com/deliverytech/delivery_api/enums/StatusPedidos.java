@@ -1,8 +1,41 @@
 package com.deliverytech.delivery_api.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum StatusPedidos {
     PENDENTE,
     CONFIRMADO,
     ENTREGUE,
-    CANCELADO
+    CANCELADO;
+
+    // Tabela de transições: PENDENTE -> CONFIRMADO | CANCELADO, CONFIRMADO -> ENTREGUE.
+    // ENTREGUE e CANCELADO são finais.
+    private static final Map<StatusPedidos, Set<StatusPedidos>> ORIGENS = new EnumMap<>(StatusPedidos.class);
+
+    static {
+        for (StatusPedidos status : values()) {
+            ORIGENS.put(status, EnumSet.noneOf(StatusPedidos.class));
+        }
+        ORIGENS.get(CONFIRMADO).add(PENDENTE);
+        ORIGENS.get(CANCELADO).add(PENDENTE);
+        ORIGENS.get(ENTREGUE).add(CONFIRMADO);
+        ORIGENS.replaceAll((destino, origens) -> Collections.unmodifiableSet(origens));
+    }
+
+    // Status a partir dos quais é permitido chegar a este (usado no UPDATE ... WHERE status IN)
+    public Set<StatusPedidos> origensPermitidas() {
+        return ORIGENS.get(this);
+    }
+
+    public boolean podeMudarPara(StatusPedidos destino) {
+        return destino.origensPermitidas().contains(this);
+    }
+
+    public boolean isFinal() {
+        return this == ENTREGUE || this == CANCELADO;
+    }
 }
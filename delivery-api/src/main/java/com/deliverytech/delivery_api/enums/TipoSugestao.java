@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.enums;
+
+// Origem de uma sugestão da caixa de busca (GET /api/busca/sugestoes)
+public enum TipoSugestao {
+    PRODUTO,
+    RESTAURANTE,
+    CATEGORIA
+}
@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.event;
+
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.model.Pedido;
+import java.util.List;
+
+// Publicado pelo PedidoService na criação; entregue aos ouvintes somente após o commit
+public record PedidoCriadoEvent(Long restauranteId, Long clienteId, String nomeCliente,
+                                List<ProdutoVendido> produtos, PedidoResponseDTO pedido) {
+
+    public record ProdutoVendido(Long produtoId, String nome, int quantidade) {}
+
+    public static PedidoCriadoEvent de(Pedido pedido, PedidoResponseDTO resposta) {
+        List<ProdutoVendido> produtos = pedido.getItens().stream()
+                .map(item -> new ProdutoVendido(item.getProduto().getId(), item.getProduto().getNome(), item.getQuantidade()))
+                .toList();
+        return new PedidoCriadoEvent(pedido.getRestaurante().getId(), pedido.getCliente().getId(),
+                pedido.getCliente().getNome(), produtos, resposta);
+    }
+}
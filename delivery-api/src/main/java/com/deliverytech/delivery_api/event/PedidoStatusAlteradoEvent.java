@@ -0,0 +1,9 @@
+package com.deliverytech.delivery_api.event;
+
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import java.time.LocalDateTime;
+
+// Publicado pelo PedidoService a cada transição de status aplicada
+public record PedidoStatusAlteradoEvent(Long restauranteId, Long pedidoId, String numeroPedido,
+                                        StatusPedidos status, Long versao, LocalDateTime dataPedido) {
+}
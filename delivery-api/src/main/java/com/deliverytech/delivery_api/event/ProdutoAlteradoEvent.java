@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.event;
+
+import java.util.Set;
+
+// Publicado pelo ProdutoService a cada escrita de produto. Restaurantes e categorias incluem os valores
+// anteriores e os novos: um produto que troca de restaurante ou de categoria sai de uma lista e entra em outra
+public record ProdutoAlteradoEvent(Long produtoId, Set<Long> restauranteIds, Set<String> categorias) {
+}
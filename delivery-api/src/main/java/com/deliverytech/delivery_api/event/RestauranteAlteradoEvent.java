@@ -0,0 +1,6 @@
+package com.deliverytech.delivery_api.event;
+
+// Publicado pelo RestauranteService no cadastro, na atualização e na mudança de status, e pelo TaxaEntregaService
+// na troca das taxas por zona; os ouvintes releem o restaurante após o commit
+public record RestauranteAlteradoEvent(Long restauranteId) {
+}
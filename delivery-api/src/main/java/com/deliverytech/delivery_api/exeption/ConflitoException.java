@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.exeption;
+
+
+public class ConflitoException extends RuntimeException {
+    public ConflitoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.exeption;
+
+
+public class FilaCheiaException extends RuntimeException {
+    public FilaCheiaException(String message) {
+        super(message);
+    }
+}
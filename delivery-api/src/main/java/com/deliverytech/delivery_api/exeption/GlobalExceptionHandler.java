@@ -5,6 +5,8 @@ import com.deliverytech.delivery_api.health.DeliveryMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -45,6 +47,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
     }
 
+    // Trata ConflitoException e falhas de concorrência (@Version, locks) -> Retorna 409
+    @ExceptionHandler({ConflitoException.class, ConcurrencyFailureException.class})
+    public ResponseEntity<ApiErrorResponse> handleConflito(RuntimeException ex) {
+        String mensagem = ex instanceof ConflitoException
+                ? ex.getMessage()
+                : "O registro foi alterado por outra operação. Recarregue e tente novamente.";
+        ApiErrorResponse error = ApiErrorResponse.builder()
+                .status(HttpStatus.CONFLICT.value())
+                .mensagem(mensagem)
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // Trata FilaCheiaException -> Retorna 503 com Retry-After (backpressure da ingestão assíncrona)
+    @ExceptionHandler(FilaCheiaException.class)
+    public ResponseEntity<ApiErrorResponse> handleFilaCheia(FilaCheiaException ex) {
+        ApiErrorResponse error = ApiErrorResponse.builder()
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .mensagem(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    // Trata LimiteExcedidoException -> Retorna 429 (limite de relatórios em andamento por usuário)
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<ApiErrorResponse> handleLimiteExcedido(LimiteExcedidoException ex) {
+        ApiErrorResponse error = ApiErrorResponse.builder()
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .mensagem(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+    }
+
     // Trata erros de @Valid (ValidationException) -> Retorna 400
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiErrorResponse> handleValidation(MethodArgumentNotValidException ex) {
@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.exeption;
+
+
+public class LimiteExcedidoException extends RuntimeException {
+    public LimiteExcedidoException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,9 @@
 package com.deliverytech.delivery_api.health;
 
+import com.deliverytech.delivery_api.util.CacheExpiravel;
+import com.deliverytech.delivery_api.util.TrieSugestoes;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.http.ResponseEntity;
@@ -8,7 +11,9 @@ import org.springframework.stereotype.Component;
 import io.micrometer.core.instrument.Gauge;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Component
 public class DeliveryMetrics {
@@ -16,6 +21,8 @@ public class DeliveryMetrics {
     private final MeterRegistry registry;
     private final Counter pedidosSucesso;
     private final Counter pedidosErro;
+    private final Counter filaRejeicoes;
+    private final Timer filaEspera;
     private double usuariosAtivos = 0;
 
     public DeliveryMetrics(MeterRegistry registry) {
@@ -36,6 +43,76 @@ public class DeliveryMetrics {
         Gauge.builder("delivery_usuarios_ativos_total", () -> usuariosAtivos)
                 .description("Número de usuários com sessão ativa")
                 .register(registry);
+
+        // Fila de ingestão assíncrona: pedidos recusados por falta de espaço (backpressure)
+        this.filaRejeicoes = Counter.builder("delivery_pedidos_fila_rejeitados_total")
+                .description("Pedidos recusados com a fila assíncrona cheia")
+                .register(registry);
+
+        // Tempo entre o 202 Accepted e o início do processamento pelo worker
+        this.filaEspera = Timer.builder("delivery_pedidos_fila_espera_seconds")
+                .description("Tempo de espera dos pedidos na fila assíncrona")
+                .register(registry);
+    }
+
+    public void monitorarFila(Collection<?> fila) {
+        Gauge.builder("delivery_pedidos_fila_tamanho", fila, Collection::size)
+                .description("Pedidos aguardando processamento na fila assíncrona")
+                .register(registry);
+    }
+
+    // Acertos, faltas e colapsos (requisições que aguardaram um carregamento em andamento) de um CacheExpiravel
+    public void monitorarCache(String nome, CacheExpiravel<?, ?> cache) {
+        FunctionCounter.builder("delivery_cache_requisicoes_total", cache, CacheExpiravel::getAcertos)
+                .description("Consultas aos caches da aplicação por resultado")
+                .tag("cache", nome).tag("resultado", "acerto")
+                .register(registry);
+        FunctionCounter.builder("delivery_cache_requisicoes_total", cache, CacheExpiravel::getFaltas)
+                .tag("cache", nome).tag("resultado", "falta")
+                .register(registry);
+        FunctionCounter.builder("delivery_cache_requisicoes_total", cache, CacheExpiravel::getColapsos)
+                .tag("cache", nome).tag("resultado", "colapso")
+                .register(registry);
+        // Colapsos contam como acerto: a requisição não disparou um novo carregamento
+        Gauge.builder("delivery_cache_taxa_acerto", cache, c -> {
+                    long total = c.getAcertos() + c.getColapsos() + c.getFaltas();
+                    return total == 0 ? 0 : (double) (c.getAcertos() + c.getColapsos()) / total;
+                })
+                .description("Fração das consultas respondidas sem carregar o valor")
+                .tag("cache", nome)
+                .register(registry);
+        Gauge.builder("delivery_cache_entradas", cache, CacheExpiravel::tamanho)
+                .description("Entradas atualmente em cache")
+                .tag("cache", nome)
+                .register(registry);
+    }
+
+    // Tamanho da trie de sugestões da busca; a memória é estimada (ver TrieSugestoes.memoriaEstimada)
+    public void monitorarSugestoes(TrieSugestoes<?> trie) {
+        Gauge.builder("delivery_sugestoes_memoria", trie, TrieSugestoes::memoriaEstimada)
+                .description("Memória estimada da trie de sugestões da busca")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("delivery_sugestoes_termos", trie, TrieSugestoes::quantidadeTermos)
+                .description("Nomes e categorias disponíveis para sugestão")
+                .register(registry);
+        Gauge.builder("delivery_sugestoes_nos", trie, TrieSugestoes::quantidadeNos)
+                .description("Nós da trie de sugestões da busca")
+                .register(registry);
+    }
+
+    public void monitorarConexoesEventos(Supplier<Number> conexoes) {
+        Gauge.builder("delivery_pedidos_eventos_conexoes", conexoes)
+                .description("Conexões SSE abertas no feed de pedidos dos restaurantes")
+                .register(registry);
+    }
+
+    public void registrarRejeicaoFila() {
+        filaRejeicoes.increment();
+    }
+
+    public void registrarEsperaFila(long nanos) {
+        filaEspera.record(nanos, TimeUnit.NANOSECONDS);
     }
 
     public void registrarPedido(boolean sucesso) {
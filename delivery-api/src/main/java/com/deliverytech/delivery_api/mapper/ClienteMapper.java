@@ -0,0 +1,35 @@
+package com.deliverytech.delivery_api.mapper;
+
+import com.deliverytech.delivery_api.dto.request.ClienteRequestDTO;
+import com.deliverytech.delivery_api.dto.response.ClienteResponseDTO;
+import com.deliverytech.delivery_api.model.Cliente;
+import org.springframework.stereotype.Component;
+
+
+@Component
+public class ClienteMapper {
+
+    public Cliente paraEntidade(ClienteRequestDTO dto) {
+        Cliente cliente = new Cliente();
+        atualizar(dto, cliente);
+        return cliente;
+    }
+
+    public void atualizar(ClienteRequestDTO dto, Cliente cliente) {
+        cliente.setNome(dto.getNome());
+        cliente.setEmail(dto.getEmail());
+        cliente.setTelefone(dto.getTelefone());
+        cliente.setEndereco(dto.getEndereco());
+    }
+
+    public ClienteResponseDTO paraResposta(Cliente cliente) {
+        ClienteResponseDTO dto = new ClienteResponseDTO();
+        dto.setId(cliente.getId());
+        dto.setNome(cliente.getNome());
+        dto.setEmail(cliente.getEmail());
+        dto.setTelefone(cliente.getTelefone());
+        dto.setEndereco(cliente.getEndereco());
+        dto.setAtivo(cliente.isAtivo());
+        return dto;
+    }
+}
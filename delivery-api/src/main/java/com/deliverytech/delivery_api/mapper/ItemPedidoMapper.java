@@ -0,0 +1,21 @@
+package com.deliverytech.delivery_api.mapper;
+
+import com.deliverytech.delivery_api.dto.response.ItemPedidoResponseDTO;
+import com.deliverytech.delivery_api.model.ItemPedido;
+import com.deliverytech.delivery_api.model.Produto;
+import org.springframework.stereotype.Component;
+
+
+@Component
+public class ItemPedidoMapper {
+
+    public ItemPedidoResponseDTO paraResposta(ItemPedido item) {
+        ItemPedidoResponseDTO dto = new ItemPedidoResponseDTO();
+        Produto produto = item.getProduto();
+        dto.setNomeProduto(produto != null ? produto.getNome() : null);
+        dto.setQuantidade(item.getQuantidade());
+        dto.setPrecoUnitario(item.getPrecoUnitario());
+        dto.setSubtotal(item.getSubtotal());
+        return dto;
+    }
+}
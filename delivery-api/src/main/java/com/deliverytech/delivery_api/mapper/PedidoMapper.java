@@ -0,0 +1,53 @@
+package com.deliverytech.delivery_api.mapper;
+
+import com.deliverytech.delivery_api.dto.response.ItemPedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.ItemPedido;
+import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.Restaurante;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+
+// Conversões entidade <-> DTO feitas com getters/setters diretos, sem reflexão por requisição (substituem o ModelMapper).
+// Acessa cliente, restaurante e itens: quem chama garante que já foram carregados (ver PedidoRepository).
+@Component
+public class PedidoMapper {
+
+    private final ItemPedidoMapper itemPedidoMapper;
+
+    public PedidoMapper(ItemPedidoMapper itemPedidoMapper) {
+        this.itemPedidoMapper = itemPedidoMapper;
+    }
+
+    public PedidoResponseDTO paraResposta(Pedido pedido) {
+        PedidoResponseDTO dto = new PedidoResponseDTO();
+        dto.setId(pedido.getId());
+        dto.setNumeroPedido(pedido.getNumeroPedido());
+        dto.setDataPedido(pedido.getDataPedido());
+        dto.setStatus(pedido.getStatus());
+        dto.setVersao(pedido.getVersao());
+        dto.setTaxaEntrega(pedido.getTaxaEntrega());
+        dto.setValorTotal(pedido.getValorTotal());
+        dto.setEnderecoEntrega(pedido.getEnderecoEntrega());
+        dto.setLatitudeEntrega(pedido.getLatitudeEntrega());
+        dto.setLongitudeEntrega(pedido.getLongitudeEntrega());
+
+        Cliente cliente = pedido.getCliente();
+        dto.setNomeCliente(cliente != null ? cliente.getNome() : null);
+        Restaurante restaurante = pedido.getRestaurante();
+        dto.setNomeRestaurante(restaurante != null ? restaurante.getNome() : null);
+
+        List<ItemPedido> itens = pedido.getItens();
+        if (itens != null) {
+            List<ItemPedidoResponseDTO> itensDto = new ArrayList<>(itens.size());
+            for (ItemPedido item : itens) {
+                itensDto.add(itemPedidoMapper.paraResposta(item));
+            }
+            dto.setItens(itensDto);
+        }
+        return dto;
+    }
+}
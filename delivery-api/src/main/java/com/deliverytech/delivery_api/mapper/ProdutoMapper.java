@@ -0,0 +1,41 @@
+package com.deliverytech.delivery_api.mapper;
+
+import com.deliverytech.delivery_api.dto.request.ProdutoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import org.springframework.stereotype.Component;
+
+
+@Component
+public class ProdutoMapper {
+
+    public Produto paraEntidade(ProdutoRequestDTO dto) {
+        Produto produto = new Produto();
+        atualizar(dto, produto);
+        return produto;
+    }
+
+    // restauranteId não é copiado: o service resolve o restaurante pelo repository.
+    // (O ModelMapper o casava com id e restaurante.id, sobrescrevendo o ID do produto e do restaurante carregado.)
+    public void atualizar(ProdutoRequestDTO dto, Produto produto) {
+        produto.setNome(dto.getNome());
+        produto.setDescricao(dto.getDescricao());
+        produto.setPreco(dto.getPreco());
+        produto.setCategoria(dto.getCategoria());
+        produto.setDisponivel(dto.getDisponivel());
+    }
+
+    public ProdutoResponseDTO paraResposta(Produto produto) {
+        ProdutoResponseDTO dto = new ProdutoResponseDTO();
+        dto.setId(produto.getId());
+        dto.setNome(produto.getNome());
+        dto.setDescricao(produto.getDescricao());
+        dto.setPreco(produto.getPreco());
+        dto.setCategoria(produto.getCategoria());
+        dto.setDisponivel(produto.getDisponivel());
+        Restaurante restaurante = produto.getRestaurante();
+        dto.setNomeRestaurante(restaurante != null ? restaurante.getNome() : null);
+        return dto;
+    }
+}
@@ -0,0 +1,42 @@
+package com.deliverytech.delivery_api.mapper;
+
+import com.deliverytech.delivery_api.dto.request.RestauranteRequestDTO;
+import com.deliverytech.delivery_api.dto.response.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.model.Restaurante;
+import org.springframework.stereotype.Component;
+
+
+@Component
+public class RestauranteMapper {
+
+    public Restaurante paraEntidade(RestauranteRequestDTO dto) {
+        Restaurante restaurante = new Restaurante();
+        atualizar(dto, restaurante);
+        return restaurante;
+    }
+
+    // Atualização com PUT: todos os campos do DTO são copiados, inclusive os nulos (como fazia o ModelMapper)
+    public void atualizar(RestauranteRequestDTO dto, Restaurante restaurante) {
+        restaurante.setNome(dto.getNome());
+        restaurante.setEndereco(dto.getEndereco());
+        restaurante.setCategoria(dto.getCategoria());
+        restaurante.setTelefone(dto.getTelefone());
+        restaurante.setTaxaEntrega(dto.getTaxaEntrega());
+        restaurante.setAtivo(dto.getAtivo());
+        restaurante.setLatitude(dto.getLatitude());
+        restaurante.setLongitude(dto.getLongitude());
+    }
+
+    public RestauranteResponseDTO paraResposta(Restaurante restaurante) {
+        RestauranteResponseDTO dto = new RestauranteResponseDTO();
+        dto.setId(restaurante.getId());
+        dto.setNome(restaurante.getNome());
+        dto.setEndereco(restaurante.getEndereco());
+        dto.setCategoria(restaurante.getCategoria());
+        dto.setTaxaEntrega(restaurante.getTaxaEntrega());
+        dto.setAtivo(restaurante.getAtivo());
+        dto.setLatitude(restaurante.getLatitude());
+        dto.setLongitude(restaurante.getLongitude());
+        return dto;
+    }
+}
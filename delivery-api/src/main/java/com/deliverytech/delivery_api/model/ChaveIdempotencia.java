@@ -0,0 +1,37 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// Resultado gravado para uma Idempotency-Key; permite responder repetições mesmo após reiniciar a aplicação
+@Getter
+@Setter
+@Entity
+@Table(name = "chaves_idempotencia")
+public class ChaveIdempotencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 320)
+    private String chave;
+
+    @Column(name = "hash_requisicao", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    @Lob
+    @Column(nullable = false)
+    private String resposta;
+
+    @Column(name = "pedido_id")
+    private Long pedidoId;
+
+    @Column(name = "criada_em", nullable = false)
+    private LocalDateTime criadaEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,39 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Clientes distintos de um restaurante em um dia, como sketch HyperLogLog serializado (ver util.HyperLogLog)
+@Getter
+@Setter
+@Entity
+@Table(name = "clientes_distintos")
+@IdClass(ClientesDistintos.Chave.class)
+public class ClientesDistintos {
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    private LocalDate dia;
+
+    @Column(nullable = false, length = 4098)
+    private byte[] sketch;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+        private Long restauranteId;
+        private LocalDate dia;
+    }
+}
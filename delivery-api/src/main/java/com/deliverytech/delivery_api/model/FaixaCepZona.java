@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Faixa [cepInicio, cepFim] de CEPs (8 dígitos, como número) atendida por uma zona de entrega
+@Getter
+@Setter
+@Entity
+@Table(name = "faixas_cep_zona")
+public class FaixaCepZona {
+
+    @Id
+    @Column(name = "cep_inicio")
+    private Integer cepInicio;
+
+    @Column(name = "cep_fim", nullable = false)
+    private Integer cepFim;
+
+    @Column(name = "zona_id", nullable = false)
+    private Integer zonaId;
+}
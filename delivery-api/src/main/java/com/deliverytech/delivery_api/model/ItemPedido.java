@@ -12,7 +12,8 @@ import java.math.BigDecimal;
 @Table(name="itens_pedido")
 public class ItemPedido {
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "itens_pedido_seq")
+    @SequenceGenerator(name = "itens_pedido_seq", sequenceName = "itens_pedido_seq", allocationSize = 50)
     private Long id;
 
     private Integer quantidade;
@@ -0,0 +1,24 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// Centro aproximado de um prefixo de CEP (5 dígitos), carregado em resources/schema.sql
+@Getter
+@Setter
+@Entity
+@Table(name = "localizacoes_cep")
+public class LocalizacaoCep {
+
+    @Id
+    @Column(length = 5)
+    private String prefixo;
+
+    @Column(length = 100)
+    private String bairro;
+
+    private Double latitude;
+
+    private Double longitude;
+}
@@ -13,11 +13,14 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "pedidos")
+// Índices em resources/schema.sql
+@Table(name = "pedidos", uniqueConstraints = @UniqueConstraint(name = "uk_pedidos_numero", columnNames = "numero_Pedido"))
 public class Pedido {
 
+    // Sequence com alocação em blocos (pooled) para permitir INSERTs em lote via JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "data_pedido")
@@ -26,7 +29,14 @@ public class Pedido {
     @Column(name = "endereco_entrega")
     private String enderecoEntrega;
 
-    @Column(name = "numero_Pedido")
+    @Column(name = "latitude_entrega")
+    private Double latitudeEntrega;
+
+    @Column(name = "longitude_entrega")
+    private Double longitudeEntrega;
+
+    // Gerado pelo NumeroPedidoGenerator; o índice único é a última garantia contra duplicidade
+    @Column(name = "numero_Pedido", length = 13)
     private String numeroPedido;
 
     @Column(name = "taxa_entrega")
@@ -38,6 +48,10 @@ public class Pedido {
     @Enumerated(EnumType.STRING)
     private StatusPedidos status;
 
+    // Incrementada a cada transição de status; permite ao cliente detectar alterações concorrentes
+    @Version
+    private Long versao;
+
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id")
@@ -49,7 +63,7 @@ public class Pedido {
     private Restaurante restaurante;
 
     @JsonIgnore
-    @OneToMany(mappedBy = "pedido")
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.PERSIST)
     private List<ItemPedido> itens = new ArrayList<>();
 
 }
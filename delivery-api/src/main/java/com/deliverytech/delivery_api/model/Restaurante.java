@@ -33,6 +33,11 @@ public class Restaurante {
 
     private Boolean ativo;
 
+    // Coordenadas (graus decimais) usadas pelo índice de proximidade; sem elas o restaurante não aparece na busca
+    private Double latitude;
+
+    private Double longitude;
+
     @JsonIgnore
     @OneToMany(mappedBy = "restaurante", fetch = FetchType.LAZY)
     private List<Produto> produtos = new ArrayList<>();
@@ -0,0 +1,25 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// Marca d'água dos rollups de vendas (linha única, id 1): pedidos com data anterior a compactadoAte
+// já estão em rollup_pedidos e rollup_itens. Nula enquanto nada foi compactado.
+// reconciliarDesde: início das horas compactadas que a próxima execução ainda vai recalcular.
+@Getter
+@Setter
+@Entity
+@Table(name = "rollup_controle")
+public class RollupControle {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "compactado_ate")
+    private LocalDateTime compactadoAte;
+
+    @Column(name = "reconciliar_desde")
+    private LocalDateTime reconciliarDesde;
+}
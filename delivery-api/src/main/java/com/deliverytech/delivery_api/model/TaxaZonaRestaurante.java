@@ -0,0 +1,40 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Taxa própria de um restaurante para uma zona de entrega (substitui a taxa base mais o acréscimo da zona)
+@Getter
+@Setter
+@Entity
+@Table(name = "taxas_zona_restaurante")
+@IdClass(TaxaZonaRestaurante.Chave.class)
+public class TaxaZonaRestaurante {
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Id
+    @Column(name = "zona_id")
+    private Integer zonaId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal taxa;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Chave implements Serializable {
+        private Long restauranteId;
+        private Integer zonaId;
+    }
+}
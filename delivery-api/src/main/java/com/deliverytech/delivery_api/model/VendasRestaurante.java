@@ -0,0 +1,28 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+// Totais de vendas de um restaurante, mantidos na mesma transação que cria ou cancela cada pedido
+// (pedidos cancelados não entram). Reconstruível a partir de pedidos pelo VendasRestauranteService.
+@Getter
+@Setter
+@Entity
+@Table(name = "vendas_restaurante")
+public class VendasRestaurante {
+
+    @Id
+    @Column(name = "restaurante_id")
+    private Long restauranteId;
+
+    @Column(name = "quantidade_pedidos", nullable = false)
+    private long quantidadePedidos;
+
+    @Column(nullable = false)
+    private BigDecimal receita = BigDecimal.ZERO;
+
+    @Column(name = "taxas_entrega", nullable = false)
+    private BigDecimal taxasEntrega = BigDecimal.ZERO;
+}
@@ -0,0 +1,23 @@
+package com.deliverytech.delivery_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.math.BigDecimal;
+
+// Zona de entrega e o acréscimo somado à taxa base do restaurante, carregadas em resources/schema.sql
+@Getter
+@Setter
+@Entity
+@Table(name = "zonas_entrega")
+public class ZonaEntrega {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal acrescimo;
+}
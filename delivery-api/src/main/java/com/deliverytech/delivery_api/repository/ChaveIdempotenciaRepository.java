@@ -0,0 +1,19 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.model.ChaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, Long> {
+    Optional<ChaveIdempotencia> findByChave(String chave);
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.expiraEm < :agora")
+    int deleteExpiradas(@Param("agora") LocalDateTime agora);
+}
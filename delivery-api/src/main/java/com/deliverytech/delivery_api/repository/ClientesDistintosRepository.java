@@ -0,0 +1,51 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.model.ClientesDistintos;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClientesDistintosRepository extends JpaRepository<ClientesDistintos, ClientesDistintos.Chave> {
+
+    // Sketches de [inicio, fim) de um restaurante (chave primária) ou de todos (idx_clientes_distintos_dia)
+    @Query("SELECT c FROM ClientesDistintos c WHERE (:restauranteId IS NULL OR c.restauranteId = :restauranteId) " +
+            "AND c.dia >= :inicio AND c.dia < :fim")
+    List<ClientesDistintos> findNoPeriodo(@Param("restauranteId") Long restauranteId,
+                                          @Param("inicio") LocalDate inicio,
+                                          @Param("fim") LocalDate fim);
+
+    // Lido como valor (e não como entidade) e bloqueado: gravações de instâncias diferentes fazem a união em série
+    @Query(value = "SELECT sketch FROM clientes_distintos WHERE restaurante_id = :restauranteId AND dia = :dia FOR UPDATE",
+            nativeQuery = true)
+    Optional<byte[]> travarSketch(@Param("restauranteId") Long restauranteId, @Param("dia") LocalDate dia);
+
+    // Limpa o contexto de persistência: entidades lidas antes por findNoPeriodo não ficam com o sketch antigo
+    @Modifying(clearAutomatically = true)
+    @Query(value = "MERGE INTO clientes_distintos c " +
+            "USING (SELECT CAST(:restauranteId AS BIGINT) AS restaurante_id, CAST(:dia AS DATE) AS dia) d " +
+            "ON c.restaurante_id = d.restaurante_id AND c.dia = d.dia " +
+            "WHEN MATCHED THEN UPDATE SET sketch = :sketch " +
+            "WHEN NOT MATCHED THEN INSERT (restaurante_id, dia, sketch) VALUES (d.restaurante_id, d.dia, :sketch)",
+            nativeQuery = true)
+    int gravar(@Param("restauranteId") Long restauranteId, @Param("dia") LocalDate dia, @Param("sketch") byte[] sketch);
+
+    // Consulta exata (?exato=true): pares distintos (dia, cliente) lidos dos pedidos
+    @Query(value = "SELECT DISTINCT CAST(data_pedido AS DATE) AS dia, cliente_id AS clienteId FROM pedidos " +
+            "WHERE data_pedido >= :inicio AND data_pedido < :fim " +
+            "AND (CAST(:restauranteId AS BIGINT) IS NULL OR restaurante_id = :restauranteId)", nativeQuery = true)
+    List<ClienteNoDia> clientesPorDia(@Param("restauranteId") Long restauranteId,
+                                      @Param("inicio") LocalDateTime inicio,
+                                      @Param("fim") LocalDateTime fim);
+
+    interface ClienteNoDia {
+        LocalDate getDia();
+        Long getClienteId();
+    }
+}
@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.model.FaixaCepZona;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+
+public interface FaixaCepZonaRepository extends JpaRepository<FaixaCepZona, Integer> {
+}
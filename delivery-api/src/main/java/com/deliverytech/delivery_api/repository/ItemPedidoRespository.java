@@ -2,6 +2,7 @@ package com.deliverytech.delivery_api.repository;
 
 
 import com.deliverytech.delivery_api.model.ItemPedido;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +10,12 @@ import java.util.List;
 
 @Repository
 public interface ItemPedidoRespository extends JpaRepository<ItemPedido, Long> {
+    // O DTO de item exibe o nome do produto: carregado no mesmo SELECT (EntityGraph)
+    @Override
+    @EntityGraph(attributePaths = "produto")
+    List<ItemPedido> findAll();
+
+    @EntityGraph(attributePaths = "produto")
     List<ItemPedido> findByPedidoId(Long pedidoId);
     List<ItemPedido> findByProdutoId(Long produtoId);
 }
@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.model.LocalizacaoCep;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+
+public interface LocalizacaoCepRepository extends JpaRepository<LocalizacaoCep, String> {
+}
@@ -1,36 +1,90 @@
 package com.deliverytech.delivery_api.repository;
 
-import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
+import com.deliverytech.delivery_api.dto.response.RankingItemDTO;
 import com.deliverytech.delivery_api.enums.StatusPedidos;
 import com.deliverytech.delivery_api.model.Pedido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
-    List<Pedido> findByClienteId(Long clienteId);
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido> {
+
+    // Linhas trazidas do banco por ida na exportação (e tamanho do bloco processado antes de limpar a sessão)
+    int FETCH_SIZE_EXPORTACAO = 500;
+
     List<Pedido> findByStatus(StatusPedidos status);
     List<Pedido> findTop10ByOrderByDataPedidoDesc();
+
+    // Consultas das telas de pedido: cliente e restaurante vêm no mesmo SELECT (EntityGraph)
+    // e os itens de todos os pedidos retornados, em seguida, por carregarItens
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    List<Pedido> findByClienteId(Long clienteId);
+
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
     List<Pedido> findByRestauranteId(Long restauranteId);
 
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    Optional<Pedido> findByNumeroPedido(String numeroPedido);
 
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    Optional<Pedido> findDetalhadoById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
+    Page<Pedido> findAll(Specification<Pedido> spec, Pageable pageable);
+
+    // Inicializa os itens (já com o produto) dos pedidos informados em um único SELECT.
+    // Chamado na mesma transação que carregou os pedidos, preenche as coleções dessas mesmas instâncias;
+    // um JOIN FETCH da coleção na consulta paginada faria a paginação em memória.
+    @Query("SELECT p FROM Pedido p LEFT JOIN FETCH p.itens i LEFT JOIN FETCH i.produto WHERE p.id IN :ids")
+    List<Pedido> carregarItens(@Param("ids") Collection<Long> ids);
+
+
+    // Períodos são semiabertos [inicio, fim): dias consecutivos não compartilham a meia-noite
+    @EntityGraph(attributePaths = {"cliente", "restaurante"})
     @Query("""
             SELECT p FROM Pedido p
-            WHERE p.dataPedido  BETWEEN :inicio AND :fim
+            WHERE p.dataPedido >= :inicio AND p.dataPedido < :fim
     """)
     List<Pedido> findByDateTime(
             @Param("inicio") LocalDateTime inicio,
             @Param("fim") LocalDateTime fim
     );
 
+    // Exportação: cursor somente leitura percorrido pela ordem do idx_pedidos_data_id, sem materializar o período
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT p FROM Pedido p LEFT JOIN FETCH p.cliente LEFT JOIN FETCH p.restaurante
+            WHERE p.dataPedido >= :inicio AND p.dataPedido < :fim
+            ORDER BY p.dataPedido DESC, p.id DESC
+    """)
+    Stream<Pedido> streamByDateTime(
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim
+    );
+
     //Total de vendas (Soma dos valores) por restaurante
     @Query("SELECT SUM(p.valorTotal) FROM Pedido p WHERE p.restaurante.id = :restauranteId")
     BigDecimal sumTotalVendasByRestaurante(@Param("restauranteId") Long restauranteId);
@@ -40,29 +94,68 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     List<Pedido> findPedidosComValorMaiorQue(@Param("valorMinimo") BigDecimal valorMinimo);
 
     // Relatório por período e status
-    @Query("SELECT p FROM Pedido p WHERE p.status = :status AND p.dataPedido BETWEEN :inicio AND :fim")
-    List<Pedido> findByStatusAndDataPedidoBetween(
+    @Query("SELECT p FROM Pedido p WHERE p.status = :status AND p.dataPedido >= :inicio AND p.dataPedido < :fim")
+    List<Pedido> findByStatusNoPeriodo(
             @Param("status") StatusPedidos status,
             @Param("inicio") LocalDateTime inicio,
             @Param("fim") LocalDateTime fim
     );
 
-    @Query("SELECT p FROM Pedido p WHERE " +
-            "(:status IS NULL OR p.status = :status) AND " +
-            "(:data IS NULL OR CAST(p.dataPedido AS date) = CAST(:data AS date))")
-    Page<Pedido> findWithFilters(StatusPedidos status, LocalDateTime data, Pageable pageable);
+    // Rankings exatos (?exato=true): agregam todos os pedidos do filtro; o padrão é o RankingService em memória
+    @Query("""
+            SELECT new com.deliverytech.delivery_api.dto.response.RankingItemDTO(pr.id, pr.nome, SUM(i.quantidade), 0L)
+            FROM ItemPedido i JOIN i.produto pr JOIN i.pedido p
+            WHERE (:restauranteId IS NULL OR p.restaurante.id = :restauranteId)
+              AND (:desde IS NULL OR p.dataPedido >= :desde)
+            GROUP BY pr.id, pr.nome
+            ORDER BY SUM(i.quantidade) DESC, pr.id
+    """)
+    List<RankingItemDTO> rankingProdutos(@Param("restauranteId") Long restauranteId,
+                                         @Param("desde") LocalDateTime desde, Limit limite);
+
+    @Query("""
+            SELECT new com.deliverytech.delivery_api.dto.response.RankingItemDTO(c.id, c.nome, COUNT(p), 0L)
+            FROM Pedido p JOIN p.cliente c
+            WHERE (:restauranteId IS NULL OR p.restaurante.id = :restauranteId)
+              AND (:desde IS NULL OR p.dataPedido >= :desde)
+            GROUP BY c.id, c.nome
+            ORDER BY COUNT(p) DESC, c.id
+    """)
+    List<RankingItemDTO> rankingClientes(@Param("restauranteId") Long restauranteId,
+                                         @Param("desde") LocalDateTime desde, Limit limite);
+
+    // Transição de status em um único UPDATE condicional; retorna 0 se o pedido não existe,
+    // não está em um dos status de origem ou (quando informada) a versão não confere
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :novoStatus, p.versao = p.versao + 1 " +
+            "WHERE p.id = :id AND p.status IN :origens AND (:versao IS NULL OR p.versao = :versao)")
+    int atualizarStatus(@Param("id") Long id,
+                        @Param("novoStatus") StatusPedidos novoStatus,
+                        @Param("origens") Collection<StatusPedidos> origens,
+                        @Param("versao") Long versao);
+
+    @Query("SELECT p.status AS status, p.versao AS versao, p.numeroPedido AS numeroPedido, p.restaurante.id AS restauranteId, " +
+            "p.dataPedido AS dataPedido FROM Pedido p WHERE p.id = :id")
+    Optional<SituacaoPedido> findSituacaoById(@Param("id") Long id);
 
-    // Exemplo de como devem ser as assinaturas no PedidoRepository
-    @Query("SELECT new com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO(p.restaurante.nome, SUM(p.valorTotal)) " +
-            "FROM Pedido p GROUP BY p.restaurante.nome")
-    List<TotalVendasPorRestauranteDTO> obterTotalVendasPorRestaurante();
+    // Popularidade das sugestões da busca (SugestaoService): unidades vendidas por produto e pedidos por restaurante
+    @Query("SELECT i.produto.id AS id, SUM(i.quantidade) AS total FROM ItemPedido i GROUP BY i.produto.id")
+    List<TotalPorId> totalVendidoPorProduto();
 
-    @Query("SELECT i.produto.nome, SUM(i.quantidade) as total FROM ItemPedido i GROUP BY i.produto.nome ORDER BY total DESC")
-    List<Object[]> obterProdutosMaisVendidos();
+    @Query("SELECT p.restaurante.id AS id, COUNT(p) AS total FROM Pedido p GROUP BY p.restaurante.id")
+    List<TotalPorId> totalPedidosPorRestaurante();
 
-    @Query("SELECT p.cliente.nome, COUNT(p) as total FROM Pedido p GROUP BY p.cliente.nome ORDER BY total DESC")
-    List<Object[]> obterClientesMaisAtivos();
+    interface SituacaoPedido {
+        StatusPedidos getStatus();
+        Long getVersao();
+        String getNumeroPedido();
+        Long getRestauranteId();
+        LocalDateTime getDataPedido();
+    }
 
-    List<Pedido> findByDataPedidoBetween(LocalDateTime inicio, LocalDateTime fim);
+    interface TotalPorId {
+        Long getId();
+        Long getTotal();
+    }
 
-}
\ No newline at end of file
+}
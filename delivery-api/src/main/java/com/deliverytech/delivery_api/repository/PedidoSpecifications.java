@@ -0,0 +1,41 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.Pedido;
+import org.springframework.data.jpa.domain.Specification;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+
+// Filtros opcionais das listagens de pedidos. Cada filtro ausente retorna null e simplesmente não entra no WHERE:
+// "(:status IS NULL OR p.status = :status)" obriga o banco a escolher um único plano para todos os casos
+// e impede o uso do índice da coluna filtrada.
+public final class PedidoSpecifications {
+
+    private PedidoSpecifications() {
+    }
+
+    public static Specification<Pedido> comStatus(StatusPedidos status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    // Intervalo semiaberto [início do dia, início do dia seguinte): usa o índice de data_pedido,
+    // ao contrário de CAST(data_pedido AS date) = :data
+    public static Specification<Pedido> noDia(LocalDate dia) {
+        return dia == null ? null : noPeriodo(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+    }
+
+    public static Specification<Pedido> noPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("dataPedido"), inicio),
+                cb.lessThan(root.get("dataPedido"), fim));
+    }
+
+    // Posição estritamente anterior a (dataPedido, id) na ordem decrescente da paginação por cursor.
+    // "dataPedido <= :data" é redundante com o OR, mas deixa o intervalo utilizável pelo índice.
+    public static Specification<Pedido> antesDe(LocalDateTime dataPedido, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("dataPedido"), dataPedido),
+                cb.or(cb.lessThan(root.get("dataPedido"), dataPedido), cb.lessThan(root.get("id"), id)));
+    }
+}
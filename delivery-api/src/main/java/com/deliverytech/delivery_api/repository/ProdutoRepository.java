@@ -1,32 +1,45 @@
 package com.deliverytech.delivery_api.repository;
 
 import com.deliverytech.delivery_api.model.Produto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+    // O DTO de produto exibe o nome do restaurante: carregado no mesmo SELECT (EntityGraph)
+    @EntityGraph(attributePaths = "restaurante")
     List<Produto> findByRestauranteId(Long restauranteId);
+
+    @EntityGraph(attributePaths = "restaurante")
     List<Produto> findByCategoria(String categoria);
+
     List<Produto> findByDisponivelTrue();
-    List<Produto> findByNomeContainingIgnoreCase(String nome);
-
-    // Produtos mais vendidos (Baseado na tabela de itens_pedido)
-    @Query(value = "SELECT p.*, COUNT(ip.id) as total_vendas " +
-            "FROM produtos p " +
-            "JOIN itens_pedido ip ON p.id = ip.produto_id " +
-            "GROUP BY p.id " +
-            "ORDER BY total_vendas DESC LIMIT 5",
-            nativeQuery = true)
-    List<Produto> findTop5ProdutosMaisVendidos();
-
-    // Faturamento por categoria de produto
-    @Query(value = "SELECT p.categoria, SUM(ip.subtotal) as faturamento " +
-            "FROM produtos p " +
-            "JOIN itens_pedido ip ON p.id = ip.produto_id " +
-            "GROUP BY p.categoria",
-            nativeQuery = true)
-    List<Object[]> findFaturamentoPorCategoria();
+
+    // Campos do índice de busca (ProdutoBuscaService), sem carregar entidades nem restaurantes
+    @Query("SELECT p.id AS id, p.nome AS nome, p.descricao AS descricao, p.categoria AS categoria, " +
+            "p.disponivel AS disponivel, p.restaurante.id AS restauranteId FROM Produto p")
+    List<ProdutoIndexavel> findIndexaveis();
+
+    @Query("SELECT p.id AS id, p.nome AS nome, p.descricao AS descricao, p.categoria AS categoria, " +
+            "p.disponivel AS disponivel, p.restaurante.id AS restauranteId FROM Produto p WHERE p.id = :id")
+    Optional<ProdutoIndexavel> findIndexavelById(@Param("id") Long id);
+
+    // Carrega vários produtos já com o restaurante dono em um único SELECT (montagem de pedidos)
+    @Query("SELECT p FROM Produto p JOIN FETCH p.restaurante WHERE p.id IN :ids")
+    List<Produto> findAllWithRestauranteByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface ProdutoIndexavel {
+        Long getId();
+        String getNome();
+        String getDescricao();
+        String getCategoria();
+        Boolean getDisponivel();
+        Long getRestauranteId();
+    }
 }
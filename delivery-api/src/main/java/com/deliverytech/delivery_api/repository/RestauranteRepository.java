@@ -25,4 +25,15 @@ public interface RestauranteRepository extends JpaRepository<Restaurante, Long>
                     "(:ativo IS NULL OR r.ativo = :ativo)",
             nativeQuery = true)
     Page<Restaurante> listarComFiltros(String categoria, Boolean ativo, Pageable pageable);
+
+    // Carga do índice de proximidade: só o necessário de cada restaurante ativo com coordenadas
+    @Query("SELECT r.id AS id, r.latitude AS latitude, r.longitude AS longitude FROM Restaurante r " +
+            "WHERE r.ativo = true AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<LocalizacaoRestaurante> findLocalizacoesAtivas();
+
+    interface LocalizacaoRestaurante {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+    }
 }
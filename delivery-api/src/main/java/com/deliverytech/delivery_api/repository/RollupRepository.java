@@ -0,0 +1,207 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.RollupControle;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RollupRepository extends JpaRepository<RollupControle, Integer> {
+
+    // Lida como valor (e não como entidade) para não reaproveitar uma marca já carregada na sessão.
+    // Só o compactador trava a linha: duas execuções (ou instâncias) nunca compactam o mesmo período.
+    @Query(value = "SELECT compactado_ate FROM rollup_controle WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    Optional<LocalDateTime> travarMarca();
+
+    // Leitura sem bloqueio, usada pelas transições de status
+    @Query(value = "SELECT compactado_ate FROM rollup_controle WHERE id = 1", nativeQuery = true)
+    Optional<LocalDateTime> consultarMarca();
+
+    @Query(value = "SELECT reconciliar_desde FROM rollup_controle WHERE id = 1", nativeQuery = true)
+    Optional<LocalDateTime> consultarReconciliacao();
+
+    // Avança a marca e guarda o início do primeiro período compactado desde a última reconciliação
+    @Modifying
+    @Query(value = "UPDATE rollup_controle SET compactado_ate = :compactadoAte, " +
+            "reconciliar_desde = COALESCE(reconciliar_desde, CAST(:compactadoDe AS TIMESTAMP(6))) WHERE id = 1", nativeQuery = true)
+    int avancarMarca(@Param("compactadoDe") LocalDateTime compactadoDe, @Param("compactadoAte") LocalDateTime compactadoAte);
+
+    @Modifying
+    @Query(value = "UPDATE rollup_controle SET reconciliar_desde = NULL WHERE id = 1", nativeQuery = true)
+    int concluirReconciliacao();
+
+    @Query(value = "SELECT MIN(data_pedido) FROM pedidos", nativeQuery = true)
+    Optional<LocalDateTime> primeiroPedido();
+
+    @Query(value = "SELECT data_pedido FROM pedidos WHERE data_pedido >= :desde ORDER BY data_pedido LIMIT 1", nativeQuery = true)
+    Optional<LocalDateTime> primeiroPedidoDesde(@Param("desde") LocalDateTime desde);
+
+    // Compactação das horas de [inicio, fim)
+
+    // As unidades de cada pedido também ficam no rollup de pedidos: os agrupamentos por restaurante e status não leem itens
+    @Modifying
+    @Query(value = "INSERT INTO rollup_pedidos (granularidade, inicio, restaurante_id, status, quantidade_pedidos, unidades, receita, taxas_entrega) " +
+            "SELECT 'HORA', DATE_TRUNC('HOUR', data_pedido), restaurante_id, status, COUNT(*), SUM(unidades), SUM(valor_total), SUM(taxa_entrega) " +
+            "FROM (SELECT p.data_pedido, p.restaurante_id, p.status, p.valor_total, p.taxa_entrega, " +
+            "(SELECT SUM(i.quantidade) FROM itens_pedido i WHERE i.pedido_id = p.id) AS unidades " +
+            "FROM pedidos p WHERE p.data_pedido >= :inicio AND p.data_pedido < :fim) v " +
+            "GROUP BY DATE_TRUNC('HOUR', data_pedido), restaurante_id, status", nativeQuery = true)
+    int compactarPedidosPorHora(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Modifying
+    @Query(value = "INSERT INTO rollup_itens (granularidade, inicio, restaurante_id, produto_id, status, quantidade_itens, unidades, receita) " +
+            "SELECT 'HORA', DATE_TRUNC('HOUR', p.data_pedido), p.restaurante_id, i.produto_id, p.status, COUNT(*), SUM(i.quantidade), SUM(i.subtotal) " +
+            "FROM pedidos p JOIN itens_pedido i ON i.pedido_id = p.id WHERE p.data_pedido >= :inicio AND p.data_pedido < :fim " +
+            "GROUP BY DATE_TRUNC('HOUR', p.data_pedido), p.restaurante_id, i.produto_id, p.status", nativeQuery = true)
+    int compactarItensPorHora(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    // Dia [dia, diaSeguinte) somado a partir das suas horas, já compactadas
+
+    @Modifying
+    @Query(value = "INSERT INTO rollup_pedidos (granularidade, inicio, restaurante_id, status, quantidade_pedidos, unidades, receita, taxas_entrega) " +
+            "SELECT 'DIA', CAST(:dia AS TIMESTAMP(6)), restaurante_id, status, SUM(quantidade_pedidos), SUM(unidades), SUM(receita), SUM(taxas_entrega) " +
+            "FROM rollup_pedidos WHERE granularidade = 'HORA' AND inicio >= :dia AND inicio < :diaSeguinte " +
+            "GROUP BY restaurante_id, status", nativeQuery = true)
+    int compactarPedidosPorDia(@Param("dia") LocalDateTime dia, @Param("diaSeguinte") LocalDateTime diaSeguinte);
+
+    @Modifying
+    @Query(value = "INSERT INTO rollup_itens (granularidade, inicio, restaurante_id, produto_id, status, quantidade_itens, unidades, receita) " +
+            "SELECT 'DIA', CAST(:dia AS TIMESTAMP(6)), restaurante_id, produto_id, status, SUM(quantidade_itens), SUM(unidades), SUM(receita) " +
+            "FROM rollup_itens WHERE granularidade = 'HORA' AND inicio >= :dia AND inicio < :diaSeguinte " +
+            "GROUP BY restaurante_id, produto_id, status", nativeQuery = true)
+    int compactarItensPorDia(@Param("dia") LocalDateTime dia, @Param("diaSeguinte") LocalDateTime diaSeguinte);
+
+    // Soma (sinal 1) ou retira (sinal -1) um pedido já compactado da linha do período e status informados
+
+    @Modifying
+    @Query(value = "MERGE INTO rollup_pedidos r " +
+            "USING (SELECT CAST(:granularidade AS VARCHAR(4)) AS granularidade, CAST(:inicio AS TIMESTAMP(6)) AS inicio, " +
+            "restaurante_id, CAST(:status AS VARCHAR(10)) AS status, CAST(:sinal AS BIGINT) AS pedidos, " +
+            ":sinal * (SELECT SUM(i.quantidade) FROM itens_pedido i WHERE i.pedido_id = :pedidoId) AS unidades, " +
+            ":sinal * valor_total AS receita, :sinal * taxa_entrega AS taxas FROM pedidos WHERE id = :pedidoId) d " +
+            "ON r.granularidade = d.granularidade AND r.inicio = d.inicio AND r.restaurante_id = d.restaurante_id AND r.status = d.status " +
+            "WHEN MATCHED THEN UPDATE SET quantidade_pedidos = r.quantidade_pedidos + d.pedidos, unidades = r.unidades + d.unidades, " +
+            "receita = r.receita + d.receita, taxas_entrega = r.taxas_entrega + d.taxas " +
+            "WHEN NOT MATCHED THEN INSERT (granularidade, inicio, restaurante_id, status, quantidade_pedidos, unidades, receita, taxas_entrega) " +
+            "VALUES (d.granularidade, d.inicio, d.restaurante_id, d.status, d.pedidos, d.unidades, d.receita, d.taxas)", nativeQuery = true)
+    int somarPedido(@Param("pedidoId") Long pedidoId,
+                    @Param("granularidade") String granularidade,
+                    @Param("inicio") LocalDateTime inicio,
+                    @Param("status") String status,
+                    @Param("sinal") int sinal);
+
+    @Modifying
+    @Query(value = "MERGE INTO rollup_itens r " +
+            "USING (SELECT CAST(:granularidade AS VARCHAR(4)) AS granularidade, CAST(:inicio AS TIMESTAMP(6)) AS inicio, " +
+            "p.restaurante_id, i.produto_id, CAST(:status AS VARCHAR(10)) AS status, :sinal * COUNT(*) AS itens, " +
+            ":sinal * SUM(i.quantidade) AS unidades, :sinal * SUM(i.subtotal) AS receita " +
+            "FROM pedidos p JOIN itens_pedido i ON i.pedido_id = p.id WHERE p.id = :pedidoId " +
+            "GROUP BY p.restaurante_id, i.produto_id) d " +
+            "ON r.granularidade = d.granularidade AND r.inicio = d.inicio AND r.restaurante_id = d.restaurante_id " +
+            "AND r.produto_id = d.produto_id AND r.status = d.status " +
+            "WHEN MATCHED THEN UPDATE SET quantidade_itens = r.quantidade_itens + d.itens, " +
+            "unidades = r.unidades + d.unidades, receita = r.receita + d.receita " +
+            "WHEN NOT MATCHED THEN INSERT (granularidade, inicio, restaurante_id, produto_id, status, quantidade_itens, unidades, receita) " +
+            "VALUES (d.granularidade, d.inicio, d.restaurante_id, d.produto_id, d.status, d.itens, d.unidades, d.receita)", nativeQuery = true)
+    int somarItensDoPedido(@Param("pedidoId") Long pedidoId,
+                           @Param("granularidade") String granularidade,
+                           @Param("inicio") LocalDateTime inicio,
+                           @Param("status") String status,
+                           @Param("sinal") int sinal);
+
+    // Reconciliação: as linhas de [inicio, fim) são apagadas e compactadas de novo a partir dos pedidos
+
+    @Modifying
+    @Query(value = "DELETE FROM rollup_pedidos WHERE granularidade = :granularidade AND inicio >= :inicio AND inicio < :fim", nativeQuery = true)
+    int removerPedidos(@Param("granularidade") String granularidade, @Param("inicio") LocalDateTime inicio,
+                       @Param("fim") LocalDateTime fim);
+
+    @Modifying
+    @Query(value = "DELETE FROM rollup_itens WHERE granularidade = :granularidade AND inicio >= :inicio AND inicio < :fim", nativeQuery = true)
+    int removerItens(@Param("granularidade") String granularidade, @Param("inicio") LocalDateTime inicio,
+                     @Param("fim") LocalDateTime fim);
+
+    // Linhas que ficaram sem pedidos após uma transição: nos dados brutos esses grupos não existem mais
+
+    @Modifying
+    @Query(value = "DELETE FROM rollup_pedidos WHERE granularidade = :granularidade AND inicio = :inicio " +
+            "AND quantidade_pedidos = 0", nativeQuery = true)
+    int removerPedidosVazios(@Param("granularidade") String granularidade, @Param("inicio") LocalDateTime inicio);
+
+    @Modifying
+    @Query(value = "DELETE FROM rollup_itens WHERE granularidade = :granularidade AND inicio = :inicio " +
+            "AND quantidade_itens = 0", nativeQuery = true)
+    int removerItensVazios(@Param("granularidade") String granularidade, @Param("inicio") LocalDateTime inicio);
+
+    // Consulta de um período em cinco faixas contíguas (ver RelatorioService.PlanoVendas): dados brutos em [inicio, hora0),
+    // horas em [hora0, dia0), dias em [dia0, dia1), horas em [dia1, hora1) e dados brutos em [hora1, fim).
+    // Um único SELECT: as faixas são lidas no mesmo snapshot, mesmo com uma compactação terminando ao lado.
+    @Query(value = "SELECT restaurante_id AS restauranteId, status AS status, SUM(pedidos) AS quantidadePedidos, " +
+            "SUM(unidades) AS unidades, SUM(receita) AS receita, SUM(taxas) AS taxasEntrega FROM (" +
+            "SELECT p.restaurante_id, p.status, 1 AS pedidos, " +
+            "(SELECT SUM(i.quantidade) FROM itens_pedido i WHERE i.pedido_id = p.id) AS unidades, " +
+            "p.valor_total AS receita, p.taxa_entrega AS taxas FROM pedidos p WHERE p.data_pedido >= :inicio AND p.data_pedido < :hora0 " +
+            "UNION ALL SELECT restaurante_id, status, quantidade_pedidos, unidades, receita, taxas_entrega " +
+            "FROM rollup_pedidos WHERE granularidade = 'HORA' AND inicio >= :hora0 AND inicio < :dia0 " +
+            "UNION ALL SELECT restaurante_id, status, quantidade_pedidos, unidades, receita, taxas_entrega " +
+            "FROM rollup_pedidos WHERE granularidade = 'DIA' AND inicio >= :dia0 AND inicio < :dia1 " +
+            "UNION ALL SELECT restaurante_id, status, quantidade_pedidos, unidades, receita, taxas_entrega " +
+            "FROM rollup_pedidos WHERE granularidade = 'HORA' AND inicio >= :dia1 AND inicio < :hora1 " +
+            "UNION ALL SELECT p.restaurante_id, p.status, 1, (SELECT SUM(i.quantidade) FROM itens_pedido i WHERE i.pedido_id = p.id), " +
+            "p.valor_total, p.taxa_entrega FROM pedidos p WHERE p.data_pedido >= :hora1 AND p.data_pedido < :fim" +
+            ") v WHERE CAST(:restauranteId AS BIGINT) IS NULL OR restaurante_id = :restauranteId " +
+            "GROUP BY restaurante_id, status", nativeQuery = true)
+    List<VendasPedidos> vendasPedidos(@Param("inicio") LocalDateTime inicio,
+                                      @Param("hora0") LocalDateTime hora0,
+                                      @Param("dia0") LocalDateTime dia0,
+                                      @Param("dia1") LocalDateTime dia1,
+                                      @Param("hora1") LocalDateTime hora1,
+                                      @Param("fim") LocalDateTime fim,
+                                      @Param("restauranteId") Long restauranteId);
+
+    @Query(value = "SELECT restaurante_id AS restauranteId, produto_id AS produtoId, status AS status, " +
+            "SUM(unidades) AS unidades, SUM(receita) AS receita FROM (" +
+            "SELECT p.restaurante_id, i.produto_id, p.status, i.quantidade AS unidades, i.subtotal AS receita " +
+            "FROM pedidos p JOIN itens_pedido i ON i.pedido_id = p.id WHERE p.data_pedido >= :inicio AND p.data_pedido < :hora0 " +
+            "UNION ALL SELECT restaurante_id, produto_id, status, unidades, receita " +
+            "FROM rollup_itens WHERE granularidade = 'HORA' AND inicio >= :hora0 AND inicio < :dia0 " +
+            "UNION ALL SELECT restaurante_id, produto_id, status, unidades, receita " +
+            "FROM rollup_itens WHERE granularidade = 'DIA' AND inicio >= :dia0 AND inicio < :dia1 " +
+            "UNION ALL SELECT restaurante_id, produto_id, status, unidades, receita " +
+            "FROM rollup_itens WHERE granularidade = 'HORA' AND inicio >= :dia1 AND inicio < :hora1 " +
+            "UNION ALL SELECT p.restaurante_id, i.produto_id, p.status, i.quantidade, i.subtotal " +
+            "FROM pedidos p JOIN itens_pedido i ON i.pedido_id = p.id WHERE p.data_pedido >= :hora1 AND p.data_pedido < :fim" +
+            ") v WHERE CAST(:restauranteId AS BIGINT) IS NULL OR restaurante_id = :restauranteId " +
+            "GROUP BY restaurante_id, produto_id, status", nativeQuery = true)
+    List<VendasItens> vendasItens(@Param("inicio") LocalDateTime inicio,
+                                  @Param("hora0") LocalDateTime hora0,
+                                  @Param("dia0") LocalDateTime dia0,
+                                  @Param("dia1") LocalDateTime dia1,
+                                  @Param("hora1") LocalDateTime hora1,
+                                  @Param("fim") LocalDateTime fim,
+                                  @Param("restauranteId") Long restauranteId);
+
+    interface VendasPedidos {
+        Long getRestauranteId();
+        StatusPedidos getStatus();
+        Long getQuantidadePedidos();
+        Long getUnidades();
+        BigDecimal getReceita();
+        BigDecimal getTaxasEntrega();
+    }
+
+    interface VendasItens {
+        Long getRestauranteId();
+        Long getProdutoId();
+        StatusPedidos getStatus();
+        Long getUnidades();
+        BigDecimal getReceita();
+    }
+}
@@ -0,0 +1,20 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.model.TaxaZonaRestaurante;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface TaxaZonaRestauranteRepository extends JpaRepository<TaxaZonaRestaurante, TaxaZonaRestaurante.Chave> {
+
+    List<TaxaZonaRestaurante> findByRestauranteIdOrderByZonaId(Long restauranteId);
+
+    // As taxas de um restaurante são sempre substituídas em conjunto (PUT /api/restaurantes/{id}/taxas-zona)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TaxaZonaRestaurante t WHERE t.restauranteId = :restauranteId")
+    int removerDoRestaurante(@Param("restauranteId") Long restauranteId);
+}
@@ -0,0 +1,74 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.VendasRestaurante;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface VendasRestauranteRepository extends JpaRepository<VendasRestaurante, Long> {
+
+    // Incremento atômico no próprio banco (sem ler a linha antes); cria a linha no primeiro pedido do restaurante
+    @Modifying
+    @Query(value = "MERGE INTO vendas_restaurante v " +
+            "USING (SELECT CAST(:restauranteId AS BIGINT) AS restaurante_id, CAST(:pedidos AS BIGINT) AS pedidos, " +
+            "CAST(:receita AS NUMERIC(38,2)) AS receita, CAST(:taxas AS NUMERIC(38,2)) AS taxas) d " +
+            "ON v.restaurante_id = d.restaurante_id " +
+            "WHEN MATCHED THEN UPDATE SET quantidade_pedidos = v.quantidade_pedidos + d.pedidos, " +
+            "receita = v.receita + d.receita, taxas_entrega = v.taxas_entrega + d.taxas " +
+            "WHEN NOT MATCHED THEN INSERT (restaurante_id, quantidade_pedidos, receita, taxas_entrega) " +
+            "VALUES (d.restaurante_id, d.pedidos, d.receita, d.taxas)", nativeQuery = true)
+    int somar(@Param("restauranteId") Long restauranteId,
+              @Param("pedidos") long pedidos,
+              @Param("receita") BigDecimal receita,
+              @Param("taxas") BigDecimal taxas);
+
+    // Retira do agregado os valores gravados no próprio pedido (chamado logo após a transição para CANCELADO)
+    @Modifying
+    @Query("UPDATE VendasRestaurante v SET v.quantidadePedidos = v.quantidadePedidos - 1, " +
+            "v.receita = v.receita - (SELECT p.valorTotal FROM Pedido p WHERE p.id = :pedidoId), " +
+            "v.taxasEntrega = v.taxasEntrega - (SELECT p.taxaEntrega FROM Pedido p WHERE p.id = :pedidoId) " +
+            "WHERE v.restauranteId = (SELECT p.restaurante.id FROM Pedido p WHERE p.id = :pedidoId)")
+    int descontarPedido(@Param("pedidoId") Long pedidoId);
+
+    // Uma linha por restaurante, agrupada pelo ID (restaurantes com o mesmo nome não se misturam)
+    @Query("SELECT new com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO(" +
+            "v.restauranteId, r.nome, v.quantidadePedidos, v.receita, v.taxasEntrega) " +
+            "FROM VendasRestaurante v JOIN Restaurante r ON r.id = v.restauranteId ORDER BY v.restauranteId")
+    List<TotalVendasPorRestauranteDTO> listarTotais();
+
+    // Reconstrução: bloqueia as linhas existentes para que pedidos em andamento terminem antes da recontagem.
+    // Lidas como projeção (e não como entidades) para não reaproveitar valores já carregados na sessão.
+    @Query(value = "SELECT restaurante_id AS restauranteId, quantidade_pedidos AS quantidadePedidos, " +
+            "receita AS receita, taxas_entrega AS taxasEntrega FROM vendas_restaurante FOR UPDATE", nativeQuery = true)
+    List<Totais> travarTodos();
+
+    @Query("SELECT p.restaurante.id AS restauranteId, COUNT(p) AS quantidadePedidos, " +
+            "SUM(p.valorTotal) AS receita, SUM(p.taxaEntrega) AS taxasEntrega " +
+            "FROM Pedido p WHERE p.status <> :cancelado GROUP BY p.restaurante.id")
+    List<Totais> calcularPelosPedidos(@Param("cancelado") StatusPedidos cancelado);
+
+    @Modifying
+    @Query(value = "MERGE INTO vendas_restaurante v " +
+            "USING (SELECT CAST(:restauranteId AS BIGINT) AS restaurante_id) d ON v.restaurante_id = d.restaurante_id " +
+            "WHEN MATCHED THEN UPDATE SET quantidade_pedidos = :pedidos, receita = :receita, taxas_entrega = :taxas " +
+            "WHEN NOT MATCHED THEN INSERT (restaurante_id, quantidade_pedidos, receita, taxas_entrega) " +
+            "VALUES (d.restaurante_id, :pedidos, :receita, :taxas)", nativeQuery = true)
+    int definir(@Param("restauranteId") Long restauranteId,
+                @Param("pedidos") long pedidos,
+                @Param("receita") BigDecimal receita,
+                @Param("taxas") BigDecimal taxas);
+
+    interface Totais {
+        Long getRestauranteId();
+        Long getQuantidadePedidos();
+        BigDecimal getReceita();
+        BigDecimal getTaxasEntrega();
+    }
+}
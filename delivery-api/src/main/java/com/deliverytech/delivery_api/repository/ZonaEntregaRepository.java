@@ -0,0 +1,8 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.model.ZonaEntrega;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+
+public interface ZonaEntregaRepository extends JpaRepository<ZonaEntrega, Integer> {
+}
@@ -0,0 +1,160 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.ApiSucessResponse;
+import com.deliverytech.delivery_api.dto.response.CardapioDTO;
+import com.deliverytech.delivery_api.event.ProdutoAlteradoEvent;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.service.CatalogoCacheService.Versao;
+import com.deliverytech.delivery_api.util.CacheExpiravel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+
+// Snapshots do cardápio (GET /api/restaurantes/{id}/cardapio): restaurante e produtos disponíveis já serializados
+// no envelope ApiSucessResponse, em JSON e em gzip. A requisição custa a busca no mapa e a cópia dos bytes.
+// Cada snapshot guarda a versão do restaurante (CatalogoCacheService) com que foi montado e só é servido enquanto
+// ela for a atual; após o commit de uma escrita no restaurante ou nos seus produtos, o snapshot em memória é
+// remontado em segundo plano. Se a requisição chegar antes disso, ela mesma monta o snapshot novo.
+// Versões e eventos são desta instância: com várias instâncias, o snapshot de uma só reflete as escritas feitas nas
+// outras quando expira (delivery.cardapio.snapshot.ttl-minutos).
+@Service
+public class CardapioSnapshotService {
+
+    // versao: a do restaurante quando os dados foram lidos; os arrays não devem ser alterados por quem os recebe
+    public record Snapshot(Versao versao, byte[] json, byte[] gzip) {}
+
+    private final RestauranteService restauranteService;
+    private final ProdutoService produtoService;
+    private final CatalogoCacheService catalogoCache;
+    private final ObjectMapper objectMapper;
+    private final CacheExpiravel<Long, Snapshot> snapshots;
+
+    // Restaurantes com remontagem agendada e ainda não iniciada: várias escritas seguidas geram uma só
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService remontagem = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final Logger logger = LoggerFactory.getLogger(CardapioSnapshotService.class);
+
+    public CardapioSnapshotService(RestauranteService restauranteService, ProdutoService produtoService,
+                                   CatalogoCacheService catalogoCache, ObjectMapper objectMapper,
+                                   DeliveryMetrics deliveryMetrics,
+                                   @Value("${delivery.cardapio.snapshot.ttl-minutos:60}") long ttlMinutos,
+                                   @Value("${delivery.cardapio.snapshot.capacidade:1000}") int capacidade) {
+        this.restauranteService = restauranteService;
+        this.produtoService = produtoService;
+        this.catalogoCache = catalogoCache;
+        this.objectMapper = objectMapper;
+        this.snapshots = new CacheExpiravel<>(capacidade, Duration.ofMinutes(ttlMinutos));
+        deliveryMetrics.monitorarCache("cardapios", snapshots);
+    }
+
+    public Snapshot cardapio(Long restauranteId) {
+        Versao atual = catalogoCache.versaoDoRestaurante(restauranteId);
+        Snapshot snapshot = snapshots.obter(restauranteId, this::montar);
+        if (!snapshot.versao().equals(atual)) {
+            // Escrita desta instância cuja remontagem em segundo plano ainda não terminou. As versões ficam em memória,
+            // por instância: uma escrita feita em outra instância não muda a versão daqui e não passa por este ponto
+            snapshot = montar(restauranteId);
+            snapshots.colocar(restauranteId, snapshot);
+        }
+        return snapshot;
+    }
+
+    // Roda depois do CatalogoCacheService (que tem precedência): a remontagem já encontra a versão nova
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        agendarRemontagem(evento.restauranteId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        evento.restauranteIds().stream().filter(Objects::nonNull).forEach(this::agendarRemontagem);
+    }
+
+    // Versão do snapshot em memória (nula se não houver), sem montar nada
+    public Versao versaoEmMemoria(Long restauranteId) {
+        Snapshot snapshot = snapshots.consultar(restauranteId);
+        return snapshot != null ? snapshot.versao() : null;
+    }
+
+    public void descartarTudo() {
+        snapshots.limpar();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        remontagem.shutdownNow();
+    }
+
+    // Só os cardápios em memória são remontados: os demais são montados na primeira requisição
+    private void agendarRemontagem(Long restauranteId) {
+        if (snapshots.consultar(restauranteId) == null || !pendentes.add(restauranteId)) {
+            return;
+        }
+        remontagem.execute(() -> {
+            pendentes.remove(restauranteId);
+            try {
+                snapshots.colocar(restauranteId, montar(restauranteId));
+            } catch (EntityNotFoundException e) {
+                snapshots.invalidar(restauranteId);
+            } catch (RuntimeException e) {
+                snapshots.invalidar(restauranteId);
+                logger.error("Falha ao remontar o cardápio do restaurante {}: {}", restauranteId, e.getMessage());
+            }
+        });
+    }
+
+    // A versão é lida antes dos dados: se mudar no meio, o snapshot nasce desatualizado e é remontado,
+    // nunca o contrário (conteúdo antigo com a versão nova)
+    private Snapshot montar(Long restauranteId) {
+        Versao versao = catalogoCache.versaoDoRestaurante(restauranteId);
+        CardapioDTO cardapio = new CardapioDTO(restauranteService.buscarRestaurantePorId(restauranteId),
+                produtoService.buscarProdutosPorRestaurante(restauranteId));
+
+        // Como no RespostaCatalogo: o timestamp é o instante da versão, para o corpo de uma versão ser sempre o mesmo
+        ApiSucessResponse<CardapioDTO> resposta = ApiSucessResponse.<CardapioDTO>builder()
+                .sucesso(true)
+                .mensagem("Cardápio do restaurante " + restauranteId)
+                .dados(cardapio)
+                .timestamp(LocalDateTime.ofInstant(versao.alteradaEm(), ZoneId.systemDefault()))
+                .build();
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(resposta);
+            return new Snapshot(versao, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o cardápio do restaurante " + restauranteId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] dados) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(dados.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(dados);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.event.ProdutoAlteradoEvent;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.util.CacheExpiravel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+
+// Cache das leituras públicas do catálogo (restaurantes e produtos), com TTL e limite de entradas (CacheExpiravel).
+// RestauranteService e ProdutoService leem por aqui; após o commit de uma escrita só saem as entradas afetadas:
+//   - restaurante alterado: o próprio restaurante, as listas de restaurantes e as entradas de produto que
+//     exibem o nome dele (produtos do restaurante, produtos por id e por categoria);
+//   - produto alterado: o próprio produto e as listas do restaurante e da categoria, anteriores e novos.
+// Os DTOs em cache são compartilhados entre as requisições e não devem ser alterados por quem os recebe.
+// Também mantém as versões do catálogo (ETag e Last-Modified das respostas): uma por restaurante, avançada a cada
+// escrita dele ou de seus produtos, e uma das listas de restaurantes. A versão só avança depois da invalidação:
+// quem vê a versão nova nunca recebe o conteúdo antigo do cache. Só restaurantes existentes têm versão.
+@Service
+public class CatalogoCacheService {
+
+    enum Tipo { RESTAURANTE, RESTAURANTES, PRODUTO, PRODUTOS_RESTAURANTE, PRODUTOS_CATEGORIA }
+
+    // restauranteId: restaurante da entrada, quando ela pertence a um só (nulo nas listas gerais)
+    record Chave(Tipo tipo, Object parametro, Long restauranteId) {}
+
+    // etag já entre aspas, como vai no cabeçalho
+    public record Versao(String etag, Instant alteradaEm) {}
+
+    private record Contador(long numero, Instant alteradoEm) {
+
+        Contador seguinte() {
+            return new Contador(numero + 1, Instant.now());
+        }
+    }
+
+    private final CacheExpiravel<Chave, Object> cache;
+    private final RestauranteRepository restauranteRepository;
+
+    // Contadores em memória recomeçam a cada subida: a época da instância entra na ETag para não repetir valores
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Contador inicial = new Contador(0, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    private final Map<Long, Contador> versoesRestaurantes = new ConcurrentHashMap<>();
+    private final AtomicReference<Contador> versaoListas = new AtomicReference<>(inicial);
+
+    public CatalogoCacheService(RestauranteRepository restauranteRepository,
+                                DeliveryMetrics deliveryMetrics,
+                                @Value("${delivery.catalogo.cache.ttl-segundos:300}") long ttlSegundos,
+                                @Value("${delivery.catalogo.cache.capacidade:5000}") int capacidade) {
+        this.restauranteRepository = restauranteRepository;
+        this.cache = new CacheExpiravel<>(capacidade, Duration.ofSeconds(ttlSegundos));
+        deliveryMetrics.monitorarCache("catalogo", cache);
+    }
+
+    public <T> T restaurante(Long id, Supplier<T> carregar) {
+        return obter(new Chave(Tipo.RESTAURANTE, id, id), carregar);
+    }
+
+    // Listas e páginas de restaurantes; parametro identifica o filtro (ex.: categoria, página)
+    public <T> T restaurantes(Object parametro, Supplier<T> carregar) {
+        return obter(new Chave(Tipo.RESTAURANTES, parametro, null), carregar);
+    }
+
+    public <T> T produto(Long id, Supplier<T> carregar) {
+        return obter(new Chave(Tipo.PRODUTO, id, null), carregar);
+    }
+
+    public <T> T produtosDoRestaurante(Long restauranteId, Supplier<T> carregar) {
+        return obter(new Chave(Tipo.PRODUTOS_RESTAURANTE, restauranteId, restauranteId), carregar);
+    }
+
+    public <T> T produtosDaCategoria(String categoria, Supplier<T> carregar) {
+        return obter(new Chave(Tipo.PRODUTOS_CATEGORIA, categoria, null), carregar);
+    }
+
+    // Versão do restaurante e do seu cardápio. Um id ainda sem versão é conferido no banco uma vez: se o restaurante
+    // não existe, 404 (nunca um 304 para If-None-Match: * ou uma ETag adivinhada) e nada fica guardado para ele
+    public Versao versaoDoRestaurante(Long restauranteId) {
+        Contador contador = versoesRestaurantes.get(restauranteId);
+        if (contador == null) {
+            if (!restauranteRepository.existsById(restauranteId)) {
+                throw new EntityNotFoundException("Restaurante não encontrado com o ID: " + restauranteId);
+            }
+            contador = versoesRestaurantes.computeIfAbsent(restauranteId, id -> inicial);
+        }
+        return new Versao("\"r" + restauranteId + "-" + epoca + "-" + contador.numero() + "\"", contador.alteradoEm());
+    }
+
+    // Versão das listas de restaurantes (qualquer restaurante alterado)
+    public Versao versaoDosRestaurantes() {
+        Contador contador = versaoListas.get();
+        return new Versao("\"l-" + epoca + "-" + contador.numero() + "\"", contador.alteradoEm());
+    }
+
+    // Precedência sobre os demais ouvintes após o commit: quem reage à escrita (ex.: snapshots do cardápio) já
+    // encontra o cache invalidado e a versão avançada
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        // PRODUTO e PRODUTOS_CATEGORIA não sabem o restaurante pela chave, mas exibem o nome dele
+        cache.invalidarSe(chave -> switch (chave.tipo()) {
+            case RESTAURANTE, PRODUTOS_RESTAURANTE -> Objects.equals(chave.restauranteId(), evento.restauranteId());
+            case RESTAURANTES, PRODUTO, PRODUTOS_CATEGORIA -> true;
+        });
+        avancarVersao(evento.restauranteId());
+        versaoListas.updateAndGet(Contador::seguinte);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        cache.invalidarSe(chave -> switch (chave.tipo()) {
+            case PRODUTO -> Objects.equals(chave.parametro(), evento.produtoId());
+            case PRODUTOS_RESTAURANTE -> evento.restauranteIds().contains(chave.restauranteId());
+            case PRODUTOS_CATEGORIA -> evento.categorias().contains(chave.parametro());
+            case RESTAURANTE, RESTAURANTES -> false;
+        });
+        evento.restauranteIds().stream().filter(Objects::nonNull).forEach(this::avancarVersao);
+    }
+
+    public void invalidarTudo() {
+        cache.limpar();
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.catalogo.cache.limpeza-ms:60000}")
+    void removerExpiradas() {
+        cache.removerExpiradas();
+    }
+
+    private void avancarVersao(Long restauranteId) {
+        versoesRestaurantes.compute(restauranteId, (id, atual) -> (atual != null ? atual : inicial).seguinte());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T obter(Chave chave, Supplier<T> carregar) {
+        return (T) cache.obter(chave, k -> carregar.get());
+    }
+}
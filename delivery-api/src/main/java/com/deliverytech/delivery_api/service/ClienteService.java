@@ -5,10 +5,10 @@ import com.deliverytech.delivery_api.dto.response.ClienteResponseDTO;
 import com.deliverytech.delivery_api.dto.response.PagedResponse;
 import com.deliverytech.delivery_api.exeption.BusinessException;
 import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.mapper.ClienteMapper;
 import com.deliverytech.delivery_api.model.Cliente;
 import com.deliverytech.delivery_api.repository.ClienteRepository;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -22,14 +22,14 @@ import java.time.LocalDateTime;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
-    private final ModelMapper modelMapper;
+    private final ClienteMapper clienteMapper;
 
     private static final Logger logger = LoggerFactory.getLogger(ClienteService.class);
 
 
-    public ClienteService(ClienteRepository clienteRepository, ModelMapper modelMapper) {
+    public ClienteService(ClienteRepository clienteRepository, ClienteMapper clienteMapper) {
         this.clienteRepository = clienteRepository;
-        this.modelMapper = modelMapper;
+        this.clienteMapper = clienteMapper;
     }
 
     // cadastrarCliente - Valida email único
@@ -39,25 +39,25 @@ public class ClienteService {
             throw new BusinessException("Já existe um cliente cadastrado com este e-mail: " + dto.getEmail());
         }
 
-        Cliente cliente = modelMapper.map(dto, Cliente.class);
+        Cliente cliente = clienteMapper.paraEntidade(dto);
         cliente.setDataCadastro(LocalDateTime.now());
         cliente.setAtivo(true);
 
-        return modelMapper.map(clienteRepository.save(cliente), ClienteResponseDTO.class);
+        return clienteMapper.paraResposta(clienteRepository.save(cliente));
     }
 
     // buscarClientePorId
     public ClienteResponseDTO buscarClientePorId(Long id) {
         Cliente cliente = clienteRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com o ID: " + id));
-        return modelMapper.map(cliente, ClienteResponseDTO.class);
+        return clienteMapper.paraResposta(cliente);
     }
 
     // buscarClientePorEmail
     public ClienteResponseDTO buscarClientePorEmail(String email) {
         Cliente cliente = clienteRepository.findByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com o e-mail: " + email));
-        return modelMapper.map(cliente, ClienteResponseDTO.class);
+        return clienteMapper.paraResposta(cliente);
     }
 
     // listarClientesAtivos - Apenas clientes ativos
@@ -67,7 +67,7 @@ public class ClienteService {
 
         // Converte a página de Entidade para DTO mantendo a estrutura de página
         Page<ClienteResponseDTO> paginaDto = paginaEntidade
-                .map(cliente -> modelMapper.map(cliente, ClienteResponseDTO.class));
+                .map(cliente -> clienteMapper.paraResposta(cliente));
         // Envelopa no seu novo PagedResponse
         return new PagedResponse<>(paginaDto);
     }
@@ -85,8 +85,8 @@ public class ClienteService {
             throw new BusinessException("O novo e-mail informado já está em uso por outro cliente.");
         }
 
-        modelMapper.map(dto, clienteExistente);
-        return modelMapper.map(clienteRepository.save(clienteExistente), ClienteResponseDTO.class);
+        clienteMapper.atualizar(dto, clienteExistente);
+        return clienteMapper.paraResposta(clienteRepository.save(clienteExistente));
     }
 
     // ativarDesativarCliente - Toggle status
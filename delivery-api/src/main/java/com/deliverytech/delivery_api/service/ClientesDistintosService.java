@@ -0,0 +1,185 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.ClientesDistintosDTO;
+import com.deliverytech.delivery_api.dto.response.ClientesDistintosPeriodoDTO;
+import com.deliverytech.delivery_api.enums.PeriodoClientes;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.model.ClientesDistintos;
+import com.deliverytech.delivery_api.repository.ClientesDistintosRepository;
+import com.deliverytech.delivery_api.repository.ClientesDistintosRepository.ClienteNoDia;
+import com.deliverytech.delivery_api.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Clientes distintos por restaurante e dia em sketches HyperLogLog (erro padrão de 1,6%; ver HyperLogLog).
+// Os pedidos confirmados no banco atualizam sketches em memória, gravados periodicamente em clientes_distintos
+// pela união com o que já está na tabela; a consulta une os dias do intervalo em dias, semanas ou meses.
+// Como a união é idempotente, regravar um sketch nunca conta um cliente duas vezes. Pedidos cancelados depois
+// continuam contando: o relatório mede quem fez pedidos. ?exato=true conta os pares (dia, cliente) nos pedidos.
+@Service
+public class ClientesDistintosService {
+
+    public static final int INTERVALO_MAXIMO_DIAS = 366;
+
+    private final ClientesDistintosRepository clientesDistintosRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Chave, HyperLogLog> pendentes = new ConcurrentHashMap<>();
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientesDistintosService.class);
+
+    private record Chave(Long restauranteId, LocalDate dia) {}
+
+    public ClientesDistintosService(ClientesDistintosRepository clientesDistintosRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.clientesDistintosRepository = clientesDistintosRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        LocalDate dia = evento.pedido() != null && evento.pedido().getDataPedido() != null
+                ? evento.pedido().getDataPedido().toLocalDate() : LocalDate.now();
+        registrar(evento.restauranteId(), evento.clienteId(), dia);
+    }
+
+    void registrar(Long restauranteId, Long clienteId, LocalDate dia) {
+        pendentes.compute(new Chave(restauranteId, dia), (chave, sketch) -> {
+            HyperLogLog atual = sketch != null ? sketch : new HyperLogLog();
+            atual.adicionar(clienteId);
+            return atual;
+        });
+    }
+
+    // Grava uma cópia de cada sketch pendente e só o descarta da memória se nada foi adicionado enquanto isso;
+    // até a gravação terminar, as consultas continuam vendo a versão em memória
+    @Scheduled(fixedDelayString = "${delivery.clientes-distintos.gravacao-ms:10000}")
+    void gravarPendentes() {
+        for (Chave chave : List.copyOf(pendentes.keySet())) {
+            HyperLogLog copia = copiarPendente(chave);
+            if (copia == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    HyperLogLog gravado = clientesDistintosRepository.travarSketch(chave.restauranteId(), chave.dia())
+                            .map(HyperLogLog::desserializar)
+                            .orElseGet(HyperLogLog::new);
+                    gravado.mesclar(copia);
+                    clientesDistintosRepository.gravar(chave.restauranteId(), chave.dia(), gravado.serializar());
+                });
+                pendentes.computeIfPresent(chave, (k, atual) -> atual.equals(copia) ? null : atual);
+            } catch (RuntimeException e) {
+                logger.warn("Falha gravando clientes distintos do restaurante {} em {}; nova tentativa na próxima gravação: {}",
+                        chave.restauranteId(), chave.dia(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void parar() {
+        gravarPendentes();
+    }
+
+    @Transactional(readOnly = true)
+    public ClientesDistintosDTO clientesDistintos(Long restauranteId, LocalDate inicio, LocalDate fim,
+                                                  PeriodoClientes periodo, boolean exato) {
+        if (!fim.isAfter(inicio)) {
+            throw new BusinessException("O fim do intervalo deve ser posterior ao início.");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) > INTERVALO_MAXIMO_DIAS) {
+            throw new BusinessException("O intervalo deve ter no máximo " + INTERVALO_MAXIMO_DIAS + " dias.");
+        }
+
+        ClientesDistintosDTO dto = new ClientesDistintosDTO();
+        dto.setRestauranteId(restauranteId);
+        dto.setInicio(inicio);
+        dto.setFim(fim);
+        dto.setPeriodo(periodo);
+        dto.setExato(exato);
+        dto.setPeriodos(new ArrayList<>());
+
+        if (exato) {
+            Map<LocalDate, Set<Long>> porPeriodo = new HashMap<>();
+            for (ClienteNoDia linha : clientesDistintosRepository.clientesPorDia(restauranteId, inicio.atStartOfDay(), fim.atStartOfDay())) {
+                porPeriodo.computeIfAbsent(periodo.inicio(linha.getDia()), d -> new HashSet<>()).add(linha.getClienteId());
+            }
+            Set<Long> total = new HashSet<>();
+            percorrerPeriodos(inicio, fim, periodo, (de, ate, chave) -> {
+                Set<Long> clientes = porPeriodo.getOrDefault(chave, Set.of());
+                total.addAll(clientes);
+                dto.getPeriodos().add(new ClientesDistintosPeriodoDTO(de, ate, clientes.size()));
+            });
+            dto.setClientesDistintos(total.size());
+            return dto;
+        }
+
+        Map<LocalDate, HyperLogLog> porPeriodo = new HashMap<>();
+        for (ClientesDistintos linha : clientesDistintosRepository.findNoPeriodo(restauranteId, inicio, fim)) {
+            porPeriodo.computeIfAbsent(periodo.inicio(linha.getDia()), d -> new HyperLogLog())
+                    .mesclar(HyperLogLog.desserializar(linha.getSketch()));
+        }
+        // Pedidos ainda não gravados (a união com o que já está na tabela não conta ninguém duas vezes)
+        for (Chave chave : pendentes.keySet()) {
+            if ((restauranteId == null || Objects.equals(restauranteId, chave.restauranteId()))
+                    && !chave.dia().isBefore(inicio) && chave.dia().isBefore(fim)) {
+                HyperLogLog copia = copiarPendente(chave);
+                if (copia != null) {
+                    porPeriodo.computeIfAbsent(periodo.inicio(chave.dia()), d -> new HyperLogLog()).mesclar(copia);
+                }
+            }
+        }
+        HyperLogLog total = new HyperLogLog();
+        percorrerPeriodos(inicio, fim, periodo, (de, ate, chave) -> {
+            HyperLogLog sketch = porPeriodo.get(chave);
+            if (sketch != null) {
+                total.mesclar(sketch);
+            }
+            dto.getPeriodos().add(new ClientesDistintosPeriodoDTO(de, ate, sketch == null ? 0 : sketch.estimar()));
+        });
+        dto.setErroPadrao(HyperLogLog.ERRO_PADRAO);
+        dto.setClientesDistintos(total.estimar());
+        return dto;
+    }
+
+    private interface VisitantePeriodo {
+        void visitar(LocalDate de, LocalDate ate, LocalDate chave);
+    }
+
+    // Períodos que cobrem [inicio, fim), cortados nas pontas; chave é o início do período inteiro
+    private void percorrerPeriodos(LocalDate inicio, LocalDate fim, PeriodoClientes periodo, VisitantePeriodo visitante) {
+        for (LocalDate chave = periodo.inicio(inicio); chave.isBefore(fim); chave = periodo.seguinte(chave)) {
+            LocalDate proximo = periodo.seguinte(chave);
+            visitante.visitar(chave.isBefore(inicio) ? inicio : chave, proximo.isAfter(fim) ? fim : proximo, chave);
+        }
+    }
+
+    // A cópia é feita dentro do compute: nenhum registro concorrente fica pela metade
+    private HyperLogLog copiarPendente(Chave chave) {
+        HyperLogLog[] copia = new HyperLogLog[1];
+        pendentes.computeIfPresent(chave, (k, sketch) -> {
+            copia[0] = sketch.copiar();
+            return sketch;
+        });
+        return copia[0];
+    }
+}
@@ -0,0 +1,149 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.model.ChaveIdempotencia;
+import com.deliverytech.delivery_api.repository.ChaveIdempotenciaRepository;
+import com.deliverytech.delivery_api.util.CacheExpiravel;
+import com.deliverytech.delivery_api.util.SecurityUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+// Idempotency-Key no POST /api/pedidos: a primeira requisição cria o pedido e grava a resposta,
+// repetições recebem a mesma resposta do cache (sem acessar o banco) ou da tabela, após um restart.
+@Service
+public class IdempotenciaService {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final PedidoService pedidoService;
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final SecurityUtils securityUtils;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheExpiravel<String, RespostaGravada> cache;
+    private final Duration ttl;
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private record RespostaGravada(String hashRequisicao, PedidoResponseDTO pedido) {}
+
+    public record ResultadoIdempotente(PedidoResponseDTO pedido, boolean repetido) {}
+
+    public IdempotenciaService(PedidoService pedidoService, ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                               SecurityUtils securityUtils, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager, DeliveryMetrics deliveryMetrics,
+                               @Value("${delivery.idempotencia.ttl-horas:24}") long ttlHoras,
+                               @Value("${delivery.idempotencia.capacidade:10000}") int capacidade) {
+        this.pedidoService = pedidoService;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.securityUtils = securityUtils;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHoras);
+        this.cache = new CacheExpiravel<>(capacidade, ttl);
+        deliveryMetrics.monitorarCache("idempotencia", cache);
+    }
+
+    public ResultadoIdempotente criarPedido(String chave, PedidoRequestDTO dto) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new BusinessException("Idempotency-Key deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+
+        // A chave vale apenas para o usuário que a enviou
+        String usuario = securityUtils.getCurrentUsername();
+        String escopo = (usuario != null ? usuario : "anonimo") + ":" + chave;
+        String hash = calcularHash(dto);
+
+        AtomicBoolean criado = new AtomicBoolean(false);
+        RespostaGravada resposta = cache.obter(escopo, k -> carregarOuCriar(k, hash, dto, criado));
+
+        if (!resposta.hashRequisicao().equals(hash)) {
+            throw new BusinessException("Idempotency-Key já utilizada com outro conteúdo de pedido.");
+        }
+        return new ResultadoIdempotente(resposta.pedido(), !criado.get());
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.idempotencia.limpeza-ms:600000}")
+    void removerExpiradas() {
+        cache.removerExpiradas();
+        Integer removidas = transactionTemplate.execute(status -> chaveIdempotenciaRepository.deleteExpiradas(LocalDateTime.now()));
+        if (removidas != null && removidas > 0) {
+            logger.info("{} chaves de idempotência expiradas removidas.", removidas);
+        }
+    }
+
+    private RespostaGravada carregarOuCriar(String chave, String hash, PedidoRequestDTO dto, AtomicBoolean criado) {
+        Optional<ChaveIdempotencia> gravada = chaveIdempotenciaRepository.findByChave(chave);
+        if (gravada.isPresent() && gravada.get().getExpiraEm().isAfter(LocalDateTime.now())) {
+            return ler(gravada.get());
+        }
+
+        try {
+            // Pedido e chave na mesma transação: ou os dois são gravados, ou nenhum
+            return transactionTemplate.execute(status -> {
+                gravada.ifPresent(chaveIdempotenciaRepository::delete);
+
+                PedidoResponseDTO pedido = pedidoService.criarPedido(dto);
+                chaveIdempotenciaRepository.saveAndFlush(novoRegistro(chave, hash, pedido));
+                criado.set(true);
+                return new RespostaGravada(hash, pedido);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância gravou a mesma chave antes; o pedido desta transação foi desfeito
+            logger.warn("Idempotency-Key gravada concorrentemente por outra instância: {}", chave);
+            return chaveIdempotenciaRepository.findByChave(chave).map(this::ler).orElseThrow(() -> e);
+        }
+    }
+
+    private ChaveIdempotencia novoRegistro(String chave, String hash, PedidoResponseDTO pedido) {
+        ChaveIdempotencia registro = new ChaveIdempotencia();
+        registro.setChave(chave);
+        registro.setHashRequisicao(hash);
+        registro.setPedidoId(pedido.getId());
+        registro.setCriadaEm(LocalDateTime.now());
+        registro.setExpiraEm(registro.getCriadaEm().plus(ttl));
+        try {
+            registro.setResposta(objectMapper.writeValueAsString(pedido));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta do pedido.", e);
+        }
+        return registro;
+    }
+
+    private RespostaGravada ler(ChaveIdempotencia registro) {
+        try {
+            return new RespostaGravada(registro.getHashRequisicao(),
+                    objectMapper.readValue(registro.getResposta(), PedidoResponseDTO.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta gravada inválida para a chave " + registro.getChave(), e);
+        }
+    }
+
+    private String calcularHash(PedidoRequestDTO dto) {
+        try {
+            byte[] corpo = objectMapper.writeValueAsBytes(dto);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Falha ao calcular o hash do pedido.", e);
+        }
+    }
+}
@@ -1,9 +1,8 @@
 package com.deliverytech.delivery_api.service;
 
 import com.deliverytech.delivery_api.dto.response.ItemPedidoResponseDTO;
-import com.deliverytech.delivery_api.model.ItemPedido;
+import com.deliverytech.delivery_api.mapper.ItemPedidoMapper;
 import com.deliverytech.delivery_api.repository.ItemPedidoRespository;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -13,31 +12,22 @@ import java.util.stream.Collectors;
 public class ItemPedidoService {
 
     private final ItemPedidoRespository itemPedidoRepository;
-    private final ModelMapper modelMapper;
+    private final ItemPedidoMapper itemPedidoMapper;
 
-    public ItemPedidoService(ItemPedidoRespository itemPedidoRepository, ModelMapper modelMapper) {
+    public ItemPedidoService(ItemPedidoRespository itemPedidoRepository, ItemPedidoMapper itemPedidoMapper) {
         this.itemPedidoRepository = itemPedidoRepository;
-        this.modelMapper = modelMapper;
+        this.itemPedidoMapper = itemPedidoMapper;
     }
 
     public List<ItemPedidoResponseDTO> listarTodos() {
         return itemPedidoRepository.findAll().stream()
-                .map(this::convertToDto)
+                .map(itemPedidoMapper::paraResposta)
                 .collect(Collectors.toList());
     }
 
     public List<ItemPedidoResponseDTO> listarPorPedido(Long pedidoId) {
         return itemPedidoRepository.findByPedidoId(pedidoId).stream()
-                .map(this::convertToDto)
+                .map(itemPedidoMapper::paraResposta)
                 .collect(Collectors.toList());
     }
-
-    private ItemPedidoResponseDTO convertToDto(ItemPedido item) {
-        ItemPedidoResponseDTO dto = modelMapper.map(item, ItemPedidoResponseDTO.class);
-        // Garante que o nome do produto seja mapeado corretamente se o ModelMapper falhar implicitamente
-        if (item.getProduto() != null) {
-            dto.setNomeProduto(item.getProduto().getNome());
-        }
-        return dto;
-    }
 }
\ No newline at end of file
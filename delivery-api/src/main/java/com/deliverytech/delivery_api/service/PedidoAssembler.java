@@ -0,0 +1,97 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.model.ItemPedido;
+import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+// Montagem dos itens de um pedido: resolve todos os produtos em uma única consulta e valida em memória
+@Component
+public class PedidoAssembler {
+
+    private final ProdutoRepository produtoRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(PedidoAssembler.class);
+
+    public PedidoAssembler(ProdutoRepository produtoRepository) {
+        this.produtoRepository = produtoRepository;
+    }
+
+    // Busca (produto + restaurante dono) de todos os itens dos pedidos informados em um único SELECT
+    public Map<Long, Produto> resolverProdutos(Collection<PedidoRequestDTO> dtos) {
+        Set<Long> ids = new HashSet<>();
+        for (PedidoRequestDTO dto : dtos) {
+            if (dto.getItens() == null) {
+                continue;
+            }
+            for (ItemPedidoRequestDTO item : dto.getItens()) {
+                if (item.getProdutoId() != null) {
+                    ids.add(item.getProdutoId());
+                }
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Produto> produtos = new HashMap<>();
+        for (Produto produto : produtoRepository.findAllWithRestauranteByIdIn(ids)) {
+            produtos.put(produto.getId(), produto);
+        }
+        return produtos;
+    }
+
+    public void montarItens(PedidoRequestDTO dto, Pedido pedido, Restaurante restaurante) {
+        montarItens(dto, pedido, restaurante, resolverProdutos(List.of(dto)));
+    }
+
+    // Valida cada item contra os produtos já carregados (mesmas mensagens do fluxo anterior) e monta os ItemPedido
+    public void montarItens(PedidoRequestDTO dto, Pedido pedido, Restaurante restaurante, Map<Long, Produto> produtos) {
+        if (dto.getItens() == null || dto.getItens().isEmpty()) {
+            throw new BusinessException("Um pedido deve conter pelo menos um item.");
+        }
+
+        for (ItemPedidoRequestDTO itemDto : dto.getItens()) {
+            Produto produto = produtos.get(itemDto.getProdutoId());
+            if (produto == null) {
+                throw new EntityNotFoundException("Produto ID " + itemDto.getProdutoId() + " não existe.");
+            }
+
+            if (!produto.getRestaurante().getId().equals(restaurante.getId())) {
+                throw new BusinessException("O produto " + produto.getNome() + " não pertence ao restaurante " + restaurante.getNome());
+            }
+
+            if (!produto.getDisponivel()) {
+                throw new BusinessException("O produto " + produto.getNome() + " não está disponível para pedidos.");
+            }
+
+            ItemPedido item = new ItemPedido();
+            item.setPedido(pedido);
+            item.setProduto(produto);
+            item.setQuantidade(itemDto.getQuantidade());
+            item.setPrecoUnitario(produto.getPreco());
+            item.setSubtotal(produto.getPreco().multiply(BigDecimal.valueOf(itemDto.getQuantidade())));
+
+            logger.warn("[ALERTA-THRESHOLD] Processamento de pedido - Pedido ID {} demorou {}ms - Verifique gargalos no DB!", pedido.getId(), pedido, restaurante);
+
+            pedido.getItens().add(item);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+// Feed SSE de pedidos por restaurante (GET /api/pedidos/restaurantes/{id}/eventos).
+// Cada restaurante tem um buffer circular com os últimos eventos e a lista de conexões abertas;
+// conexões ociosas não prendem threads (async servlet) e o envio roda em virtual threads.
+// Cada conexão tem o próprio lock de envio: um cliente lento só atrasa a si mesmo, e uma conexão com um
+// envio parado há mais de envio-limite-ms é descartada no heartbeat.
+@Service
+public class PedidoEventosService {
+
+    public static final String EVENTO_CRIADO = "pedido-criado";
+    public static final String EVENTO_STATUS = "pedido-status";
+    public static final String EVENTO_RESSINCRONIZAR = "ressincronizar";
+
+    private final RestauranteRepository restauranteRepository;
+    private final ObjectMapper objectMapper;
+    private final int capacidadeBuffer;
+    private final long timeoutMs;
+    private final long limiteEnvioNanos;
+
+    // Prefixo dos IDs de evento: um Last-Event-ID de outra execução não é confundido com os desta
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Canal> canais = new ConcurrentHashMap<>();
+    private final ExecutorService envio = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final Logger logger = LoggerFactory.getLogger(PedidoEventosService.class);
+
+    public PedidoEventosService(RestauranteRepository restauranteRepository, ObjectMapper objectMapper,
+                                DeliveryMetrics deliveryMetrics,
+                                @Value("${delivery.pedidos.eventos.buffer:256}") int capacidadeBuffer,
+                                @Value("${delivery.pedidos.eventos.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${delivery.pedidos.eventos.envio-limite-ms:30000}") long limiteEnvioMs) {
+        this.restauranteRepository = restauranteRepository;
+        this.objectMapper = objectMapper;
+        this.capacidadeBuffer = capacidadeBuffer;
+        this.timeoutMs = timeoutMs;
+        this.limiteEnvioNanos = TimeUnit.MILLISECONDS.toNanos(limiteEnvioMs);
+        deliveryMetrics.monitorarConexoesEventos(this::conexoesAbertas);
+    }
+
+    public SseEmitter assinar(Long restauranteId, String ultimoEventoId) {
+        return assinar(restauranteId, ultimoEventoId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter assinar(Long restauranteId, String ultimoEventoId, SseEmitter emitter) {
+        if (!restauranteRepository.existsById(restauranteId)) {
+            throw new EntityNotFoundException("Restaurante ID " + restauranteId + " não encontrado.");
+        }
+
+        Canal canal = canais.computeIfAbsent(restauranteId, id -> new Canal(capacidadeBuffer));
+        Assinante assinante = new Assinante(emitter, posicaoInicial(canal, ultimoEventoId));
+
+        canal.assinantes.add(assinante);
+        emitter.onCompletion(() -> canal.assinantes.remove(assinante));
+        emitter.onTimeout(() -> canal.assinantes.remove(assinante));
+        emitter.onError(erro -> canal.assinantes.remove(assinante));
+
+        // Reenvia o que foi perdido desde o Last-Event-ID (se ainda estiver no buffer)
+        envio.execute(() -> entregar(canal, assinante));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        publicar(evento.restauranteId(), EVENTO_CRIADO, evento.pedido());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarStatus(PedidoStatusAlteradoEvent evento) {
+        publicar(evento.restauranteId(), EVENTO_STATUS, evento);
+    }
+
+    // Comentário SSE periódico: mantém proxies com a conexão aberta e descobre clientes que sumiram.
+    // Conexões com um envio em andamento não recebem o ping; se ele está parado há tempo demais, são descartadas.
+    @Scheduled(fixedDelayString = "${delivery.pedidos.eventos.heartbeat-ms:15000}")
+    void heartbeat() {
+        long agora = System.nanoTime();
+        for (Canal canal : canais.values()) {
+            for (Assinante assinante : canal.assinantes) {
+                long enviandoDesde = assinante.enviandoDesde;
+                if (enviandoDesde != 0 && agora - enviandoDesde > limiteEnvioNanos) {
+                    // O emitter fica travado pelo envio parado: encerrá-lo aqui prenderia o agendador
+                    if (canal.assinantes.remove(assinante)) {
+                        logger.warn("Conexão SSE descartada: envio bloqueado há mais de {} ms.",
+                                TimeUnit.NANOSECONDS.toMillis(limiteEnvioNanos));
+                        envio.execute(() -> assinante.emitter.completeWithError(new IOException("Envio SSE bloqueado")));
+                    }
+                } else if (enviandoDesde == 0) {
+                    envio.execute(() -> {
+                        if (assinante.envio.tryLock()) {
+                            try {
+                                enviar(canal, assinante, SseEmitter.event().comment("ping"));
+                            } finally {
+                                assinante.envio.unlock();
+                            }
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    public int conexoesAbertas() {
+        return canais.values().stream().mapToInt(canal -> canal.assinantes.size()).sum();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        canais.values().forEach(canal -> canal.assinantes.forEach(assinante -> assinante.emitter.complete()));
+        envio.shutdownNow();
+    }
+
+    private void publicar(Long restauranteId, String tipo, Object dados) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(dados); // serializado uma vez para todas as conexões
+        } catch (JsonProcessingException e) {
+            logger.error("Falha ao serializar evento {} do restaurante {}: {}", tipo, restauranteId, e.getMessage());
+            return;
+        }
+
+        Canal canal = canais.computeIfAbsent(restauranteId, id -> new Canal(capacidadeBuffer));
+        canal.adicionar(tipo, json);
+        for (Assinante assinante : canal.assinantes) {
+            envio.execute(() -> entregar(canal, assinante));
+        }
+    }
+
+    // A conexão recebe, em ordem, tudo o que veio depois do último evento que ela já recebeu. Entregas
+    // disparadas enquanto outra está em andamento só marcam "pendente": quem tem o lock repete o laço e envia
+    // também o que chegou, sem enfileirar threads atrás de um cliente lento.
+    private void entregar(Canal canal, Assinante assinante) {
+        assinante.pendente.set(true);
+        while (assinante.pendente.get() && assinante.envio.tryLock()) {
+            try {
+                assinante.pendente.set(false);
+                entregarPendentes(canal, assinante);
+            } finally {
+                assinante.envio.unlock();
+            }
+        }
+    }
+
+    private void entregarPendentes(Canal canal, Assinante assinante) {
+        long primeira = canal.primeiraSequencia();
+        if (assinante.ultimaEnviada < primeira - 1) {
+            // Eventos já saíram do buffer: o cliente deve recarregar a lista pela API REST
+            if (!enviar(canal, assinante, SseEmitter.event().name(EVENTO_RESSINCRONIZAR).data("{}"))) return;
+            assinante.ultimaEnviada = primeira - 1;
+        }
+        for (EventoFeed evento : canal.desde(assinante.ultimaEnviada)) {
+            SseEmitter.SseEventBuilder sse = SseEmitter.event()
+                    .id(epoca + "-" + evento.sequencia())
+                    .name(evento.tipo())
+                    .data(evento.json());
+            if (!enviar(canal, assinante, sse)) return;
+            assinante.ultimaEnviada = evento.sequencia();
+        }
+    }
+
+    // Chamado com o lock da conexão; enviandoDesde expõe ao heartbeat há quanto tempo o envio está em curso
+    private boolean enviar(Canal canal, Assinante assinante, SseEmitter.SseEventBuilder evento) {
+        if (!canal.assinantes.contains(assinante)) {
+            return false; // descartada enquanto aguardava
+        }
+        assinante.enviandoDesde = System.nanoTime();
+        try {
+            assinante.emitter.send(evento);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            canal.assinantes.remove(assinante);
+            assinante.emitter.completeWithError(e);
+            return false;
+        } finally {
+            assinante.enviandoDesde = 0;
+        }
+    }
+
+    private long posicaoInicial(Canal canal, String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return canal.ultimaSequencia(); // conexão nova: somente eventos a partir de agora
+        }
+        int separador = ultimoEventoId.lastIndexOf('-');
+        if (separador > 0 && ultimoEventoId.substring(0, separador).equals(epoca)) {
+            try {
+                return Long.parseLong(ultimoEventoId.substring(separador + 1));
+            } catch (NumberFormatException e) {
+                // cai no reenvio completo abaixo
+            }
+        }
+        return 0; // ID de outra execução da aplicação: reenvia tudo o que ainda está no buffer
+    }
+
+    private record EventoFeed(long sequencia, String tipo, String json) {}
+
+    private static final class Assinante {
+        private final SseEmitter emitter;
+        private final ReentrantLock envio = new ReentrantLock();
+        private final AtomicBoolean pendente = new AtomicBoolean();
+        private volatile long enviandoDesde; // System.nanoTime() do envio em curso; 0 sem envio
+        private long ultimaEnviada; // acessado somente com o lock de envio
+
+        private Assinante(SseEmitter emitter, long ultimaEnviada) {
+            this.emitter = emitter;
+            this.ultimaEnviada = ultimaEnviada;
+        }
+    }
+
+    private static final class Canal {
+        private final EventoFeed[] buffer;
+        private long ultimaSequencia;
+        private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+
+        private Canal(int capacidade) {
+            this.buffer = new EventoFeed[capacidade];
+        }
+
+        private synchronized void adicionar(String tipo, String json) {
+            ultimaSequencia++;
+            buffer[(int) (ultimaSequencia % buffer.length)] = new EventoFeed(ultimaSequencia, tipo, json);
+        }
+
+        private synchronized long ultimaSequencia() {
+            return ultimaSequencia;
+        }
+
+        private synchronized long primeiraSequencia() {
+            return Math.max(1, ultimaSequencia - buffer.length + 1);
+        }
+
+        private synchronized List<EventoFeed> desde(long sequencia) {
+            long inicio = Math.max(sequencia + 1, primeiraSequencia());
+            List<EventoFeed> eventos = new ArrayList<>((int) Math.max(0, ultimaSequencia - inicio + 1));
+            for (long s = inicio; s <= ultimaSequencia; s++) {
+                eventos.add(buffer[(int) (s % buffer.length)]);
+            }
+            return eventos;
+        }
+    }
+}
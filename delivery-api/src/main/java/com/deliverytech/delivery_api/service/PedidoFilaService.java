@@ -0,0 +1,165 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.ProcessamentoPedidoDTO;
+import com.deliverytech.delivery_api.enums.SituacaoProcessamento;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.exeption.FilaCheiaException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.util.NumeroPedidoGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Ingestão assíncrona de pedidos (Prefer: respond-async): o controller só valida e enfileira,
+// e um número fixo de virtual threads drena a fila para o PedidoService.
+// A fila é em memória: pedidos ainda não processados se perdem se a instância cair.
+// Só os pedidos em andamento e as falhas recentes ficam no mapa de processamentos: um pedido concluído sai dele
+// assim que é gravado, e a consulta passa a ser respondida pelo próprio pedido.
+@Service
+public class PedidoFilaService {
+
+    private final PedidoService pedidoService;
+    private final NumeroPedidoGenerator numeroPedidoGenerator;
+    private final DeliveryMetrics deliveryMetrics;
+
+    private final boolean habilitado;
+    private final int workers;
+    private final long retencaoMinutos;
+
+    private final BlockingQueue<TarefaPedido> fila;
+    private final Map<String, ProcessamentoPedidoDTO> processamentos = new ConcurrentHashMap<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    private static final Logger logger = LoggerFactory.getLogger(PedidoFilaService.class);
+
+    private record TarefaPedido(String numeroPedido, PedidoRequestDTO dto, long recebidoEmNanos) {}
+
+    public PedidoFilaService(PedidoService pedidoService, NumeroPedidoGenerator numeroPedidoGenerator,
+                             DeliveryMetrics deliveryMetrics,
+                             @Value("${delivery.pedidos.assincrono.habilitado:false}") boolean habilitado,
+                             @Value("${delivery.pedidos.assincrono.capacidade:1000}") int capacidade,
+                             @Value("${delivery.pedidos.assincrono.workers:8}") int workers,
+                             @Value("${delivery.pedidos.assincrono.retencao-minutos:5}") long retencaoMinutos) {
+        this.pedidoService = pedidoService;
+        this.numeroPedidoGenerator = numeroPedidoGenerator;
+        this.deliveryMetrics = deliveryMetrics;
+        this.habilitado = habilitado;
+        this.workers = workers;
+        this.retencaoMinutos = retencaoMinutos;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        deliveryMetrics.monitorarFila(fila);
+    }
+
+    // O número de workers limita quantas transações simultâneas a fila abre no pool de conexões
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofVirtual().name("pedido-fila-" + i).start(this::consumir));
+        }
+        logger.info("Ingestão assíncrona de pedidos habilitada: {} workers, capacidade {}.", workers, fila.remainingCapacity());
+    }
+
+    @PreDestroy
+    void parar() {
+        threads.forEach(Thread::interrupt);
+        if (!fila.isEmpty()) {
+            logger.warn("Encerrando com {} pedidos ainda na fila assíncrona.", fila.size());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public ProcessamentoPedidoDTO enfileirar(PedidoRequestDTO dto) {
+        String numeroPedido = numeroPedidoGenerator.gerar();
+        ProcessamentoPedidoDTO processamento = ProcessamentoPedidoDTO.naFila(numeroPedido);
+        processamentos.put(numeroPedido, processamento);
+
+        if (!fila.offer(new TarefaPedido(numeroPedido, dto, System.nanoTime()))) {
+            processamentos.remove(numeroPedido);
+            deliveryMetrics.registrarRejeicaoFila();
+            throw new FilaCheiaException("Fila de pedidos cheia. Tente novamente em instantes.");
+        }
+        return processamento;
+    }
+
+    // GET /api/pedidos/processamento/{numero} - depois de concluído, o resultado vem do próprio pedido gravado
+    public ProcessamentoPedidoDTO consultar(String numeroPedido) {
+        ProcessamentoPedidoDTO processamento = processamentos.get(numeroPedido.toUpperCase());
+        if (processamento != null) {
+            return processamento;
+        }
+        try {
+            PedidoResponseDTO pedido = pedidoService.buscarPedidoPorNumero(numeroPedido);
+            ProcessamentoPedidoDTO concluido = ProcessamentoPedidoDTO.naFila(pedido.getNumeroPedido())
+                    .avancar(SituacaoProcessamento.CONCLUIDO, pedido, null);
+            concluido.setRecebidoEm(pedido.getDataPedido());
+            return concluido;
+        } catch (EntityNotFoundException e) {
+            throw new EntityNotFoundException("Processamento do pedido " + numeroPedido + " não encontrado.");
+        }
+    }
+
+    // Remove as falhas (REJEITADO, ERRO) após a retenção; não há pedido gravado que responda por elas
+    @Scheduled(fixedDelayString = "${delivery.pedidos.assincrono.limpeza-ms:60000}")
+    void limparConcluidos() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencaoMinutos);
+        processamentos.values().removeIf(p -> p.getConcluidoEm() != null && p.getConcluidoEm().isBefore(limite));
+    }
+
+    private void consumir() {
+        while (!Thread.currentThread().isInterrupted()) {
+            TarefaPedido tarefa;
+            try {
+                tarefa = fila.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            processar(tarefa);
+        }
+    }
+
+    private void processar(TarefaPedido tarefa) {
+        long inicio = System.nanoTime();
+        deliveryMetrics.registrarEsperaFila(inicio - tarefa.recebidoEmNanos());
+        atualizar(tarefa.numeroPedido(), SituacaoProcessamento.PROCESSANDO, null, null);
+
+        try {
+            pedidoService.criarPedido(tarefa.dto(), tarefa.numeroPedido());
+            // Já gravado (criarPedido comitou): o resultado com o pedido completo não precisa ficar em memória
+            processamentos.remove(tarefa.numeroPedido());
+        } catch (EntityNotFoundException | BusinessException e) {
+            atualizar(tarefa.numeroPedido(), SituacaoProcessamento.REJEITADO, null, e.getMessage());
+        } catch (Exception e) {
+            deliveryMetrics.registrarPedido(false);
+            logger.error("Erro processando pedido {} da fila: {}", tarefa.numeroPedido(), e.getMessage(), e);
+            atualizar(tarefa.numeroPedido(), SituacaoProcessamento.ERRO, null, "Erro interno ao processar o pedido.");
+        } finally {
+            deliveryMetrics.registrarTempoProcessamento((System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    private void atualizar(String numeroPedido, SituacaoProcessamento situacao, PedidoResponseDTO pedido, String erro) {
+        processamentos.computeIfPresent(numeroPedido, (numero, atual) -> atual.avancar(situacao, pedido, erro));
+    }
+}
@@ -1,28 +1,46 @@
 package com.deliverytech.delivery_api.service;
 
 import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.CursorResponse;
 import com.deliverytech.delivery_api.dto.response.PagedResponse;
 import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.ResultadoLotePedidoDTO;
 import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.PedidoStatusAlteradoEvent;
 import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.ConflitoException;
 import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.mapper.PedidoMapper;
 import com.deliverytech.delivery_api.model.*;
 import com.deliverytech.delivery_api.repository.ClienteRepository;
 import com.deliverytech.delivery_api.repository.PedidoRepository;
-import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.PedidoSpecifications;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
-import org.modelmapper.ModelMapper;
+import com.deliverytech.delivery_api.util.CursorPedido;
+import com.deliverytech.delivery_api.util.NumeroPedidoGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -32,47 +50,63 @@ public class PedidoService {
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
     private final RestauranteRepository restauranteRepository;
-    private final ProdutoRepository produtoRepository;
-    private final ModelMapper modelMapper;
+    private final PedidoAssembler pedidoAssembler;
+    private final PedidoMapper pedidoMapper;
+    private final Validator validator;
+    private final NumeroPedidoGenerator numeroPedidoGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VendasRestauranteService vendasRestauranteService;
+    private final RollupService rollupService;
+
+    @Value("${delivery.pedidos.lote.tamanho-maximo:500}")
+    private int tamanhoMaximoLote = 500;
+
+    private static final int TAMANHO_MAXIMO_PAGINA_CURSOR = 100;
+    private static final Sort ORDEM_CURSOR = Sort.by(Sort.Order.desc("dataPedido"), Sort.Order.desc("id"));
 
     private static final Logger logger = LoggerFactory.getLogger(PedidoService.class);
 
     public PedidoService(PedidoRepository pedidoRepository, ClienteRepository clienteRepository,
-                         RestauranteRepository restauranteRepository, ProdutoRepository produtoRepository,
-                         ModelMapper modelMapper) {
+                         RestauranteRepository restauranteRepository, PedidoAssembler pedidoAssembler,
+                         PedidoMapper pedidoMapper, Validator validator, NumeroPedidoGenerator numeroPedidoGenerator,
+                         ApplicationEventPublisher eventPublisher, VendasRestauranteService vendasRestauranteService,
+                         RollupService rollupService) {
         this.pedidoRepository = pedidoRepository;
         this.clienteRepository = clienteRepository;
         this.restauranteRepository = restauranteRepository;
-        this.produtoRepository = produtoRepository;
-        this.modelMapper = modelMapper;
+        this.pedidoAssembler = pedidoAssembler;
+        this.pedidoMapper = pedidoMapper;
+        this.validator = validator;
+        this.numeroPedidoGenerator = numeroPedidoGenerator;
+        this.eventPublisher = eventPublisher;
+        this.vendasRestauranteService = vendasRestauranteService;
+        this.rollupService = rollupService;
     }
 
     @Transactional
     public PedidoResponseDTO criarPedido(PedidoRequestDTO dto) {
-        try {
-            Cliente cliente = clienteRepository.findById(dto.getClienteId())
-                    .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com ID: " + dto.getClienteId()));
+        return criarPedido(dto, numeroPedidoGenerator.gerar());
+    }
 
-            if (!cliente.isAtivo()) {
-                throw new BusinessException("Pedido negado: O cliente selecionado está inativo.");
-            }
+    // Usado pela fila assíncrona, que já entregou o número de acompanhamento ao cliente
+    @Transactional
+    public PedidoResponseDTO criarPedido(PedidoRequestDTO dto, String numeroPedido) {
+        try {
+            Cliente cliente = clienteRepository.findById(dto.getClienteId()).orElse(null);
+            validarCliente(dto, cliente);
 
-            Restaurante restaurante = restauranteRepository.findById(dto.getRestauranteId())
-                    .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com ID: " + dto.getRestauranteId()));
+            Restaurante restaurante = restauranteRepository.findById(dto.getRestauranteId()).orElse(null);
+            validarRestaurante(dto, restaurante);
 
-            Pedido pedido = new Pedido();
-            pedido.setCliente(cliente);
-            pedido.setRestaurante(restaurante);
-            pedido.setEnderecoEntrega(cliente.getEndereco());
-            pedido.setTaxaEntrega(restaurante.getTaxaEntrega());
-            pedido.setStatus(StatusPedidos.PENDENTE);
-            pedido.setDataPedido(LocalDateTime.now());
-            pedido.setNumeroPedido(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            // Produtos, restaurante dono e disponibilidade resolvidos em uma única consulta
+            Pedido pedido = montarPedido(dto, cliente, restaurante, pedidoAssembler.resolverProdutos(List.of(dto)), numeroPedido);
 
-            processarItens(dto, pedido, restaurante);
-            pedido.setValorTotal(calcularTotalPedido(pedido.getItens(), pedido.getTaxaEntrega()));
+            Pedido salvo = pedidoRepository.save(pedido);
+            vendasRestauranteService.registrarPedidos(List.of(salvo));
 
-            return modelMapper.map(pedidoRepository.save(pedido), PedidoResponseDTO.class);
+            PedidoResponseDTO resposta = pedidoMapper.paraResposta(salvo);
+            eventPublisher.publishEvent(PedidoCriadoEvent.de(salvo, resposta));
+            return resposta;
 
         } catch (EntityNotFoundException | BusinessException e) {
             throw e;
@@ -81,34 +115,109 @@ public class PedidoService {
         }
     }
 
-    private void processarItens(PedidoRequestDTO dto, Pedido pedido, Restaurante restaurante) {
-        if (dto.getItens() == null || dto.getItens().isEmpty()) {
-            throw new BusinessException("Um pedido deve conter pelo menos um item.");
+    // NOVO: POST /api/pedidos/lote - valida o lote inteiro contra consultas compartilhadas e persiste com JDBC batch
+    @Transactional
+    public List<ResultadoLotePedidoDTO> criarPedidosEmLote(List<PedidoRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new BusinessException("O lote deve conter pelo menos um pedido.");
+        }
+        if (dtos.size() > tamanhoMaximoLote) {
+            throw new BusinessException("O lote excede o limite de " + tamanhoMaximoLote + " pedidos.");
         }
 
-        dto.getItens().forEach(itemDto -> {
-            Produto produto = produtoRepository.findById(itemDto.getProdutoId())
-                    .orElseThrow(() -> new EntityNotFoundException("Produto ID " + itemDto.getProdutoId() + " não existe."));
-
-            if (!produto.getRestaurante().getId().equals(restaurante.getId())) {
-                throw new BusinessException("O produto " + produto.getNome() + " não pertence ao restaurante " + restaurante.getNome());
+        // Três SELECTs para o lote inteiro: clientes, restaurantes e produtos (com restaurante dono)
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(coletarIds(dtos, PedidoRequestDTO::getClienteId)).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        Map<Long, Restaurante> restaurantes = restauranteRepository.findAllById(coletarIds(dtos, PedidoRequestDTO::getRestauranteId)).stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+        Map<Long, Produto> produtos = pedidoAssembler.resolverProdutos(dtos);
+
+        ResultadoLotePedidoDTO[] resultados = new ResultadoLotePedidoDTO[dtos.size()];
+        Map<Integer, Pedido> validos = new LinkedHashMap<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            PedidoRequestDTO dto = dtos.get(i);
+            try {
+                validarCampos(dto);
+                Cliente cliente = clientes.get(dto.getClienteId());
+                validarCliente(dto, cliente);
+                Restaurante restaurante = restaurantes.get(dto.getRestauranteId());
+                validarRestaurante(dto, restaurante);
+
+                validos.put(i, montarPedido(dto, cliente, restaurante, produtos, numeroPedidoGenerator.gerar()));
+            } catch (EntityNotFoundException | BusinessException e) {
+                resultados[i] = ResultadoLotePedidoDTO.falha(i, e.getMessage());
             }
+        }
 
-            if (!produto.getDisponivel()) {
-                throw new BusinessException("O produto " + produto.getNome() + " não está disponível para pedidos.");
-            }
+        // Pedidos e itens (cascade) são gravados em lotes de hibernate.jdbc.batch_size
+        pedidoRepository.saveAll(validos.values());
+        pedidoRepository.flush();
+        vendasRestauranteService.registrarPedidos(validos.values());
 
-            ItemPedido item = new ItemPedido();
-            item.setPedido(pedido);
-            item.setProduto(produto);
-            item.setQuantidade(itemDto.getQuantidade());
-            item.setPrecoUnitario(produto.getPreco());
-            item.setSubtotal(produto.getPreco().multiply(BigDecimal.valueOf(itemDto.getQuantidade())));
+        validos.forEach((indice, pedido) -> {
+            PedidoResponseDTO resposta = pedidoMapper.paraResposta(pedido);
+            eventPublisher.publishEvent(PedidoCriadoEvent.de(pedido, resposta));
+            resultados[indice] = ResultadoLotePedidoDTO.sucesso(indice, resposta);
+        });
 
-            logger.warn("[ALERTA-THRESHOLD] Processamento de pedido - Pedido ID {} demorou {}ms - Verifique gargalos no DB!", pedido.getId(), pedido, restaurante);
+        logger.info("[LOTE] {} de {} pedidos criados.", validos.size(), dtos.size());
+        return Arrays.asList(resultados);
+    }
 
-            pedido.getItens().add(item);
-        });
+    private Pedido montarPedido(PedidoRequestDTO dto, Cliente cliente, Restaurante restaurante,
+                                Map<Long, Produto> produtos, String numeroPedido) {
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        pedido.setRestaurante(restaurante);
+        pedido.setEnderecoEntrega(cliente.getEndereco());
+        pedido.setLatitudeEntrega(dto.getLatitudeEntrega());
+        pedido.setLongitudeEntrega(dto.getLongitudeEntrega());
+        pedido.setTaxaEntrega(restaurante.getTaxaEntrega());
+        pedido.setStatus(StatusPedidos.PENDENTE);
+        pedido.setDataPedido(LocalDateTime.now());
+        pedido.setNumeroPedido(numeroPedido);
+
+        pedidoAssembler.montarItens(dto, pedido, restaurante, produtos);
+        pedido.setValorTotal(calcularTotalPedido(pedido.getItens(), pedido.getTaxaEntrega()));
+        return pedido;
+    }
+
+    private void validarCliente(PedidoRequestDTO dto, Cliente cliente) {
+        if (cliente == null) {
+            throw new EntityNotFoundException("Cliente não encontrado com ID: " + dto.getClienteId());
+        }
+        if (!cliente.isAtivo()) {
+            throw new BusinessException("Pedido negado: O cliente selecionado está inativo.");
+        }
+    }
+
+    private void validarRestaurante(PedidoRequestDTO dto, Restaurante restaurante) {
+        if (restaurante == null) {
+            throw new EntityNotFoundException("Restaurante não encontrado com ID: " + dto.getRestauranteId());
+        }
+    }
+
+    // No lote o @Valid do controller não alcança cada elemento, então a validação é feita pedido a pedido
+    private void validarCampos(PedidoRequestDTO dto) {
+        Set<ConstraintViolation<PedidoRequestDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            throw new BusinessException(violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private Set<Long> coletarIds(List<PedidoRequestDTO> dtos, Function<PedidoRequestDTO, Long> extrator) {
+        Set<Long> ids = new HashSet<>();
+        for (PedidoRequestDTO dto : dtos) {
+            Long id = extrator.apply(dto);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
     }
 
     public BigDecimal calcularTotalPedido(List<ItemPedido> itens, BigDecimal taxaEntrega) {
@@ -123,80 +232,196 @@ public class PedidoService {
         Restaurante restaurante = restauranteRepository.findById(dto.getRestauranteId())
                 .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado."));
 
+        Map<Long, Produto> produtos = pedidoAssembler.resolverProdutos(List.of(dto));
         BigDecimal totalItens = dto.getItens().stream().map(itemDto -> {
-            Produto produto = produtoRepository.findById(itemDto.getProdutoId())
-                    .orElseThrow(() -> new EntityNotFoundException("Produto não encontrado."));
+            Produto produto = produtos.get(itemDto.getProdutoId());
+            if (produto == null) {
+                throw new EntityNotFoundException("Produto não encontrado.");
+            }
             return produto.getPreco().multiply(BigDecimal.valueOf(itemDto.getQuantidade()));
         }).reduce(BigDecimal.ZERO, BigDecimal::add);
 
         return totalItens.add(restaurante.getTaxaEntrega());
     }
 
+    // Leituras: pedidos com cliente e restaurante em um SELECT e os itens de todos eles em outro,
+    // dentro de uma transação somente leitura (não dependem de open-in-view)
+    @Transactional(readOnly = true)
     public PedidoResponseDTO buscarPedidoPorId(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
+        Pedido pedido = pedidoRepository.findDetalhadoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pedido ID " + id + " não encontrado."));
-        return modelMapper.map(pedido, PedidoResponseDTO.class);
+        carregarItens(List.of(pedido));
+        return pedidoMapper.paraResposta(pedido);
+    }
+
+    // GET /api/pedidos/numero/{numero} - Consulta pelo número entregue ao cliente
+    @Transactional(readOnly = true)
+    public PedidoResponseDTO buscarPedidoPorNumero(String numeroPedido) {
+        Pedido pedido = pedidoRepository.findByNumeroPedido(numeroPedido.toUpperCase())
+                .orElseThrow(() -> new EntityNotFoundException("Pedido número " + numeroPedido + " não encontrado."));
+        carregarItens(List.of(pedido));
+        return pedidoMapper.paraResposta(pedido);
     }
 
     // NOVO: GET /api/pedidos (Listagem com filtros e paginação)
+    @Transactional(readOnly = true)
     public PagedResponse<PedidoResponseDTO> listarComFiltrosPaginado(StatusPedidos status, LocalDateTime data, Pageable pageable) {
 
         // Busca do banco já trazendo apenas os registros da página (ex: 10 itens)
-        Page<Pedido> paginaEntidades = pedidoRepository.findWithFilters(status, data, pageable);
+        Page<Pedido> paginaEntidades = pedidoRepository.findAll(filtros(status, data), pageable);
+        carregarItens(paginaEntidades.getContent());
         // Converte a página de entidades para DTOs
         Page<PedidoResponseDTO> paginaDtos = paginaEntidades
-                .map(p -> modelMapper.map(p, PedidoResponseDTO.class));
+                .map(pedidoMapper::paraResposta);
         // Envelopa no seu DTO de paginação
         return new PagedResponse<>(paginaDtos);
     }
 
+    // NOVO: GET /api/pedidos/cursor (mesmos filtros, paginação por cursor sem COUNT)
+    @Transactional(readOnly = true)
+    public CursorResponse<PedidoResponseDTO> listarComFiltrosPorCursor(StatusPedidos status, LocalDateTime data, String cursor, int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA_CURSOR) {
+            throw new BusinessException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA_CURSOR + ".");
+        }
+        CursorPedido posicao = CursorPedido.decodificar(cursor);
+        Specification<Pedido> especificacao = filtros(status, data)
+                .and(PedidoSpecifications.antesDe(posicao.dataPedido(), posicao.id()));
+
+        // Um item a mais indica se existe próxima página
+        List<Pedido> pedidos = pedidoRepository.findBy(especificacao, consulta -> consulta
+                .sortBy(ORDEM_CURSOR)
+                .project("cliente", "restaurante")
+                .limit(tamanho + 1)
+                .all());
+
+        String proximoCursor = null;
+        if (pedidos.size() > tamanho) {
+            pedidos = pedidos.subList(0, tamanho);
+            Pedido ultimo = pedidos.get(tamanho - 1);
+            proximoCursor = new CursorPedido(ultimo.getDataPedido(), ultimo.getId()).codificar();
+        }
+        carregarItens(pedidos);
+
+        List<PedidoResponseDTO> conteudo = pedidos.stream()
+                .map(pedidoMapper::paraResposta)
+                .collect(Collectors.toList());
+        return new CursorResponse<>(conteudo, tamanho, proximoCursor);
+    }
+
+    private Specification<Pedido> filtros(StatusPedidos status, LocalDateTime data) {
+        return Specification.where(PedidoSpecifications.comStatus(status))
+                .and(PedidoSpecifications.noDia(data != null ? data.toLocalDate() : null));
+    }
+
+    private void carregarItens(List<Pedido> pedidos) {
+        if (!pedidos.isEmpty()) {
+            pedidoRepository.carregarItens(pedidos.stream().map(Pedido::getId).toList());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<PedidoResponseDTO> buscarPedidosPorCliente(Long clienteId) {
         if (!clienteRepository.existsById(clienteId)) {
             throw new EntityNotFoundException("Cliente ID " + clienteId + " não encontrado.");
         }
-        return pedidoRepository.findByClienteId(clienteId).stream()
-                .map(p -> modelMapper.map(p, PedidoResponseDTO.class))
+        List<Pedido> pedidos = pedidoRepository.findByClienteId(clienteId);
+        carregarItens(pedidos);
+        return pedidos.stream()
+                .map(pedidoMapper::paraResposta)
                 .collect(Collectors.toList());
     }
 
     // NOVO: GET /api/restaurantes/{restauranteId}/pedidos
+    @Transactional(readOnly = true)
     public List<PedidoResponseDTO> buscarPedidosPorRestaurante(Long restauranteId) {
         if (!restauranteRepository.existsById(restauranteId)) {
             throw new EntityNotFoundException("Restaurante ID " + restauranteId + " não encontrado.");
         }
-        return pedidoRepository.findByRestauranteId(restauranteId).stream()
-                .map(p -> modelMapper.map(p, PedidoResponseDTO.class))
+        List<Pedido> pedidos = pedidoRepository.findByRestauranteId(restauranteId);
+        carregarItens(pedidos);
+        return pedidos.stream()
+                .map(pedidoMapper::paraResposta)
                 .collect(Collectors.toList());
     }
 
     @Transactional
     public PedidoResponseDTO atualizarStatusPedido(Long id, StatusPedidos novoStatus) {
+        return atualizarStatusPedido(id, novoStatus, null);
+    }
+
+    // versaoEsperada (opcional): a versão que o cliente leu; se o pedido mudou desde então, responde 409
+    @Transactional
+    public PedidoResponseDTO atualizarStatusPedido(Long id, StatusPedidos novoStatus, Long versaoEsperada) {
         logger.info("[AUDITORIA] Alterando status do pedido ID: {} para {}", id, novoStatus);
-        Pedido pedido = pedidoRepository.findById(id)
+        // Lido uma única vez, antes do UPDATE: o pedido completo responde a requisição e fornece status, versão e data
+        Pedido pedido = pedidoRepository.findDetalhadoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pedido não localizado para atualização."));
-
-        if (pedido.getStatus() == StatusPedidos.CANCELADO || pedido.getStatus() == StatusPedidos.ENTREGUE) {
-            throw new BusinessException("Não é possível alterar o status de um pedido já finalizado.");
-        }
-
-
-        pedido.setStatus(novoStatus);
+        carregarItens(List.of(pedido));
+        aplicarTransicao(id, pedido.getStatus(), pedido.getVersao(), pedido.getDataPedido(), novoStatus, versaoEsperada);
         logger.debug("[AUDITORIA] Status do pedido {} atualizado com sucesso no banco.", id);
-        return modelMapper.map(pedidoRepository.save(pedido), PedidoResponseDTO.class);
+
+        // O UPDATE condicionou na versão lida: status e versão gravados são conhecidos, sem nova leitura
+        PedidoResponseDTO resposta = pedidoMapper.paraResposta(pedido);
+        resposta.setStatus(novoStatus);
+        resposta.setVersao(pedido.getVersao() + 1);
+        eventPublisher.publishEvent(new PedidoStatusAlteradoEvent(pedido.getRestaurante().getId(), id,
+                pedido.getNumeroPedido(), novoStatus, resposta.getVersao(), pedido.getDataPedido()));
+        return resposta;
     }
 
     @Transactional
     public void cancelarPedido(Long id) {
         logger.warn("[AUDITORIA][SEGURANÇA] Tentativa de cancelamento - Pedido ID: {} | Motivo: {} | Usuário: {}", id);
-        Pedido pedido = pedidoRepository.findById(id)
+        PedidoRepository.SituacaoPedido atual = pedidoRepository.findSituacaoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Pedido não localizado para cancelamento."));
+        aplicarTransicao(id, atual.getStatus(), atual.getVersao(), atual.getDataPedido(), StatusPedidos.CANCELADO, null);
+        logger.info("[AUDITORIA] Pedido ID: {} cancelado com sucesso.", id);
+
+        eventPublisher.publishEvent(new PedidoStatusAlteradoEvent(atual.getRestauranteId(), id, atual.getNumeroPedido(),
+                StatusPedidos.CANCELADO, atual.getVersao() + 1, atual.getDataPedido()));
+    }
 
-        if (pedido.getStatus() != StatusPedidos.PENDENTE) {
-            throw new BusinessException("O cancelamento só é permitido para pedidos com status PENDENTE.");
+    // Verificação e escrita no mesmo UPDATE condicional: duas transições concorrentes nunca se sobrescrevem.
+    // O UPDATE exige a versão lida pelo chamador, então o status lido é exatamente o anterior à transição.
+    private void aplicarTransicao(Long id, StatusPedidos atual, Long versao, LocalDateTime dataPedido,
+                                  StatusPedidos novoStatus, Long versaoEsperada) {
+        validarTransicao(atual, versao, novoStatus, versaoEsperada);
+        int alterados = pedidoRepository.atualizarStatus(id, novoStatus, novoStatus.origensPermitidas(), versao);
+        if (alterados == 0) {
+            diagnosticarFalhaTransicao(id, novoStatus);
+        }
+        if (novoStatus == StatusPedidos.CANCELADO) {
+            vendasRestauranteService.registrarCancelamento(id);
         }
+        rollupService.registrarTransicao(id, dataPedido, atual, novoStatus);
+    }
 
-        pedido.setStatus(StatusPedidos.CANCELADO);
-        pedidoRepository.save(pedido);
-        logger.info("[AUDITORIA] Pedido ID: {} cancelado com sucesso.", id);
+    // Regras de StatusPedidos aplicadas ao status e à versão lidos
+    private void validarTransicao(StatusPedidos atual, Long versao, StatusPedidos novoStatus, Long versaoEsperada) {
+        if (novoStatus.origensPermitidas().isEmpty()) {
+            throw new BusinessException("O status " + novoStatus + " não pode ser atribuído a um pedido existente.");
+        }
+        if (versaoEsperada != null && !versaoEsperada.equals(versao)) {
+            throw new ConflitoException("O pedido foi alterado por outra operação (versão atual: " + versao + ").");
+        }
+        if (atual == novoStatus) {
+            throw new ConflitoException("O pedido já está com status " + novoStatus + ".");
+        }
+        if (atual.isFinal()) {
+            throw new BusinessException("Não é possível alterar o status de um pedido já finalizado.");
+        }
+        if (!atual.podeMudarPara(novoStatus)) {
+            String origens = novoStatus.origensPermitidas().stream().map(Enum::name).sorted().collect(Collectors.joining(" ou "));
+            throw new BusinessException("Transição de status não permitida: " + atual + " -> " + novoStatus
+                    + " (permitida a partir de " + origens + ").");
+        }
+    }
+
+    // Só no caminho de falha: outra operação alterou o pedido entre a leitura e o UPDATE; relê para explicar
+    private void diagnosticarFalhaTransicao(Long id, StatusPedidos novoStatus) {
+        PedidoRepository.SituacaoPedido atual = pedidoRepository.findSituacaoById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Pedido não localizado."));
+        validarTransicao(atual.getStatus(), atual.getVersao(), novoStatus, null);
+        throw new ConflitoException("O pedido foi alterado por outra operação (versão atual: " + atual.getVersao() + ").");
     }
-}
\ No newline at end of file
+}
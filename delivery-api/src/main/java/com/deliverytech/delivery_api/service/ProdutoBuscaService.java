@@ -0,0 +1,144 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.event.ProdutoAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.mapper.ProdutoMapper;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository.ProdutoIndexavel;
+import com.deliverytech.delivery_api.util.IndiceInvertido;
+import com.deliverytech.delivery_api.util.IndiceInvertido.Documento;
+import com.deliverytech.delivery_api.util.IndiceInvertido.Resultado;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+// Busca textual de produtos (GET /api/produtos/buscar): nome, descrição e categoria ficam em um IndiceInvertido em
+// memória, carregado na subida e atualizado após o commit de cada escrita de produto (ProdutoAlteradoEvent).
+// A busca ignora acentos e maiúsculas, aceita prefixos e pequenos erros de digitação e devolve os mais relevantes;
+// o banco só é consultado para os produtos do resultado.
+// Cargas e alterações vão para uma única thread, na ordem dos commits (como no SugestaoService): a requisição que
+// gravou não lê o produto de novo nem disputa o bloqueio de escrita do índice, e uma alteração feita durante a carga
+// completa é aplicada depois dela, sem ser sobrescrita pelo retrato antigo.
+@Service
+public class ProdutoBuscaService {
+
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoMapper produtoMapper;
+    private final IndiceInvertido indice = new IndiceInvertido();
+    private final ExecutorService atualizacoes = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "indice-produtos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Logger logger = LoggerFactory.getLogger(ProdutoBuscaService.class);
+
+    public ProdutoBuscaService(ProdutoRepository produtoRepository, ProdutoMapper produtoMapper) {
+        this.produtoRepository = produtoRepository;
+        this.produtoMapper = produtoMapper;
+    }
+
+    // Aguarda a carga: a subida (e quem pede a reconstrução) só segue com o índice completo
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirIndice() {
+        aguardar(atualizacoes.submit(this::reconstruir));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        atualizacoes.shutdownNow();
+    }
+
+    private void reconstruir() {
+        List<ProdutoIndexavel> produtos = produtoRepository.findIndexaveis();
+        indice.limpar();
+        produtos.forEach(p -> indice.colocar(documento(p)));
+        logger.info("Índice de busca de produtos carregado: {} produtos, {} termos", indice.tamanho(), indice.quantidadeTermos());
+    }
+
+    // Relê o produto: eventos de escritas concorrentes podem chegar fora de ordem, o banco tem o estado final
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        executar(() -> produtoRepository.findIndexavelById(evento.produtoId()).ifPresentOrElse(
+                p -> indice.colocar(documento(p)),
+                () -> indice.remover(evento.produtoId())));
+    }
+
+    // restauranteId e disponivel nulos: sem filtro
+    public List<ProdutoResponseDTO> buscar(String consulta, Long restauranteId, Boolean disponivel, int limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new BusinessException("Informe o termo da busca.");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new BusinessException("O limite da busca deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+
+        List<Resultado> resultados = indice.buscar(consulta, restauranteId, disponivel, limite);
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Produto> produtos = produtoRepository.findAllWithRestauranteByIdIn(resultados.stream().map(Resultado::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+
+        // Na ordem de relevância; um produto removido agora pode ainda estar no índice
+        List<ProdutoResponseDTO> resposta = new ArrayList<>(resultados.size());
+        for (Resultado resultado : resultados) {
+            Produto produto = produtos.get(resultado.id());
+            if (produto != null) {
+                resposta.add(produtoMapper.paraResposta(produto));
+            }
+        }
+        return resposta;
+    }
+
+    // Uma falha perde só aquela alteração (a próxima carga completa corrige); na parada, as novas são descartadas
+    private void executar(Runnable alteracao) {
+        try {
+            atualizacoes.execute(() -> {
+                try {
+                    alteracao.run();
+                } catch (RuntimeException e) {
+                    logger.error("Falha ao atualizar o índice de busca de produtos: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Índice de busca de produtos encerrado; alteração descartada.");
+        }
+    }
+
+    private static void aguardar(Future<?> tarefa) {
+        try {
+            tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException erro ? erro : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Documento documento(ProdutoIndexavel p) {
+        return new Documento(p.getId(), p.getRestauranteId() != null ? p.getRestauranteId() : 0,
+                Boolean.TRUE.equals(p.getDisponivel()), p.getNome(), p.getDescricao(), p.getCategoria());
+    }
+}
@@ -2,22 +2,26 @@ package com.deliverytech.delivery_api.service;
 
 import com.deliverytech.delivery_api.dto.request.ProdutoRequestDTO;
 import com.deliverytech.delivery_api.dto.response.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.event.ProdutoAlteradoEvent;
 import com.deliverytech.delivery_api.exeption.BusinessException;
 import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.mapper.ProdutoMapper;
 import com.deliverytech.delivery_api.model.Produto;
 import com.deliverytech.delivery_api.model.Restaurante;
 import com.deliverytech.delivery_api.model.Usuario;
 import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
 import com.deliverytech.delivery_api.util.SecurityUtils;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 
 @Service
@@ -25,7 +29,10 @@ public class ProdutoService {
 
     private final ProdutoRepository produtoRepository;
     private final RestauranteRepository restauranteRepository;
-    private final ModelMapper modelMapper;
+    private final ProdutoMapper produtoMapper;
+    private final CatalogoCacheService catalogoCache;
+    private final ProdutoBuscaService produtoBuscaService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Logger logger = LoggerFactory.getLogger(ProdutoService.class);
 
@@ -35,10 +42,16 @@ public class ProdutoService {
 
     public ProdutoService(ProdutoRepository produtoRepository,
                           RestauranteRepository restauranteRepository,
-                          ModelMapper modelMapper) {
+                          ProdutoMapper produtoMapper,
+                          CatalogoCacheService catalogoCache,
+                          ProdutoBuscaService produtoBuscaService,
+                          ApplicationEventPublisher eventPublisher) {
         this.produtoRepository = produtoRepository;
         this.restauranteRepository = restauranteRepository;
-        this.modelMapper = modelMapper;
+        this.produtoMapper = produtoMapper;
+        this.catalogoCache = catalogoCache;
+        this.produtoBuscaService = produtoBuscaService;
+        this.eventPublisher = eventPublisher;
     }
 
     // cadastrarProduto - Validar se o restaurante existe
@@ -47,35 +60,40 @@ public class ProdutoService {
         Restaurante restaurante = restauranteRepository.findById(dto.getRestauranteId())
                 .orElseThrow(() -> new EntityNotFoundException("Erro ao cadastrar produto: Restaurante ID " + dto.getRestauranteId() + " não encontrado."));
 
-        Produto produto = modelMapper.map(dto, Produto.class);
-        produto.setId(null);
+        Produto produto = produtoMapper.paraEntidade(dto);
         produto.setRestaurante(restaurante);
 
-        return modelMapper.map(produtoRepository.save(produto), ProdutoResponseDTO.class);
+        Produto salvo = produtoRepository.save(produto);
+        publicarAlteracao(salvo.getId(), restaurante.getId(), salvo.getCategoria());
+        return produtoMapper.paraResposta(salvo);
     }
 
-    // buscarProdutosPorRestaurante - Apenas disponíveis
+    // buscarProdutosPorRestaurante - Apenas disponíveis (leituras do catálogo passam pelo CatalogoCacheService)
     public List<ProdutoResponseDTO> buscarProdutosPorRestaurante(Long restauranteId) {
-        if (!restauranteRepository.existsById(restauranteId)) {
-            throw new EntityNotFoundException("Restaurante não encontrado.");
-        }
-
-        return produtoRepository.findByRestauranteId(restauranteId).stream()
-                .filter(Produto::getDisponivel)
-                .map(p -> modelMapper.map(p, ProdutoResponseDTO.class))
-                .collect(Collectors.toList());
+        return catalogoCache.produtosDoRestaurante(restauranteId, () -> {
+            if (!restauranteRepository.existsById(restauranteId)) {
+                throw new EntityNotFoundException("Restaurante não encontrado.");
+            }
+
+            return produtoRepository.findByRestauranteId(restauranteId).stream()
+                    .filter(Produto::getDisponivel)
+                    .map(produtoMapper::paraResposta)
+                    .toList();
+        });
     }
 
-    // buscarProdutoPorId
+    // buscarProdutoPorId (transação somente leitura: o DTO acessa o restaurante, carregado sob demanda).
+    // O produto indisponível também fica em cache: a recusa é decidida pelo DTO
+    @Transactional(readOnly = true)
     public ProdutoResponseDTO buscarProdutoPorId(Long id) {
-        Produto produto = produtoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Produto ID " + id + " não encontrado."));
+        ProdutoResponseDTO produto = catalogoCache.produto(id, () -> produtoMapper.paraResposta(produtoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Produto ID " + id + " não encontrado."))));
 
-        if (!produto.getDisponivel()) {
+        if (!Boolean.TRUE.equals(produto.getDisponivel())) {
             throw new BusinessException("O produto '" + produto.getNome() + "' não está disponível no cardápio no momento.");
         }
 
-        return modelMapper.map(produto, ProdutoResponseDTO.class);
+        return produto;
     }
 
     // atualizarProduto
@@ -84,8 +102,10 @@ public class ProdutoService {
         logger.info("[AUDITORIA][PRODUTO] Aplicando cupom '{}' no pedido ID: {}", id);
         Produto produtoExistente = produtoRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Falha na atualização: Produto não localizado."));
+        Long restauranteAnterior = produtoExistente.getRestaurante().getId();
+        String categoriaAnterior = produtoExistente.getCategoria();
 
-        modelMapper.map(dto, produtoExistente);
+        produtoMapper.atualizar(dto, produtoExistente);
 
         // Valida troca de restaurante caso ocorra
         if (dto.getRestauranteId() != null && !produtoExistente.getRestaurante().getId().equals(dto.getRestauranteId())) {
@@ -94,7 +114,9 @@ public class ProdutoService {
             produtoExistente.setRestaurante(novoRestaurante);
         }
 
-        return modelMapper.map(produtoRepository.save(produtoExistente), ProdutoResponseDTO.class);
+        Produto salvo = produtoRepository.save(produtoExistente);
+        publicarAlteracao(id, restauranteAnterior, categoriaAnterior, salvo.getRestaurante().getId(), salvo.getCategoria());
+        return produtoMapper.paraResposta(salvo);
     }
 
     // alterarDisponibilidade - Toggle disponibilidade
@@ -105,35 +127,46 @@ public class ProdutoService {
 
         produto.setDisponivel(disponivel);
         produtoRepository.save(produto);
+        publicarAlteracao(id, produto.getRestaurante().getId(), produto.getCategoria());
     }
 
     // buscarProdutosPorCategoria - Filtro por categoria
     public List<ProdutoResponseDTO> buscarProdutosPorCategoria(String categoria) {
-        return produtoRepository.findByCategoria(categoria).stream()
-                .map(p -> modelMapper.map(p, ProdutoResponseDTO.class))
-                .collect(Collectors.toList());
+        return catalogoCache.produtosDaCategoria(categoria, () ->
+                produtoRepository.findByCategoria(categoria).stream()
+                        .map(produtoMapper::paraResposta)
+                        .toList());
     }
 
     // DELETE /api/produtos/{id} - NOVO
     @Transactional
     public void removerProduto(Long id) {
-        if (!produtoRepository.existsById(id)) {
-            throw new EntityNotFoundException("Não é possível remover: Produto ID " + id + " não encontrado.");
-        }
+        Produto produto = produtoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Não é possível remover: Produto ID " + id + " não encontrado."));
         logger.warn("[ALERTA-THRESHOLD]Remover produto do estoque - PRODUTO ID {} demorou {}ms - Verifique gargalos no DB!", id);
 
-        produtoRepository.deleteById(id);
+        produtoRepository.delete(produto);
+        publicarAlteracao(id, produto.getRestaurante().getId(), produto.getCategoria());
     }
 
-    // GET /api/produtos/buscar?nome={nome} - NOVO
-    public List<ProdutoResponseDTO> buscarProdutosPorNome(String nome) {
-        // Assume-se que o repository tem o método findByNomeContainingIgnoreCase
-        return produtoRepository.findByNomeContainingIgnoreCase(nome).stream()
-                .map(p -> modelMapper.map(p, ProdutoResponseDTO.class))
-                .collect(Collectors.toList());
+    // GET /api/produtos/buscar?nome={nome} - índice invertido em memória (ProdutoBuscaService), não mais LIKE
+    public List<ProdutoResponseDTO> buscarProdutosPorNome(String nome, Long restauranteId, Boolean disponivel, int limite) {
+        return produtoBuscaService.buscar(nome, restauranteId, disponivel, limite);
     }
 
 
+    private void publicarAlteracao(Long produtoId, Long restauranteId, String categoria) {
+        publicarAlteracao(produtoId, restauranteId, categoria, restauranteId, categoria);
+    }
+
+    // Restaurante e categoria anteriores e novos: o produto sai das listas antigas e entra nas novas
+    private void publicarAlteracao(Long produtoId, Long restauranteAnterior, String categoriaAnterior,
+                                   Long restaurante, String categoria) {
+        Set<Long> restaurantes = new HashSet<>(Arrays.asList(restauranteAnterior, restaurante));
+        Set<String> categorias = new HashSet<>(Arrays.asList(categoriaAnterior, categoria));
+        eventPublisher.publishEvent(new ProdutoAlteradoEvent(produtoId, restaurantes, categorias));
+    }
+
     public boolean isOwner(Long produtoId) {
         Usuario user = securityUtils.getCurrentUser();
         Produto produto = produtoRepository.findById(produtoId).orElse(null);
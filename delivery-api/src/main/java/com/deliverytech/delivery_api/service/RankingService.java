@@ -0,0 +1,153 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.RankingDTO;
+import com.deliverytech.delivery_api.dto.response.RankingItemDTO;
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.util.SpaceSaving;
+import com.deliverytech.delivery_api.util.TopKJanela;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Rankings de produtos mais vendidos e clientes mais ativos, no geral e por restaurante, para a última hora,
+// o último dia ou desde a subida da aplicação. São alimentados pelos pedidos confirmados no banco e respondidos
+// em memória por sketches Space-Saving (ver SpaceSaving para os limites de erro); ?exato=true consulta o banco.
+// Como o banco H2 é recriado a cada execução, "desde a subida" equivale a todos os pedidos.
+@Service
+public class RankingService {
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final PedidoRepository pedidoRepository;
+    private final int capacidadeRestaurante;
+    private final Painel geral;
+    private final Map<Long, Painel> porRestaurante = new ConcurrentHashMap<>();
+
+    public RankingService(PedidoRepository pedidoRepository,
+                          @Value("${delivery.ranking.capacidade:500}") int capacidade,
+                          @Value("${delivery.ranking.capacidade-restaurante:100}") int capacidadeRestaurante) {
+        if (Math.min(capacidade, capacidadeRestaurante) < LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("A capacidade dos rankings deve ser de pelo menos " + LIMITE_MAXIMO);
+        }
+        this.pedidoRepository = pedidoRepository;
+        this.capacidadeRestaurante = capacidadeRestaurante;
+        this.geral = new Painel(capacidade);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        geral.registrar(evento);
+        porRestaurante.computeIfAbsent(evento.restauranteId(), id -> new Painel(capacidadeRestaurante)).registrar(evento);
+    }
+
+    public RankingDTO produtosMaisVendidos(Long restauranteId, JanelaRanking janela, int limite, boolean exato) {
+        validarLimite(limite);
+        if (exato) {
+            return exato(restauranteId, janela, pedidoRepository.rankingProdutos(restauranteId, desde(janela), Limit.of(limite)));
+        }
+        Painel painel = painel(restauranteId);
+        return estimado(restauranteId, janela, painel == null ? null : painel.produtos.get(janela).top(limite));
+    }
+
+    public RankingDTO clientesMaisAtivos(Long restauranteId, JanelaRanking janela, int limite, boolean exato) {
+        validarLimite(limite);
+        if (exato) {
+            return exato(restauranteId, janela, pedidoRepository.rankingClientes(restauranteId, desde(janela), Limit.of(limite)));
+        }
+        Painel painel = painel(restauranteId);
+        return estimado(restauranteId, janela, painel == null ? null : painel.clientes.get(janela).top(limite));
+    }
+
+    private Painel painel(Long restauranteId) {
+        return restauranteId == null ? geral : porRestaurante.get(restauranteId);
+    }
+
+    private void validarLimite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new BusinessException("O limite do ranking deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+    }
+
+    private LocalDateTime desde(JanelaRanking janela) {
+        return janela.getDuracao() == null ? null : LocalDateTime.now().minus(janela.getDuracao());
+    }
+
+    private RankingDTO exato(Long restauranteId, JanelaRanking janela, List<RankingItemDTO> itens) {
+        RankingDTO ranking = novoRanking(restauranteId, janela, true);
+        ranking.setItens(itens);
+        return ranking;
+    }
+
+    private RankingDTO estimado(Long restauranteId, JanelaRanking janela, SpaceSaving.Top<Item> top) {
+        RankingDTO ranking = novoRanking(restauranteId, janela, false);
+        if (top == null) {
+            ranking.setItens(List.of()); // restaurante sem pedidos desde a subida
+            return ranking;
+        }
+        ranking.setErroMaximo(top.erroMaximo());
+        ranking.setItens(top.itens().stream()
+                .map(e -> new RankingItemDTO(e.chave().id(), e.chave().nome(), e.contagem(), e.erro()))
+                .toList());
+        return ranking;
+    }
+
+    private RankingDTO novoRanking(Long restauranteId, JanelaRanking janela, boolean exato) {
+        RankingDTO ranking = new RankingDTO();
+        ranking.setJanela(janela);
+        ranking.setRestauranteId(restauranteId);
+        ranking.setExato(exato);
+        return ranking;
+    }
+
+    // Identificado pelo id; o nome acompanha a chave e é atualizado pelo sketch a cada ocorrência
+    private record Item(Long id, String nome) {
+        @Override
+        public boolean equals(Object outro) {
+            return outro instanceof Item item && Objects.equals(id, item.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(id);
+        }
+    }
+
+    // Sketches de um escopo (geral ou um restaurante), um por janela
+    private static final class Painel {
+        private final Map<JanelaRanking, TopKJanela<Item>> produtos = new EnumMap<>(JanelaRanking.class);
+        private final Map<JanelaRanking, TopKJanela<Item>> clientes = new EnumMap<>(JanelaRanking.class);
+
+        private Painel(int capacidade) {
+            for (JanelaRanking janela : JanelaRanking.values()) {
+                produtos.put(janela, new TopKJanela<>(capacidade, janela.getDuracao(), janela.getBaldes()));
+                clientes.put(janela, new TopKJanela<>(capacidade, janela.getDuracao(), janela.getBaldes()));
+            }
+        }
+
+        private void registrar(PedidoCriadoEvent evento) {
+            Item cliente = new Item(evento.clienteId(), evento.nomeCliente());
+            for (TopKJanela<Item> ranking : clientes.values()) {
+                ranking.adicionar(cliente, 1);
+            }
+            for (PedidoCriadoEvent.ProdutoVendido vendido : evento.produtos()) {
+                if (vendido.quantidade() <= 0) continue;
+                Item produto = new Item(vendido.produtoId(), vendido.nome());
+                for (TopKJanela<Item> ranking : produtos.values()) {
+                    ranking.adicionar(produto, vendido.quantidade());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.RankingDTO;
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.util.CacheExpiravel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+
+// Cache dos relatórios do RelatorioController, com TTL e limite de entradas (CacheExpiravel): requisições
+// simultâneas para o mesmo relatório aguardam um único cálculo. Criar um pedido ou mudar seu status invalida,
+// após o commit, só os relatórios que podem incluí-lo: os do mesmo restaurante (ou de todos) cujo período
+// contém a data do pedido. Mudanças de cadastro (nomes de produtos e restaurantes) aparecem ao fim do TTL.
+// Os rankings estimados (exato=false) já são mantidos em memória pelo RankingService e não passam por aqui,
+// nem a lista de pedidos por período, grande demais para ficar em cache.
+@Service
+public class RelatorioCacheService {
+
+    private final RelatorioService relatorioService;
+    private final CacheExpiravel<Chave, Resultado<?>> cache;
+
+    // Valor calculado e o instante do cálculo, para os cabeçalhos Age e Last-Modified da resposta
+    public record Resultado<T>(T dados, Instant calculadoEm) {
+
+        public long idadeSegundos() {
+            return Math.max(0, Duration.between(calculadoEm, Instant.now()).toSeconds());
+        }
+    }
+
+    // restauranteId nulo: relatório de todos os restaurantes; inicio nulo: sem período (afetado por qualquer data)
+    record Chave(String relatorio, Long restauranteId, LocalDateTime inicio, LocalDateTime fim, List<Object> parametros) {
+
+        boolean inclui(Long restauranteIdPedido, LocalDateTime dataPedido) {
+            boolean restaurante = restauranteId == null || restauranteIdPedido == null
+                    || Objects.equals(restauranteId, restauranteIdPedido);
+            boolean periodo = inicio == null || dataPedido == null
+                    || (!dataPedido.isBefore(inicio) && dataPedido.isBefore(fim));
+            return restaurante && periodo;
+        }
+    }
+
+    public RelatorioCacheService(RelatorioService relatorioService, DeliveryMetrics deliveryMetrics,
+                                 @Value("${delivery.relatorios.cache.ttl-segundos:60}") long ttlSegundos,
+                                 @Value("${delivery.relatorios.cache.capacidade:200}") int capacidade) {
+        this.relatorioService = relatorioService;
+        this.cache = new CacheExpiravel<>(capacidade, Duration.ofSeconds(ttlSegundos));
+        deliveryMetrics.monitorarCache("relatorios", cache);
+    }
+
+    public Resultado<List<TotalVendasPorRestauranteDTO>> totalVendasPorRestaurante() {
+        return obter(new Chave("vendas-por-restaurante", null, null, null, List.of()),
+                relatorioService::totalVendasPorRestaurante);
+    }
+
+    public Resultado<List<VendasAgrupadasDTO>> vendasPorPeriodo(LocalDateTime inicio, LocalDateTime fim,
+                                                               AgrupamentoVendas agrupamento, Long restauranteId,
+                                                               StatusPedidos status) {
+        return obter(new Chave("vendas", restauranteId, inicio, fim, Arrays.asList(agrupamento, status)),
+                () -> relatorioService.vendasPorPeriodo(inicio, fim, agrupamento, restauranteId, status));
+    }
+
+    public Resultado<RankingDTO> produtosMaisVendidos(Long restauranteId, JanelaRanking janela, int limite, boolean exato) {
+        if (!exato) {
+            return new Resultado<>(relatorioService.produtosMaisVendidos(restauranteId, janela, limite, false), Instant.now());
+        }
+        return obter(new Chave("produtos-mais-vendidos", restauranteId, null, null, List.of(janela, limite)),
+                () -> relatorioService.produtosMaisVendidos(restauranteId, janela, limite, true));
+    }
+
+    public Resultado<RankingDTO> clientesMaisAtivos(Long restauranteId, JanelaRanking janela, int limite, boolean exato) {
+        if (!exato) {
+            return new Resultado<>(relatorioService.clientesMaisAtivos(restauranteId, janela, limite, false), Instant.now());
+        }
+        return obter(new Chave("clientes-ativos", restauranteId, null, null, List.of(janela, limite)),
+                () -> relatorioService.clientesMaisAtivos(restauranteId, janela, limite, true));
+    }
+
+    // Fora do cache: a lista completa de pedidos de um período qualquer pesa dezenas de MB, e o limite
+    // de entradas não limita memória. Para períodos grandes há a exportação em streaming (exportarPedidosPorPeriodo).
+    public Resultado<List<PedidoResponseDTO>> pedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        return new Resultado<>(relatorioService.pedidosPorPeriodo(inicio, fim), Instant.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        invalidar(evento.restauranteId(), evento.pedido() != null ? evento.pedido().getDataPedido() : null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarStatus(PedidoStatusAlteradoEvent evento) {
+        invalidar(evento.restauranteId(), evento.dataPedido());
+    }
+
+    // Data desconhecida (nula) invalida todos os períodos do restaurante
+    public int invalidar(Long restauranteId, LocalDateTime dataPedido) {
+        return cache.invalidarSe(chave -> chave.inclui(restauranteId, dataPedido));
+    }
+
+    public void invalidarTudo() {
+        cache.limpar();
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.relatorios.cache.limpeza-ms:60000}")
+    void removerExpiradas() {
+        cache.removerExpiradas();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Resultado<T> obter(Chave chave, Supplier<T> calcular) {
+        return (Resultado<T>) cache.obter(chave, k -> new Resultado<>(calcular.get(), Instant.now()));
+    }
+}
@@ -0,0 +1,259 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.RelatorioJobRequestDTO;
+import com.deliverytech.delivery_api.dto.response.RelatorioJobDTO;
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.SituacaoRelatorio;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.ConflitoException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.exeption.LimiteExcedidoException;
+import com.deliverytech.delivery_api.util.SecurityUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.deliverytech.delivery_api.enums.GranularidadeRollup.DIA;
+
+
+// Relatórios de vendas em segundo plano (POST /api/relatorios/jobs): o período é dividido em partes alinhadas
+// ao dia, cada parte é calculada pelo RelatorioService em uma virtual thread e os parciais são somados ao final.
+// Um semáforo global limita quantas partes consultam o banco ao mesmo tempo (conexões sobram para os pedidos)
+// e cada usuário só pode ter alguns relatórios em andamento. Jobs e resultados ficam em memória até a retenção.
+@Service
+public class RelatorioJobService {
+
+    private final RelatorioService relatorioService;
+    private final SecurityUtils securityUtils;
+
+    private final int limitePorUsuario;
+    private final int diasPorParte;
+    private final long retencaoMinutos;
+
+    private final Semaphore consultas;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatorioJobService.class);
+
+    record Parte(LocalDateTime inicio, LocalDateTime fim) {}
+
+    public RelatorioJobService(RelatorioService relatorioService, SecurityUtils securityUtils,
+                               @Value("${delivery.relatorios.jobs.paralelismo:4}") int paralelismo,
+                               @Value("${delivery.relatorios.jobs.limite-por-usuario:2}") int limitePorUsuario,
+                               @Value("${delivery.relatorios.jobs.dias-por-parte:7}") int diasPorParte,
+                               @Value("${delivery.relatorios.jobs.retencao-minutos:60}") long retencaoMinutos) {
+        this.relatorioService = relatorioService;
+        this.securityUtils = securityUtils;
+        this.limitePorUsuario = limitePorUsuario;
+        this.diasPorParte = diasPorParte;
+        this.retencaoMinutos = retencaoMinutos;
+        this.consultas = new Semaphore(paralelismo, true);
+    }
+
+    @PreDestroy
+    void parar() {
+        executor.shutdownNow();
+    }
+
+    // O limite é conferido e o job registrado no mesmo bloco: duas submissões simultâneas não passam juntas
+    public RelatorioJobDTO submeter(RelatorioJobRequestDTO definicao) {
+        if (!definicao.getFim().isAfter(definicao.getInicio())) {
+            throw new BusinessException("O fim do período deve ser posterior ao início.");
+        }
+        if (definicao.getAgrupamento() == null) {
+            definicao.setAgrupamento(AgrupamentoVendas.RESTAURANTE);
+        }
+        String usuario = securityUtils.getCurrentUsername();
+
+        Job job;
+        synchronized (jobs) {
+            long emAndamento = jobs.values().stream()
+                    .filter(j -> Objects.equals(j.usuario, usuario) && j.situacao.emAndamento())
+                    .count();
+            if (emAndamento >= limitePorUsuario) {
+                throw new LimiteExcedidoException("Limite de " + limitePorUsuario
+                        + " relatórios em andamento por usuário atingido. Aguarde a conclusão ou cancele um deles.");
+            }
+            job = new Job(UUID.randomUUID().toString(), usuario, definicao, dividir(definicao.getInicio(), definicao.getFim()));
+            jobs.put(job.id, job);
+        }
+        job.coordenador = executor.submit(() -> executar(job));
+        return job.paraDTO();
+    }
+
+    public RelatorioJobDTO consultar(String id) {
+        return buscar(id).paraDTO();
+    }
+
+    public List<VendasAgrupadasDTO> resultado(String id) {
+        Job job = buscar(id);
+        if (job.situacao != SituacaoRelatorio.CONCLUIDO) {
+            throw new ConflitoException("O relatório " + id + " não está concluído (situação: " + job.situacao + ").");
+        }
+        return job.resultado;
+    }
+
+    // Partes ainda na fila do semáforo não chegam a consultar o banco; as em execução são interrompidas
+    public RelatorioJobDTO cancelar(String id) {
+        Job job = buscar(id);
+        if (!job.finalizar(SituacaoRelatorio.CANCELADO, null, null)) {
+            throw new ConflitoException("O relatório " + id + " já foi finalizado (situação: " + job.situacao + ").");
+        }
+        if (job.coordenador != null) {
+            job.coordenador.cancel(true);
+        }
+        return job.paraDTO();
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.relatorios.jobs.limpeza-ms:60000}")
+    void limparFinalizados() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencaoMinutos);
+        jobs.values().removeIf(j -> j.concluidoEm != null && j.concluidoEm.isBefore(limite));
+    }
+
+    // Partes alinhadas ao início do dia: só a primeira e a última podem ter pontas fora dos rollups diários
+    List<Parte> dividir(LocalDateTime inicio, LocalDateTime fim) {
+        List<Parte> partes = new ArrayList<>();
+        LocalDateTime atual = inicio;
+        while (atual.isBefore(fim)) {
+            LocalDateTime proximo = DIA.truncar(atual).plusDays(diasPorParte);
+            if (proximo.isAfter(fim)) {
+                proximo = fim;
+            }
+            partes.add(new Parte(atual, proximo));
+            atual = proximo;
+        }
+        return partes;
+    }
+
+    // Outro usuário recebe 404, como se o job não existisse; administradores veem todos
+    private Job buscar(String id) {
+        Job job = jobs.get(id);
+        if (job == null || !(Objects.equals(job.usuario, securityUtils.getCurrentUsername()) || securityUtils.hasRole("ADMIN"))) {
+            throw new EntityNotFoundException("Relatório " + id + " não encontrado.");
+        }
+        return job;
+    }
+
+    private void executar(Job job) {
+        if (!job.iniciar()) {
+            return;
+        }
+        List<Future<List<VendasAgrupadasDTO>>> futuros = new ArrayList<>(job.partes.size());
+        try {
+            for (Parte parte : job.partes) {
+                futuros.add(executor.submit(() -> executarParte(job, parte)));
+            }
+            List<List<VendasAgrupadasDTO>> parciais = new ArrayList<>(futuros.size());
+            for (Future<List<VendasAgrupadasDTO>> futuro : futuros) {
+                parciais.add(futuro.get());
+            }
+            job.finalizar(SituacaoRelatorio.CONCLUIDO, relatorioService.mesclarVendas(parciais), null);
+        } catch (InterruptedException | CancellationException e) {
+            // Cancelado: a situação já foi registrada por cancelar()
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable causa = e instanceof ExecutionException ? e.getCause() : e;
+            if (causa instanceof BusinessException) {
+                job.finalizar(SituacaoRelatorio.ERRO, null, causa.getMessage());
+            } else if (job.situacao.emAndamento()) {
+                logger.error("Erro gerando o relatório {}: {}", job.id, causa.getMessage(), causa);
+                job.finalizar(SituacaoRelatorio.ERRO, null, "Erro interno ao gerar o relatório.");
+            }
+        } finally {
+            futuros.forEach(futuro -> futuro.cancel(true));
+        }
+    }
+
+    private List<VendasAgrupadasDTO> executarParte(Job job, Parte parte) throws InterruptedException {
+        consultas.acquire();
+        try {
+            if (job.situacao != SituacaoRelatorio.PROCESSANDO) {
+                throw new CancellationException();
+            }
+            RelatorioJobRequestDTO definicao = job.definicao;
+            List<VendasAgrupadasDTO> parcial = relatorioService.vendasPorPeriodo(parte.inicio(), parte.fim(),
+                    definicao.getAgrupamento(), definicao.getRestauranteId(), definicao.getStatus());
+            job.partesConcluidas.incrementAndGet();
+            return parcial;
+        } finally {
+            consultas.release();
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final String usuario;
+        private final RelatorioJobRequestDTO definicao;
+        private final List<Parte> partes;
+        private final LocalDateTime criadoEm = LocalDateTime.now();
+        private final AtomicInteger partesConcluidas = new AtomicInteger();
+
+        private volatile SituacaoRelatorio situacao = SituacaoRelatorio.NA_FILA;
+        private volatile LocalDateTime concluidoEm;
+        private volatile List<VendasAgrupadasDTO> resultado;
+        private volatile String erro;
+        private volatile Future<?> coordenador;
+
+        private Job(String id, String usuario, RelatorioJobRequestDTO definicao, List<Parte> partes) {
+            this.id = id;
+            this.usuario = usuario;
+            this.definicao = definicao;
+            this.partes = partes;
+        }
+
+        private synchronized boolean iniciar() {
+            if (situacao != SituacaoRelatorio.NA_FILA) {
+                return false;
+            }
+            situacao = SituacaoRelatorio.PROCESSANDO;
+            return true;
+        }
+
+        // Só a primeira finalização vale: um cancelamento não é sobrescrito pelo resultado (ou erro) que chega depois
+        private synchronized boolean finalizar(SituacaoRelatorio nova, List<VendasAgrupadasDTO> resultado, String erro) {
+            if (!situacao.emAndamento()) {
+                return false;
+            }
+            this.resultado = resultado;
+            this.erro = erro;
+            this.concluidoEm = LocalDateTime.now();
+            this.situacao = nova;
+            return true;
+        }
+
+        private synchronized RelatorioJobDTO paraDTO() {
+            RelatorioJobDTO dto = new RelatorioJobDTO();
+            dto.setId(id);
+            dto.setSituacao(situacao);
+            dto.setInicio(definicao.getInicio());
+            dto.setFim(definicao.getFim());
+            dto.setAgrupamento(definicao.getAgrupamento());
+            dto.setPartesConcluidas(partesConcluidas.get());
+            dto.setTotalPartes(partes.size());
+            dto.setCriadoEm(criadoEm);
+            dto.setConcluidoEm(concluidoEm);
+            dto.setErro(erro);
+            return dto;
+        }
+    }
+}
@@ -2,13 +2,49 @@ package com.deliverytech.delivery_api.service;
 
 import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
 import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.RankingDTO;
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.FormatoExportacao;
+import com.deliverytech.delivery_api.enums.GranularidadeRollup;
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.mapper.PedidoMapper;
+import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
 import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.repository.RollupRepository;
+import com.deliverytech.delivery_api.repository.RollupRepository.VendasItens;
+import com.deliverytech.delivery_api.repository.RollupRepository.VendasPedidos;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 @Service
@@ -16,27 +52,264 @@ import java.util.stream.Collectors;
 public class RelatorioService {
 
     private final PedidoRepository repository;
-    private final ModelMapper modelMapper;
+    private final PedidoMapper pedidoMapper;
+    private final VendasRestauranteService vendasRestauranteService;
+    private final RankingService rankingService;
+    private final RollupRepository rollupRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final ProdutoRepository produtoRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    // 1. Vendas por restaurante
+    private static final Comparator<VendasAgrupadasDTO> POR_RECEITA =
+            Comparator.comparing(VendasAgrupadasDTO::getReceita, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(VendasAgrupadasDTO::getGrupo, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(VendasAgrupadasDTO::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    // Faixas contíguas inicio <= hora0 <= dia0 <= dia1 <= hora1 <= fim: as das pontas vêm dos pedidos,
+    // [hora0, dia0) e [dia1, hora1) dos rollups por hora e [dia0, dia1) dos rollups por dia
+    public record PlanoVendas(LocalDateTime inicio, LocalDateTime hora0, LocalDateTime dia0, LocalDateTime dia1,
+                              LocalDateTime hora1, LocalDateTime fim) {
+
+        // Período inteiro lido dos pedidos (referência para conferir os rollups)
+        public static PlanoVendas bruto(LocalDateTime inicio, LocalDateTime fim) {
+            return new PlanoVendas(inicio, inicio, inicio, inicio, inicio, fim);
+        }
+
+        // Horas inteiras antes da marca de compactação saem dos rollups, agrupadas em dias inteiros quando possível
+        public static PlanoVendas planejar(LocalDateTime inicio, LocalDateTime fim, LocalDateTime compactadoAte) {
+            if (compactadoAte == null) {
+                return bruto(inicio, fim);
+            }
+            LocalDateTime hora0 = GranularidadeRollup.HORA.teto(inicio);
+            LocalDateTime hora1 = GranularidadeRollup.HORA.truncar(fim.isBefore(compactadoAte) ? fim : compactadoAte);
+            if (!hora0.isBefore(hora1)) {
+                return bruto(inicio, fim);
+            }
+            LocalDateTime dia0 = GranularidadeRollup.DIA.teto(hora0);
+            LocalDateTime dia1 = GranularidadeRollup.DIA.truncar(hora1);
+            if (!dia0.isBefore(dia1)) {
+                dia0 = hora1;
+                dia1 = hora1;
+            }
+            return new PlanoVendas(inicio, hora0, dia0, dia1, hora1, fim);
+        }
+    }
+
+    private static final String CABECALHO_CSV =
+            "id,numeroPedido,dataPedido,status,cliente,restaurante,enderecoEntrega,taxaEntrega,valorTotal\r\n";
+
+    // 1. Vendas por restaurante (agregado mantido a cada pedido; pedidos cancelados não entram)
     public List<TotalVendasPorRestauranteDTO> totalVendasPorRestaurante() {
-        return repository.obterTotalVendasPorRestaurante();
+        return vendasRestauranteService.listarTotais();
     }
 
-    // 2. Top produtos (Ex: Top 10 mais vendidos)
-    public List<?> produtosMaisVendidos() {
-        return repository.obterProdutosMaisVendidos();
+    // 2. Top produtos (Ex: Top 10 mais vendidos), estimado em memória ou exato
+    public RankingDTO produtosMaisVendidos(Long restauranteId, JanelaRanking janela, int limite, boolean exato) {
+        return rankingService.produtosMaisVendidos(restauranteId, janela, limite, exato);
     }
 
-    // 3. Clientes mais ativos (Quem comprou mais)
-    public List<?> clientesMaisAtivos() {
-        return repository.obterClientesMaisAtivos();
+    // 3. Clientes mais ativos (Quem comprou mais), estimado em memória ou exato
+    public RankingDTO clientesMaisAtivos(Long restauranteId, JanelaRanking janela, int limite, boolean exato) {
+        return rankingService.clientesMaisAtivos(restauranteId, janela, limite, exato);
     }
 
-    // 4. Pedidos por período
+    // 4. Pedidos por período (cliente e restaurante no mesmo SELECT, itens de todos os pedidos em outro)
+    @Transactional(readOnly = true)
     public List<PedidoResponseDTO> pedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim) {
-        return repository.findByDataPedidoBetween(inicio, fim).stream()
-                .map(pedido -> modelMapper.map(pedido, PedidoResponseDTO.class))
+        List<Pedido> pedidos = repository.findByDateTime(inicio, fim);
+        if (!pedidos.isEmpty()) {
+            repository.carregarItens(pedidos.stream().map(Pedido::getId).toList());
+        }
+        return pedidos.stream()
+                .map(pedidoMapper::paraResposta)
                 .collect(Collectors.toList());
     }
+
+    // 5. Vendas em [inicio, fim) por restaurante, status, produto ou categoria: o que já foi compactado é lido dos
+    // rollups e o restante (pontas fora de hora cheia e horas ainda não compactadas) dos pedidos, com o mesmo resultado
+    @Transactional(readOnly = true)
+    public List<VendasAgrupadasDTO> vendasPorPeriodo(LocalDateTime inicio, LocalDateTime fim, AgrupamentoVendas agrupamento,
+                                                     Long restauranteId, StatusPedidos status) {
+        if (!fim.isAfter(inicio)) {
+            throw new BusinessException("O fim do período deve ser posterior ao início.");
+        }
+        PlanoVendas plano = PlanoVendas.planejar(inicio, fim, rollupRepository.consultarMarca().orElse(null));
+        return vendas(plano, agrupamento, restauranteId, status);
+    }
+
+    // O banco devolve a menor granularidade (restaurante e status, ou restaurante, produto e status); o agrupamento
+    // pedido é somado aqui. Restaurante e status não precisam dos itens: as unidades de cada pedido já estão somadas.
+    List<VendasAgrupadasDTO> vendas(PlanoVendas plano, AgrupamentoVendas agrupamento, Long restauranteId, StatusPedidos status) {
+        Map<Object, VendasAgrupadasDTO> grupos = new HashMap<>();
+        Map<Long, Produto> produtos = Map.of();
+
+        if (!agrupamento.porItens()) {
+            for (VendasPedidos linha : rollupRepository.vendasPedidos(plano.inicio(), plano.hora0(), plano.dia0(),
+                    plano.dia1(), plano.hora1(), plano.fim(), restauranteId)) {
+                if (status != null && linha.getStatus() != status) continue;
+                VendasAgrupadasDTO grupo = grupos.computeIfAbsent(
+                        agrupamento == AgrupamentoVendas.RESTAURANTE ? linha.getRestauranteId() : linha.getStatus(),
+                        chave -> novoGrupo(true));
+                grupo.setQuantidadePedidos(grupo.getQuantidadePedidos() + linha.getQuantidadePedidos());
+                grupo.setUnidades(somar(grupo.getUnidades(), linha.getUnidades()));
+                grupo.setReceita(somar(grupo.getReceita(), linha.getReceita()));
+                grupo.setTaxasEntrega(somar(grupo.getTaxasEntrega(), linha.getTaxasEntrega()));
+            }
+        } else {
+            List<VendasItens> itens = rollupRepository.vendasItens(plano.inicio(), plano.hora0(), plano.dia0(),
+                    plano.dia1(), plano.hora1(), plano.fim(), restauranteId);
+            produtos = produtoRepository.findAllById(itens.stream().map(VendasItens::getProdutoId).distinct().toList()).stream()
+                    .collect(Collectors.toMap(Produto::getId, Function.identity()));
+            for (VendasItens linha : itens) {
+                if (status != null && linha.getStatus() != status) continue;
+                Produto produto = produtos.get(linha.getProdutoId());
+                VendasAgrupadasDTO grupo = grupos.computeIfAbsent(agrupamento == AgrupamentoVendas.PRODUTO ? linha.getProdutoId()
+                        : produto != null ? produto.getCategoria() : null, chave -> novoGrupo(false));
+                grupo.setUnidades(somar(grupo.getUnidades(), linha.getUnidades()));
+                grupo.setReceita(somar(grupo.getReceita(), linha.getReceita()));
+            }
+        }
+
+        nomearGrupos(grupos, agrupamento, produtos);
+        return grupos.values().stream().sorted(POR_RECEITA).collect(Collectors.toList());
+    }
+
+    // Soma os resultados de períodos contíguos do mesmo relatório (jobs em partes): como cada parte é exata,
+    // a soma por grupo é igual ao relatório do período inteiro
+    public List<VendasAgrupadasDTO> mesclarVendas(List<List<VendasAgrupadasDTO>> partes) {
+        Map<List<Object>, VendasAgrupadasDTO> grupos = new HashMap<>();
+        for (List<VendasAgrupadasDTO> parte : partes) {
+            for (VendasAgrupadasDTO linha : parte) {
+                VendasAgrupadasDTO grupo = grupos.computeIfAbsent(Arrays.asList(linha.getId(), linha.getGrupo()), chave -> {
+                    VendasAgrupadasDTO novo = new VendasAgrupadasDTO();
+                    novo.setId(linha.getId());
+                    novo.setGrupo(linha.getGrupo());
+                    return novo;
+                });
+                grupo.setQuantidadePedidos(somar(grupo.getQuantidadePedidos(), linha.getQuantidadePedidos()));
+                grupo.setUnidades(somar(grupo.getUnidades(), linha.getUnidades()));
+                grupo.setReceita(somar(grupo.getReceita(), linha.getReceita()));
+                grupo.setTaxasEntrega(somar(grupo.getTaxasEntrega(), linha.getTaxasEntrega()));
+            }
+        }
+        return grupos.values().stream().sorted(POR_RECEITA).collect(Collectors.toList());
+    }
+
+    private VendasAgrupadasDTO novoGrupo(boolean porPedidos) {
+        VendasAgrupadasDTO grupo = new VendasAgrupadasDTO();
+        if (porPedidos) {
+            grupo.setQuantidadePedidos(0L);
+        }
+        return grupo;
+    }
+
+    private void nomearGrupos(Map<Object, VendasAgrupadasDTO> grupos, AgrupamentoVendas agrupamento, Map<Long, Produto> produtos) {
+        Map<Long, Restaurante> restaurantes = agrupamento == AgrupamentoVendas.RESTAURANTE
+                ? restauranteRepository.findAllById(grupos.keySet().stream().map(Long.class::cast).toList()).stream()
+                        .collect(Collectors.toMap(Restaurante::getId, Function.identity()))
+                : Map.of();
+        grupos.forEach((chave, grupo) -> {
+            switch (agrupamento) {
+                case RESTAURANTE -> {
+                    grupo.setId((Long) chave);
+                    grupo.setGrupo(restaurantes.containsKey(chave) ? restaurantes.get(chave).getNome() : null);
+                }
+                case PRODUTO -> {
+                    grupo.setId((Long) chave);
+                    grupo.setGrupo(produtos.containsKey(chave) ? produtos.get(chave).getNome() : null);
+                }
+                case STATUS, CATEGORIA -> grupo.setGrupo(chave != null ? chave.toString() : null);
+            }
+        });
+    }
+
+    // Mesma regra do SUM: valores nulos não contam, e o resultado só é nulo se todos forem
+    private static BigDecimal somar(BigDecimal total, BigDecimal valor) {
+        return total == null ? valor : valor == null ? total : total.add(valor);
+    }
+
+    // Sem ternário: com "total + valor" (long) no meio, o ternário inteiro seria long e desencaixotaria o nulo
+    private static Long somar(Long total, Long valor) {
+        if (total == null) {
+            return valor;
+        }
+        return valor == null ? total : Long.valueOf(total + valor);
+    }
+
+    // 6. Exportação de pedidos por período em streaming (NDJSON ou CSV): percorre o cursor em blocos,
+    // escreve cada linha na saída e limpa a sessão antes do bloco seguinte. A memória usada depende
+    // do tamanho do bloco (FETCH_SIZE_EXPORTACAO), não do tamanho do período.
+    @Transactional(readOnly = true)
+    public long exportarPedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim, FormatoExportacao formato,
+                                          OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacao.CSV) {
+            escritor.write(CABECALHO_CSV);
+        }
+
+        long exportados = 0;
+        List<Pedido> bloco = new ArrayList<>(PedidoRepository.FETCH_SIZE_EXPORTACAO);
+        try (Stream<Pedido> pedidos = repository.streamByDateTime(inicio, fim)) {
+            Iterator<Pedido> cursor = pedidos.iterator();
+            while (cursor.hasNext()) {
+                bloco.add(cursor.next());
+                if (bloco.size() == PedidoRepository.FETCH_SIZE_EXPORTACAO) {
+                    exportados += escreverBloco(bloco, formato, escritor);
+                }
+            }
+        }
+        exportados += escreverBloco(bloco, formato, escritor);
+        escritor.flush();
+        return exportados;
+    }
+
+    private int escreverBloco(List<Pedido> bloco, FormatoExportacao formato, Writer escritor) throws IOException {
+        if (bloco.isEmpty()) {
+            return 0;
+        }
+        if (formato == FormatoExportacao.NDJSON) {
+            // Itens (com produto) do bloco inteiro em um SELECT; o CSV não os exporta
+            repository.carregarItens(bloco.stream().map(Pedido::getId).toList());
+            ObjectWriter linhaJson = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (Pedido pedido : bloco) {
+                linhaJson.writeValue(escritor, pedidoMapper.paraResposta(pedido));
+                escritor.write('\n');
+            }
+        } else {
+            for (Pedido pedido : bloco) {
+                escreverLinhaCsv(pedido, escritor);
+            }
+        }
+        int escritos = bloco.size();
+        bloco.clear();
+        entityManager.clear(); // descarta as entidades já escritas
+        return escritos;
+    }
+
+    private void escreverLinhaCsv(Pedido pedido, Writer escritor) throws IOException {
+        escritor.write(String.join(",",
+                campoCsv(pedido.getId()),
+                campoCsv(pedido.getNumeroPedido()),
+                campoCsv(pedido.getDataPedido()),
+                campoCsv(pedido.getStatus()),
+                campoCsv(pedido.getCliente() != null ? pedido.getCliente().getNome() : null),
+                campoCsv(pedido.getRestaurante() != null ? pedido.getRestaurante().getNome() : null),
+                campoCsv(pedido.getEnderecoEntrega()),
+                campoCsv(pedido.getTaxaEntrega()),
+                campoCsv(pedido.getValorTotal())));
+        escritor.write("\r\n");
+    }
+
+    // RFC 4180: aspas apenas quando o valor tem vírgula, aspas ou quebra de linha
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
 }
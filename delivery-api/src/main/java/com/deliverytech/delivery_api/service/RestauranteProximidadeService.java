@@ -0,0 +1,126 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.mapper.RestauranteMapper;
+import com.deliverytech.delivery_api.model.LocalizacaoCep;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.LocalizacaoCepRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository.LocalizacaoRestaurante;
+import com.deliverytech.delivery_api.util.IndiceGeografico;
+import com.deliverytech.delivery_api.util.IndiceGeografico.Vizinho;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+// Busca de restaurantes por proximidade (GET /api/restaurantes/proximos/{cep}): os restaurantes ativos com
+// coordenadas ficam em um IndiceGeografico em memória, carregado na subida e atualizado após o commit de cada
+// cadastro, atualização ou mudança de status. A origem é a coordenada enviada pelo cliente ou o centro do
+// prefixo do CEP (localizacoes_cep); o banco só é consultado para os restaurantes do resultado.
+@Service
+public class RestauranteProximidadeService {
+
+    public static final double RAIO_MAXIMO_KM = 50;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final RestauranteRepository restauranteRepository;
+    private final LocalizacaoCepRepository localizacaoCepRepository;
+    private final RestauranteMapper restauranteMapper;
+    private final IndiceGeografico indice;
+
+    private static final Logger logger = LoggerFactory.getLogger(RestauranteProximidadeService.class);
+
+    public RestauranteProximidadeService(RestauranteRepository restauranteRepository,
+                                         LocalizacaoCepRepository localizacaoCepRepository,
+                                         RestauranteMapper restauranteMapper,
+                                         @Value("${delivery.restaurantes.proximidade.celula-graus:0.02}") double celulaGraus) {
+        this.restauranteRepository = restauranteRepository;
+        this.localizacaoCepRepository = localizacaoCepRepository;
+        this.restauranteMapper = restauranteMapper;
+        this.indice = new IndiceGeografico(celulaGraus);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirIndice() {
+        List<LocalizacaoRestaurante> localizacoes = restauranteRepository.findLocalizacoesAtivas();
+        indice.limpar();
+        localizacoes.forEach(l -> indice.colocar(l.getId(), l.getLatitude(), l.getLongitude()));
+        logger.info("Índice de proximidade carregado com {} restaurantes", indice.tamanho());
+    }
+
+    // Relê o restaurante: eventos de escritas concorrentes podem chegar fora de ordem, o banco tem o estado final
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        Restaurante restaurante = restauranteRepository.findById(evento.restauranteId()).orElse(null);
+        if (restaurante != null && Boolean.TRUE.equals(restaurante.getAtivo())
+                && restaurante.getLatitude() != null && restaurante.getLongitude() != null) {
+            indice.colocar(restaurante.getId(), restaurante.getLatitude(), restaurante.getLongitude());
+        } else {
+            indice.remover(evento.restauranteId());
+        }
+    }
+
+    public List<RestauranteResponseDTO> buscarProximos(String cep, Double latitude, Double longitude,
+                                                       double raioKm, int limite) {
+        if (raioKm <= 0 || raioKm > RAIO_MAXIMO_KM) {
+            throw new BusinessException("O raio da busca deve ser maior que 0 e de no máximo " + RAIO_MAXIMO_KM + " km.");
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new BusinessException("O limite da busca deve estar entre 1 e " + LIMITE_MAXIMO + ".");
+        }
+        if ((latitude == null) != (longitude == null)) {
+            throw new BusinessException("Latitude e longitude devem ser informadas juntas.");
+        }
+        if (latitude != null && (Math.abs(latitude) > 90 || Math.abs(longitude) > 180)) {
+            throw new BusinessException("Coordenadas inválidas: a latitude deve estar entre -90 e 90 e a longitude entre -180 e 180.");
+        }
+        if (latitude == null) {
+            LocalizacaoCep origem = localizarCep(cep);
+            latitude = origem.getLatitude();
+            longitude = origem.getLongitude();
+        }
+
+        List<Vizinho> vizinhos = indice.buscar(latitude, longitude, raioKm, limite);
+        Map<Long, Restaurante> restaurantes = restauranteRepository.findAllById(vizinhos.stream().map(Vizinho::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+
+        List<RestauranteResponseDTO> resultado = new ArrayList<>(vizinhos.size());
+        for (Vizinho vizinho : vizinhos) {
+            Restaurante restaurante = restaurantes.get(vizinho.id());
+            // O índice é atualizado após o commit: um restaurante desativado agora pode ainda estar nele
+            if (restaurante == null || !Boolean.TRUE.equals(restaurante.getAtivo())) {
+                continue;
+            }
+            RestauranteResponseDTO dto = restauranteMapper.paraResposta(restaurante);
+            dto.setDistanciaKm(Math.round(vizinho.distanciaKm() * 100) / 100.0);
+            resultado.add(dto);
+        }
+        return resultado;
+    }
+
+    private LocalizacaoCep localizarCep(String cep) {
+        String digitos = cep == null ? "" : cep.replaceAll("\\D", "");
+        // O prefixo de 5 dígitos basta (como na busca anterior, por prefixo)
+        if (digitos.length() < 5 || digitos.length() > 8) {
+            throw new BusinessException("CEP inválido. Formato esperado: 00000-000, 00000000 ou o prefixo 00000");
+        }
+        return localizacaoCepRepository.findById(digitos.substring(0, 5))
+                .orElseThrow(() -> new EntityNotFoundException("Localização desconhecida para o CEP " + cep
+                        + ". Informe latitude e longitude para buscar restaurantes próximos."));
+    }
+}
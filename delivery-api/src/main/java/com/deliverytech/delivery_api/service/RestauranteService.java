@@ -3,30 +3,36 @@ package com.deliverytech.delivery_api.service;
 import com.deliverytech.delivery_api.dto.request.RestauranteRequestDTO;
 import com.deliverytech.delivery_api.dto.response.PagedResponse;
 import com.deliverytech.delivery_api.dto.response.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
 import com.deliverytech.delivery_api.exeption.BusinessException;
 import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.mapper.RestauranteMapper;
 import com.deliverytech.delivery_api.model.Restaurante;
 import com.deliverytech.delivery_api.model.Usuario;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
 import com.deliverytech.delivery_api.util.SecurityUtils;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
 public class RestauranteService {
 
     private final RestauranteRepository restauranteRepository;
-    private final ModelMapper modelMapper;
+    private final RestauranteMapper restauranteMapper;
+    private final RestauranteProximidadeService restauranteProximidadeService;
+    private final TaxaEntregaService taxaEntregaService;
+    private final CatalogoCacheService catalogoCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Logger logger = LoggerFactory.getLogger(RestauranteService.class);
 
@@ -34,9 +40,16 @@ public class RestauranteService {
     @Autowired
     private SecurityUtils securityUtils;
 
-    public RestauranteService(RestauranteRepository restauranteRepository, ModelMapper modelMapper) {
+    public RestauranteService(RestauranteRepository restauranteRepository, RestauranteMapper restauranteMapper,
+                              RestauranteProximidadeService restauranteProximidadeService,
+                              TaxaEntregaService taxaEntregaService, CatalogoCacheService catalogoCache,
+                              ApplicationEventPublisher eventPublisher) {
         this.restauranteRepository = restauranteRepository;
-        this.modelMapper = modelMapper;
+        this.restauranteMapper = restauranteMapper;
+        this.restauranteProximidadeService = restauranteProximidadeService;
+        this.taxaEntregaService = taxaEntregaService;
+        this.catalogoCache = catalogoCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // cadastrarRestaurante
@@ -47,30 +60,34 @@ public class RestauranteService {
             throw new BusinessException("A taxa de entrega não pode ser um valor negativo.");
         }
 
-        Restaurante restaurante = modelMapper.map(dto, Restaurante.class);
-        return modelMapper.map(restauranteRepository.save(restaurante), RestauranteResponseDTO.class);
+        Restaurante restaurante = restauranteRepository.save(restauranteMapper.paraEntidade(dto));
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(restaurante.getId()));
+        return restauranteMapper.paraResposta(restaurante);
     }
 
-    // buscarRestaurantePorId com tratamento de erro customizado
+    // buscarRestaurantePorId com tratamento de erro customizado (leituras do catálogo passam pelo CatalogoCacheService)
     public RestauranteResponseDTO buscarRestaurantePorId(Long id) {
-        Restaurante restaurante = restauranteRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com o ID: " + id));
-        return modelMapper.map(restaurante, RestauranteResponseDTO.class);
+        return catalogoCache.restaurante(id, () -> {
+            Restaurante restaurante = restauranteRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com o ID: " + id));
+            return restauranteMapper.paraResposta(restaurante);
+        });
     }
 
     // buscarRestaurantesPorCategoria - Filtro por categoria
     public List<RestauranteResponseDTO> buscarRestaurantesPorCategoria(String categoria) {
-        List<Restaurante> restaurantes = restauranteRepository.findByCategoria(categoria);
-        return restaurantes.stream()
-                .map(r -> modelMapper.map(r, RestauranteResponseDTO.class))
-                .collect(Collectors.toList());
+        return catalogoCache.restaurantes(List.of("categoria", categoria), () ->
+                restauranteRepository.findByCategoria(categoria).stream()
+                        .map(r -> restauranteMapper.paraResposta(r))
+                        .toList());
     }
 
     // buscarRestaurantesDisponiveis - Apenas ativos
     public List<RestauranteResponseDTO> buscarRestaurantesDisponiveis() {
-        return restauranteRepository.findByAtivoTrue().stream()
-                .map(r -> modelMapper.map(r, RestauranteResponseDTO.class))
-                .collect(Collectors.toList());
+        return catalogoCache.restaurantes("disponiveis", () ->
+                restauranteRepository.findByAtivoTrue().stream()
+                        .map(r -> restauranteMapper.paraResposta(r))
+                        .toList());
     }
 
     // atualizarRestaurante - Validar existência e dados
@@ -84,46 +101,27 @@ public class RestauranteService {
             throw new BusinessException("Valor de taxa de entrega inválido.");
         }
 
-        modelMapper.map(dto, restauranteExistente);
+        restauranteMapper.atualizar(dto, restauranteExistente);
         logger.warn("[ALERTA-THRESHOLD] Atualização do cadastro do restaurante - RESTAURANTE ID {} demorou {}ms - Verifique gargalos no DB!", id);
 
-        return modelMapper.map(restauranteRepository.save(restauranteExistente), RestauranteResponseDTO.class);
+        Restaurante salvo = restauranteRepository.save(restauranteExistente);
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
+        return restauranteMapper.paraResposta(salvo);
     }
 
-    // calcularTaxaEntrega
+    // calcularTaxaEntrega - taxa base do restaurante ajustada pela zona do CEP (TaxaEntregaService)
     public BigDecimal calcularTaxaEntrega(Long restauranteId, String cep) {
-        Restaurante restaurante = restauranteRepository.findById(restauranteId)
-                .orElseThrow(() -> new EntityNotFoundException("Cálculo de taxa abortado: Restaurante ID " + restauranteId + " não encontrado."));
-
-        if (cep == null || cep.isBlank()) {
-            throw new BusinessException("O CEP deve ser informado para o cálculo da taxa.");
-        }
-
-        BigDecimal taxaBase = restaurante.getTaxaEntrega();
-
-        // Se o CEP começar com "0", é região local (taxa padrão)
-        // Se começar com outro número, adicionamos uma taxa de distância
-        if (cep.startsWith("0")) {
-            return taxaBase;
-        }
-
-        return taxaBase.add(new BigDecimal("5.00"));
+        return taxaEntregaService.calcular(restauranteId, cep).getTaxa();
     }
 
-    // Método para buscar por proximidade (Filtra se o CEP/prefixo está contido na String endereco)
-    public List<RestauranteResponseDTO> buscarRestaurantesProximos(String cep) {
+    // Método para buscar por proximidade: restaurantes ativos a até raioKm do CEP (ou das coordenadas), do mais próximo
+    // ao mais distante, pelo índice geográfico em memória (RestauranteProximidadeService)
+    public List<RestauranteResponseDTO> buscarRestaurantesProximos(String cep, Double latitude, Double longitude,
+                                                                   double raioKm, int limite) {
         if (cep == null || cep.isBlank()) {
             throw new BusinessException("O CEP deve ser informado para a busca de proximidade.");
         }
-
-        // Pegamos os 5 primeiros dígitos ou o que for enviado para filtrar no texto do endereço
-        String termoBusca = cep.length() > 5 ? cep.substring(0, 5) : cep;
-
-        return restauranteRepository.findAll().stream()
-                .filter(r -> r.getAtivo() != null && r.getAtivo()) // Garante que apenas ativos apareçam
-                .filter(r -> r.getEndereco() != null && r.getEndereco().contains(termoBusca))
-                .map(r -> modelMapper.map(r, RestauranteResponseDTO.class))
-                .collect(Collectors.toList());
+        return restauranteProximidadeService.buscarProximos(cep, latitude, longitude, raioKm, limite);
     }
 
     // Método para atualização parcial de status (PATCH)
@@ -134,18 +132,21 @@ public class RestauranteService {
                 .orElseThrow(() -> new EntityNotFoundException("Restaurante não encontrado com o ID: " + id));
         restaurante.setAtivo(ativo);
         restauranteRepository.save(restaurante);
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(id));
     }
 
     // Método de listagem com filtros individuais
     public PagedResponse<RestauranteResponseDTO> listarComFiltrosPaginado(String categoria, Boolean ativo, Pageable pageable) {
-        // Busca paginada no banco
-        Page<Restaurante> paginaEntidades = restauranteRepository.listarComFiltros(categoria, ativo, pageable);
+        return catalogoCache.restaurantes(Arrays.asList("pagina", categoria, ativo, pageable), () -> {
+            // Busca paginada no banco
+            Page<Restaurante> paginaEntidades = restauranteRepository.listarComFiltros(categoria, ativo, pageable);
 
-        // Converte para DTO
-        Page<RestauranteResponseDTO> paginaDtos = paginaEntidades
-                .map(r -> modelMapper.map(r, RestauranteResponseDTO.class));
+            // Converte para DTO
+            Page<RestauranteResponseDTO> paginaDtos = paginaEntidades
+                    .map(r -> restauranteMapper.paraResposta(r));
 
-        return new PagedResponse<>(paginaDtos);
+            return new PagedResponse<>(paginaDtos);
+        });
     }
 
     // Método para verificação de ROLE Restaurante
@@ -0,0 +1,148 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.enums.GranularidadeRollup;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.repository.RollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static com.deliverytech.delivery_api.enums.GranularidadeRollup.DIA;
+import static com.deliverytech.delivery_api.enums.GranularidadeRollup.HORA;
+
+
+// Rollups de vendas: o job soma as horas encerradas (e, ao fechar um dia, o dia inteiro) em rollup_pedidos e
+// rollup_itens e avança a marca d'água em rollup_controle. Os pedidos não são apagados: o RelatorioService lê
+// os rollups antes da marca e os pedidos depois dela. Pedidos são criados com a data atual, sempre depois da
+// marca; a partir daí só o status muda, e as transições de pedidos já compactados são repassadas aos rollups.
+// Só o compactador trava a marca. Uma transição que a leu pouco antes de uma compactação do seu período terminar
+// não repassa nada, e a compactação pode ter lido o status antigo: por isso cada execução começa recompactando
+// as horas fechadas pelas execuções anteriores, quando essas transições já terminaram.
+@Service
+public class RollupService {
+
+    private final RollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration atraso;
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupService.class);
+
+    public RollupService(RollupRepository rollupRepository, PlatformTransactionManager transactionManager,
+                         @Value("${delivery.rollup.atraso-minutos:5}") long atrasoMinutos) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.atraso = Duration.ofMinutes(atrasoMinutos);
+    }
+
+    // Uma hora só é compactada "atraso" depois de encerrada, tempo para as transações abertas nela terminarem
+    @Scheduled(fixedDelayString = "${delivery.rollup.intervalo-ms:60000}")
+    void compactarHorasEncerradas() {
+        compactar();
+    }
+
+    public LocalDateTime compactar() {
+        return compactar(HORA.truncar(LocalDateTime.now().minus(atraso)));
+    }
+
+    // Compacta até o início de hora "limite", um dia por transação; devolve a marca ao final
+    LocalDateTime compactar(LocalDateTime limite) {
+        transactionTemplate.executeWithoutResult(status -> reconciliar());
+        LocalDateTime marca;
+        do {
+            marca = transactionTemplate.execute(status -> compactarProximoDia(limite));
+        } while (marca.isBefore(limite));
+        return marca;
+    }
+
+    private LocalDateTime compactarProximoDia(LocalDateTime limite) {
+        LocalDateTime marca = rollupRepository.travarMarca().orElse(null);
+        if (marca != null && !marca.isBefore(limite)) {
+            return marca;
+        }
+
+        LocalDateTime inicio = marca;
+        if (inicio == null || DIA.alinhado(inicio)) {
+            // Dias sem pedidos não geram linhas: salta para o dia do próximo pedido
+            LocalDateTime salto = (inicio == null ? rollupRepository.primeiroPedido() : rollupRepository.primeiroPedidoDesde(inicio))
+                    .map(DIA::truncar)
+                    .filter(limite::isAfter)
+                    .orElse(limite);
+            if (inicio == null || salto.isAfter(inicio)) {
+                inicio = salto;
+            }
+        }
+        if (!inicio.isBefore(limite)) {
+            rollupRepository.avancarMarca(null, inicio);
+            return inicio;
+        }
+
+        LocalDateTime fim = DIA.seguinte(inicio).isAfter(limite) ? limite : DIA.seguinte(inicio);
+        int linhas = rollupRepository.compactarPedidosPorHora(inicio, fim) + rollupRepository.compactarItensPorHora(inicio, fim);
+        if (DIA.alinhado(fim)) {
+            LocalDateTime dia = fim.minusDays(1);
+            linhas += rollupRepository.compactarPedidosPorDia(dia, fim) + rollupRepository.compactarItensPorDia(dia, fim);
+        }
+        rollupRepository.avancarMarca(inicio, fim);
+        logger.debug("[ROLLUP] Pedidos de {} a {} compactados em {} linhas.", inicio, fim, linhas);
+        return fim;
+    }
+
+    // Recalcula, a partir dos pedidos, as horas de [reconciliar_desde, marca) e os dias encerrados que as contêm
+    private void reconciliar() {
+        LocalDateTime marca = rollupRepository.travarMarca().orElse(null);
+        LocalDateTime desde = rollupRepository.consultarReconciliacao().orElse(null);
+        if (marca == null || desde == null) {
+            return;
+        }
+
+        rollupRepository.removerPedidos(HORA.name(), desde, marca);
+        rollupRepository.removerItens(HORA.name(), desde, marca);
+        int linhas = rollupRepository.compactarPedidosPorHora(desde, marca) + rollupRepository.compactarItensPorHora(desde, marca);
+        for (LocalDateTime dia = DIA.truncar(desde); !DIA.seguinte(dia).isAfter(marca); dia = DIA.seguinte(dia)) {
+            rollupRepository.removerPedidos(DIA.name(), dia, DIA.seguinte(dia));
+            rollupRepository.removerItens(DIA.name(), dia, DIA.seguinte(dia));
+            linhas += rollupRepository.compactarPedidosPorDia(dia, DIA.seguinte(dia))
+                    + rollupRepository.compactarItensPorDia(dia, DIA.seguinte(dia));
+        }
+        rollupRepository.concluirReconciliacao();
+        logger.debug("[ROLLUP] Pedidos de {} a {} reconciliados em {} linhas.", desde, marca, linhas);
+    }
+
+    // Na transação que mudou o status, com a data e o status anterior que o chamador já leu. Pedidos da hora atual
+    // ainda não podem ter sido compactados; para os demais, a marca é lida sem bloqueio (ver reconciliar).
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTransicao(Long pedidoId, LocalDateTime dataPedido, StatusPedidos anterior, StatusPedidos novoStatus) {
+        if (dataPedido == null || !dataPedido.isBefore(HORA.truncar(LocalDateTime.now()))) {
+            return;
+        }
+        LocalDateTime marca = rollupRepository.consultarMarca().orElse(null);
+        if (marca == null || !dataPedido.isBefore(marca)) {
+            return;
+        }
+
+        mover(pedidoId, HORA, dataPedido, anterior, novoStatus);
+        if (!DIA.seguinte(dataPedido).isAfter(marca)) {
+            mover(pedidoId, DIA, dataPedido, anterior, novoStatus);
+        }
+    }
+
+    private void mover(Long pedidoId, GranularidadeRollup granularidade, LocalDateTime dataPedido,
+                       StatusPedidos anterior, StatusPedidos novoStatus) {
+        String periodo = granularidade.name();
+        LocalDateTime inicio = granularidade.truncar(dataPedido);
+        rollupRepository.somarPedido(pedidoId, periodo, inicio, anterior.name(), -1);
+        rollupRepository.somarPedido(pedidoId, periodo, inicio, novoStatus.name(), 1);
+        rollupRepository.somarItensDoPedido(pedidoId, periodo, inicio, anterior.name(), -1);
+        rollupRepository.somarItensDoPedido(pedidoId, periodo, inicio, novoStatus.name(), 1);
+        rollupRepository.removerPedidosVazios(periodo, inicio);
+        rollupRepository.removerItensVazios(periodo, inicio);
+    }
+}
@@ -0,0 +1,241 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.SugestaoDTO;
+import com.deliverytech.delivery_api.enums.TipoSugestao;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.ProdutoAlteradoEvent;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository.TotalPorId;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository.ProdutoIndexavel;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.util.TrieSugestoes;
+import com.deliverytech.delivery_api.util.TrieSugestoes.Sugestao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+
+// Sugestões da caixa de busca (GET /api/busca/sugestoes): nomes de produtos e de restaurantes e categorias ficam em
+// uma TrieSugestoes em memória, pesados pela popularidade: 1 + unidades vendidas do produto, 1 + pedidos do
+// restaurante; a categoria soma o peso dos seus produtos e restaurantes. Produtos indisponíveis e restaurantes
+// inativos não entram.
+// Carregada na subida e atualizada após o commit de cada escrita de produto ou restaurante e de cada pedido criado,
+// só nos termos afetados. As alterações vão para uma única thread, na ordem dos commits: a requisição que gravou não
+// espera pela trie nem disputa o bloqueio de escrita com as outras. O tamanho estimado da trie é publicado na métrica
+// delivery_sugestoes_memoria (bytes).
+@Service
+public class SugestaoService {
+
+    private final ProdutoRepository produtoRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final PedidoRepository pedidoRepository;
+    private final TrieSugestoes<TipoSugestao> trie = new TrieSugestoes<>();
+
+    // O que cada produto e restaurante soma hoje na trie; alterados só pela thread de atualizações
+    private final Map<Long, Fonte> produtos = new HashMap<>();
+    private final Map<Long, Fonte> restaurantes = new HashMap<>();
+    private final ExecutorService atualizacoes = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "sugestoes-busca");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Logger logger = LoggerFactory.getLogger(SugestaoService.class);
+
+    // vendas: unidades vendidas (produto) ou pedidos (restaurante)
+    private record Fonte(String nome, String categoria, boolean ativa, long vendas) {
+        long peso() {
+            return 1 + vendas;
+        }
+
+        Fonte comVendas(long mais) {
+            return new Fonte(nome, categoria, ativa, vendas + mais);
+        }
+    }
+
+    public SugestaoService(ProdutoRepository produtoRepository,
+                           RestauranteRepository restauranteRepository,
+                           PedidoRepository pedidoRepository,
+                           DeliveryMetrics deliveryMetrics) {
+        this.produtoRepository = produtoRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.pedidoRepository = pedidoRepository;
+        deliveryMetrics.monitorarSugestoes(trie);
+    }
+
+    // Passa pela mesma fila das alterações (as já enfileiradas são aplicadas antes) e espera a carga terminar
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSugestoes() {
+        aguardar(atualizacoes.submit(this::reconstruir));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        atualizacoes.shutdownNow();
+    }
+
+    private void reconstruir() {
+        Map<Long, Long> vendidos = totais(pedidoRepository.totalVendidoPorProduto());
+        Map<Long, Long> pedidos = totais(pedidoRepository.totalPedidosPorRestaurante());
+        produtos.clear();
+        restaurantes.clear();
+        for (ProdutoIndexavel p : produtoRepository.findIndexaveis()) {
+            produtos.put(p.getId(), fonte(p, vendidos.getOrDefault(p.getId(), 0L)));
+        }
+        for (Restaurante r : restauranteRepository.findAll()) {
+            restaurantes.put(r.getId(), fonte(r, pedidos.getOrDefault(r.getId(), 0L)));
+        }
+
+        List<Sugestao<TipoSugestao>> termos = new ArrayList<>();
+        produtos.values().forEach(f -> termos.addAll(termos(TipoSugestao.PRODUTO, f)));
+        restaurantes.values().forEach(f -> termos.addAll(termos(TipoSugestao.RESTAURANTE, f)));
+        trie.reconstruir(termos);
+        logger.info("Sugestões de busca carregadas: {} termos, {} nós, ~{} KB", trie.quantidadeTermos(),
+                trie.quantidadeNos(), trie.memoriaEstimada() / 1024);
+    }
+
+    // Relê o produto: eventos de escritas concorrentes podem chegar fora de ordem, o banco tem o estado final
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        executar(() -> {
+            Fonte antiga = produtos.get(evento.produtoId());
+            long vendas = antiga != null ? antiga.vendas() : 0;
+            Fonte nova = produtoRepository.findIndexavelById(evento.produtoId()).map(p -> fonte(p, vendas)).orElse(null);
+            trocar(TipoSugestao.PRODUTO, produtos, evento.produtoId(), antiga, nova);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        executar(() -> {
+            Fonte antiga = restaurantes.get(evento.restauranteId());
+            long vendas = antiga != null ? antiga.vendas() : 0;
+            Fonte nova = restauranteRepository.findById(evento.restauranteId()).map(r -> fonte(r, vendas)).orElse(null);
+            trocar(TipoSugestao.RESTAURANTE, restaurantes, evento.restauranteId(), antiga, nova);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoCriarPedido(PedidoCriadoEvent evento) {
+        executar(() -> {
+            for (PedidoCriadoEvent.ProdutoVendido vendido : evento.produtos()) {
+                Fonte antiga = produtos.get(vendido.produtoId());
+                if (antiga != null) {
+                    trocar(TipoSugestao.PRODUTO, produtos, vendido.produtoId(), antiga,
+                            antiga.comVendas(vendido.quantidade()));
+                }
+            }
+            Fonte restaurante = restaurantes.get(evento.restauranteId());
+            if (restaurante != null) {
+                trocar(TipoSugestao.RESTAURANTE, restaurantes, evento.restauranteId(), restaurante,
+                        restaurante.comVendas(1));
+            }
+        });
+    }
+
+    // Texto vazio ou sem letras e números: nenhuma sugestão
+    public List<SugestaoDTO> sugerir(String consulta, int limite) {
+        if (limite < 1 || limite > TrieSugestoes.MAXIMO) {
+            throw new BusinessException("O limite das sugestões deve estar entre 1 e " + TrieSugestoes.MAXIMO + ".");
+        }
+        return trie.sugerir(consulta, limite).stream()
+                .map(s -> new SugestaoDTO(s.texto(), s.tipo()))
+                .toList();
+    }
+
+    // Uma falha perde só aquela alteração (a próxima carga completa corrige); na parada, as novas são descartadas
+    private void executar(Runnable alteracao) {
+        try {
+            atualizacoes.execute(() -> {
+                try {
+                    alteracao.run();
+                } catch (RuntimeException e) {
+                    logger.error("Falha ao atualizar as sugestões de busca: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Sugestões de busca encerradas; alteração descartada.");
+        }
+    }
+
+    private static void aguardar(Future<?> tarefa) {
+        try {
+            tarefa.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException erro ? erro : new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Aplica na trie só a diferença entre as contribuições antiga e nova (ex.: uma venda muda o peso do nome e da
+    // categoria do produto; uma troca de categoria tira o peso de uma e põe na outra)
+    private void trocar(TipoSugestao tipo, Map<Long, Fonte> fontes, Long id, Fonte antiga, Fonte nova) {
+        if (nova == null) {
+            fontes.remove(id);
+        } else {
+            fontes.put(id, nova);
+        }
+        Map<List<Object>, Sugestao<TipoSugestao>> diferencas = new LinkedHashMap<>();
+        for (Sugestao<TipoSugestao> termo : termos(tipo, antiga)) {
+            diferencas.merge(List.of(termo.tipo(), TrieSugestoes.normalizar(termo.texto())),
+                    new Sugestao<>(termo.tipo(), termo.texto(), -termo.peso()), SugestaoService::somar);
+        }
+        for (Sugestao<TipoSugestao> termo : termos(tipo, nova)) {
+            diferencas.merge(List.of(termo.tipo(), TrieSugestoes.normalizar(termo.texto())), termo, SugestaoService::somar);
+        }
+        diferencas.values().forEach(d -> trie.somar(d.tipo(), d.texto(), d.peso()));
+    }
+
+    private static Sugestao<TipoSugestao> somar(Sugestao<TipoSugestao> anterior, Sugestao<TipoSugestao> nova) {
+        return new Sugestao<>(nova.tipo(), nova.texto(), anterior.peso() + nova.peso());
+    }
+
+    // O nome pelo tipo da fonte e a categoria, com o peso da fonte
+    private static List<Sugestao<TipoSugestao>> termos(TipoSugestao tipo, Fonte fonte) {
+        if (fonte == null || !fonte.ativa()) {
+            return List.of();
+        }
+        List<Sugestao<TipoSugestao>> termos = new ArrayList<>(2);
+        if (fonte.nome() != null && !fonte.nome().isBlank()) {
+            termos.add(new Sugestao<>(tipo, fonte.nome(), fonte.peso()));
+        }
+        if (fonte.categoria() != null && !fonte.categoria().isBlank()) {
+            termos.add(new Sugestao<>(TipoSugestao.CATEGORIA, fonte.categoria(), fonte.peso()));
+        }
+        return termos;
+    }
+
+    private static Fonte fonte(ProdutoIndexavel p, long vendas) {
+        return new Fonte(p.getNome(), p.getCategoria(), Boolean.TRUE.equals(p.getDisponivel()), vendas);
+    }
+
+    private static Fonte fonte(Restaurante r, long vendas) {
+        return new Fonte(r.getNome(), r.getCategoria(), Boolean.TRUE.equals(r.getAtivo()), vendas);
+    }
+
+    private static Map<Long, Long> totais(List<TotalPorId> totais) {
+        return totais.stream().collect(Collectors.toMap(TotalPorId::getId, TotalPorId::getTotal));
+    }
+}
@@ -0,0 +1,217 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.TaxaZonaRequestDTO;
+import com.deliverytech.delivery_api.dto.response.TaxaEntregaDTO;
+import com.deliverytech.delivery_api.dto.response.TaxaZonaResponseDTO;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.model.TaxaZonaRestaurante;
+import com.deliverytech.delivery_api.repository.FaixaCepZonaRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.repository.TaxaZonaRestauranteRepository;
+import com.deliverytech.delivery_api.repository.ZonaEntregaRepository;
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega;
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega.Faixa;
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega.Zona;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+// Taxa de entrega por zona: o CEP cai em uma faixa de zonas_entrega/faixas_cep_zona e a taxa é a própria do
+// restaurante para a zona (taxas_zona_restaurante) ou a taxa base do restaurante mais o acréscimo da zona.
+// As tabelas ficam em uma TabelaTaxasEntrega em memória, carregada na subida; as taxas próprias de um restaurante
+// são recarregadas após o commit de qualquer alteração dele (RestauranteAlteradoEvent).
+@Service
+public class TaxaEntregaService {
+
+    public static final int LIMITE_COTACAO = 100;
+
+    private final ZonaEntregaRepository zonaEntregaRepository;
+    private final FaixaCepZonaRepository faixaCepZonaRepository;
+    private final TaxaZonaRestauranteRepository taxaZonaRestauranteRepository;
+    private final RestauranteRepository restauranteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final long acrescimoForaDeZona;
+
+    private volatile TabelaTaxasEntrega tabela;
+
+    private static final Logger logger = LoggerFactory.getLogger(TaxaEntregaService.class);
+
+    public TaxaEntregaService(ZonaEntregaRepository zonaEntregaRepository,
+                              FaixaCepZonaRepository faixaCepZonaRepository,
+                              TaxaZonaRestauranteRepository taxaZonaRestauranteRepository,
+                              RestauranteRepository restauranteRepository,
+                              ApplicationEventPublisher eventPublisher, Validator validator,
+                              @Value("${delivery.taxa-entrega.acrescimo-fora-de-zona:5.00}") BigDecimal acrescimoForaDeZona) {
+        this.zonaEntregaRepository = zonaEntregaRepository;
+        this.faixaCepZonaRepository = faixaCepZonaRepository;
+        this.taxaZonaRestauranteRepository = taxaZonaRestauranteRepository;
+        this.restauranteRepository = restauranteRepository;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.acrescimoForaDeZona = centavos(acrescimoForaDeZona);
+        this.tabela = new TabelaTaxasEntrega(List.of(), List.of(), Map.of(), this.acrescimoForaDeZona);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregarTabela() {
+        List<Zona> zonas = zonaEntregaRepository.findAll().stream()
+                .map(z -> new Zona(z.getId(), z.getNome(), centavos(z.getAcrescimo())))
+                .toList();
+        List<Faixa> faixas = faixaCepZonaRepository.findAll().stream()
+                .map(f -> new Faixa(f.getCepInicio(), f.getCepFim(), f.getZonaId()))
+                .toList();
+        Map<Long, Map<Integer, Long>> taxasProprias = new HashMap<>();
+        for (TaxaZonaRestaurante taxa : taxaZonaRestauranteRepository.findAll()) {
+            taxasProprias.computeIfAbsent(taxa.getRestauranteId(), r -> new HashMap<>())
+                    .put(taxa.getZonaId(), centavos(taxa.getTaxa()));
+        }
+        tabela = new TabelaTaxasEntrega(zonas, faixas, taxasProprias, acrescimoForaDeZona);
+        logger.info("Tabela de taxas de entrega carregada: {} zonas, {} faixas de CEP, {} restaurantes com taxas próprias",
+                zonas.size(), faixas.size(), taxasProprias.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void aoAlterarRestaurante(RestauranteAlteradoEvent evento) {
+        Map<Integer, Long> taxas = new HashMap<>();
+        for (TaxaZonaRestaurante taxa : taxaZonaRestauranteRepository.findByRestauranteIdOrderByZonaId(evento.restauranteId())) {
+            taxas.put(taxa.getZonaId(), centavos(taxa.getTaxa()));
+        }
+        tabela = tabela.comTaxasDoRestaurante(evento.restauranteId(), taxas);
+    }
+
+    // GET /api/restaurantes/{id}/taxa-entrega/{cep}
+    public TaxaEntregaDTO calcular(Long restauranteId, String cep) {
+        Restaurante restaurante = restauranteRepository.findById(restauranteId)
+                .orElseThrow(() -> new EntityNotFoundException("Cálculo de taxa abortado: Restaurante ID " + restauranteId + " não encontrado."));
+        TabelaTaxasEntrega atual = tabela;
+        return cotar(atual, restaurante, atual.zona(cepNumerico(cep)));
+    }
+
+    // GET /api/restaurantes/taxa-entrega/{cep}?restaurantes=1,2,3 - taxas da listagem em uma consulta ao banco.
+    // Restaurantes inexistentes ou inativos ficam fora da resposta; a ordem é a dos ids informados
+    public List<TaxaEntregaDTO> cotar(String cep, List<Long> restauranteIds) {
+        Set<Long> ids = new LinkedHashSet<>(restauranteIds);
+        if (ids.isEmpty() || ids.size() > LIMITE_COTACAO) {
+            throw new BusinessException("Informe de 1 a " + LIMITE_COTACAO + " restaurantes para a cotação.");
+        }
+        TabelaTaxasEntrega atual = tabela;
+        int zona = atual.zona(cepNumerico(cep));
+        Map<Long, Restaurante> restaurantes = restauranteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Restaurante::getId, Function.identity()));
+
+        List<TaxaEntregaDTO> taxas = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Restaurante restaurante = restaurantes.get(id);
+            if (restaurante != null && Boolean.TRUE.equals(restaurante.getAtivo())) {
+                taxas.add(cotar(atual, restaurante, zona));
+            }
+        }
+        return taxas;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaxaZonaResponseDTO> listarTaxasZona(Long restauranteId) {
+        if (!restauranteRepository.existsById(restauranteId)) {
+            throw new EntityNotFoundException("Restaurante não encontrado com o ID: " + restauranteId);
+        }
+        return paraResposta(taxaZonaRestauranteRepository.findByRestauranteIdOrderByZonaId(restauranteId));
+    }
+
+    // PUT /api/restaurantes/{id}/taxas-zona - substitui todas as taxas próprias do restaurante (lista vazia remove)
+    @Transactional
+    public List<TaxaZonaResponseDTO> definirTaxasZona(Long restauranteId, List<TaxaZonaRequestDTO> dtos) {
+        if (!restauranteRepository.existsById(restauranteId)) {
+            throw new EntityNotFoundException("Restaurante não encontrado com o ID: " + restauranteId);
+        }
+        TabelaTaxasEntrega atual = tabela;
+        Set<Integer> zonas = new HashSet<>();
+        for (TaxaZonaRequestDTO dto : dtos) {
+            validarCampos(dto);
+            if (atual.indiceZona(dto.getZonaId()) == TabelaTaxasEntrega.FORA_DE_ZONA) {
+                throw new EntityNotFoundException("Zona de entrega não encontrada com o ID: " + dto.getZonaId());
+            }
+            if (!zonas.add(dto.getZonaId())) {
+                throw new BusinessException("A zona " + dto.getZonaId() + " foi informada mais de uma vez.");
+            }
+        }
+
+        taxaZonaRestauranteRepository.removerDoRestaurante(restauranteId);
+        List<TaxaZonaRestaurante> taxas = dtos.stream().map(dto -> {
+            TaxaZonaRestaurante taxa = new TaxaZonaRestaurante();
+            taxa.setRestauranteId(restauranteId);
+            taxa.setZonaId(dto.getZonaId());
+            taxa.setTaxa(dto.getTaxa().setScale(2, RoundingMode.HALF_UP));
+            return taxa;
+        }).toList();
+        taxaZonaRestauranteRepository.saveAll(taxas);
+        eventPublisher.publishEvent(new RestauranteAlteradoEvent(restauranteId));
+        return paraResposta(taxaZonaRestauranteRepository.findByRestauranteIdOrderByZonaId(restauranteId));
+    }
+
+    private TaxaEntregaDTO cotar(TabelaTaxasEntrega atual, Restaurante restaurante, int zona) {
+        long taxaBase = restaurante.getTaxaEntrega() != null ? centavos(restaurante.getTaxaEntrega()) : 0;
+        long taxa = atual.taxa(restaurante.getId(), taxaBase, zona);
+        return new TaxaEntregaDTO(restaurante.getId(),
+                zona == TabelaTaxasEntrega.FORA_DE_ZONA ? null : atual.idZona(zona),
+                atual.nomeZona(zona),
+                BigDecimal.valueOf(taxa, 2));
+    }
+
+    private List<TaxaZonaResponseDTO> paraResposta(List<TaxaZonaRestaurante> taxas) {
+        TabelaTaxasEntrega atual = tabela;
+        return taxas.stream()
+                .map(t -> new TaxaZonaResponseDTO(t.getZonaId(), atual.nomeZona(atual.indiceZona(t.getZonaId())), t.getTaxa()))
+                .toList();
+    }
+
+    // Como no lote de pedidos: o @Valid do controller não alcança os elementos da lista
+    private void validarCampos(TaxaZonaRequestDTO dto) {
+        Set<ConstraintViolation<TaxaZonaRequestDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            throw new BusinessException(violacoes.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static int cepNumerico(String cep) {
+        if (cep == null || cep.isBlank()) {
+            throw new BusinessException("O CEP deve ser informado para o cálculo da taxa.");
+        }
+        int numero = TabelaTaxasEntrega.cep(cep);
+        if (numero == TabelaTaxasEntrega.CEP_INVALIDO) {
+            throw new BusinessException("CEP inválido. Formato esperado: 00000-000 ou 00000000");
+        }
+        return numero;
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,105 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
+import com.deliverytech.delivery_api.dto.response.ReconstrucaoVendasDTO;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.VendasRestaurante;
+import com.deliverytech.delivery_api.repository.VendasRestauranteRepository;
+import com.deliverytech.delivery_api.repository.VendasRestauranteRepository.Totais;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+// Agregado de vendas por restaurante: o relatório lê uma linha por restaurante em vez de agrupar todos os pedidos.
+// As alterações exigem a transação do pedido (MANDATORY): pedido e agregado são gravados ou desfeitos juntos.
+@Service
+public class VendasRestauranteService {
+
+    private final VendasRestauranteRepository vendasRestauranteRepository;
+
+    private static final Logger logger = LoggerFactory.getLogger(VendasRestauranteService.class);
+
+    public VendasRestauranteService(VendasRestauranteRepository vendasRestauranteRepository) {
+        this.vendasRestauranteRepository = vendasRestauranteRepository;
+    }
+
+    // Pedidos recém-criados; no lote, um único incremento por restaurante
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarPedidos(Collection<Pedido> pedidos) {
+        Map<Long, VendasRestaurante> porRestaurante = new HashMap<>();
+        for (Pedido pedido : pedidos) {
+            VendasRestaurante totais = porRestaurante.computeIfAbsent(pedido.getRestaurante().getId(), id -> new VendasRestaurante());
+            totais.setQuantidadePedidos(totais.getQuantidadePedidos() + 1);
+            totais.setReceita(totais.getReceita().add(pedido.getValorTotal()));
+            totais.setTaxasEntrega(totais.getTaxasEntrega().add(pedido.getTaxaEntrega()));
+        }
+        porRestaurante.forEach((restauranteId, totais) -> vendasRestauranteRepository.somar(restauranteId,
+                totais.getQuantidadePedidos(), totais.getReceita(), totais.getTaxasEntrega()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCancelamento(Long pedidoId) {
+        vendasRestauranteRepository.descontarPedido(pedidoId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TotalVendasPorRestauranteDTO> listarTotais() {
+        return vendasRestauranteRepository.listarTotais();
+    }
+
+    // Recalcula o agregado a partir dos pedidos, corrige o que estiver diferente e informa quais restaurantes divergiam
+    @Transactional
+    public ReconstrucaoVendasDTO reconstruir() {
+        Map<Long, Totais> gravados = vendasRestauranteRepository.travarTodos().stream()
+                .collect(Collectors.toMap(Totais::getRestauranteId, Function.identity()));
+        Set<Long> verificados = new HashSet<>(gravados.keySet());
+        List<Long> divergentes = new ArrayList<>();
+
+        for (Totais calculado : vendasRestauranteRepository.calcularPelosPedidos(StatusPedidos.CANCELADO)) {
+            verificados.add(calculado.getRestauranteId());
+            Totais gravado = gravados.remove(calculado.getRestauranteId());
+            if (gravado == null || divergem(gravado, calculado.getQuantidadePedidos(), calculado.getReceita(), calculado.getTaxasEntrega())) {
+                divergentes.add(calculado.getRestauranteId());
+                vendasRestauranteRepository.definir(calculado.getRestauranteId(), calculado.getQuantidadePedidos(),
+                        calculado.getReceita(), calculado.getTaxasEntrega());
+            }
+        }
+        // Restaurantes que ficaram apenas com pedidos cancelados: a linha permanece, zerada
+        for (Totais semPedidos : gravados.values()) {
+            if (divergem(semPedidos, 0, BigDecimal.ZERO, BigDecimal.ZERO)) {
+                divergentes.add(semPedidos.getRestauranteId());
+                vendasRestauranteRepository.definir(semPedidos.getRestauranteId(), 0, BigDecimal.ZERO, BigDecimal.ZERO);
+            }
+        }
+
+        if (!divergentes.isEmpty()) {
+            logger.warn("[VENDAS] Agregado divergente dos pedidos para os restaurantes {}; valores recalculados.", divergentes);
+        }
+
+        ReconstrucaoVendasDTO resultado = new ReconstrucaoVendasDTO();
+        resultado.setRestaurantesVerificados(verificados.size());
+        resultado.setRestaurantesDivergentes(divergentes);
+        resultado.setConsistente(divergentes.isEmpty());
+        return resultado;
+    }
+
+    private boolean divergem(Totais gravado, long quantidade, BigDecimal receita, BigDecimal taxas) {
+        return gravado.getQuantidadePedidos() != quantidade
+                || gravado.getReceita().compareTo(receita) != 0
+                || gravado.getTaxasEntrega().compareTo(taxas) != 0;
+    }
+}
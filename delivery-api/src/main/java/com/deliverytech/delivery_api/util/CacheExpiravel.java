@@ -0,0 +1,196 @@
+package com.deliverytech.delivery_api.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+
+// Cache em memória com limite de entradas, expiração por TTL e "single-flight":
+// chamadas simultâneas para a mesma chave aguardam um único carregamento em andamento.
+// Como o TTL é fixo, a ordem de inserção é também a ordem de expiração, e a remoção é FIFO.
+// A fila guarda só a chave e a sequência da entrada: uma entrada invalidada não fica presa a ela até o TTL.
+public class CacheExpiravel<K, V> {
+
+    private final int capacidade;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+
+    private final Map<K, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    private final Queue<Posicao<K>> ordemInsercao = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequencias = new AtomicLong();
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder colapsos = new LongAdder();
+
+    private static final class Entrada<V> {
+        private final long sequencia;
+        private final CompletableFuture<V> valor = new CompletableFuture<>();
+        private volatile long expiraEm = Long.MAX_VALUE; // só começa a contar quando o carregamento termina
+
+        private Entrada(long sequencia) {
+            this.sequencia = sequencia;
+        }
+    }
+
+    // Posição de uma entrada na fila; a sequência distingue a entrada de outra que a substituiu na mesma chave
+    private record Posicao<K>(K chave, long sequencia) {
+    }
+
+    public CacheExpiravel(int capacidade, Duration ttl) {
+        this(capacidade, ttl, System::nanoTime);
+    }
+
+    CacheExpiravel(int capacidade, Duration ttl, LongSupplier relogio) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade do cache deve ser positiva: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        this.ttlNanos = ttl.toNanos();
+        this.relogio = relogio;
+    }
+
+    // Retorna o valor da chave, executando o carregador no máximo uma vez por chave ao mesmo tempo.
+    // Exceções do carregador são repassadas a todos que aguardavam e nada fica em cache.
+    public V obter(K chave, Function<? super K, ? extends V> carregador) {
+        while (true) {
+            Entrada<V> existente = entradas.get(chave);
+            if (existente != null) {
+                if (!expirada(existente)) {
+                    if (existente.valor.isDone()) acertos.increment();
+                    else colapsos.increment();
+                    return aguardar(existente);
+                }
+                entradas.remove(chave, existente);
+            }
+
+            Entrada<V> nova = new Entrada<>(sequencias.incrementAndGet());
+            if (entradas.putIfAbsent(chave, nova) != null) {
+                continue; // outra thread começou o carregamento primeiro
+            }
+
+            faltas.increment();
+            V valor;
+            try {
+                valor = carregador.apply(chave);
+            } catch (RuntimeException | Error e) {
+                entradas.remove(chave, nova);
+                nova.valor.completeExceptionally(e);
+                throw e;
+            }
+            concluir(chave, nova, valor);
+            return valor;
+        }
+    }
+
+    public V consultar(K chave) {
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada == null || !entrada.valor.isDone() || entrada.valor.isCompletedExceptionally() || expirada(entrada)) {
+            return null;
+        }
+        return entrada.valor.join();
+    }
+
+    public void colocar(K chave, V valor) {
+        Entrada<V> nova = new Entrada<>(sequencias.incrementAndGet());
+        Entrada<V> anterior = entradas.put(chave, nova);
+        if (anterior != null && !anterior.valor.isDone()) {
+            anterior.valor.complete(valor);
+        }
+        concluir(chave, nova, valor);
+    }
+
+    public void invalidar(K chave) {
+        entradas.remove(chave);
+    }
+
+    // Remove as entradas cujas chaves atendem ao predicado, inclusive carregamentos em andamento:
+    // quem já aguardava recebe o valor carregado, mas ele não fica em cache
+    public int invalidarSe(Predicate<? super K> predicado) {
+        int removidas = 0;
+        for (K chave : entradas.keySet()) {
+            if (predicado.test(chave) && entradas.remove(chave) != null) {
+                removidas++;
+            }
+        }
+        return removidas;
+    }
+
+    public void limpar() {
+        entradas.clear();
+        ordemInsercao.clear();
+    }
+
+    // Remove do início da fila tudo que já expirou, foi substituído ou invalidado
+    public void removerExpiradas() {
+        Posicao<K> primeira;
+        while ((primeira = ordemInsercao.peek()) != null) {
+            Entrada<V> atual = entradas.get(primeira.chave());
+            if (atual != null && atual.sequencia == primeira.sequencia() && !expirada(atual)) {
+                return;
+            }
+            if (ordemInsercao.remove(primeira)) {
+                remover(primeira);
+            }
+        }
+    }
+
+    public int tamanho() {
+        return entradas.size();
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getColapsos() {
+        return colapsos.sum();
+    }
+
+    private void concluir(K chave, Entrada<V> entrada, V valor) {
+        entrada.expiraEm = relogio.getAsLong() + ttlNanos;
+        entrada.valor.complete(valor);
+        ordemInsercao.add(new Posicao<>(chave, entrada.sequencia));
+
+        removerExpiradas();
+        while (entradas.size() > capacidade) {
+            Posicao<K> maisAntiga = ordemInsercao.poll();
+            if (maisAntiga == null) {
+                break;
+            }
+            remover(maisAntiga);
+        }
+    }
+
+    // Remove a entrada da posição, se ainda for ela que ocupa a chave
+    private void remover(Posicao<K> posicao) {
+        entradas.computeIfPresent(posicao.chave(), (chave, atual) -> atual.sequencia == posicao.sequencia() ? null : atual);
+    }
+
+    private boolean expirada(Entrada<V> entrada) {
+        return entrada.expiraEm != Long.MAX_VALUE && relogio.getAsLong() - entrada.expiraEm >= 0;
+    }
+
+    private V aguardar(Entrada<V> entrada) {
+        try {
+            return entrada.valor.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            if (e.getCause() instanceof Error erro) throw erro;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+
+// Cursor opaco da listagem de pedidos: posição (dataPedido, id) do último item entregue, em Base64 URL-safe
+public record CursorPedido(LocalDateTime dataPedido, Long id) {
+
+    // Posição anterior a qualquer pedido real: a primeira página usa a mesma consulta das demais
+    public static final CursorPedido INICIO = new CursorPedido(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public String codificar() {
+        String posicao = dataPedido + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPedido decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return INICIO;
+        }
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = posicao.indexOf('|');
+            return new CursorPedido(LocalDateTime.parse(posicao.substring(0, separador)),
+                    Long.parseLong(posicao.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+}
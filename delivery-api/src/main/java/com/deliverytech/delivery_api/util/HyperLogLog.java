@@ -0,0 +1,137 @@
+package com.deliverytech.delivery_api.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+// Sketch HyperLogLog (Flajolet et al., com as correções de Heule et al. para poucos elementos): estima quantos
+// valores distintos foram adicionados usando m = 2^PRECISAO registradores de um byte, qualquer que seja o total.
+// Garantias, sendo n o número real de distintos:
+//   - erro padrão relativo de 1,04 / sqrt(m) = 1,625% (m = 4096): cerca de 68% das estimativas ficam a até 1,6% de n,
+//     95% a até 3,3% e 99,7% a até 4,9%;
+//   - abaixo de 2,5 * m (~10 mil distintos) a estimativa usa a contagem linear dos registradores vazios, bem mais
+//     precisa: com poucas dezenas de distintos ela é, na prática, exata;
+//   - adicionar o mesmo valor de novo não altera o sketch, e a união de sketches é igual ao sketch da união
+//     (por isso dias podem ser somados em semanas e meses sem contar duas vezes o mesmo cliente).
+// Não é thread-safe: quem compartilha a instância sincroniza o acesso (ver ClientesDistintosService).
+public class HyperLogLog {
+
+    public static final int PRECISAO = 12;
+    public static final int REGISTRADORES = 1 << PRECISAO;
+    public static final double ERRO_PADRAO = 1.04 / Math.sqrt(REGISTRADORES);
+
+    // Formato serializado: [precisão][formato] seguido dos registradores. Esparso (poucos registradores ocupados):
+    // pares (índice em 2 bytes, valor em 1 byte); denso: os m registradores em sequência.
+    private static final byte ESPARSO = 0;
+    private static final byte DENSO = 1;
+    private static final double ALFA = 0.7213 / (1 + 1.079 / REGISTRADORES);
+
+    private final byte[] registradores;
+
+    public HyperLogLog() {
+        this.registradores = new byte[REGISTRADORES];
+    }
+
+    private HyperLogLog(byte[] registradores) {
+        this.registradores = registradores;
+    }
+
+    public void adicionar(long valor) {
+        long hash = misturar(valor);
+        int indice = (int) (hash >>> (64 - PRECISAO));
+        // Posição do primeiro bit 1 nos 64 - PRECISAO bits restantes (o bit sentinela limita o valor a 64 - PRECISAO + 1)
+        byte posicao = (byte) (Long.numberOfLeadingZeros((hash << PRECISAO) | (1L << (PRECISAO - 1))) + 1);
+        if (posicao > registradores[indice]) {
+            registradores[indice] = posicao;
+        }
+    }
+
+    // União: cada registrador fica com o maior dos dois valores
+    public void mesclar(HyperLogLog outro) {
+        for (int i = 0; i < REGISTRADORES; i++) {
+            if (outro.registradores[i] > registradores[i]) {
+                registradores[i] = outro.registradores[i];
+            }
+        }
+    }
+
+    public HyperLogLog copiar() {
+        return new HyperLogLog(registradores.clone());
+    }
+
+    public long estimar() {
+        double soma = 0;
+        int vazios = 0;
+        for (byte registrador : registradores) {
+            soma += 1.0 / (1L << registrador);
+            if (registrador == 0) {
+                vazios++;
+            }
+        }
+        double estimativa = ALFA * REGISTRADORES * REGISTRADORES / soma;
+        if (estimativa <= 2.5 * REGISTRADORES && vazios > 0) {
+            estimativa = REGISTRADORES * Math.log((double) REGISTRADORES / vazios);
+        }
+        return Math.round(estimativa);
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof HyperLogLog sketch && Arrays.equals(registradores, sketch.registradores);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registradores);
+    }
+
+    // Até ~1.365 registradores ocupados o formato esparso é menor: um restaurante com 50 clientes no dia grava 152 bytes
+    public byte[] serializar() {
+        int ocupados = 0;
+        for (byte registrador : registradores) {
+            if (registrador != 0) {
+                ocupados++;
+            }
+        }
+        if (3 * ocupados < REGISTRADORES) {
+            ByteBuffer saida = ByteBuffer.allocate(2 + 3 * ocupados).put((byte) PRECISAO).put(ESPARSO);
+            for (int i = 0; i < REGISTRADORES; i++) {
+                if (registradores[i] != 0) {
+                    saida.putShort((short) i).put(registradores[i]);
+                }
+            }
+            return saida.array();
+        }
+        return ByteBuffer.allocate(2 + REGISTRADORES).put((byte) PRECISAO).put(DENSO).put(registradores).array();
+    }
+
+    public static HyperLogLog desserializar(byte[] dados) {
+        ByteBuffer entrada = ByteBuffer.wrap(dados);
+        if (dados.length < 2 || entrada.get() != PRECISAO) {
+            throw new IllegalArgumentException("Sketch HyperLogLog com precisão diferente de " + PRECISAO);
+        }
+        byte formato = entrada.get();
+        if (formato == DENSO && entrada.remaining() == REGISTRADORES) {
+            return new HyperLogLog(Arrays.copyOfRange(dados, 2, dados.length));
+        }
+        if (formato != ESPARSO || entrada.remaining() % 3 != 0) {
+            throw new IllegalArgumentException("Sketch HyperLogLog em formato inválido");
+        }
+        byte[] registradores = new byte[REGISTRADORES];
+        while (entrada.hasRemaining()) {
+            registradores[Short.toUnsignedInt(entrada.getShort())] = entrada.get();
+        }
+        return new HyperLogLog(registradores);
+    }
+
+    // Finalizador do MurmurHash3 (fmix64): ids sequenciais viram hashes com bits independentes
+    private static long misturar(long valor) {
+        long h = valor;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
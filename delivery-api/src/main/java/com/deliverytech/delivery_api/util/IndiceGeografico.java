@@ -0,0 +1,148 @@
+package com.deliverytech.delivery_api.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+// Índice espacial em grade: a superfície é dividida em células de tamanhoCelula graus (latitude x longitude) e
+// cada ponto fica na célula que o contém. A busca por raio visita só as células do retângulo que envolve o círculo
+// e mantém os mais próximos em um heap de tamanho limite: O(pontos nas células visitadas * log limite), em vez de
+// medir a distância a todos os pontos. Garantias:
+//   - todo ponto a até raioKm da origem (distância de haversine) é candidato; nenhum além dele é devolvido;
+//   - o resultado está ordenado por distância (empates pelo id);
+//   - escritas são serializadas e leituras não bloqueiam: uma busca concorrente com a mudança de célula de um
+//     ponto o vê na posição antiga, na nova ou (por um instante) em nenhuma, nunca nas duas.
+public class IndiceGeografico {
+
+    public static final double RAIO_TERRA_KM = 6371.0088;
+    private static final double KM_POR_GRAU = Math.PI * RAIO_TERRA_KM / 180;
+
+    public record Vizinho(long id, double distanciaKm) {}
+
+    private record Ponto(long id, double latitude, double longitude, long celula) {}
+
+    private static final Comparator<Vizinho> POR_DISTANCIA =
+            Comparator.comparingDouble(Vizinho::distanciaKm).thenComparingLong(Vizinho::id);
+
+    private final double tamanhoCelula;
+    private final int colunas;
+    private final Map<Long, Ponto> pontos = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Ponto>> celulas = new ConcurrentHashMap<>();
+
+    public IndiceGeografico(double tamanhoCelula) {
+        if (!(tamanhoCelula > 0 && tamanhoCelula <= 10)) {
+            throw new IllegalArgumentException("O tamanho da célula deve estar entre 0 e 10 graus: " + tamanhoCelula);
+        }
+        this.tamanhoCelula = tamanhoCelula;
+        this.colunas = (int) Math.ceil(360 / tamanhoCelula);
+    }
+
+    public synchronized void colocar(long id, double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordenadas inválidas: " + latitude + ", " + longitude);
+        }
+        Ponto novo = new Ponto(id, latitude, longitude, celula(linha(latitude), coluna(longitude)));
+        Ponto anterior = pontos.put(id, novo);
+        if (anterior != null && anterior.celula() != novo.celula()) {
+            retirar(anterior); // antes de entrar na célula nova: uma busca nunca encontra o ponto duas vezes
+        }
+        celulas.computeIfAbsent(novo.celula(), c -> new ConcurrentHashMap<>()).put(id, novo);
+    }
+
+    public synchronized void remover(long id) {
+        Ponto anterior = pontos.remove(id);
+        if (anterior != null) {
+            retirar(anterior);
+        }
+    }
+
+    public synchronized void limpar() {
+        pontos.clear();
+        celulas.clear();
+    }
+
+    public int tamanho() {
+        return pontos.size();
+    }
+
+    // Os limite pontos mais próximos a até raioKm da origem, do mais próximo ao mais distante
+    public List<Vizinho> buscar(double latitude, double longitude, double raioKm, int limite) {
+        if (limite <= 0 || raioKm < 0) {
+            return List.of();
+        }
+        double raioLatitude = raioKm / KM_POR_GRAU;
+        int linhaMin = linha(Math.max(-90, latitude - raioLatitude));
+        int linhaMax = linha(Math.min(90, latitude + raioLatitude));
+
+        // Na latitude mais afastada do equador o grau de longitude é o menor: ela define a largura do retângulo
+        double cosseno = Math.cos(Math.toRadians(Math.min(90, Math.abs(latitude) + raioLatitude)));
+        double raioLongitude = cosseno <= 0 ? 360 : raioKm / (KM_POR_GRAU * cosseno);
+        int colunaMin = (int) Math.floor((longitude - raioLongitude + 180) / tamanhoCelula);
+        int colunaMax = (int) Math.floor((longitude + raioLongitude + 180) / tamanhoCelula);
+        if (2 * raioLongitude >= 360 || colunaMax - colunaMin + 1 >= colunas) {
+            colunaMin = 0;
+            colunaMax = colunas - 1;
+        }
+
+        // Heap invertido: o topo é o mais distante dos guardados e sai quando chega alguém mais próximo
+        PriorityQueue<Vizinho> melhores = new PriorityQueue<>(limite + 1, POR_DISTANCIA.reversed());
+        for (int linha = linhaMin; linha <= linhaMax; linha++) {
+            for (int coluna = colunaMin; coluna <= colunaMax; coluna++) {
+                // Colunas fora de [0, colunas) dão a volta no antimeridiano
+                Map<Long, Ponto> celula = celulas.get(celula(linha, Math.floorMod(coluna, colunas)));
+                if (celula == null) {
+                    continue;
+                }
+                for (Ponto ponto : celula.values()) {
+                    double distancia = distanciaKm(latitude, longitude, ponto.latitude(), ponto.longitude());
+                    if (distancia > raioKm) {
+                        continue;
+                    }
+                    Vizinho vizinho = new Vizinho(ponto.id(), distancia);
+                    if (melhores.size() < limite) {
+                        melhores.add(vizinho);
+                    } else if (POR_DISTANCIA.compare(vizinho, melhores.peek()) < 0) {
+                        melhores.poll();
+                        melhores.add(vizinho);
+                    }
+                }
+            }
+        }
+
+        List<Vizinho> resultado = new ArrayList<>(melhores);
+        resultado.sort(POR_DISTANCIA);
+        return resultado;
+    }
+
+    // Distância de haversine sobre a esfera de raio médio da Terra (erro < 0,5% frente ao elipsoide)
+    public static double distanciaKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLat = Math.toRadians(latitude2 - latitude1);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void retirar(Ponto ponto) {
+        celulas.computeIfPresent(ponto.celula(), (c, membros) -> {
+            membros.remove(ponto.id(), ponto);
+            return membros.isEmpty() ? null : membros;
+        });
+    }
+
+    private int linha(double latitude) {
+        return (int) Math.floor((latitude + 90) / tamanhoCelula);
+    }
+
+    private int coluna(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / tamanhoCelula), colunas);
+    }
+
+    private long celula(int linha, int coluna) {
+        return (long) linha * colunas + coluna;
+    }
+}
@@ -0,0 +1,556 @@
+package com.deliverytech.delivery_api.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+
+// Índice invertido da busca de produtos: nome, descrição e categoria viram termos normalizados (minúsculas, sem
+// acentos, separados em letras e dígitos) e cada termo aponta para a lista ordenada dos documentos que o contêm,
+// com os campos em que aparece. Cada termo da consulta casa com um termo do índice por:
+//   - igualdade (peso 1.0);
+//   - prefixo (peso 0.6): as MAX_EXPANSOES expansões com mais documentos;
+//   - distância de edição, com transposição de letras vizinhas (peso 0.5 com 1 edição, 0.3 com 2): termos de
+//     4+ letras toleram 1 edição e de 8+, 2 (com dígitos, nenhuma); a primeira letra precisa coincidir, o que
+//     limita a varredura do dicionário.
+// O documento precisa casar com todos os termos da consulta; a pontuação soma, por termo, o melhor peso do
+// casamento vezes o peso do campo (nome 3, categoria 2, descrição 1). A interseção começa pelo termo mais seletivo
+// e o resultado é o top-K por pontuação (empates pelo id).
+// Documentos são numerados na ordem de inserção; substituir ou remover um produto só o marca como morto, e as
+// listas são compactadas quando os mortos passam dos vivos. Escritas são serializadas e exclusivas; buscas
+// concorrentes compartilham a trava de leitura.
+public class IndiceInvertido {
+
+    public static final int MAX_EXPANSOES = 64;
+    private static final int INTERCALACAO_DIRETA = 8;
+
+    static final byte NOME = 1;
+    static final byte DESCRICAO = 2;
+    static final byte CATEGORIA = 4;
+
+    private static final double EXATO = 1.0;
+    private static final double PREFIXO = 0.6;
+    private static final double UMA_EDICAO = 0.5;
+    private static final double DUAS_EDICOES = 0.3;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    // restauranteId 0: produto sem restaurante
+    public record Documento(long id, long restauranteId, boolean disponivel, String nome, String descricao,
+                            String categoria) {}
+
+    public record Resultado(long id, double pontuacao) {}
+
+    private static final Comparator<Resultado> MELHOR_PRIMEIRO =
+            Comparator.comparingDouble(Resultado::pontuacao).reversed().thenComparingLong(Resultado::id);
+
+    // Documentos em ordem crescente (a numeração só cresce); campos: máscara NOME | DESCRICAO | CATEGORIA
+    private static final class Postagens {
+        private int[] documentos = new int[2];
+        private byte[] campos = new byte[2];
+        private int tamanho;
+
+        void adicionar(int documento, byte mascara) {
+            if (tamanho == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamanho * 2);
+                campos = Arrays.copyOf(campos, tamanho * 2);
+            }
+            documentos[tamanho] = documento;
+            campos[tamanho] = mascara;
+            tamanho++;
+        }
+    }
+
+    private record Expansao(Postagens postagens, double peso) {}
+
+    private final TreeMap<String, Postagens> termos = new TreeMap<>();
+    private final Map<Long, Integer> documentoDoId = new HashMap<>();
+    private long[] ids = new long[1024];
+    private long[] restaurantes = new long[1024];
+    private final BitSet disponiveis = new BitSet();
+    private final BitSet mortos = new BitSet();
+    private int proximoDocumento;
+    private int quantidadeMortos;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Insere ou substitui o documento com o mesmo id
+    public void colocar(Documento documento) {
+        Map<String, Byte> mascaras = new LinkedHashMap<>();
+        indexarCampo(mascaras, documento.nome(), NOME);
+        indexarCampo(mascaras, documento.descricao(), DESCRICAO);
+        indexarCampo(mascaras, documento.categoria(), CATEGORIA);
+
+        trava.writeLock().lock();
+        try {
+            matar(documento.id());
+            int numero = proximoDocumento++;
+            if (numero == ids.length) {
+                ids = Arrays.copyOf(ids, numero * 2);
+                restaurantes = Arrays.copyOf(restaurantes, numero * 2);
+            }
+            ids[numero] = documento.id();
+            restaurantes[numero] = documento.restauranteId();
+            disponiveis.set(numero, documento.disponivel());
+            documentoDoId.put(documento.id(), numero);
+            mascaras.forEach((termo, mascara) -> termos.computeIfAbsent(termo, t -> new Postagens()).adicionar(numero, mascara));
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void remover(long id) {
+        trava.writeLock().lock();
+        try {
+            matar(id);
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            termos.clear();
+            documentoDoId.clear();
+            disponiveis.clear();
+            mortos.clear();
+            proximoDocumento = 0;
+            quantidadeMortos = 0;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // restauranteId e disponivel nulos: sem filtro
+    public List<Resultado> buscar(String consulta, Long restauranteId, Boolean disponivel, int limite) {
+        List<String> tokens = tokens(consulta);
+        if (tokens.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        trava.readLock().lock();
+        try {
+            List<List<Expansao>> porToken = new ArrayList<>(tokens.size());
+            for (String token : new LinkedHashSet<>(tokens)) {
+                List<Expansao> expansoes = expandir(token);
+                if (expansoes.isEmpty()) {
+                    return List.of(); // um termo sem correspondência elimina tudo
+                }
+                porToken.add(expansoes);
+            }
+            porToken.sort(Comparator.comparingLong(IndiceInvertido::totalPostagens));
+
+            Candidatos candidatos = primeiros(porToken.get(0), restauranteId, disponivel);
+            for (int i = 1; i < porToken.size() && candidatos.tamanho > 0; i++) {
+                candidatos.intersectar(porToken.get(i));
+            }
+            return melhores(candidatos, limite);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        trava.readLock().lock();
+        try {
+            return documentoDoId.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int quantidadeTermos() {
+        trava.readLock().lock();
+        try {
+            return termos.size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Minúsculas sem acentos, separadas em sequências de letras e dígitos: "Pão de Queijo (6un.)" -> pao, de, queijo, 6un
+    public static List<String> tokens(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizado)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Distância de edição (inserção, remoção, troca e transposição de letras vizinhas, cada uma custando 1),
+    // ou limite + 1 assim que ela certamente passar do limite
+    static int distancia(String a, String b, int limite) {
+        if (Math.abs(a.length() - b.length()) > limite) {
+            return limite + 1;
+        }
+        int[] antepenultima = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        int menorAnterior = 0;
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            int menor = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                atual[j] = Math.min(Math.min(atual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    atual[j] = Math.min(atual[j], antepenultima[j - 2] + 1);
+                }
+                menor = Math.min(menor, atual[j]);
+            }
+            // A transposição olha duas linhas atrás: só encerra quando as duas últimas passaram do limite
+            if (menor > limite && menorAnterior > limite) {
+                return limite + 1;
+            }
+            menorAnterior = menor;
+            int[] troca = antepenultima;
+            antepenultima = anterior;
+            anterior = atual;
+            atual = troca;
+        }
+        return Math.min(anterior[b.length()], limite + 1);
+    }
+
+    private static void indexarCampo(Map<String, Byte> mascaras, String texto, byte campo) {
+        for (String token : tokens(texto)) {
+            mascaras.merge(token, campo, (a, b) -> (byte) (a | b));
+        }
+    }
+
+    private void matar(long id) {
+        Integer anterior = documentoDoId.remove(id);
+        if (anterior != null) {
+            mortos.set(anterior);
+            quantidadeMortos++;
+        }
+    }
+
+    // Renumera os vivos mantendo a ordem (as listas continuam ordenadas) e descarta os termos que ficaram vazios
+    private void compactarSeNecessario() {
+        if (quantidadeMortos < 1024 || quantidadeMortos <= documentoDoId.size()) {
+            return;
+        }
+        int[] novoNumero = new int[proximoDocumento];
+        int vivos = 0;
+        for (int d = 0; d < proximoDocumento; d++) {
+            if (mortos.get(d)) {
+                novoNumero[d] = -1;
+            } else {
+                novoNumero[d] = vivos;
+                ids[vivos] = ids[d];
+                restaurantes[vivos] = restaurantes[d];
+                disponiveis.set(vivos, disponiveis.get(d));
+                vivos++;
+            }
+        }
+        disponiveis.clear(vivos, proximoDocumento);
+
+        var iterador = termos.values().iterator();
+        while (iterador.hasNext()) {
+            Postagens postagens = iterador.next();
+            int n = 0;
+            for (int i = 0; i < postagens.tamanho; i++) {
+                int numero = novoNumero[postagens.documentos[i]];
+                if (numero >= 0) {
+                    postagens.documentos[n] = numero;
+                    postagens.campos[n] = postagens.campos[i];
+                    n++;
+                }
+            }
+            postagens.tamanho = n;
+            if (n == 0) {
+                iterador.remove();
+            }
+        }
+        documentoDoId.replaceAll((id, numero) -> novoNumero[numero]);
+        mortos.clear();
+        quantidadeMortos = 0;
+        proximoDocumento = vivos;
+    }
+
+    private List<Expansao> expandir(String token) {
+        List<Expansao> expansoes = new ArrayList<>();
+        Postagens exato = termos.get(token);
+        if (exato != null) {
+            expansoes.add(new Expansao(exato, EXATO));
+        }
+
+        // Prefixo: as expansões mais frequentes, para o custo da consulta não depender do tamanho do dicionário
+        PriorityQueue<Map.Entry<String, Postagens>> prefixos =
+                new PriorityQueue<>(Comparator.comparingInt(e -> e.getValue().tamanho));
+        for (var termo : termos.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+            prefixos.add(termo);
+            if (prefixos.size() > MAX_EXPANSOES) {
+                prefixos.poll();
+            }
+        }
+        prefixos.forEach(termo -> expansoes.add(new Expansao(termo.getValue(), PREFIXO)));
+
+        int limite = edicoesToleradas(token);
+        if (limite > 0) {
+            String inicio = token.substring(0, 1);
+            int aproximados = 0;
+            for (var termo : termos.subMap(inicio, true, inicio + Character.MAX_VALUE, false).entrySet()) {
+                String candidato = termo.getKey();
+                if (candidato.startsWith(token)) {
+                    continue; // já entrou como exato ou prefixo
+                }
+                int d = distancia(token, candidato, limite);
+                if (d <= limite) {
+                    expansoes.add(new Expansao(termo.getValue(), d == 1 ? UMA_EDICAO : DUAS_EDICOES));
+                    if (++aproximados == MAX_EXPANSOES) {
+                        break;
+                    }
+                }
+            }
+        }
+        return expansoes;
+    }
+
+    // Números (tamanhos, quantidades, códigos) não toleram erros: "2600" não deve achar "2100"
+    static int edicoesToleradas(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isDigit(token.charAt(i))) {
+                return 0;
+            }
+        }
+        return token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+    }
+
+    private static long totalPostagens(List<Expansao> expansoes) {
+        long total = 0;
+        for (Expansao expansao : expansoes) {
+            total += expansao.postagens().tamanho;
+        }
+        return total;
+    }
+
+    private static double pesoCampo(byte mascara) {
+        if ((mascara & NOME) != 0) return 3;
+        if ((mascara & CATEGORIA) != 0) return 2;
+        return 1;
+    }
+
+    // Candidatos em ordem de documento, com a pontuação acumulada
+    private static final class Candidatos {
+        private int[] documentos;
+        private double[] pontuacoes;
+        private int tamanho;
+
+        Candidatos(int capacidade) {
+            documentos = new int[Math.max(capacidade, 1)];
+            pontuacoes = new double[Math.max(capacidade, 1)];
+        }
+
+        void adicionar(int documento, double pontuacao) {
+            if (tamanho == documentos.length) {
+                documentos = Arrays.copyOf(documentos, tamanho * 2);
+                pontuacoes = Arrays.copyOf(pontuacoes, tamanho * 2);
+            }
+            documentos[tamanho] = documento;
+            pontuacoes[tamanho] = pontuacao;
+            tamanho++;
+        }
+
+        // Mantém só quem casa com alguma expansão do termo, somando o melhor peso
+        void intersectar(List<Expansao> expansoes) {
+            double[] melhor = new double[tamanho];
+            for (Expansao expansao : expansoes) {
+                Postagens lista = expansao.postagens();
+                if (tamanho <= 16L * lista.tamanho && lista.tamanho <= 16L * tamanho) {
+                    // Tamanhos parecidos: intercalação linear das duas listas
+                    int p = 0;
+                    for (int c = 0; c < tamanho && p < lista.tamanho; ) {
+                        if (lista.documentos[p] < documentos[c]) {
+                            p++;
+                        } else if (lista.documentos[p] > documentos[c]) {
+                            c++;
+                        } else {
+                            melhor[c] = Math.max(melhor[c], expansao.peso() * pesoCampo(lista.campos[p]));
+                            c++;
+                            p++;
+                        }
+                    }
+                } else if (tamanho < lista.tamanho) {
+                    int de = 0;
+                    for (int c = 0; c < tamanho && de < lista.tamanho; c++) {
+                        int p = Arrays.binarySearch(lista.documentos, de, lista.tamanho, documentos[c]);
+                        if (p >= 0) {
+                            melhor[c] = Math.max(melhor[c], expansao.peso() * pesoCampo(lista.campos[p]));
+                            de = p + 1;
+                        } else {
+                            de = -p - 1;
+                        }
+                    }
+                } else {
+                    int de = 0;
+                    for (int p = 0; p < lista.tamanho && de < tamanho; p++) {
+                        int c = Arrays.binarySearch(documentos, de, tamanho, lista.documentos[p]);
+                        if (c >= 0) {
+                            melhor[c] = Math.max(melhor[c], expansao.peso() * pesoCampo(lista.campos[p]));
+                            de = c + 1;
+                        } else {
+                            de = -c - 1;
+                        }
+                    }
+                }
+            }
+            int n = 0;
+            for (int c = 0; c < tamanho; c++) {
+                if (melhor[c] > 0) {
+                    documentos[n] = documentos[c];
+                    pontuacoes[n] = pontuacoes[c] + melhor[c];
+                    n++;
+                }
+            }
+            tamanho = n;
+        }
+    }
+
+    // União das listas do termo mais seletivo, já aplicando os filtros, em ordem de documento:
+    //   - muitas postagens (termo comum): pontuação em um array indexado pelo documento, percorrido em ordem;
+    //   - até INTERCALACAO_DIRETA listas: intercaladas por cursores, em tempo proporcional às postagens;
+    //   - mais listas: pares (documento, expansão, campos) empacotados em longs e ordenados.
+    private Candidatos primeiros(List<Expansao> expansoes, Long restauranteId, Boolean disponivel) {
+        long total = totalPostagens(expansoes);
+        if (total <= proximoDocumento / 32 && expansoes.size() <= INTERCALACAO_DIRETA) {
+            return intercalar(expansoes, (int) total, restauranteId, disponivel);
+        }
+        if (total > proximoDocumento / 32) {
+            double[] pontuacoes = new double[proximoDocumento];
+            for (Expansao expansao : expansoes) {
+                Postagens lista = expansao.postagens();
+                for (int i = 0; i < lista.tamanho; i++) {
+                    int documento = lista.documentos[i];
+                    pontuacoes[documento] = Math.max(pontuacoes[documento], expansao.peso() * pesoCampo(lista.campos[i]));
+                }
+            }
+            Candidatos candidatos = new Candidatos((int) Math.min(total, proximoDocumento));
+            for (int documento = 0; documento < proximoDocumento; documento++) {
+                if (pontuacoes[documento] > 0 && aceito(documento, restauranteId, disponivel)) {
+                    candidatos.adicionar(documento, pontuacoes[documento]);
+                }
+            }
+            return candidatos;
+        }
+
+        long[] pares = new long[(int) total];
+        int n = 0;
+        for (int e = 0; e < expansoes.size(); e++) {
+            Postagens lista = expansoes.get(e).postagens();
+            for (int i = 0; i < lista.tamanho; i++) {
+                pares[n++] = ((long) lista.documentos[i] << 32) | ((long) e << 8) | (lista.campos[i] & 0xff);
+            }
+        }
+        Arrays.sort(pares);
+
+        Candidatos candidatos = new Candidatos(n);
+        int i = 0;
+        while (i < n) {
+            int documento = (int) (pares[i] >>> 32);
+            double melhor = 0;
+            for (; i < n && (int) (pares[i] >>> 32) == documento; i++) {
+                int expansao = (int) (pares[i] >>> 8) & 0xffffff;
+                melhor = Math.max(melhor, expansoes.get(expansao).peso() * pesoCampo((byte) pares[i]));
+            }
+            if (aceito(documento, restauranteId, disponivel)) {
+                candidatos.adicionar(documento, melhor);
+            }
+        }
+        return candidatos;
+    }
+
+    private Candidatos intercalar(List<Expansao> expansoes, int total, Long restauranteId, Boolean disponivel) {
+        Candidatos candidatos = new Candidatos(total);
+        int k = expansoes.size();
+        if (k == 1) {
+            Postagens lista = expansoes.get(0).postagens();
+            double peso = expansoes.get(0).peso();
+            for (int i = 0; i < lista.tamanho; i++) {
+                if (aceito(lista.documentos[i], restauranteId, disponivel)) {
+                    candidatos.adicionar(lista.documentos[i], peso * pesoCampo(lista.campos[i]));
+                }
+            }
+            return candidatos;
+        }
+
+        int[] cursores = new int[k];
+        while (true) {
+            int documento = Integer.MAX_VALUE;
+            for (int e = 0; e < k; e++) {
+                Postagens lista = expansoes.get(e).postagens();
+                if (cursores[e] < lista.tamanho) {
+                    documento = Math.min(documento, lista.documentos[cursores[e]]);
+                }
+            }
+            if (documento == Integer.MAX_VALUE) {
+                return candidatos;
+            }
+            double melhor = 0;
+            for (int e = 0; e < k; e++) {
+                Postagens lista = expansoes.get(e).postagens();
+                if (cursores[e] < lista.tamanho && lista.documentos[cursores[e]] == documento) {
+                    melhor = Math.max(melhor, expansoes.get(e).peso() * pesoCampo(lista.campos[cursores[e]]));
+                    cursores[e]++;
+                }
+            }
+            if (aceito(documento, restauranteId, disponivel)) {
+                candidatos.adicionar(documento, melhor);
+            }
+        }
+    }
+
+    private boolean aceito(int documento, Long restauranteId, Boolean disponivel) {
+        return !mortos.get(documento)
+                && (restauranteId == null || restaurantes[documento] == restauranteId)
+                && (disponivel == null || disponiveis.get(documento) == disponivel);
+    }
+
+    private List<Resultado> melhores(Candidatos candidatos, int limite) {
+        PriorityQueue<Resultado> heap = new PriorityQueue<>(limite + 1, MELHOR_PRIMEIRO.reversed());
+        for (int c = 0; c < candidatos.tamanho; c++) {
+            double pontuacao = candidatos.pontuacoes[c];
+            Resultado pior = heap.size() == limite ? heap.peek() : null;
+            if (pior != null && pontuacao < pior.pontuacao()) {
+                continue; // não entra no top-K: evita criar o objeto
+            }
+            long id = ids[candidatos.documentos[c]];
+            if (pior != null && pontuacao == pior.pontuacao() && id > pior.id()) {
+                continue;
+            }
+            heap.add(new Resultado(id, pontuacao));
+            if (heap.size() > limite) {
+                heap.poll();
+            }
+        }
+        List<Resultado> resultado = new ArrayList<>(heap);
+        resultado.sort(MELHOR_PRIMEIRO);
+        return resultado;
+    }
+}
@@ -0,0 +1,116 @@
+package com.deliverytech.delivery_api.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+
+// Gera números de pedido únicos entre instâncias, ordenados pelo tempo e sem lock.
+// Layout de 63 bits: 41 bits de milissegundos desde 2024-01-01 | 10 bits do nó | 12 bits de sequência,
+// codificado em Base32 Crockford com largura fixa de 13 caracteres (ordem lexicográfica = ordem temporal).
+@Component
+public class NumeroPedidoGenerator {
+
+    public static final int TAMANHO = 13;
+
+    private static final long EPOCA = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int BITS_NO = 10;
+    private static final int BITS_SEQUENCIA = 12;
+    private static final long MAX_NO = (1L << BITS_NO) - 1;
+    private static final long MAX_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+    private static final byte[] ALFABETO = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Logger logger = LoggerFactory.getLogger(NumeroPedidoGenerator.class);
+
+    private final long no;
+    private final LongSupplier relogio;
+
+    // (milissegundo lógico << 12) | sequência do último número emitido
+    private final AtomicLong ultimo = new AtomicLong();
+
+    public NumeroPedidoGenerator(long no) {
+        this(no, System::currentTimeMillis);
+    }
+
+    @Autowired
+    public NumeroPedidoGenerator(@Value("${delivery.pedidos.node-id:-1}") long no, Environment ambiente) {
+        this(no < 0 ? noPeloHost(ambiente) : no, System::currentTimeMillis);
+    }
+
+    NumeroPedidoGenerator(long no, LongSupplier relogio) {
+        if (no < 0 || no > MAX_NO) {
+            throw new IllegalArgumentException("delivery.pedidos.node-id deve estar entre 0 e " + MAX_NO + ": " + no);
+        }
+        this.no = no;
+        this.relogio = relogio;
+    }
+
+    public String gerar() {
+        return codificar(proximoId());
+    }
+
+    long proximoId() {
+        while (true) {
+            long atual = ultimo.get();
+            long msAnterior = atual >>> BITS_SEQUENCIA;
+            long agora = relogio.getAsLong() - EPOCA;
+
+            long ms;
+            long sequencia;
+            if (agora > msAnterior) {
+                ms = agora;
+                sequencia = 0;
+            } else {
+                // Mesmo milissegundo ou relógio voltou: continua do último instante emitido.
+                // Esgotada a sequência, avança para o próximo milissegundo lógico em vez de esperar.
+                ms = msAnterior;
+                sequencia = (atual & MAX_SEQUENCIA) + 1;
+                if (sequencia > MAX_SEQUENCIA) {
+                    ms++;
+                    sequencia = 0;
+                }
+            }
+
+            if (ultimo.compareAndSet(atual, (ms << BITS_SEQUENCIA) | sequencia)) {
+                return (ms << (BITS_NO + BITS_SEQUENCIA)) | (no << BITS_SEQUENCIA) | sequencia;
+            }
+        }
+    }
+
+    static String codificar(long id) {
+        byte[] saida = new byte[TAMANHO];
+        for (int i = TAMANHO - 1; i >= 0; i--) {
+            saida[i] = ALFABETO[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(saida, StandardCharsets.US_ASCII);
+    }
+
+    // Sem node-id configurado, deriva um valor do hostname, mas só nos perfis dev e test: são 1024 valores, então duas
+    // instâncias podem cair no mesmo nó (com 2 pods, ~0,1%; com 40, ~50%) e gerar o mesmo número no mesmo
+    // milissegundo. Em qualquer outro perfil a aplicação não sobe sem um node-id único por instância.
+    static long noPeloHost(Environment ambiente) {
+        if (!ambiente.acceptsProfiles(Profiles.of("dev", "test"))) {
+            throw new IllegalStateException("delivery.pedidos.node-id não configurado: defina um valor entre 0 e "
+                    + MAX_NO + " único por instância (derivar do hostname só é aceito nos perfis dev e test).");
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = String.valueOf(ProcessHandle.current().pid());
+        }
+        long no = (host.hashCode() & 0x7fffffff) % (MAX_NO + 1);
+        logger.warn("delivery.pedidos.node-id não configurado; usando {} derivado do host '{}'. Outra instância pode " +
+                "derivar o mesmo nó e gerar números repetidos: configure um valor único por instância.", no, host);
+        return no;
+    }
+}
@@ -19,6 +19,12 @@ public class SecurityUtils {
         return (user != null) ? user.getId() : null;
     }
 
+    // Nome do principal autenticado (e-mail para usuários do JWT); não depende do tipo do principal
+    public String getCurrentUsername() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        return (auth != null && auth.isAuthenticated()) ? auth.getName() : null;
+    }
+
     public boolean hasRole(String role) {
         var auth = SecurityContextHolder.getContext().getAuthentication();
         return auth.getAuthorities().stream()
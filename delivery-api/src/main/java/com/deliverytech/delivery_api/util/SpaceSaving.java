@@ -0,0 +1,186 @@
+package com.deliverytech.delivery_api.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// Sketch Space-Saving (Metwally et al.): acompanha no máximo "capacidade" chaves. Quando está cheio, uma chave
+// nova assume o contador de menor contagem e herda essa contagem como erro.
+// Garantias, sendo W o peso total adicionado e k a capacidade:
+//   - para cada chave listada, contagem - erro <= valor real <= contagem;
+//   - o erro de qualquer chave (e o valor real de qualquer chave não listada) é no máximo o menor contador, que é <= W / k;
+//   - toda chave com valor real acima de W / k está entre as listadas.
+// Não é thread-safe: quem compartilha a instância sincroniza o acesso (ver TopKJanela).
+public class SpaceSaving<K> {
+
+    public record Estimativa<K>(K chave, long contagem, long erro) {
+        // Valor real garantido (limite inferior)
+        public long minimo() {
+            return contagem - erro;
+        }
+    }
+
+    // erroMaximo: quanto uma contagem listada pode exceder o valor real e o máximo que uma chave fora da lista pode ter
+    public record Top<K>(List<Estimativa<K>> itens, long total, long erroMaximo) {}
+
+    private static final class Contador<K> {
+        private K chave;
+        private long contagem;
+        private long erro;
+        private int posicao; // índice no heap
+    }
+
+    // Maior contagem primeiro; no empate, a de maior valor garantido
+    private static final Comparator<Estimativa<?>> POR_CONTAGEM =
+            Comparator.comparingLong((Estimativa<?> e) -> -e.contagem()).thenComparingLong(e -> -e.minimo());
+
+    private final int capacidade;
+    private final Map<K, Contador<K>> contadores;
+    private final Contador<K>[] heap; // min-heap pela contagem: a raiz é o contador a ser substituído
+    private int tamanho;
+    private long total;
+
+    public SpaceSaving(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade do sketch deve ser positiva: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        this.contadores = new HashMap<>(capacidade * 2);
+        @SuppressWarnings("unchecked")
+        Contador<K>[] heap = (Contador<K>[]) new Contador<?>[capacidade];
+        this.heap = heap;
+    }
+
+    // O(log k). A chave guardada é sempre a última recebida (útil para chaves que carregam um rótulo).
+    public void adicionar(K chave, long peso) {
+        if (peso <= 0) {
+            throw new IllegalArgumentException("O peso deve ser positivo: " + peso);
+        }
+        total += peso;
+
+        Contador<K> contador = contadores.get(chave);
+        if (contador != null) {
+            contador.chave = chave;
+            contador.contagem += peso;
+            descer(contador.posicao);
+            return;
+        }
+
+        if (tamanho < capacidade) {
+            contador = new Contador<>();
+            contador.chave = chave;
+            contador.contagem = peso;
+            contador.posicao = tamanho;
+            heap[tamanho++] = contador;
+            subir(contador.posicao);
+        } else {
+            contador = heap[0];
+            contadores.remove(contador.chave);
+            contador.chave = chave;
+            contador.erro = contador.contagem;
+            contador.contagem += peso;
+            descer(0);
+        }
+        contadores.put(chave, contador);
+    }
+
+    // Menor contagem monitorada; enquanto há contadores livres nenhuma chave foi descartada e o erro é zero
+    public long minimo() {
+        return tamanho < capacidade ? 0 : heap[0].contagem;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public Top<K> top(int n) {
+        return new Top<>(ordenar(estimativas(), n), total, minimo());
+    }
+
+    // Contadores na ordem do heap (sem ordenação)
+    List<Estimativa<K>> estimativas() {
+        List<Estimativa<K>> itens = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            itens.add(new Estimativa<>(heap[i].chave, heap[i].contagem, heap[i].erro));
+        }
+        return itens;
+    }
+
+    // Soma de sketches de períodos distintos (baldes de uma janela). Uma chave ausente de um sketch pode ter
+    // tido nele até o mínimo daquele sketch: esse valor entra na contagem e no erro. Os limites continuam
+    // valendo para o conjunto, com erro máximo igual à soma dos mínimos (<= W / k).
+    public static <K> Top<K> mesclar(Collection<SpaceSaving<K>> sketches, int n) {
+        long total = 0;
+        long somaMinimos = 0;
+        Map<K, long[]> somas = new HashMap<>(); // contagem, erro e soma dos mínimos dos sketches que têm a chave
+        Map<K, K> chaves = new HashMap<>();
+        for (SpaceSaving<K> sketch : sketches) {
+            total += sketch.total;
+            long minimo = sketch.minimo();
+            somaMinimos += minimo;
+            for (int i = 0; i < sketch.tamanho; i++) {
+                Contador<K> contador = sketch.heap[i];
+                long[] soma = somas.computeIfAbsent(contador.chave, k -> new long[3]);
+                soma[0] += contador.contagem;
+                soma[1] += contador.erro;
+                soma[2] += minimo;
+                chaves.put(contador.chave, contador.chave);
+            }
+        }
+
+        List<Estimativa<K>> itens = new ArrayList<>(somas.size());
+        for (Map.Entry<K, long[]> entrada : somas.entrySet()) {
+            long[] soma = entrada.getValue();
+            long ausente = somaMinimos - soma[2];
+            itens.add(new Estimativa<>(chaves.get(entrada.getKey()), soma[0] + ausente, soma[1] + ausente));
+        }
+        return new Top<>(ordenar(itens, n), total, somaMinimos);
+    }
+
+    static <K> List<Estimativa<K>> ordenar(List<Estimativa<K>> itens, int n) {
+        itens.sort(POR_CONTAGEM);
+        return itens.size() > n ? new ArrayList<>(itens.subList(0, n)) : itens;
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (heap[pai].contagem <= heap[i].contagem) {
+                return;
+            }
+            trocar(i, pai);
+            i = pai;
+        }
+    }
+
+    private void descer(int i) {
+        while (true) {
+            int menor = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && heap[esquerda].contagem < heap[menor].contagem) menor = esquerda;
+            if (direita < tamanho && heap[direita].contagem < heap[menor].contagem) menor = direita;
+            if (menor == i) {
+                return;
+            }
+            trocar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void trocar(int a, int b) {
+        Contador<K> temporario = heap[a];
+        heap[a] = heap[b];
+        heap[b] = temporario;
+        heap[a].posicao = a;
+        heap[b].posicao = b;
+    }
+}
@@ -0,0 +1,198 @@
+package com.deliverytech.delivery_api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+// Tabela imutável das taxas de entrega por zona, em arrays primitivos ordenados:
+//   - faixas de CEP (inicio, fim, zona) ordenadas pelo início: a zona de um CEP sai de uma busca binária;
+//   - acréscimo de cada zona em centavos, pela posição da zona (ids ordenados);
+//   - taxas próprias dos restaurantes: ids ordenados e, para cada um, uma linha com a taxa de cada zona
+//     (SEM_TAXA_PROPRIA quando a zona usa a regra geral).
+// Consultar zona e taxa não aloca objetos; alterar as taxas de um restaurante gera uma tabela nova
+// (comTaxasDoRestaurante), publicada inteira para os leitores.
+public final class TabelaTaxasEntrega {
+
+    public static final int FORA_DE_ZONA = -1;
+    public static final int CEP_INVALIDO = -1;
+    private static final long SEM_TAXA_PROPRIA = -1;
+
+    // Valores em centavos
+    public record Zona(int id, String nome, long acrescimo) {}
+
+    public record Faixa(int cepInicio, int cepFim, int zonaId) {}
+
+    private final int[] idsZona;
+    private final String[] nomesZona;
+    private final long[] acrescimos;
+    private final long acrescimoForaDeZona;
+
+    private final int[] inicios;
+    private final int[] fins;
+    private final int[] zonas;
+
+    private final long[] restaurantes;
+    private final long[] taxasProprias;
+
+    public TabelaTaxasEntrega(List<Zona> zonas, List<Faixa> faixas, Map<Long, Map<Integer, Long>> taxasProprias,
+                              long acrescimoForaDeZona) {
+        List<Zona> ordenadas = zonas.stream().sorted(Comparator.comparingInt(Zona::id)).toList();
+        this.idsZona = new int[ordenadas.size()];
+        this.nomesZona = new String[ordenadas.size()];
+        this.acrescimos = new long[ordenadas.size()];
+        for (int i = 0; i < ordenadas.size(); i++) {
+            Zona zona = ordenadas.get(i);
+            if (i > 0 && idsZona[i - 1] == zona.id()) {
+                throw new IllegalArgumentException("Zona repetida: " + zona.id());
+            }
+            idsZona[i] = zona.id();
+            nomesZona[i] = zona.nome();
+            acrescimos[i] = zona.acrescimo();
+        }
+        this.acrescimoForaDeZona = acrescimoForaDeZona;
+
+        List<Faixa> porInicio = faixas.stream().sorted(Comparator.comparingInt(Faixa::cepInicio)).toList();
+        this.inicios = new int[porInicio.size()];
+        this.fins = new int[porInicio.size()];
+        this.zonas = new int[porInicio.size()];
+        for (int i = 0; i < porInicio.size(); i++) {
+            Faixa faixa = porInicio.get(i);
+            if (faixa.cepInicio() > faixa.cepFim()) {
+                throw new IllegalArgumentException("Faixa de CEP invertida: " + faixa);
+            }
+            if (i > 0 && faixa.cepInicio() <= fins[i - 1]) {
+                throw new IllegalArgumentException("Faixas de CEP sobrepostas: " + porInicio.get(i - 1) + " e " + faixa);
+            }
+            inicios[i] = faixa.cepInicio();
+            fins[i] = faixa.cepFim();
+            this.zonas[i] = indiceExistente(faixa.zonaId());
+        }
+
+        this.restaurantes = taxasProprias.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        this.taxasProprias = new long[restaurantes.length * idsZona.length];
+        Arrays.fill(this.taxasProprias, SEM_TAXA_PROPRIA);
+        for (int r = 0; r < restaurantes.length; r++) {
+            for (Map.Entry<Integer, Long> taxa : taxasProprias.get(restaurantes[r]).entrySet()) {
+                if (taxa.getValue() < 0) {
+                    throw new IllegalArgumentException("Taxa negativa para a zona " + taxa.getKey());
+                }
+                this.taxasProprias[r * idsZona.length + indiceExistente(taxa.getKey())] = taxa.getValue();
+            }
+        }
+    }
+
+    // Cópia com as taxas próprias do restaurante substituídas (mapa vazio: volta à regra geral em todas as zonas)
+    public TabelaTaxasEntrega comTaxasDoRestaurante(long restauranteId, Map<Integer, Long> taxas) {
+        Map<Long, Map<Integer, Long>> todas = new HashMap<>();
+        for (int r = 0; r < restaurantes.length; r++) {
+            if (restaurantes[r] != restauranteId) {
+                todas.put(restaurantes[r], taxasDoRestaurante(r));
+            }
+        }
+        if (!taxas.isEmpty()) {
+            todas.put(restauranteId, taxas);
+        }
+        List<Faixa> faixas = new ArrayList<>(inicios.length);
+        for (int i = 0; i < inicios.length; i++) {
+            faixas.add(new Faixa(inicios[i], fins[i], idsZona[zonas[i]]));
+        }
+        List<Zona> listaZonas = new ArrayList<>(idsZona.length);
+        for (int z = 0; z < idsZona.length; z++) {
+            listaZonas.add(new Zona(idsZona[z], nomesZona[z], acrescimos[z]));
+        }
+        return new TabelaTaxasEntrega(listaZonas, faixas, todas, acrescimoForaDeZona);
+    }
+
+    // CEP de 8 dígitos como número, aceitando "-" e "." como separadores; CEP_INVALIDO para qualquer outro formato
+    public static int cep(CharSequence texto) {
+        if (texto == null) {
+            return CEP_INVALIDO;
+        }
+        int valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 8) {
+                    return CEP_INVALIDO;
+                }
+                valor = valor * 10 + (c - '0');
+            } else if (c != '-' && c != '.') {
+                return CEP_INVALIDO;
+            }
+        }
+        return digitos == 8 ? valor : CEP_INVALIDO;
+    }
+
+    // Posição da zona do CEP (para taxa, idZona e nomeZona) ou FORA_DE_ZONA
+    public int zona(int cep) {
+        int baixo = 0;
+        int alto = inicios.length - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (inicios[meio] <= cep) {
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        // alto: última faixa que começa até o CEP
+        return alto >= 0 && cep <= fins[alto] ? zonas[alto] : FORA_DE_ZONA;
+    }
+
+    // Taxa (centavos) do restaurante para a zona: a própria, se houver, ou a base mais o acréscimo da zona
+    public long taxa(long restauranteId, long taxaBase, int zona) {
+        if (zona == FORA_DE_ZONA) {
+            return taxaBase + acrescimoForaDeZona;
+        }
+        int r = Arrays.binarySearch(restaurantes, restauranteId);
+        if (r >= 0) {
+            long propria = taxasProprias[r * idsZona.length + zona];
+            if (propria != SEM_TAXA_PROPRIA) {
+                return propria;
+            }
+        }
+        return taxaBase + acrescimos[zona];
+    }
+
+    public int idZona(int zona) {
+        return zona == FORA_DE_ZONA ? FORA_DE_ZONA : idsZona[zona];
+    }
+
+    public String nomeZona(int zona) {
+        return zona == FORA_DE_ZONA ? null : nomesZona[zona];
+    }
+
+    // Posição da zona pelo id, ou FORA_DE_ZONA se não existe
+    public int indiceZona(int zonaId) {
+        int z = Arrays.binarySearch(idsZona, zonaId);
+        return z >= 0 ? z : FORA_DE_ZONA;
+    }
+
+    public int quantidadeFaixas() {
+        return inicios.length;
+    }
+
+    private Map<Integer, Long> taxasDoRestaurante(int r) {
+        Map<Integer, Long> taxas = new HashMap<>();
+        for (int z = 0; z < idsZona.length; z++) {
+            long taxa = taxasProprias[r * idsZona.length + z];
+            if (taxa != SEM_TAXA_PROPRIA) {
+                taxas.put(idsZona[z], taxa);
+            }
+        }
+        return taxas;
+    }
+
+    private int indiceExistente(int zonaId) {
+        int z = indiceZona(zonaId);
+        if (z == FORA_DE_ZONA) {
+            throw new IllegalArgumentException("Zona inexistente: " + zonaId);
+        }
+        return z;
+    }
+}
@@ -0,0 +1,133 @@
+package com.deliverytech.delivery_api.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+
+// Top-K de uma janela deslizante: um SpaceSaving por balde de tempo, em buffer circular. A consulta mescla
+// os baldes ainda dentro da janela, que cobre a duração pedida mais o balde em andamento (até um balde a mais).
+// Baldes encerrados não mudam mais: a mescla deles é feita uma vez por balde e cada consulta soma a ela apenas
+// o balde em andamento, em O(k + n). Sem duração, acumula desde a criação em um único sketch. Thread-safe.
+public class TopKJanela<K> {
+
+    private final SpaceSaving<K>[] baldes;
+    private final long[] periodos; // período (agora / duração do balde) a que cada posição se refere
+    private final long duracaoBaldeNanos;
+    private final int capacidade;
+    private final LongSupplier relogio;
+
+    private Encerrados<K> encerrados; // mescla dos baldes anteriores ao período "encerradosAte"
+    private long encerradosAte;
+
+    public TopKJanela(int capacidade) {
+        this(capacidade, null, 1, System::nanoTime);
+    }
+
+    public TopKJanela(int capacidade, Duration janela, int quantidadeBaldes) {
+        this(capacidade, janela, quantidadeBaldes, System::nanoTime);
+    }
+
+    TopKJanela(int capacidade, Duration janela, int quantidadeBaldes, LongSupplier relogio) {
+        if (quantidadeBaldes <= 0) {
+            throw new IllegalArgumentException("A janela deve ter ao menos um balde: " + quantidadeBaldes);
+        }
+        this.capacidade = capacidade;
+        this.relogio = relogio;
+        @SuppressWarnings("unchecked")
+        SpaceSaving<K>[] baldes = (SpaceSaving<K>[]) new SpaceSaving<?>[janela == null ? 1 : quantidadeBaldes + 1];
+        if (janela == null) {
+            this.duracaoBaldeNanos = 0;
+            baldes[0] = new SpaceSaving<>(capacidade);
+        } else {
+            this.duracaoBaldeNanos = janela.toNanos() / quantidadeBaldes;
+        }
+        this.baldes = baldes;
+        this.periodos = new long[baldes.length];
+    }
+
+    public synchronized void adicionar(K chave, long peso) {
+        if (duracaoBaldeNanos == 0) {
+            baldes[0].adicionar(chave, peso);
+            return;
+        }
+        long periodo = Math.floorDiv(relogio.getAsLong(), duracaoBaldeNanos);
+        int posicao = Math.floorMod(periodo, baldes.length);
+        if (baldes[posicao] == null || periodos[posicao] != periodo) {
+            baldes[posicao] = new SpaceSaving<>(capacidade); // balde de um período que já saiu da janela
+            periodos[posicao] = periodo;
+        }
+        baldes[posicao].adicionar(chave, peso);
+    }
+
+    public synchronized SpaceSaving.Top<K> top(int n) {
+        if (duracaoBaldeNanos == 0) {
+            return baldes[0].top(n);
+        }
+        long atual = Math.floorDiv(relogio.getAsLong(), duracaoBaldeNanos);
+        SpaceSaving<K> emAndamento = null;
+        if (encerrados == null || encerradosAte != atual) {
+            List<SpaceSaving<K>> validos = new ArrayList<>(baldes.length);
+            for (int i = 0; i < baldes.length; i++) {
+                if (baldes[i] != null && periodos[i] != atual && atual - periodos[i] < baldes.length) {
+                    validos.add(baldes[i]);
+                }
+            }
+            encerrados = new Encerrados<>(SpaceSaving.mesclar(validos, Integer.MAX_VALUE));
+            encerradosAte = atual;
+        }
+        int posicao = Math.floorMod(atual, baldes.length);
+        if (baldes[posicao] != null && periodos[posicao] == atual) {
+            emAndamento = baldes[posicao];
+        }
+        return encerrados.somar(emAndamento, n);
+    }
+
+    // Mescla dos baldes encerrados, ordenada e indexada por chave
+    private static final class Encerrados<K> {
+        private final SpaceSaving.Top<K> mescla;
+        private final Map<K, SpaceSaving.Estimativa<K>> porChave;
+
+        private Encerrados(SpaceSaving.Top<K> mescla) {
+            this.mescla = mescla;
+            this.porChave = new HashMap<>(mescla.itens().size() * 2);
+            for (SpaceSaving.Estimativa<K> estimativa : mescla.itens()) {
+                porChave.put(estimativa.chave(), estimativa);
+            }
+        }
+
+        // Mesmas regras do SpaceSaving.mesclar para dois participantes. Fora do balde em andamento, todas as chaves
+        // recebem o mesmo acréscimo (o mínimo dele), então basta percorrer a mescla ordenada até achar n delas.
+        private SpaceSaving.Top<K> somar(SpaceSaving<K> emAndamento, int n) {
+            if (emAndamento == null) {
+                List<SpaceSaving.Estimativa<K>> itens = mescla.itens();
+                return new SpaceSaving.Top<>(new ArrayList<>(itens.subList(0, Math.min(n, itens.size()))),
+                        mescla.total(), mescla.erroMaximo());
+            }
+            long minimo = emAndamento.minimo();
+            List<SpaceSaving.Estimativa<K>> candidatos = new ArrayList<>();
+            Set<K> noBalde = new HashSet<>();
+            for (SpaceSaving.Estimativa<K> atual : emAndamento.estimativas()) {
+                noBalde.add(atual.chave());
+                SpaceSaving.Estimativa<K> anterior = porChave.get(atual.chave());
+                long contagem = anterior == null ? mescla.erroMaximo() : anterior.contagem();
+                long erro = anterior == null ? mescla.erroMaximo() : anterior.erro();
+                candidatos.add(new SpaceSaving.Estimativa<>(atual.chave(), contagem + atual.contagem(), erro + atual.erro()));
+            }
+            int fora = 0;
+            for (SpaceSaving.Estimativa<K> anterior : mescla.itens()) {
+                if (fora == n) break;
+                if (noBalde.contains(anterior.chave())) continue;
+                candidatos.add(new SpaceSaving.Estimativa<>(anterior.chave(), anterior.contagem() + minimo, anterior.erro() + minimo));
+                fora++;
+            }
+            return new SpaceSaving.Top<>(SpaceSaving.ordenar(candidatos, n),
+                    mescla.total() + emAndamento.getTotal(), mescla.erroMaximo() + minimo);
+        }
+    }
+}
@@ -0,0 +1,606 @@
+package com.deliverytech.delivery_api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+// Trie compactada (árvore radix) para autocompletar. Cada termo (um tipo e um texto, ex.: produto "Pizza Calabresa")
+// entra pela chave normalizada como no IndiceInvertido (sem acentos, minúsculas, palavras separadas por espaço) e
+// também a partir de cada palavra seguinte com MENOR_PALAVRA letras ou mais, para que "cala" sugira "Pizza Calabresa".
+// As arestas guardam trechos de chave em byte[] (a chave normalizada é ASCII), os filhos ficam em um array ordenado
+// pelo primeiro byte e o termo é achado pela própria árvore, no nó da sua chave inteira: não há mapas nem cópia da
+// chave por termo.
+// Cada nó guarda os MAXIMO termos mais pesados da sua subárvore: a consulta desce pelo prefixo e devolve essa lista
+// pronta, em tempo proporcional ao tamanho do prefixo. Uma mudança de peso mexe só nos nós dos caminhos do termo,
+// de baixo para cima, a partir das listas dos filhos: um termo entre os MAXIMO de um nó também está entre os MAXIMO
+// de qualquer filho que o contenha, então as listas dos filhos bastam.
+// A memória estimada é mantida a cada alteração, descontando e recontando só os nós e termos mexidos: a métrica
+// lê um número pronto, sem percorrer a árvore nem bloquear as escritas.
+// Thread-safe: consultas sob o bloqueio de leitura, alterações sob o de escrita.
+public class TrieSugestoes<T> {
+
+    public static final int MAXIMO = 10;
+    private static final int MENOR_PALAVRA = 3; // "de", "e", "da" não abrem chave própria
+
+    public record Sugestao<T>(T tipo, String texto, long peso) {}
+
+    private static final class Termo {
+        private final Object tipo;
+        private final String texto;
+        private long peso;
+
+        private Termo(Object tipo, String texto, long peso) {
+            this.tipo = tipo;
+            this.texto = texto;
+            this.peso = peso;
+        }
+    }
+
+    private static final class No {
+        private byte[] rotulo;     // trecho da chave na aresta que chega ao nó
+        private No[] filhos;       // ordenados pelo primeiro byte do rótulo; null na folha
+        private Termo[] inteiros;  // termos cuja chave inteira termina aqui; null se nenhum
+        private Termo[] sufixos;   // termos com uma chave a partir de uma palavra do meio terminando aqui
+        private Termo[] melhores;  // até MAXIMO, do mais pesado ao mais leve; na folha pequena, o array de terminais
+
+        private No(byte[] rotulo) {
+            this.rotulo = rotulo;
+        }
+
+        private boolean vazio() {
+            return filhos == null && inteiros == null && sufixos == null;
+        }
+
+        private boolean passagem() {
+            return inteiros == null && sufixos == null && filhos != null && filhos.length == 1;
+        }
+    }
+
+    // Mais pesado primeiro; no empate, ordem do texto e depois do tipo (respostas estáveis)
+    private static final Comparator<Termo> ORDEM = (a, b) -> {
+        if (a.peso != b.peso) {
+            return a.peso > b.peso ? -1 : 1;
+        }
+        int texto = a.texto.compareTo(b.texto);
+        return texto != 0 ? texto : String.valueOf(a.tipo).compareTo(String.valueOf(b.tipo));
+    };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private No raiz = new No(new byte[0]);
+    private int termos;
+    private int nos = 1;
+    private long memoria = bytes(raiz); // conta em andamento, sob o bloqueio de escrita
+    private volatile long memoriaPublicada = memoria; // a de depois da última alteração, lida sem bloqueio
+
+    // Soma delta ao peso do termo: cria o termo se ainda não existe e o remove quando o peso chega a zero
+    public void somar(T tipo, String texto, long delta) {
+        String chave = normalizar(texto);
+        if (chave.isEmpty() || delta == 0) {
+            return;
+        }
+        List<byte[]> chaves = chaves(chave);
+        lock.writeLock().lock();
+        try {
+            Termo termo = buscar(chaves.get(0), tipo);
+            if (termo == null) {
+                if (delta < 0) {
+                    return;
+                }
+                termo = new Termo(tipo, texto.strip(), delta);
+                termos++;
+                memoria += bytes(termo);
+                for (int i = 0; i < chaves.size(); i++) {
+                    inserir(chaves.get(i), termo, i == 0);
+                    recalcular(caminho(chaves.get(i)));
+                }
+            } else {
+                termo.peso += delta;
+                if (termo.peso <= 0) {
+                    termos--;
+                    memoria -= bytes(termo);
+                    for (int i = 0; i < chaves.size(); i++) {
+                        recalcular(remover(chaves.get(i), termo, i == 0));
+                    }
+                } else if (delta > 0) {
+                    for (byte[] c : chaves) {
+                        subir(caminho(c), termo);
+                    }
+                } else {
+                    for (byte[] c : chaves) {
+                        recalcular(caminho(c));
+                    }
+                }
+            }
+        } finally {
+            memoriaPublicada = memoria;
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Troca todo o conteúdo de uma vez, somando os pesos de termos repetidos; monta as listas dos nós em uma
+    // única passada no fim, em vez de recalcular os caminhos a cada termo
+    public void reconstruir(Collection<Sugestao<T>> itens) {
+        lock.writeLock().lock();
+        try {
+            raiz = new No(new byte[0]);
+            termos = 0;
+            nos = 1;
+            memoria = bytes(raiz);
+            for (Sugestao<T> item : itens) {
+                String chave = normalizar(item.texto());
+                if (chave.isEmpty() || item.peso() <= 0) {
+                    continue;
+                }
+                List<byte[]> chaves = chaves(chave);
+                Termo termo = buscar(chaves.get(0), item.tipo());
+                if (termo != null) {
+                    termo.peso += item.peso();
+                    continue;
+                }
+                termo = new Termo(item.tipo(), item.texto().strip(), item.peso());
+                termos++;
+                memoria += bytes(termo);
+                for (int i = 0; i < chaves.size(); i++) {
+                    inserir(chaves.get(i), termo, i == 0);
+                }
+            }
+            recalcularSubarvore(raiz);
+        } finally {
+            memoriaPublicada = memoria;
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        reconstruir(List.of());
+    }
+
+    // Até limite (no máximo MAXIMO) termos cujo texto, ou uma de suas palavras, começa pelo prefixo
+    @SuppressWarnings("unchecked")
+    public List<Sugestao<T>> sugerir(String prefixo, int limite) {
+        byte[] p = normalizar(prefixo).getBytes(StandardCharsets.US_ASCII);
+        if (p.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            No no = raiz;
+            int pos = 0;
+            while (pos < p.length) {
+                int i = buscarFilho(no, p[pos]);
+                if (i < 0) {
+                    return List.of();
+                }
+                No filho = no.filhos[i];
+                int comum = comum(filho.rotulo, p, pos);
+                if (pos + comum < p.length && comum < filho.rotulo.length) {
+                    return List.of();
+                }
+                no = filho;
+                pos += comum;
+            }
+            Termo[] melhores = no.melhores;
+            int quantidade = Math.min(Math.min(limite, MAXIMO), melhores.length);
+            List<Sugestao<T>> sugestoes = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                sugestoes.add(new Sugestao<>((T) melhores[i].tipo, melhores[i].texto, melhores[i].peso));
+            }
+            return sugestoes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int quantidadeTermos() {
+        lock.readLock().lock();
+        try {
+            return termos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int quantidadeNos() {
+        lock.readLock().lock();
+        try {
+            return nos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Bytes ocupados pelos nós, seus arrays e os termos, estimados para uma JVM de 64 bits com referências
+    // comprimidas. Sem bloqueio: o valor publicado ao fim da última alteração.
+    public long memoriaEstimada() {
+        return memoriaPublicada;
+    }
+
+    public static String normalizar(String texto) {
+        return texto == null ? "" : String.join(" ", IndiceInvertido.tokens(texto));
+    }
+
+    // A chave inteira primeiro, depois as que começam em cada palavra seguinte com pelo menos MENOR_PALAVRA letras
+    private static List<byte[]> chaves(String chave) {
+        Set<String> chaves = new LinkedHashSet<>();
+        chaves.add(chave);
+        int inicio = chave.indexOf(' ') + 1;
+        while (inicio > 0) {
+            int fim = chave.indexOf(' ', inicio);
+            if ((fim < 0 ? chave.length() : fim) - inicio >= MENOR_PALAVRA) {
+                chaves.add(chave.substring(inicio));
+            }
+            inicio = fim + 1;
+        }
+        List<byte[]> bytes = new ArrayList<>(chaves.size());
+        chaves.forEach(c -> bytes.add(c.getBytes(StandardCharsets.US_ASCII)));
+        return bytes;
+    }
+
+    // O termo do tipo com essa chave inteira, se existir
+    private Termo buscar(byte[] chave, Object tipo) {
+        No no = raiz;
+        int pos = 0;
+        while (pos < chave.length) {
+            int i = buscarFilho(no, chave[pos]);
+            if (i < 0) {
+                return null;
+            }
+            no = no.filhos[i];
+            if (comum(no.rotulo, chave, pos) < no.rotulo.length) {
+                return null;
+            }
+            pos += no.rotulo.length;
+        }
+        if (no.inteiros != null) {
+            for (Termo termo : no.inteiros) {
+                if (Objects.equals(termo.tipo, tipo)) {
+                    return termo;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Insere a chave, dividindo arestas quando preciso; as listas do caminho ficam para quem chama
+    private void inserir(byte[] chave, Termo termo, boolean inteira) {
+        No no = raiz;
+        int pos = 0;
+        while (pos < chave.length) {
+            int i = buscarFilho(no, chave[pos]);
+            if (i < 0) {
+                No folha = new No(Arrays.copyOfRange(chave, pos, chave.length));
+                memoria += bytes(folha) - bytes(no);
+                no.filhos = inserirFilho(no.filhos, -i - 1, folha);
+                memoria += bytes(no);
+                nos++;
+                no = folha;
+                break;
+            }
+            No filho = no.filhos[i];
+            int comum = comum(filho.rotulo, chave, pos);
+            if (comum < filho.rotulo.length) {
+                No meio = new No(Arrays.copyOf(filho.rotulo, comum));
+                memoria -= bytes(filho);
+                filho.rotulo = Arrays.copyOfRange(filho.rotulo, comum, filho.rotulo.length);
+                meio.filhos = new No[]{filho};
+                meio.melhores = filho.melhores;
+                memoria += bytes(filho) + bytes(meio);
+                no.filhos[i] = meio;
+                nos++;
+                filho = meio;
+            }
+            no = filho;
+            pos += comum;
+        }
+        memoria -= bytes(no);
+        if (inteira) {
+            no.inteiros = comTermo(no.inteiros, termo);
+        } else {
+            no.sufixos = comTermo(no.sufixos, termo);
+        }
+        memoria += bytes(no);
+    }
+
+    // Tira o termo do nó da chave, apaga o nó que ficou vazio e funde com o filho o nó que ficou só de passagem;
+    // devolve os nós que continuam no caminho
+    private List<No> remover(byte[] chave, Termo termo, boolean inteira) {
+        List<No> caminho = caminho(chave);
+        No no = caminho.get(caminho.size() - 1);
+        memoria -= bytes(no);
+        if (inteira) {
+            no.inteiros = semTermo(no.inteiros, termo);
+        } else {
+            no.sufixos = semTermo(no.sufixos, termo);
+        }
+        memoria += bytes(no);
+        for (int nivel = caminho.size() - 1; nivel > 0; nivel--) {
+            No atual = caminho.get(nivel);
+            if (atual.vazio()) {
+                No pai = caminho.get(nivel - 1);
+                memoria -= bytes(pai) + bytes(atual);
+                pai.filhos = semFilho(pai.filhos, atual);
+                memoria += bytes(pai);
+                nos--;
+                caminho.remove(nivel);
+            } else if (atual.passagem()) {
+                No unico = atual.filhos[0];
+                memoria -= bytes(atual) + bytes(unico);
+                byte[] rotulo = Arrays.copyOf(atual.rotulo, atual.rotulo.length + unico.rotulo.length);
+                System.arraycopy(unico.rotulo, 0, rotulo, atual.rotulo.length, unico.rotulo.length);
+                atual.rotulo = rotulo;
+                atual.filhos = unico.filhos;
+                atual.inteiros = unico.inteiros;
+                atual.sufixos = unico.sufixos;
+                atual.melhores = unico.melhores;
+                memoria += bytes(atual);
+                nos--;
+            } else {
+                break;
+            }
+        }
+        return caminho;
+    }
+
+    // Nós da raiz até o nó em que a chave (já inserida) termina
+    private List<No> caminho(byte[] chave) {
+        List<No> caminho = new ArrayList<>();
+        No no = raiz;
+        caminho.add(no);
+        int pos = 0;
+        while (pos < chave.length) {
+            no = no.filhos[buscarFilho(no, chave[pos])];
+            caminho.add(no);
+            pos += no.rotulo.length;
+        }
+        return caminho;
+    }
+
+    private void recalcular(List<No> caminho) {
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            recalcular(caminho.get(i));
+        }
+    }
+
+    // Peso que só aumentou (ex.: uma venda): em cada nó o termo, se já está na lista, muda de posição; se não está,
+    // entra no lugar do último quando passa a ser mais pesado que ele. Nenhum outro termo entra ou sai.
+    private void subir(List<No> caminho, Termo termo) {
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            No no = caminho.get(i);
+            Termo[] melhores = no.melhores;
+            int posicao = melhores.length - 1;
+            while (posicao >= 0 && melhores[posicao] != termo) {
+                posicao--;
+            }
+            if (posicao < 0) {
+                if (melhores.length < MAXIMO) {
+                    recalcular(no); // a subárvore tem menos de MAXIMO termos: todos já deveriam estar na lista
+                    continue;
+                }
+                if (ORDEM.compare(termo, melhores[MAXIMO - 1]) >= 0) {
+                    return; // fora deste nó, fora também dos ancestrais
+                }
+                posicao = MAXIMO - 1;
+                melhores[posicao] = termo;
+            }
+            while (posicao > 0 && ORDEM.compare(melhores[posicao], melhores[posicao - 1]) < 0) {
+                Termo anterior = melhores[posicao - 1];
+                melhores[posicao - 1] = melhores[posicao];
+                melhores[posicao] = anterior;
+                posicao--;
+            }
+        }
+    }
+
+    private void recalcularSubarvore(No no) {
+        if (no.filhos != null) {
+            for (No filho : no.filhos) {
+                recalcularSubarvore(filho);
+            }
+        }
+        recalcular(no);
+    }
+
+    // Os MAXIMO mais pesados entre os terminais do nó e as listas dos filhos; um termo com duas chaves na mesma
+    // subárvore (ex.: "pizza pizzaria" sob "pizza") aparece em mais de uma lista e fica uma vez só
+    private void recalcular(No no) {
+        memoria -= bytes(no);
+        no.melhores = melhores(no);
+        memoria += bytes(no);
+    }
+
+    private static Termo[] melhores(No no) {
+        if (no.filhos == null && (no.inteiros == null || no.sufixos == null)) {
+            // Folha com um só array de terminais: ordenado no lugar e, se couber, usado como a própria lista
+            Termo[] terminais = no.inteiros != null ? no.inteiros : no.sufixos != null ? no.sufixos : new Termo[0];
+            Arrays.sort(terminais, ORDEM);
+            return terminais.length <= MAXIMO ? terminais : Arrays.copyOf(terminais, MAXIMO);
+        }
+        int total = tamanho(no.inteiros) + tamanho(no.sufixos);
+        if (no.filhos != null) {
+            for (No filho : no.filhos) {
+                total += filho.melhores.length;
+            }
+        }
+        Termo[] candidatos = new Termo[total];
+        int n = copiar(no.inteiros, candidatos, 0);
+        n = copiar(no.sufixos, candidatos, n);
+        if (no.filhos != null) {
+            for (No filho : no.filhos) {
+                n = copiar(filho.melhores, candidatos, n);
+            }
+        }
+        Arrays.sort(candidatos, ORDEM);
+        Termo[] melhores = new Termo[Math.min(total, MAXIMO)];
+        int quantidade = 0;
+        for (int i = 0; i < total && quantidade < MAXIMO; i++) {
+            if (i == 0 || candidatos[i] != candidatos[i - 1]) {
+                melhores[quantidade++] = candidatos[i];
+            }
+        }
+        return quantidade == melhores.length ? melhores : Arrays.copyOf(melhores, quantidade);
+    }
+
+    private static int tamanho(Termo[] termos) {
+        return termos == null ? 0 : termos.length;
+    }
+
+    private static int copiar(Termo[] origem, Termo[] destino, int posicao) {
+        if (origem == null) {
+            return posicao;
+        }
+        System.arraycopy(origem, 0, destino, posicao, origem.length);
+        return posicao + origem.length;
+    }
+
+    private static int buscarFilho(No no, byte primeiro) {
+        if (no.filhos == null) {
+            return -1;
+        }
+        int inicio = 0;
+        int fim = no.filhos.length - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            byte b = no.filhos[meio].rotulo[0];
+            if (b < primeiro) {
+                inicio = meio + 1;
+            } else if (b > primeiro) {
+                fim = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -inicio - 1;
+    }
+
+    // Bytes iguais entre o rótulo e a chave a partir de pos
+    private static int comum(byte[] rotulo, byte[] chave, int pos) {
+        int limite = Math.min(rotulo.length, chave.length - pos);
+        int i = 0;
+        while (i < limite && rotulo[i] == chave[pos + i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private static No[] inserirFilho(No[] filhos, int posicao, No filho) {
+        if (filhos == null) {
+            return new No[]{filho};
+        }
+        No[] novos = new No[filhos.length + 1];
+        System.arraycopy(filhos, 0, novos, 0, posicao);
+        novos[posicao] = filho;
+        System.arraycopy(filhos, posicao, novos, posicao + 1, filhos.length - posicao);
+        return novos;
+    }
+
+    private static No[] semFilho(No[] filhos, No filho) {
+        if (filhos.length == 1) {
+            return null;
+        }
+        No[] novos = new No[filhos.length - 1];
+        int n = 0;
+        for (No f : filhos) {
+            if (f != filho) {
+                novos[n++] = f;
+            }
+        }
+        return novos;
+    }
+
+    private static Termo[] comTermo(Termo[] termos, Termo termo) {
+        if (termos == null) {
+            return new Termo[]{termo};
+        }
+        Termo[] novos = Arrays.copyOf(termos, termos.length + 1);
+        novos[termos.length] = termo;
+        return novos;
+    }
+
+    private static Termo[] semTermo(Termo[] termos, Termo termo) {
+        if (termos.length == 1) {
+            return null;
+        }
+        Termo[] novos = new Termo[termos.length - 1];
+        int n = 0;
+        for (Termo t : termos) {
+            if (t != termo) {
+                novos[n++] = t;
+            }
+        }
+        return novos;
+    }
+
+    // Bytes do nó e dos seus arrays; cada termo é contado à parte, uma vez, ao ser criado
+    private static long bytes(No no) {
+        long total = alinhar(12 + 5 * 4) + alinhar(16 + no.rotulo.length); // cabeçalho, cinco referências e rótulo
+        if (no.filhos != null) {
+            total += referencias(no.filhos.length);
+        }
+        if (no.inteiros != null) {
+            total += referencias(no.inteiros.length);
+        }
+        if (no.sufixos != null) {
+            total += referencias(no.sufixos.length);
+        }
+        if (no.melhores != null && no.melhores != no.inteiros && no.melhores != no.sufixos) {
+            total += referencias(no.melhores.length);
+        }
+        return total;
+    }
+
+    // Cabeçalho, duas referências, peso e o texto (String com o array de bytes, LATIN1 ou UTF16)
+    private static long bytes(Termo termo) {
+        String texto = termo.texto;
+        long porCaractere = 1;
+        for (int i = 0; i < texto.length() && porCaractere == 1; i++) {
+            porCaractere = texto.charAt(i) < 256 ? 1 : 2;
+        }
+        return alinhar(12 + 2 * 4 + 8) + 24 + alinhar(16 + porCaractere * texto.length());
+    }
+
+    // A mesma estimativa percorrendo a árvore inteira, para conferir a conta incremental nos testes
+    long calcularMemoria() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            Deque<No> pendentes = new ArrayDeque<>();
+            pendentes.push(raiz);
+            while (!pendentes.isEmpty()) {
+                No no = pendentes.pop();
+                total += bytes(no);
+                if (no.filhos != null) {
+                    for (No filho : no.filhos) {
+                        pendentes.push(filho);
+                    }
+                }
+                if (no.inteiros != null) {
+                    for (Termo termo : no.inteiros) {
+                        total += bytes(termo);
+                    }
+                }
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long referencias(int quantidade) {
+        return alinhar(16 + 4L * quantidade);
+    }
+
+    private static long alinhar(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
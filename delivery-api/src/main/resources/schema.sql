@@ -0,0 +1,278 @@
+-- Esquema do banco (executado pelo spring.sql.init na subida; o Hibernate apenas valida o mapeamento).
+-- O banco H2 em memória é recriado a cada execução, por isso o script começa removendo o que existir.
+-- Cada índice indica as consultas dos repositories que atende; as colunas de chave estrangeira também são
+-- cobertas por eles (as FKs são criadas no final para o H2 reaproveitar esses índices em vez de criar outros).
+
+DROP TABLE IF EXISTS taxas_zona_restaurante CASCADE;
+DROP TABLE IF EXISTS faixas_cep_zona CASCADE;
+DROP TABLE IF EXISTS zonas_entrega CASCADE;
+DROP TABLE IF EXISTS localizacoes_cep CASCADE;
+DROP TABLE IF EXISTS clientes_distintos CASCADE;
+DROP TABLE IF EXISTS rollup_itens CASCADE;
+DROP TABLE IF EXISTS rollup_pedidos CASCADE;
+DROP TABLE IF EXISTS rollup_controle CASCADE;
+DROP TABLE IF EXISTS vendas_restaurante CASCADE;
+DROP TABLE IF EXISTS itens_pedido CASCADE;
+DROP TABLE IF EXISTS chaves_idempotencia CASCADE;
+DROP TABLE IF EXISTS pedidos CASCADE;
+DROP TABLE IF EXISTS produtos CASCADE;
+DROP TABLE IF EXISTS restaurantes CASCADE;
+DROP TABLE IF EXISTS clientes CASCADE;
+DROP TABLE IF EXISTS usuarios CASCADE;
+DROP SEQUENCE IF EXISTS pedidos_seq;
+DROP SEQUENCE IF EXISTS itens_pedido_seq;
+
+-- Alocação em blocos de 50 (allocationSize das entidades) para INSERTs em lote
+CREATE SEQUENCE pedidos_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE itens_pedido_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE clientes (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome            VARCHAR(255),
+    email           VARCHAR(255) NOT NULL,
+    telefone        VARCHAR(255),
+    endereco        VARCHAR(255),
+    data_cadastro   TIMESTAMP(6),
+    ativo           BOOLEAN NOT NULL,
+    CONSTRAINT uk_clientes_email UNIQUE (email)
+);
+
+-- ClienteRepository.findByAtivoTrue
+CREATE INDEX idx_clientes_ativo ON clientes (ativo, id);
+
+CREATE TABLE restaurantes (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome            VARCHAR(255),
+    categoria       VARCHAR(255),
+    endereco        VARCHAR(255),
+    telefone        VARCHAR(255),
+    avaliacao       NUMERIC(38,2),
+    taxa_entrega    NUMERIC(38,2),
+    ativo           BOOLEAN,
+    latitude        DOUBLE PRECISION,
+    longitude       DOUBLE PRECISION
+);
+
+-- RestauranteRepository.findByAtivoTrue / findByAtivoTrueOrderByAvaliacaoDesc
+CREATE INDEX idx_restaurantes_ativo_avaliacao ON restaurantes (ativo, avaliacao DESC);
+-- RestauranteRepository.findByCategoria
+CREATE INDEX idx_restaurantes_categoria ON restaurantes (categoria);
+-- RestauranteRepository.findByTaxaEntregaLessThanEqual
+CREATE INDEX idx_restaurantes_taxa_entrega ON restaurantes (taxa_entrega);
+
+CREATE TABLE produtos (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome            VARCHAR(255),
+    descricao       VARCHAR(255),
+    categoria       VARCHAR(255),
+    preco           NUMERIC(38,2),
+    disponivel      BOOLEAN,
+    restaurante_id  BIGINT
+);
+
+-- ProdutoRepository.findByRestauranteId
+CREATE INDEX idx_produtos_restaurante ON produtos (restaurante_id);
+-- ProdutoRepository.findByCategoria
+CREATE INDEX idx_produtos_categoria ON produtos (categoria);
+-- ProdutoRepository.findByDisponivelTrue
+CREATE INDEX idx_produtos_disponivel ON produtos (disponivel);
+
+CREATE TABLE pedidos (
+    id                BIGINT NOT NULL PRIMARY KEY,
+    numero_pedido     VARCHAR(13),
+    data_pedido       TIMESTAMP(6),
+    endereco_entrega  VARCHAR(255),
+    latitude_entrega  DOUBLE PRECISION,
+    longitude_entrega DOUBLE PRECISION,
+    taxa_entrega      NUMERIC(38,2),
+    valor_total       NUMERIC(38,2),
+    status            ENUM ('CANCELADO','CONFIRMADO','ENTREGUE','PENDENTE'),
+    versao            BIGINT,
+    cliente_id        BIGINT,
+    restaurante_id    BIGINT,
+    CONSTRAINT uk_pedidos_numero UNIQUE (numero_pedido)
+);
+
+-- PedidoRepository.findTop10ByOrderByDataPedidoDesc, findByDateTime e as listagens (offset e cursor) sem status
+CREATE INDEX idx_pedidos_data_id ON pedidos (data_pedido DESC, id DESC);
+-- PedidoRepository.findByStatus, findByStatusNoPeriodo e as listagens (offset e cursor) filtradas por status
+CREATE INDEX idx_pedidos_status_data_id ON pedidos (status, data_pedido DESC, id DESC);
+-- PedidoRepository.findByClienteId
+CREATE INDEX idx_pedidos_cliente ON pedidos (cliente_id);
+-- PedidoRepository.findByRestauranteId, sumTotalVendasByRestaurante
+CREATE INDEX idx_pedidos_restaurante ON pedidos (restaurante_id);
+-- PedidoRepository.findPedidosComValorMaiorQue
+CREATE INDEX idx_pedidos_valor_total ON pedidos (valor_total);
+
+CREATE TABLE itens_pedido (
+    id              BIGINT NOT NULL PRIMARY KEY,
+    quantidade      INTEGER,
+    preco_unitario  NUMERIC(38,2),
+    subtotal        NUMERIC(38,2),
+    pedido_id       BIGINT,
+    produto_id      BIGINT
+);
+
+-- ItemPedidoRespository.findByPedidoId e carga da coleção Pedido.itens
+CREATE INDEX idx_itens_pedido_pedido ON itens_pedido (pedido_id);
+-- ItemPedidoRespository.findByProdutoId e agregações por produto
+CREATE INDEX idx_itens_pedido_produto ON itens_pedido (produto_id);
+
+-- Agregado mantido pelo VendasRestauranteService (uma linha por restaurante; lida por completo no relatório)
+CREATE TABLE vendas_restaurante (
+    restaurante_id      BIGINT NOT NULL PRIMARY KEY,
+    quantidade_pedidos  BIGINT NOT NULL,
+    receita             NUMERIC(38,2) NOT NULL,
+    taxas_entrega       NUMERIC(38,2) NOT NULL
+);
+
+-- Rollups mantidos pelo RollupService: pedidos e itens das horas encerradas somados por hora (HORA) e por dia (DIA),
+-- pelo status atual de cada pedido. A chave primária começa por (granularidade, inicio) e atende as faixas de
+-- RollupRepository.vendasPedidos / vendasItens; não há FKs porque as linhas só são gravadas a partir dos pedidos.
+CREATE TABLE rollup_pedidos (
+    granularidade       ENUM ('DIA','HORA') NOT NULL,
+    inicio              TIMESTAMP(6) NOT NULL,
+    restaurante_id      BIGINT NOT NULL,
+    status              ENUM ('CANCELADO','CONFIRMADO','ENTREGUE','PENDENTE') NOT NULL,
+    quantidade_pedidos  BIGINT NOT NULL,
+    unidades            BIGINT,
+    receita             NUMERIC(38,2),
+    taxas_entrega       NUMERIC(38,2),
+    PRIMARY KEY (granularidade, inicio, restaurante_id, status)
+);
+
+CREATE TABLE rollup_itens (
+    granularidade       ENUM ('DIA','HORA') NOT NULL,
+    inicio              TIMESTAMP(6) NOT NULL,
+    restaurante_id      BIGINT NOT NULL,
+    produto_id          BIGINT NOT NULL,
+    status              ENUM ('CANCELADO','CONFIRMADO','ENTREGUE','PENDENTE') NOT NULL,
+    quantidade_itens    BIGINT NOT NULL,
+    unidades            BIGINT,
+    receita             NUMERIC(38,2),
+    PRIMARY KEY (granularidade, inicio, restaurante_id, produto_id, status)
+);
+
+-- Linha única: pedidos com data_pedido anterior a compactado_ate já estão nos rollups (NULL: nada compactado).
+-- reconciliar_desde: início das horas compactadas desde a última reconciliação (NULL: nada a reconciliar)
+CREATE TABLE rollup_controle (
+    id                  INTEGER NOT NULL PRIMARY KEY,
+    compactado_ate      TIMESTAMP(6),
+    reconciliar_desde   TIMESTAMP(6)
+);
+
+INSERT INTO rollup_controle (id, compactado_ate, reconciliar_desde) VALUES (1, NULL, NULL);
+
+-- Centro aproximado de cada prefixo de CEP (5 dígitos) atendido: origem da busca de restaurantes próximos
+-- (RestauranteProximidadeService) quando o cliente não envia as próprias coordenadas
+CREATE TABLE localizacoes_cep (
+    prefixo         VARCHAR(5) NOT NULL PRIMARY KEY,
+    bairro          VARCHAR(100),
+    latitude        DOUBLE PRECISION NOT NULL,
+    longitude       DOUBLE PRECISION NOT NULL
+);
+
+INSERT INTO localizacoes_cep (prefixo, bairro, latitude, longitude) VALUES
+    ('01001', 'Sé', -23.5503, -46.6339),
+    ('01302', 'Consolação', -23.5491, -46.6527),
+    ('01305', 'Cerqueira César', -23.5535, -46.6525),
+    ('01310', 'Bela Vista', -23.5614, -46.6559),
+    ('01503', 'Liberdade', -23.5587, -46.6347),
+    ('02011', 'Santana', -23.5025, -46.6255),
+    ('03310', 'Tatuapé', -23.5404, -46.5766),
+    ('04101', 'Vila Mariana', -23.5823, -46.6374),
+    ('04538', 'Itaim Bibi', -23.5855, -46.6799),
+    ('05001', 'Perdizes', -23.5341, -46.6718),
+    ('05407', 'Pinheiros', -23.5662, -46.6864),
+    ('20040', 'Centro (Rio de Janeiro)', -22.9035, -43.1780),
+    ('22021', 'Copacabana', -22.9698, -43.1866);
+
+-- Sketches HyperLogLog dos clientes de cada restaurante por dia, gravados pelo ClientesDistintosService
+-- (formato em HyperLogLog.serializar: até 4098 bytes). Consultas de um restaurante usam a chave primária;
+-- as de todos os restaurantes, o índice por dia. Sem FKs, como os rollups: as linhas só vêm de pedidos gravados.
+CREATE TABLE clientes_distintos (
+    restaurante_id  BIGINT NOT NULL,
+    dia             DATE NOT NULL,
+    sketch          VARBINARY(4098) NOT NULL,
+    PRIMARY KEY (restaurante_id, dia)
+);
+
+CREATE INDEX idx_clientes_distintos_dia ON clientes_distintos (dia);
+
+CREATE TABLE chaves_idempotencia (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    chave            VARCHAR(320) NOT NULL,
+    hash_requisicao  VARCHAR(64) NOT NULL,
+    resposta         CLOB NOT NULL,
+    pedido_id        BIGINT,
+    criada_em        TIMESTAMP(6) NOT NULL,
+    expira_em        TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_chaves_idempotencia_chave UNIQUE (chave)
+);
+
+-- ChaveIdempotenciaRepository.deleteExpiradas
+CREATE INDEX idx_chaves_idempotencia_expira ON chaves_idempotencia (expira_em);
+
+CREATE TABLE usuarios (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome            VARCHAR(255),
+    email           VARCHAR(255) NOT NULL,
+    senha           VARCHAR(255) NOT NULL,
+    role            ENUM ('ADMIN','CLIENTE','ENTREGADOR','RESTAURANTE'),
+    ativo           BOOLEAN,
+    data_criacao    TIMESTAMP(6),
+    restaurante_id  BIGINT,
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+);
+
+ALTER TABLE produtos ADD CONSTRAINT fk_produtos_restaurante FOREIGN KEY (restaurante_id) REFERENCES restaurantes (id);
+ALTER TABLE pedidos ADD CONSTRAINT fk_pedidos_cliente FOREIGN KEY (cliente_id) REFERENCES clientes (id);
+ALTER TABLE pedidos ADD CONSTRAINT fk_pedidos_restaurante FOREIGN KEY (restaurante_id) REFERENCES restaurantes (id);
+ALTER TABLE itens_pedido ADD CONSTRAINT fk_itens_pedido_pedido FOREIGN KEY (pedido_id) REFERENCES pedidos (id);
+ALTER TABLE itens_pedido ADD CONSTRAINT fk_itens_pedido_produto FOREIGN KEY (produto_id) REFERENCES produtos (id);
+ALTER TABLE vendas_restaurante ADD CONSTRAINT fk_vendas_restaurante_restaurante FOREIGN KEY (restaurante_id) REFERENCES restaurantes (id);
+
+-- Zonas de entrega: a taxa de um pedido é a taxa base do restaurante mais o acréscimo da zona do CEP,
+-- a menos que o restaurante tenha uma taxa própria para a zona (taxas_zona_restaurante)
+CREATE TABLE zonas_entrega (
+    id              INTEGER NOT NULL PRIMARY KEY,
+    nome            VARCHAR(100) NOT NULL,
+    acrescimo       NUMERIC(10,2) NOT NULL
+);
+
+-- Faixas [cep_inicio, cep_fim] de CEPs (8 dígitos, como número) de cada zona; não se sobrepõem.
+-- Lidas uma vez para a TabelaTaxasEntrega em memória (TaxaEntregaService); CEPs fora delas pagam o acréscimo
+-- delivery.taxa-entrega.acrescimo-fora-de-zona
+CREATE TABLE faixas_cep_zona (
+    cep_inicio      INTEGER NOT NULL PRIMARY KEY,
+    cep_fim         INTEGER NOT NULL,
+    zona_id         INTEGER NOT NULL REFERENCES zonas_entrega (id)
+);
+
+-- Taxa própria de um restaurante para uma zona (substitui taxa base + acréscimo)
+CREATE TABLE taxas_zona_restaurante (
+    restaurante_id  BIGINT NOT NULL REFERENCES restaurantes (id),
+    zona_id         INTEGER NOT NULL REFERENCES zonas_entrega (id),
+    taxa            NUMERIC(10,2) NOT NULL,
+    PRIMARY KEY (restaurante_id, zona_id)
+);
+
+INSERT INTO zonas_entrega (id, nome, acrescimo) VALUES
+    (1, 'Centro', 0.00),
+    (2, 'Zona Norte', 2.00),
+    (3, 'Zona Leste', 3.00),
+    (4, 'Zona Sul', 2.00),
+    (5, 'Zona Oeste', 2.00),
+    (6, 'Grande São Paulo', 6.00),
+    (7, 'Interior de São Paulo', 12.00);
+
+INSERT INTO faixas_cep_zona (cep_inicio, cep_fim, zona_id) VALUES
+    (1000000, 1999999, 1),
+    (2000000, 2999999, 2),
+    (3000000, 3999999, 3),
+    (4000000, 4999999, 4),
+    (5000000, 5899999, 5),
+    (6000000, 7999999, 6),
+    (8000000, 8499999, 3),
+    (8500000, 9999999, 6),
+    (11000000, 19999999, 7);
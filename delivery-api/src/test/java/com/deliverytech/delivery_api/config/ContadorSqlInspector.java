@@ -0,0 +1,50 @@
+package com.deliverytech.delivery_api.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import java.util.ArrayList;
+import java.util.List;
+
+// Conta (e guarda, até o próximo zerar) os comandos SQL preparados pelo Hibernate
+// (registrado via hibernate.session_factory.statement_inspector).
+// A contagem é por thread: só entra o que a thread do teste executa (o MockMvc atende na mesma thread),
+// nunca os jobs agendados que rodam em paralelo no mesmo contexto.
+public class ContadorSqlInspector implements StatementInspector {
+
+    public static final String PROPRIEDADE =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.deliverytech.delivery_api.config.ContadorSqlInspector";
+
+    private static final ThreadLocal<Contagem> contagem = ThreadLocal.withInitial(Contagem::new);
+
+    private static class Contagem {
+        private int selects;
+        private int total;
+        private final List<String> comandos = new ArrayList<>();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contagem atual = contagem.get();
+        atual.total++;
+        atual.comandos.add(sql);
+        if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+            atual.selects++;
+        }
+        return sql;
+    }
+
+    public static void zerar() {
+        contagem.remove();
+    }
+
+    public static int selects() {
+        return contagem.get().selects;
+    }
+
+    public static int total() {
+        return contagem.get().total;
+    }
+
+    public static List<String> comandos() {
+        return new ArrayList<>(contagem.get().comandos);
+    }
+}
@@ -0,0 +1,95 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Benchmark de requisições por segundo: cardápio pelo snapshot pré-serializado contra o caminho atual
+// (restaurante e produtos do CatalogoCacheService, serializados pelo Jackson a cada requisição).
+// Os dois caminhos leem do cache em memória; a diferença é só a serialização. Só roda quando pedido:
+// mvn test -Dtest=CardapioSnapshotBenchmarkIT -Dbenchmark.cardapio.requisicoes=20000
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark.cardapio.requisicoes", matches = "\\d+")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class CardapioSnapshotBenchmarkIT {
+
+    private static final int PRODUTOS = 80;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+
+    @Test
+    @DisplayName("Benchmark: requisições por segundo do cardápio pré-serializado e do caminho por requisição")
+    void compararSnapshotComSerializacaoPorRequisicao() throws Exception {
+        int requisicoes = Integer.getInteger("benchmark.cardapio.requisicoes");
+        Long id = carregar().getId();
+
+        medir("atual (restaurante + produtos)", requisicoes,
+                get("/api/restaurantes/" + id), get("/api/produtos/restaurantes/" + id + "/produtos"));
+        medir("snapshot JSON", requisicoes, get("/api/restaurantes/" + id + "/cardapio"));
+        medir("snapshot gzip", requisicoes,
+                get("/api/restaurantes/" + id + "/cardapio").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+    }
+
+    // Cada rodada faz as requisições necessárias para montar o cardápio por aquele caminho
+    private void medir(String caminho, int requisicoes, RequestBuilder... rodada) throws Exception {
+        for (int i = 0; i < Math.min(requisicoes, 2_000); i++) { // aquecimento (JIT e caches)
+            for (RequestBuilder requisicao : rodada) {
+                mockMvc.perform(requisicao).andExpect(status().isOk());
+            }
+        }
+        long inicio = System.nanoTime();
+        long bytes = 0;
+        for (int i = 0; i < requisicoes; i++) {
+            for (RequestBuilder requisicao : rodada) {
+                bytes += mockMvc.perform(requisicao).andReturn().getResponse().getContentAsByteArray().length;
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("[CARDAPIO] %-32s | %9.0f cardápios/s | %7d bytes/cardápio%n",
+                caminho, requisicoes / segundos, bytes / requisicoes);
+    }
+
+    private Restaurante carregar() {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome("Restaurante Benchmark Cardápio");
+        restaurante.setCategoria("Brasileira");
+        restaurante.setAtivo(true);
+        restaurante.setTaxaEntrega(BigDecimal.valueOf(6.5));
+        restaurante = restauranteRepository.save(restaurante);
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < PRODUTOS; i++) {
+            Produto p = new Produto();
+            p.setNome("Prato " + i);
+            p.setDescricao("Descrição do prato " + i + " com acompanhamentos da casa");
+            p.setCategoria(i % 2 == 0 ? "Pratos" : "Bebidas");
+            p.setPreco(BigDecimal.valueOf(1990 + i * 10L, 2));
+            p.setDisponivel(true);
+            p.setRestaurante(restaurante);
+            produtos.add(p);
+        }
+        produtoRepository.saveAll(produtos);
+        return restaurante;
+    }
+}
@@ -0,0 +1,142 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.config.ContadorSqlInspector;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.CardapioSnapshotService;
+import com.deliverytech.delivery_api.service.CatalogoCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Cardápio servido dos snapshots pré-serializados. Sem @Transactional: a remontagem acontece após o commit
+@SpringBootTest(properties = {ContadorSqlInspector.PROPRIEDADE, "delivery.clientes-distintos.gravacao-ms=86400000"})
+@AutoConfigureMockMvc
+public class CardapioSnapshotIT {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private CatalogoCacheService catalogoCacheService;
+    @Autowired private CardapioSnapshotService cardapioSnapshotService;
+
+    private Restaurante restaurante;
+    private Produto margherita;
+    private String cardapio;
+
+    @BeforeEach
+    void setUp() {
+        restaurante = new Restaurante();
+        restaurante.setNome("Pizzaria Snapshot " + System.nanoTime());
+        restaurante.setCategoria("Pizza");
+        restaurante.setAtivo(true);
+        restaurante.setTaxaEntrega(BigDecimal.valueOf(5));
+        restaurante = restauranteRepository.save(restaurante);
+        margherita = salvarProduto("Margherita", true);
+        salvarProduto("Calabresa", true);
+        salvarProduto("Portuguesa", false);
+        cardapio = "/api/restaurantes/" + restaurante.getId() + "/cardapio";
+        catalogoCacheService.invalidarTudo();
+        cardapioSnapshotService.descartarTudo();
+    }
+
+    @Test
+    @DisplayName("Cenário: cardápio com restaurante e produtos disponíveis, igual em JSON e em gzip, sem voltar ao banco")
+    void deveServirOCardapioDoSnapshot() throws Exception {
+        MvcResult json = mockMvc.perform(get(cardapio))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(jsonPath("$.sucesso").value(true))
+                .andExpect(jsonPath("$.dados.restaurante.nome").value(restaurante.getNome()))
+                .andExpect(jsonPath("$.dados.produtos", hasSize(2)))
+                .andReturn();
+
+        ContadorSqlInspector.zerar();
+        MvcResult gzip = mockMvc.perform(get(cardapio).header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        mockMvc.perform(get(cardapio).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        assertThat(ContadorSqlInspector.total()).isZero();
+
+        byte[] descompactado = new GZIPInputStream(new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray())).readAllBytes();
+        assertThat(descompactado).isEqualTo(json.getResponse().getContentAsByteArray());
+        assertThat(gzip.getResponse().getContentAsByteArray().length).isLessThan(descompactado.length);
+
+        // Cada codificação tem a sua ETag
+        String etag = json.getResponse().getHeader(HttpHeaders.ETAG);
+        String etagGzip = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etagGzip).isNotEqualTo(etag).endsWith("-gzip\"");
+        mockMvc.perform(get(cardapio).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etagGzip))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etagGzip));
+        mockMvc.perform(get(cardapio).header(HttpHeaders.IF_NONE_MATCH, etagGzip))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: escrita no cardápio remonta o snapshot em segundo plano; a requisição seguinte não consulta o banco")
+    void deveRemontarOSnapshotAposOCommit() throws Exception {
+        String etag = mockMvc.perform(get(cardapio))
+                .andExpect(jsonPath("$.dados.produtos", hasSize(2)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/produtos/" + margherita.getId() + "/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isNoContent());
+
+        await().atMost(Duration.ofSeconds(5)).until(() ->
+                catalogoCacheService.versaoDoRestaurante(restaurante.getId())
+                        .equals(cardapioSnapshotService.versaoEmMemoria(restaurante.getId())));
+
+        ContadorSqlInspector.zerar();
+        mockMvc.perform(get(cardapio).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados.produtos", hasSize(1)))
+                .andExpect(jsonPath("$.dados.produtos[0].nome").value("Calabresa"));
+        assertThat(ContadorSqlInspector.total()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cenário: restaurante inexistente recebe 404")
+    void deveRetornar404ParaRestauranteInexistente() throws Exception {
+        mockMvc.perform(get("/api/restaurantes/999999/cardapio"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Produto salvarProduto(String nome, boolean disponivel) {
+        Produto p = new Produto();
+        p.setNome(nome);
+        p.setCategoria("Pizza");
+        p.setPreco(BigDecimal.valueOf(40));
+        p.setDisponivel(disponivel);
+        p.setRestaurante(restaurante);
+        return produtoRepository.save(p);
+    }
+}
@@ -0,0 +1,188 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.config.ContadorSqlInspector;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.CatalogoCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Carga sobre as rotas públicas do catálogo contando os SELECTs: só a primeira rodada vai ao banco.
+// Sem @Transactional: a invalidação acontece após o commit das escritas
+@SpringBootTest(properties = {ContadorSqlInspector.PROPRIEDADE, "delivery.clientes-distintos.gravacao-ms=86400000"})
+@AutoConfigureMockMvc
+public class CatalogoCacheIT {
+
+    private static final int RODADAS = 50;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private CatalogoCacheService catalogoCacheService;
+
+    private Restaurante pizzaria;
+    private Restaurante hamburgueria;
+    private Produto margherita;
+    private String categoria;
+
+    @BeforeEach
+    void setUp() {
+        String sufixo = String.valueOf(System.nanoTime());
+        categoria = "Cache " + sufixo;
+        pizzaria = salvarRestaurante("Pizzaria Cache " + sufixo);
+        hamburgueria = salvarRestaurante("Hamburgueria Cache " + sufixo);
+        margherita = salvarProduto("Margherita", pizzaria);
+        salvarProduto("Calabresa", pizzaria);
+        salvarProduto("X-Salada", hamburgueria);
+        catalogoCacheService.invalidarTudo();
+    }
+
+    @Test
+    @DisplayName("Carga: leituras repetidas do catálogo não voltam ao banco")
+    void deveResponderLeiturasRepetidasSemConsultarOBanco() throws Exception {
+        List<String> rotas = List.of(
+                "/api/restaurantes/" + pizzaria.getId(),
+                "/api/restaurantes/categoria/" + categoria,
+                "/api/restaurantes?categoria=" + categoria + "&ativo=true",
+                "/api/produtos/" + margherita.getId(),
+                "/api/produtos/restaurantes/" + pizzaria.getId() + "/produtos",
+                "/api/produtos/restaurantes/" + hamburgueria.getId() + "/produtos",
+                "/api/produtos/categoria/" + categoria);
+
+        ContadorSqlInspector.zerar();
+        percorrer(rotas);
+        int primeiraRodada = ContadorSqlInspector.selects();
+
+        ContadorSqlInspector.zerar();
+        for (int i = 1; i < RODADAS; i++) {
+            percorrer(rotas);
+        }
+        int demaisRodadas = ContadorSqlInspector.selects();
+
+        System.out.printf("[CATALOGO] %d requisições: %d SELECTs com cache; sem cache seriam %d%n",
+                RODADAS * rotas.size(), primeiraRodada + demaisRodadas, primeiraRodada * RODADAS);
+        assertThat(primeiraRodada).isPositive();
+        assertThat(demaisRodadas).as("SELECTs após a primeira rodada: %s", ContadorSqlInspector.comandos()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: produto indisponível sai do cardápio do seu restaurante sem invalidar o dos outros")
+    void deveInvalidarSoOCardapioAlterado() throws Exception {
+        String cardapioPizzaria = "/api/produtos/restaurantes/" + pizzaria.getId() + "/produtos";
+        String cardapioHamburgueria = "/api/produtos/restaurantes/" + hamburgueria.getId() + "/produtos";
+        mockMvc.perform(get(cardapioPizzaria)).andExpect(jsonPath("$.dados", hasSize(2)));
+        mockMvc.perform(get(cardapioHamburgueria)).andExpect(jsonPath("$.dados", hasSize(1)));
+
+        mockMvc.perform(patch("/api/produtos/" + margherita.getId() + "/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(cardapioPizzaria)).andExpect(jsonPath("$.dados", hasSize(1)));
+        mockMvc.perform(get("/api/produtos/" + margherita.getId())).andExpect(status().isUnprocessableEntity());
+
+        ContadorSqlInspector.zerar();
+        mockMvc.perform(get(cardapioHamburgueria)).andExpect(jsonPath("$.dados", hasSize(1)));
+        assertThat(ContadorSqlInspector.selects()).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: If-None-Match da versão atual recebe 304 sem consultar o banco; escrita no cardápio gera nova ETag")
+    void deveResponderNaoModificadoPelaVersaoDoCardapio() throws Exception {
+        String cardapioPizzaria = "/api/produtos/restaurantes/" + pizzaria.getId() + "/produtos";
+        String cardapioHamburgueria = "/api/produtos/restaurantes/" + hamburgueria.getId() + "/produtos";
+        MvcResult primeira = mockMvc.perform(get(cardapioPizzaria))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = primeira.getResponse().getHeader(HttpHeaders.ETAG);
+        String etagHamburgueria = mockMvc.perform(get(cardapioHamburgueria)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").isNotEqualTo(etagHamburgueria);
+
+        // Mesma versão, mesmo corpo (ETag forte)
+        mockMvc.perform(get(cardapioPizzaria))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(primeira.getResponse().getContentAsString()));
+
+        ContadorSqlInspector.zerar();
+        mockMvc.perform(get(cardapioPizzaria).header(HttpHeaders.IF_NONE_MATCH, "\"outra\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get(cardapioPizzaria)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, primeira.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+        assertThat(ContadorSqlInspector.total()).isZero();
+
+        mockMvc.perform(patch("/api/produtos/" + margherita.getId() + "/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(cardapioPizzaria).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados", hasSize(1)))
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        mockMvc.perform(get(cardapioHamburgueria).header(HttpHeaders.IF_NONE_MATCH, etagHamburgueria))
+                .andExpect(status().isNotModified());
+
+        // "*" só corresponde a um restaurante que existe; ETag adivinhada de um inexistente não vira 304
+        mockMvc.perform(get(cardapioHamburgueria).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified());
+        long inexistente = hamburgueria.getId() + 1_000_000;
+        String etagAdivinhada = etagHamburgueria.replace("r" + hamburgueria.getId() + "-", "r" + inexistente + "-");
+        for (String rota : List.of("/api/produtos/restaurantes/" + inexistente + "/produtos",
+                "/api/restaurantes/" + inexistente, "/api/restaurantes/" + inexistente + "/cardapio")) {
+            mockMvc.perform(get(rota).header(HttpHeaders.IF_NONE_MATCH, "*")).andExpect(status().isNotFound());
+            mockMvc.perform(get(rota).header(HttpHeaders.IF_NONE_MATCH, etagAdivinhada)).andExpect(status().isNotFound());
+        }
+    }
+
+    private void percorrer(List<String> rotas) throws Exception {
+        for (String rota : rotas) {
+            mockMvc.perform(get(rota)).andExpect(status().isOk());
+        }
+    }
+
+    private Restaurante salvarRestaurante(String nome) {
+        Restaurante r = new Restaurante();
+        r.setNome(nome);
+        r.setCategoria(categoria);
+        r.setAtivo(true);
+        r.setTaxaEntrega(BigDecimal.valueOf(5));
+        return restauranteRepository.save(r);
+    }
+
+    private Produto salvarProduto(String nome, Restaurante restaurante) {
+        Produto p = new Produto();
+        p.setNome(nome);
+        p.setCategoria(categoria);
+        p.setPreco(BigDecimal.valueOf(30));
+        p.setDisponivel(true);
+        p.setRestaurante(restaurante);
+        return produtoRepository.save(p);
+    }
+}
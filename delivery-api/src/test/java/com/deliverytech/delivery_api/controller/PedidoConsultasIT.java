@@ -0,0 +1,139 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.config.ContadorSqlInspector;
+import com.deliverytech.delivery_api.dto.request.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Quantidade de SELECTs por endpoint de leitura de pedidos, com vários pedidos de vários itens cada.
+// Sem @Transactional: como em produção (open-in-view desligado), o mapeamento para DTO não pode
+// depender de uma sessão aberta pelo teste, e nada vem de um cache da transação do teste.
+@SpringBootTest(properties = {ContadorSqlInspector.PROPRIEDADE, "delivery.clientes-distintos.gravacao-ms=86400000"})
+@AutoConfigureMockMvc
+@WithMockUser(roles = {"ADMIN", "RESTAURANTE"})
+public class PedidoConsultasIT {
+
+    private static final int PEDIDOS = 12;
+    private static final int ITENS_POR_PEDIDO = 3;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private PedidoService pedidoService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+
+    private Cliente cliente;
+    private Restaurante restaurante;
+    private final List<PedidoResponseDTO> pedidos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String sufixo = String.valueOf(System.nanoTime());
+
+        Cliente c = new Cliente();
+        c.setNome("Cliente Consultas");
+        c.setEmail("consultas-" + sufixo + "@teste.com");
+        c.setEndereco("Rua das Consultas, 3");
+        c.setAtivo(true);
+        cliente = clienteRepository.save(c);
+
+        Restaurante r = new Restaurante();
+        r.setNome("Restaurante Consultas " + sufixo);
+        r.setAtivo(true);
+        r.setTaxaEntrega(BigDecimal.valueOf(4.0));
+        restaurante = restauranteRepository.save(r);
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int i = 0; i < ITENS_POR_PEDIDO; i++) {
+            Produto p = new Produto();
+            p.setNome("Prato Consultas " + i);
+            p.setPreco(BigDecimal.valueOf(10.0 + i));
+            p.setCategoria("Pratos");
+            p.setDisponivel(true);
+            p.setRestaurante(restaurante);
+            produtos.add(produtoRepository.save(p));
+        }
+
+        for (int i = 0; i < PEDIDOS; i++) {
+            PedidoRequestDTO dto = new PedidoRequestDTO();
+            dto.setClienteId(cliente.getId());
+            dto.setRestauranteId(restaurante.getId());
+            dto.setEnderecoEntrega("Rua das Consultas, 3");
+            dto.setItens(produtos.stream().map(produto -> {
+                ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+                item.setProdutoId(produto.getId());
+                item.setQuantidade(1);
+                return item;
+            }).toList());
+            pedidos.add(pedidoService.criarPedido(dto));
+        }
+    }
+
+    @Test
+    @DisplayName("Cenário: Listagens de pedidos executam um número fixo de SELECTs, independente de pedidos e itens")
+    void listagensDevemTerConsultasLimitadas() throws Exception {
+        assertSelects(3, get("/api/pedidos/clientes/" + cliente.getId() + "/pedidos"),
+                "$.dados", PEDIDOS, "nomeRestaurante");
+        assertSelects(3, get("/api/pedidos/restaurantes/" + restaurante.getId() + "/pedidos"),
+                "$.dados", PEDIDOS, "nomeRestaurante");
+        assertSelects(3, get("/api/pedidos").param("size", "10"), "$.dados.conteudo", 10, "nomeRestaurante");
+        assertSelects(2, get("/api/pedidos/cursor").param("tamanho", "10"), "$.dados.conteudo", 10, "nomeRestaurante");
+
+        String hoje = LocalDate.now().atStartOfDay().toString();
+        String amanha = LocalDate.now().plusDays(1).atStartOfDay().toString();
+        ContadorSqlInspector.zerar();
+        mockMvc.perform(get("/api/relatorios/pedidos-por-periodo").param("inicio", hoje).param("fim", amanha))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados[0].itens[0].nomeProduto").exists());
+        assertThat(ContadorSqlInspector.selects()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Cenário: Consulta de um pedido traz cliente, restaurante e itens em dois SELECTs")
+    void consultaDePedidoDeveTerConsultasLimitadas() throws Exception {
+        PedidoResponseDTO pedido = pedidos.get(0);
+
+        for (String url : List.of("/api/pedidos/" + pedido.getId(), "/api/pedidos/numero/" + pedido.getNumeroPedido())) {
+            assertSelects(2, get(url), "$.dados.itens", ITENS_POR_PEDIDO, "nomeProduto");
+            mockMvc.perform(get(url)).andExpect(jsonPath("$.dados.nomeRestaurante").exists());
+        }
+    }
+
+    private void assertSelects(int maximo, RequestBuilder requisicao, String lista, int tamanho,
+                               String campo) throws Exception {
+        ContadorSqlInspector.zerar();
+        mockMvc.perform(requisicao)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(lista + ".length()").value(tamanho))
+                .andExpect(jsonPath(lista + "[0]." + campo).exists());
+        assertThat(ContadorSqlInspector.selects())
+                .as("SELECTs em %s: %s", lista, ContadorSqlInspector.comandos())
+                .isLessThanOrEqualTo(maximo);
+    }
+}
@@ -11,6 +11,7 @@ import com.deliverytech.delivery_api.repository.PedidoRepository;
 import com.deliverytech.delivery_api.repository.ProdutoRepository;
 import com.deliverytech.delivery_api.repository.RestauranteRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -105,12 +107,55 @@ public class PedidoControllerIT {
                 .andExpect(jsonPath("$.sucesso").value(true));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"CLIENTE", "ADMIN"})
+    @DisplayName("Cenário: Repetição com a mesma Idempotency-Key devolve o mesmo pedido")
+    void deveRepetirPedidoComMesmaChaveDeIdempotencia() throws Exception {
+        ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+        item.setProdutoId(produtoSalvo.getId());
+        item.setQuantidade(2);
+
+        PedidoRequestDTO pedidoDTO = new PedidoRequestDTO();
+        pedidoDTO.setClienteId(clienteSalvo.getId());
+        pedidoDTO.setRestauranteId(restauranteSalvo.getId());
+        pedidoDTO.setEnderecoEntrega("Av Paulista, 1000");
+        pedidoDTO.setItens(List.of(item));
+        String corpo = objectMapper.writeValueAsString(pedidoDTO);
+        long pedidosAntes = pedidoRepository.count();
+
+        String primeira = mockMvc.perform(post("/api/pedidos")
+                        .header("Idempotency-Key", "it-repeticao-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+        Integer idCriado = JsonPath.read(primeira, "$.dados.id");
+
+        mockMvc.perform(post("/api/pedidos")
+                        .header("Idempotency-Key", "it-repeticao-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.dados.id").value(idCriado));
+
+        item.setQuantidade(3);
+        mockMvc.perform(post("/api/pedidos")
+                        .header("Idempotency-Key", "it-repeticao-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedidoDTO)))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(pedidoRepository.count()).isEqualTo(pedidosAntes + 1);
+    }
+
     @Test
     @WithMockUser(username = "admin", roles = {"CLIENTE", "ADMIN"})
     @DisplayName("Cenário: Atualizar status do pedido")
     void deveAtualizarStatusPedido() throws Exception {
         mockMvc.perform(patch("/api/pedidos/" + pedidoSalvo.getId() + "/status")
-                        .param("status", "ENTREGUE")
+                        .param("status", "CONFIRMADO")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.sucesso").value(true));
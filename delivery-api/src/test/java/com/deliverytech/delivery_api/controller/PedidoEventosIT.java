@@ -0,0 +1,129 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.dto.request.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.PedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Sem @Transactional: os eventos do feed só são publicados após o commit
+@SpringBootTest
+@AutoConfigureMockMvc
+public class PedidoEventosIT {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private PedidoService pedidoService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+
+    private Cliente cliente;
+    private Restaurante restaurante;
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        String sufixo = String.valueOf(System.nanoTime());
+
+        Cliente c = new Cliente();
+        c.setNome("Cliente Feed");
+        c.setEmail("feed-" + sufixo + "@teste.com");
+        c.setEndereco("Rua do Feed, 10");
+        c.setAtivo(true);
+        cliente = clienteRepository.save(c);
+
+        Restaurante r = new Restaurante();
+        r.setNome("Restaurante Feed " + sufixo);
+        r.setAtivo(true);
+        r.setTaxaEntrega(BigDecimal.valueOf(5.0));
+        restaurante = restauranteRepository.save(r);
+
+        Produto p = new Produto();
+        p.setNome("Prato do Feed");
+        p.setPreco(BigDecimal.valueOf(20.0));
+        p.setCategoria("Pratos");
+        p.setDisponivel(true);
+        p.setRestaurante(restaurante);
+        produto = produtoRepository.save(p);
+    }
+
+    @Test
+    @WithMockUser(username = "tablet", roles = {"RESTAURANTE"})
+    @DisplayName("Cenário: Feed SSE recebe criação e mudança de status e retoma pelo Last-Event-ID")
+    void deveEnviarEventosERetomarPeloUltimoId() throws Exception {
+        MvcResult conexao = mockMvc.perform(get("/api/pedidos/restaurantes/" + restaurante.getId() + "/eventos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Long pedidoId = pedidoService.criarPedido(criarPedidoDTO()).getId();
+        pedidoService.atualizarStatusPedido(pedidoId, StatusPedidos.CONFIRMADO);
+
+        String recebido = aguardarConteudo(conexao.getResponse(), "event:pedido-status");
+        assertThat(recebido).contains("event:pedido-criado").contains("\"status\":\"CONFIRMADO\"");
+
+        // Reconexão a partir do primeiro evento: recebe apenas o que veio depois dele
+        String primeiroId = recebido.lines().filter(l -> l.startsWith("id:")).findFirst().orElseThrow().substring(3);
+        MvcResult retomada = mockMvc.perform(get("/api/pedidos/restaurantes/" + restaurante.getId() + "/eventos")
+                        .header("Last-Event-ID", primeiroId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String reenviado = aguardarConteudo(retomada.getResponse(), "event:pedido-status");
+        assertThat(reenviado).doesNotContain("event:pedido-criado");
+    }
+
+    @Test
+    @WithMockUser(username = "tablet", roles = {"RESTAURANTE"})
+    @DisplayName("Cenário: Feed de restaurante inexistente retorna 404")
+    void deveRetornar404ParaRestauranteInexistente() throws Exception {
+        mockMvc.perform(get("/api/pedidos/restaurantes/999999/eventos"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String aguardarConteudo(MockHttpServletResponse resposta, String esperado) throws Exception {
+        for (int i = 0; i < 50; i++) {
+            String conteudo = resposta.getContentAsString();
+            if (conteudo.contains(esperado)) {
+                return conteudo;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Evento não recebido: " + esperado + " | conteúdo: " + resposta.getContentAsString());
+    }
+
+    private PedidoRequestDTO criarPedidoDTO() {
+        ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(1);
+
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setRestauranteId(restaurante.getId());
+        dto.setEnderecoEntrega("Rua do Feed, 10");
+        dto.setItens(List.of(item));
+        return dto;
+    }
+}
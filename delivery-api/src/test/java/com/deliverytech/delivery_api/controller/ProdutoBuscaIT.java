@@ -0,0 +1,125 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.ProdutoBuscaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Busca de produtos pelo índice em memória. Sem @Transactional: o índice é atualizado após o commit das escritas
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProdutoBuscaIT {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private ProdutoBuscaService produtoBuscaService;
+
+    private Restaurante padaria;
+    private Restaurante lanchonete;
+    private Produto paoDeQueijo;
+    private Produto coxinha;
+    private String marca;
+
+    @BeforeEach
+    void setUp() {
+        // Palavra aleatória por execução (longe das outras mesmo com erros tolerados): só acha produtos deste teste
+        marca = new Random().ints(12, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+        padaria = salvarRestaurante("Padaria Busca");
+        lanchonete = salvarRestaurante("Lanchonete Busca");
+        paoDeQueijo = salvarProduto("Pão de Queijo " + marca, "Porção com 6 unidades", padaria);
+        coxinha = salvarProduto("Coxinha " + marca, "Massa com recheio de frango e requeijão", lanchonete);
+        salvarProduto("Suco de Laranja", "Natural, sem açúcar " + marca, lanchonete);
+        produtoBuscaService.reconstruirIndice();
+    }
+
+    @Test
+    @DisplayName("Cenário: busca sem acentos, por prefixo e com erro de digitação, nome antes da descrição")
+    void deveBuscarPeloIndice() throws Exception {
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", "pao de queijo " + marca))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados[*].id", contains(paoDeQueijo.getId().intValue())))
+                .andExpect(jsonPath("$.dados[0].nomeRestaurante").value("Padaria Busca"));
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", "coxin " + marca))
+                .andExpect(jsonPath("$.dados[*].id", contains(coxinha.getId().intValue())));
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", "requeijao frnago " + marca))
+                .andExpect(jsonPath("$.dados[*].id", contains(coxinha.getId().intValue())));
+
+        // A marca está no nome de dois e na descrição do suco: o suco vem por último
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", marca))
+                .andExpect(jsonPath("$.dados", hasSize(3)))
+                .andExpect(jsonPath("$.dados[2].nome").value("Suco de Laranja"));
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", marca).param("restauranteId", lanchonete.getId().toString()))
+                .andExpect(jsonPath("$.dados", hasSize(2)));
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", marca).param("limite", "1"))
+                .andExpect(jsonPath("$.dados", hasSize(1)));
+
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", marca).param("limite", "0"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", " "))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: disponibilidade e remoção aparecem na busca logo após o commit")
+    void deveAcompanharAsEscritasDeProduto() throws Exception {
+        mockMvc.perform(patch("/api/produtos/" + coxinha.getId() + "/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isNoContent());
+        // Aplicado pela thread do índice, logo após o commit
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mockMvc.perform(get("/api/produtos/buscar").param("nome", marca).param("disponivel", "true"))
+                        .andExpect(jsonPath("$.dados", hasSize(2))));
+        mockMvc.perform(get("/api/produtos/buscar").param("nome", marca).param("disponivel", "false"))
+                .andExpect(jsonPath("$.dados[*].id", contains(coxinha.getId().intValue())));
+
+        mockMvc.perform(delete("/api/produtos/" + paoDeQueijo.getId()))
+                .andExpect(status().is2xxSuccessful());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mockMvc.perform(get("/api/produtos/buscar").param("nome", "queijo " + marca))
+                        .andExpect(jsonPath("$.dados", hasSize(0))));
+    }
+
+    private Restaurante salvarRestaurante(String nome) {
+        Restaurante r = new Restaurante();
+        r.setNome(nome);
+        r.setCategoria("Lanches");
+        r.setAtivo(true);
+        r.setTaxaEntrega(BigDecimal.valueOf(4));
+        return restauranteRepository.save(r);
+    }
+
+    private Produto salvarProduto(String nome, String descricao, Restaurante restaurante) {
+        Produto p = new Produto();
+        p.setNome(nome);
+        p.setDescricao(descricao);
+        p.setCategoria("Lanches");
+        p.setPreco(BigDecimal.valueOf(12));
+        p.setDisponivel(true);
+        p.setRestaurante(restaurante);
+        return produtoRepository.save(p);
+    }
+}
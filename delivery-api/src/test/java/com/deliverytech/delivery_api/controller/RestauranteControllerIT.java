@@ -75,4 +75,23 @@ public class RestauranteControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.dados.conteudo").isEmpty());
     }
+
+    @Test
+    @DisplayName("Deve buscar restaurantes próximos ao CEP ordenados pela distância")
+    void deveBuscarRestaurantesProximosPorDistancia() throws Exception {
+        // Restaurantes do DataLoader: Bella Napoli (Av. Paulista) e Burger House (Rua Augusta) a até 1,5 km do CEP 01310
+        mockMvc.perform(get("/api/restaurantes/proximos/01310-100")
+                        .param("raioKm", "1.5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados.length()").value(2))
+                .andExpect(jsonPath("$.dados[0].nome").value("Pizzaria Bella Napoli"))
+                .andExpect(jsonPath("$.dados[1].nome").value("Burger House"))
+                .andExpect(jsonPath("$.dados[0].distanciaKm").value(org.hamcrest.Matchers.lessThan(0.5)));
+
+        mockMvc.perform(get("/api/restaurantes/proximos/99999-000"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/restaurantes/proximos/01310-100").param("raioKm", "500"))
+                .andExpect(status().isUnprocessableEntity());
+    }
 }
\ No newline at end of file
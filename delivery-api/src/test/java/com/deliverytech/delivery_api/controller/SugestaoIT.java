@@ -0,0 +1,131 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent.ProdutoVendido;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.SugestaoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Sugestões da caixa de busca. Sem @Transactional: a trie é atualizada após o commit das escritas, em outra thread
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SugestaoIT {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private SugestaoService sugestaoService;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private Restaurante restaurante;
+    private Produto esfiha;
+    private Produto kibe;
+    private String marca;
+
+    @BeforeEach
+    void setUp() {
+        // Palavra aleatória por execução: só este teste tem termos que começam por ela
+        marca = new Random().ints(12, 'a', 'z' + 1)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+        restaurante = salvarRestaurante(marca + " Casa Síria");
+        esfiha = salvarProduto(marca + " Esfiha de Carne", "Salgados " + marca);
+        kibe = salvarProduto(marca + " Kibe Frito", "Salgados " + marca);
+        sugestaoService.reconstruirSugestoes();
+    }
+
+    @Test
+    @DisplayName("Cenário: nomes e categorias pelo prefixo, os mais vendidos primeiro")
+    void deveSugerirPorPopularidade() throws Exception {
+        // Categoria soma o peso dos dois produtos e do restaurante; empates em ordem alfabética
+        mockMvc.perform(get("/api/busca/sugestoes").param("q", marca.substring(0, 6)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados[*].texto", contains("Salgados " + marca, marca + " Casa Síria",
+                        marca + " Esfiha de Carne", marca + " Kibe Frito")))
+                .andExpect(jsonPath("$.dados[0].tipo").value("CATEGORIA"))
+                .andExpect(jsonPath("$.dados[1].tipo").value("RESTAURANTE"));
+
+        sugestaoService.aoCriarPedido(new PedidoCriadoEvent(restaurante.getId(), 1L, "Cliente",
+                List.of(new ProdutoVendido(kibe.getId(), kibe.getNome(), 5)), null));
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mockMvc.perform(get("/api/busca/sugestoes").param("q", marca).param("limite", "2"))
+                        .andExpect(jsonPath("$.dados[*].texto", contains("Salgados " + marca, marca + " Kibe Frito"))));
+        mockMvc.perform(get("/api/busca/sugestoes").param("q", marca.toUpperCase() + " ki").param("limite", "1"))
+                .andExpect(jsonPath("$.dados[*].texto", contains(marca + " Kibe Frito")));
+
+        // Pela palavra do meio do nome
+        mockMvc.perform(get("/api/busca/sugestoes").param("q", "esfiha de carne"))
+                .andExpect(jsonPath("$.dados[*].texto", hasItem(marca + " Esfiha de Carne")));
+
+        mockMvc.perform(get("/api/busca/sugestoes").param("q", " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados", hasSize(0)));
+        mockMvc.perform(get("/api/busca/sugestoes").param("q", marca).param("limite", "11"))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(meterRegistry.get("delivery_sugestoes_memoria").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("delivery_sugestoes_termos").gauge().value()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: produto indisponível sai das sugestões logo após o commit")
+    void deveAcompanharAsEscritasDeProduto() throws Exception {
+        mockMvc.perform(patch("/api/produtos/" + esfiha.getId() + "/disponibilidade").param("disponivel", "false"))
+                .andExpect(status().isNoContent());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mockMvc.perform(get("/api/busca/sugestoes").param("q", marca + " esf"))
+                        .andExpect(jsonPath("$.dados", hasSize(0))));
+
+        mockMvc.perform(patch("/api/produtos/" + esfiha.getId() + "/disponibilidade").param("disponivel", "true"))
+                .andExpect(status().isNoContent());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                mockMvc.perform(get("/api/busca/sugestoes").param("q", marca + " esf"))
+                        .andExpect(jsonPath("$.dados[*].texto", contains(marca + " Esfiha de Carne"))));
+    }
+
+    private Restaurante salvarRestaurante(String nome) {
+        Restaurante r = new Restaurante();
+        r.setNome(nome);
+        r.setCategoria("Salgados " + marca);
+        r.setAtivo(true);
+        r.setTaxaEntrega(BigDecimal.valueOf(4));
+        return restauranteRepository.save(r);
+    }
+
+    private Produto salvarProduto(String nome, String categoria) {
+        Produto p = new Produto();
+        p.setNome(nome);
+        p.setDescricao("Unidade");
+        p.setCategoria(categoria);
+        p.setPreco(BigDecimal.valueOf(8));
+        p.setDisponivel(true);
+        p.setRestaurante(restaurante);
+        return produtoRepository.save(p);
+    }
+}
@@ -0,0 +1,104 @@
+package com.deliverytech.delivery_api.controller;
+
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+
+// Sem @Transactional: a tabela de taxas em memória só é atualizada após o commit
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TaxaEntregaIT {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private RestauranteRepository restauranteRepository;
+
+    private Restaurante restaurante;
+    private Restaurante inativo;
+
+    @BeforeEach
+    void setUp() {
+        restaurante = salvar("Taxa Zona " + System.nanoTime(), true);
+        inativo = salvar("Taxa Zona Inativo " + System.nanoTime(), false);
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: taxa pela zona do CEP, taxa própria do restaurante e cotação em lote")
+    void deveCalcularTaxaPorZona() throws Exception {
+        // Centro (acréscimo 0), Zona Leste (3,00) e fora das zonas (acréscimo padrão 5,00)
+        mockMvc.perform(get("/api/restaurantes/" + restaurante.getId() + "/taxa-entrega/01310-100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados").value(7.5));
+        mockMvc.perform(get("/api/restaurantes/" + restaurante.getId() + "/taxa-entrega/03310000"))
+                .andExpect(jsonPath("$.dados").value(10.5));
+        mockMvc.perform(get("/api/restaurantes/" + restaurante.getId() + "/taxa-entrega/30140-071"))
+                .andExpect(jsonPath("$.dados").value(12.5));
+        mockMvc.perform(get("/api/restaurantes/" + restaurante.getId() + "/taxa-entrega/0131"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(put("/api/restaurantes/" + restaurante.getId() + "/taxas-zona")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"zonaId\": 3, \"taxa\": 4.90}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados[0].zona").value("Zona Leste"))
+                .andExpect(jsonPath("$.dados[0].taxa").value(4.9));
+
+        mockMvc.perform(get("/api/restaurantes/taxa-entrega/03310-000")
+                        .param("restaurantes", restaurante.getId() + "," + inativo.getId() + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados", hasSize(1)))
+                .andExpect(jsonPath("$.dados[0].restauranteId").value(restaurante.getId()))
+                .andExpect(jsonPath("$.dados[0].zonaId").value(3))
+                .andExpect(jsonPath("$.dados[0].taxa").value(4.9));
+
+        // Lista vazia volta à regra geral
+        mockMvc.perform(put("/api/restaurantes/" + restaurante.getId() + "/taxas-zona")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/restaurantes/" + restaurante.getId() + "/taxa-entrega/03310000"))
+                .andExpect(jsonPath("$.dados").value(10.5));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    @DisplayName("Cenário: taxas por zona inválidas são rejeitadas sem alterar as existentes")
+    void deveRejeitarTaxasInvalidas() throws Exception {
+        String url = "/api/restaurantes/" + restaurante.getId() + "/taxas-zona";
+        mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON).content("[{\"zonaId\": 99, \"taxa\": 1}]"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"zonaId\": 1, \"taxa\": 1}, {\"zonaId\": 1, \"taxa\": 2}]"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(put(url).contentType(MediaType.APPLICATION_JSON).content("[{\"zonaId\": 1, \"taxa\": -1}]"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados", hasSize(0)));
+    }
+
+    private Restaurante salvar(String nome, boolean ativo) {
+        Restaurante r = new Restaurante();
+        r.setNome(nome);
+        r.setAtivo(ativo);
+        r.setTaxaEntrega(new BigDecimal("7.50"));
+        return restauranteRepository.save(r);
+    }
+}
@@ -0,0 +1,189 @@
+package com.deliverytech.delivery_api.mapper;
+
+import com.deliverytech.delivery_api.dto.request.ProdutoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.RestauranteRequestDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.ProdutoResponseDTO;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.ItemPedido;
+import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compara os mappers com o ModelMapper que eles substituíram (mantido apenas como dependência de teste)
+class MapeadoresTest {
+
+    // Verificação de alocação da execução normal: poucas operações, sem medir vazão
+    private static final int AQUECIMENTO_RAPIDO = 1_000;
+    private static final int MEDICAO_RAPIDA = 1_000;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final PedidoMapper pedidoMapper = new PedidoMapper(new ItemPedidoMapper());
+    private final ProdutoMapper produtoMapper = new ProdutoMapper();
+    private final RestauranteMapper restauranteMapper = new RestauranteMapper();
+
+    @Test
+    @DisplayName("Pedido e produto geram o mesmo DTO que o ModelMapper gerava")
+    void deveGerarMesmoDtoQueModelMapper() {
+        Pedido pedido = criarPedido();
+
+        assertThat(pedidoMapper.paraResposta(pedido))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(pedido, PedidoResponseDTO.class));
+
+        Produto produto = pedido.getItens().get(0).getProduto();
+        assertThat(produtoMapper.paraResposta(produto))
+                .usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(produto, ProdutoResponseDTO.class));
+    }
+
+    @Test
+    @DisplayName("Atualização de restaurante copia campos nulos como o ModelMapper")
+    void deveManterSemanticaDeNulosNaAtualizacao() {
+        RestauranteRequestDTO dto = new RestauranteRequestDTO();
+        dto.setNome("Novo Nome");
+
+        Restaurante esperado = criarRestaurante();
+        modelMapper.map(dto, esperado);
+        Restaurante atualizado = criarRestaurante();
+        restauranteMapper.atualizar(dto, atualizado);
+
+        assertThat(atualizado).usingRecursiveComparison().isEqualTo(esperado);
+        assertThat(atualizado.getTaxaEntrega()).isNull();
+    }
+
+    @Test
+    @DisplayName("Atualização de produto não altera o ID do produto nem o restaurante carregado")
+    void naoDeveCopiarRestauranteIdParaIds() {
+        Restaurante restaurante = criarRestaurante();
+        Produto produto = new Produto();
+        produto.setId(5L);
+        produto.setRestaurante(restaurante);
+
+        ProdutoRequestDTO dto = new ProdutoRequestDTO();
+        dto.setNome("Pizza Nova");
+        dto.setRestauranteId(99L);
+        produtoMapper.atualizar(dto, produto);
+
+        assertThat(produto.getNome()).isEqualTo("Pizza Nova");
+        assertThat(produto.getId()).isEqualTo(5L);
+        assertThat(produto.getRestaurante()).isSameAs(restaurante);
+        assertThat(restaurante.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Mapeamento de pedido aloca menos por operação que o ModelMapper")
+    void deveAlocarMenosQueModelMapper() {
+        Pedido pedido = criarPedido();
+
+        Medicao reflexivo = medir(p -> modelMapper.map(p, PedidoResponseDTO.class), pedido, AQUECIMENTO_RAPIDO, MEDICAO_RAPIDA);
+        Medicao direto = medir(pedidoMapper::paraResposta, pedido, AQUECIMENTO_RAPIDO, MEDICAO_RAPIDA);
+
+        // A alocação por operação é estável mesmo com poucas operações; a vazão fica para o benchmark abaixo
+        assertThat(direto.bytesPorOperacao()).isLessThan(reflexivo.bytesPorOperacao());
+    }
+
+    // Só roda quando pedido: mvn test -Dtest=MapeadoresTest -Dbenchmark.mapeadores.operacoes=50000
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.mapeadores.operacoes", matches = "\\d+")
+    @DisplayName("Benchmark: vazão e alocação por operação do mapeamento de pedido contra o ModelMapper")
+    void medirMapeamento() {
+        int operacoes = Integer.getInteger("benchmark.mapeadores.operacoes");
+        Pedido pedido = criarPedido();
+
+        Medicao reflexivo = medir(p -> modelMapper.map(p, PedidoResponseDTO.class), pedido, operacoes / 2, operacoes);
+        Medicao direto = medir(pedidoMapper::paraResposta, pedido, operacoes / 2, operacoes);
+
+        System.out.printf("[MAPEAMENTO] ModelMapper: %,.0f ops/s, %,d bytes/op | PedidoMapper: %,.0f ops/s, %,d bytes/op%n",
+                reflexivo.opsPorSegundo(), reflexivo.bytesPorOperacao(),
+                direto.opsPorSegundo(), direto.bytesPorOperacao());
+        assertThat(direto.bytesPorOperacao()).isLessThan(reflexivo.bytesPorOperacao());
+    }
+
+    private record Medicao(double opsPorSegundo, long bytesPorOperacao) {}
+
+    private Medicao medir(Function<Pedido, PedidoResponseDTO> mapeamento, Pedido pedido, int aquecimento, int medicao) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long controle = 0;
+
+        for (int i = 0; i < aquecimento; i++) {
+            controle += mapeamento.apply(pedido).getItens().size();
+        }
+
+        long bytesAntes = threads.getThreadAllocatedBytes(thread);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < medicao; i++) {
+            controle += mapeamento.apply(pedido).getItens().size();
+        }
+        long duracao = System.nanoTime() - inicio;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesAntes;
+
+        assertThat(controle).isEqualTo(3L * (aquecimento + medicao));
+        return new Medicao(medicao * 1e9 / duracao, bytes / medicao);
+    }
+
+    private Restaurante criarRestaurante() {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(1L);
+        restaurante.setNome("Pizzaria Bella");
+        restaurante.setCategoria("Italiana");
+        restaurante.setEndereco("Av. Paulista, 1000");
+        restaurante.setTelefone("11999999999");
+        restaurante.setTaxaEntrega(new BigDecimal("5.00"));
+        restaurante.setAtivo(true);
+        return restaurante;
+    }
+
+    private Pedido criarPedido() {
+        Cliente cliente = new Cliente();
+        cliente.setId(1L);
+        cliente.setNome("João Silva");
+
+        Restaurante restaurante = criarRestaurante();
+
+        Pedido pedido = new Pedido();
+        pedido.setId(10L);
+        pedido.setNumeroPedido("0A8SJNT2TPW00");
+        pedido.setDataPedido(LocalDateTime.of(2026, 1, 15, 12, 30));
+        pedido.setStatus(StatusPedidos.CONFIRMADO);
+        pedido.setVersao(1L);
+        pedido.setEnderecoEntrega("Rua das Flores, 123");
+        pedido.setTaxaEntrega(new BigDecimal("5.00"));
+        pedido.setValorTotal(new BigDecimal("112.70"));
+        pedido.setCliente(cliente);
+        pedido.setRestaurante(restaurante);
+
+        for (int i = 1; i <= 3; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i);
+            produto.setNome("Produto " + i);
+            produto.setDescricao("Descrição do produto " + i);
+            produto.setCategoria("Pizza");
+            produto.setPreco(new BigDecimal("35.90"));
+            produto.setDisponivel(true);
+            produto.setRestaurante(restaurante);
+
+            ItemPedido item = new ItemPedido();
+            item.setId((long) i);
+            item.setProduto(produto);
+            item.setPedido(pedido);
+            item.setQuantidade(i);
+            item.setPrecoUnitario(produto.getPreco());
+            item.setSubtotal(produto.getPreco().multiply(BigDecimal.valueOf(i)));
+            pedido.getItens().add(item);
+        }
+        return pedido;
+    }
+}
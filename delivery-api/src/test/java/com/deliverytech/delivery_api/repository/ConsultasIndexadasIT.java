@@ -0,0 +1,137 @@
+package com.deliverytech.delivery_api.repository;
+
+import com.deliverytech.delivery_api.config.ContadorSqlInspector;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.Pedido;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Executa EXPLAIN no H2 para o SQL que o Hibernate realmente gera em cada consulta dos repositories
+// e confirma que o plano usa o índice esperado (com condição de busca), nunca uma varredura da tabela.
+// Ficam de fora as agregações sobre a tabela inteira (relatórios) e a busca por nome com LIKE '%...%'.
+@SpringBootTest(properties = {ContadorSqlInspector.PROPRIEDADE, "delivery.clientes-distintos.gravacao-ms=86400000"})
+public class ConsultasIndexadasIT {
+
+    @Autowired private PedidoRepository pedidoRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private ItemPedidoRespository itemPedidoRespository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime inicio = LocalDate.now().atStartOfDay();
+    private final LocalDateTime fim = inicio.plusDays(1);
+
+    @Test
+    @DisplayName("Cenário: Consultas do PedidoRepository usam índices")
+    void consultasDePedidoDevemUsarIndices() {
+        assertUsaIndice("IDX_PEDIDOS_CLIENTE: CLIENTE_ID =", () -> pedidoRepository.findByClienteId(1L));
+        assertUsaIndice("IDX_PEDIDOS_RESTAURANTE: RESTAURANTE_ID =", () -> pedidoRepository.findByRestauranteId(1L));
+        assertUsaIndice("IDX_PEDIDOS_RESTAURANTE: RESTAURANTE_ID =", () -> pedidoRepository.sumTotalVendasByRestaurante(1L));
+        assertUsaIndice("IDX_PEDIDOS_STATUS_DATA_ID: STATUS =", () -> pedidoRepository.findByStatus(StatusPedidos.PENDENTE));
+        assertUsaIndice("UK_PEDIDOS_NUMERO", () -> pedidoRepository.findByNumeroPedido("0A8SGNYAEPW00"));
+        assertUsaIndice("IDX_PEDIDOS_DATA_ID: DATA_PEDIDO >=", () -> pedidoRepository.findByDateTime(inicio, fim));
+        assertUsaIndice("IDX_PEDIDOS_VALOR_TOTAL: VALOR_TOTAL >", () -> pedidoRepository.findPedidosComValorMaiorQue(BigDecimal.TEN));
+        assertUsaIndice("IDX_PEDIDOS_DATA_ID */", () -> pedidoRepository.findTop10ByOrderByDataPedidoDesc());
+        assertUsaIndice("PRIMARY_KEY", () -> pedidoRepository.findSituacaoById(1L));
+
+        assertUsaIndice("IDX_PEDIDOS_STATUS_DATA_ID", List.of("STATUS =", "DATA_PEDIDO >=", "DATA_PEDIDO <"),
+                () -> pedidoRepository.findByStatusNoPeriodo(StatusPedidos.PENDENTE, inicio, fim));
+    }
+
+    @Test
+    @DisplayName("Cenário: Listagens de pedidos (offset e cursor) usam índices para cada combinação de filtros")
+    void listagensDePedidosDevemUsarIndices() {
+        Sort ordem = Sort.by(Sort.Order.desc("dataPedido"), Sort.Order.desc("id"));
+        Specification<Pedido> porStatus = PedidoSpecifications.comStatus(StatusPedidos.PENDENTE);
+        Specification<Pedido> porDia = PedidoSpecifications.noDia(LocalDate.now());
+        Specification<Pedido> cursor = PedidoSpecifications.antesDe(fim, Long.MAX_VALUE);
+
+        // Com COUNT (quando houver), as duas consultas precisam usar o índice
+        assertUsaIndice("IDX_PEDIDOS_STATUS_DATA_ID:",
+                () -> pedidoRepository.findAll(Specification.where(porStatus).and(porDia), PageRequest.of(0, 10, ordem)));
+        assertUsaIndice("IDX_PEDIDOS_DATA_ID: DATA_PEDIDO >=",
+                () -> pedidoRepository.findAll(porDia, PageRequest.of(0, 10, ordem)));
+
+        assertUsaIndice("IDX_PEDIDOS_DATA_ID: DATA_PEDIDO <=",
+                () -> pedidoRepository.findBy(cursor, q -> q.sortBy(ordem).limit(11).all()));
+        assertUsaIndice("IDX_PEDIDOS_STATUS_DATA_ID", List.of("STATUS =", "DATA_PEDIDO <="),
+                () -> pedidoRepository.findBy(porStatus.and(cursor), q -> q.sortBy(ordem).limit(11).all()));
+    }
+
+    @Test
+    @DisplayName("Cenário: Consultas de produtos, clientes e itens de pedido usam índices")
+    void consultasDeProdutoClienteEItemDevemUsarIndices() {
+        assertUsaIndice("IDX_PRODUTOS_RESTAURANTE: RESTAURANTE_ID =", () -> produtoRepository.findByRestauranteId(1L));
+        assertUsaIndice("IDX_PRODUTOS_CATEGORIA: CATEGORIA =", () -> produtoRepository.findByCategoria("Pizzas"));
+        assertUsaIndice("IDX_PRODUTOS_DISPONIVEL: DISPONIVEL = TRUE", () -> produtoRepository.findByDisponivelTrue());
+        assertUsaIndice("PRIMARY_KEY", () -> produtoRepository.findAllWithRestauranteByIdIn(List.of(1L, 2L)));
+
+        assertUsaIndice("UK_CLIENTES_EMAIL", () -> clienteRepository.findByEmail("joao@email.com"));
+        assertUsaIndice("IDX_CLIENTES_ATIVO: ATIVO = TRUE", () -> clienteRepository.findByAtivoTrue(PageRequest.of(0, 10)));
+
+        assertUsaIndice("IDX_ITENS_PEDIDO_PEDIDO: PEDIDO_ID =", () -> itemPedidoRespository.findByPedidoId(1L));
+        assertUsaIndice("IDX_ITENS_PEDIDO_PRODUTO: PRODUTO_ID =", () -> itemPedidoRespository.findByProdutoId(1L));
+    }
+
+    private void assertUsaIndice(String indice, Runnable consulta) {
+        List<String> planos = planos(consulta);
+        assertThat(planos).as("Planos: %s", planos).isNotEmpty().noneMatch(plano -> plano.contains("tableScan"));
+        assertThat(planos).as("Planos: %s", planos).anyMatch(plano -> plano.contains(indice));
+    }
+
+    // O H2 não garante a ordem das condições no comentário do índice; cada uma é conferida em separado
+    private void assertUsaIndice(String indice, List<String> condicoes, Runnable consulta) {
+        List<String> planos = planos(consulta);
+        assertThat(planos).as("Planos: %s", planos).isNotEmpty().noneMatch(plano -> plano.contains("tableScan"));
+        assertThat(planos).as("Planos: %s", planos)
+                .anyMatch(plano -> condicoes.stream().allMatch(condicoesDoIndice(plano, indice)::contains));
+    }
+
+    // Trecho "/* PUBLIC.INDICE: condições */" do plano, ou vazio se o índice não for usado
+    private static String condicoesDoIndice(String plano, String indice) {
+        int inicio = plano.indexOf(indice + ":");
+        return inicio < 0 ? "" : plano.substring(inicio, plano.indexOf("*/", inicio));
+    }
+
+    private List<String> planos(Runnable consulta) {
+        ContadorSqlInspector.zerar();
+        consulta.run();
+        List<String> selects = ContadorSqlInspector.comandos().stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+        return selects.stream().map(this::explain).collect(Collectors.toList());
+    }
+
+    // Parâmetros nulos bastam: o EXPLAIN não executa a consulta, só mostra o plano do statement preparado
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexao -> {
+            try (PreparedStatement statement = conexao.prepareStatement("EXPLAIN " + sql)) {
+                int parametros = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultado = statement.executeQuery()) {
+                    resultado.next();
+                    return resultado.getString(1);
+                }
+            }
+        });
+    }
+}
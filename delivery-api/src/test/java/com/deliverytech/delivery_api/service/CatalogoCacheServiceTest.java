@@ -0,0 +1,127 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.event.ProdutoAlteradoEvent;
+import com.deliverytech.delivery_api.event.RestauranteAlteradoEvent;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogoCacheServiceTest {
+
+    private MeterRegistry registry;
+    private RestauranteRepository restauranteRepository;
+    private CatalogoCacheService cache;
+    private final AtomicInteger carregamentos = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        restauranteRepository = mock(RestauranteRepository.class);
+        when(restauranteRepository.existsById(anyLong())).thenAnswer(inv -> inv.<Long>getArgument(0) <= 3);
+        cache = new CatalogoCacheService(restauranteRepository, new DeliveryMetrics(registry), 300, 100);
+    }
+
+    @Test
+    void repetirLeituraSemCarregarEExporTaxaDeAcerto() {
+        Object primeiro = cache.restaurante(1L, carregar("restaurante 1"));
+        Object segundo = cache.restaurante(1L, carregar("restaurante 1"));
+        cache.restaurantes("disponiveis", carregar(List.of()));
+        cache.restaurantes("disponiveis", carregar(List.of()));
+
+        assertThat(segundo).isSameAs(primeiro);
+        assertThat(carregamentos).hasValue(2);
+        assertThat(registry.get("delivery_cache_taxa_acerto").tag("cache", "catalogo").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void produtoAlteradoInvalidaSoSuasListasAnterioresENovas() {
+        preencher();
+
+        // Produto 10 mudou do restaurante 1 para o 2 e de "Pizzas" para "Massas"
+        cache.aoAlterarProduto(new ProdutoAlteradoEvent(10L, Set.of(1L, 2L), Set.of("Pizzas", "Massas")));
+        carregamentos.set(0);
+        preencher();
+
+        // Recarregados: produto 10, produtos dos restaurantes 1 e 2, categorias Pizzas e Massas
+        assertThat(carregamentos).hasValue(5);
+    }
+
+    @Test
+    void restauranteAlteradoInvalidaEleAsListasEOsProdutosQueExibemSeuNome() {
+        preencher();
+
+        cache.aoAlterarRestaurante(new RestauranteAlteradoEvent(1L));
+        carregamentos.set(0);
+        preencher();
+
+        // Ficam: restaurantes 2 e 3 e os produtos dos restaurantes 2 e 3
+        assertThat(carregamentos).hasValue(11 - 4);
+    }
+
+    @Test
+    void versoesAvancamSoNosRestaurantesAlterados() {
+        var restaurante1 = cache.versaoDoRestaurante(1L);
+        var restaurante2 = cache.versaoDoRestaurante(2L);
+        var listas = cache.versaoDosRestaurantes();
+        assertThat(cache.versaoDoRestaurante(1L)).isEqualTo(restaurante1);
+
+        // Produto trocou do restaurante 1 para o 3: os cardápios dos dois mudam, as listas de restaurantes não
+        cache.aoAlterarProduto(new ProdutoAlteradoEvent(10L, Set.of(1L, 3L), Set.of("Pizzas")));
+        assertThat(cache.versaoDoRestaurante(1L).etag()).isNotEqualTo(restaurante1.etag());
+        assertThat(cache.versaoDoRestaurante(1L).alteradaEm()).isAfterOrEqualTo(restaurante1.alteradaEm());
+        assertThat(cache.versaoDoRestaurante(2L)).isEqualTo(restaurante2);
+        assertThat(cache.versaoDosRestaurantes()).isEqualTo(listas);
+
+        cache.aoAlterarRestaurante(new RestauranteAlteradoEvent(2L));
+        assertThat(cache.versaoDoRestaurante(2L).etag()).isNotEqualTo(restaurante2.etag()).startsWith("\"").endsWith("\"");
+        assertThat(cache.versaoDosRestaurantes().etag()).isNotEqualTo(listas.etag());
+    }
+
+    @Test
+    void restauranteInexistenteNaoTemVersao() {
+        assertThatThrownBy(() -> cache.versaoDoRestaurante(99L)).isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> cache.versaoDoRestaurante(99L)).isInstanceOf(EntityNotFoundException.class);
+
+        // Um existente é conferido no banco só na primeira vez
+        cache.versaoDoRestaurante(1L);
+        cache.versaoDoRestaurante(1L);
+        verify(restauranteRepository, times(1)).existsById(1L);
+        verify(restauranteRepository, times(2)).existsById(99L);
+    }
+
+    // 11 entradas: 3 restaurantes, 1 lista, 2 produtos, produtos de 3 restaurantes e 2 categorias
+    private void preencher() {
+        for (long id = 1; id <= 3; id++) {
+            cache.restaurante(id, carregar("restaurante " + id));
+            cache.produtosDoRestaurante(id, carregar(List.of()));
+        }
+        cache.restaurantes("disponiveis", carregar(List.of()));
+        cache.produto(10L, carregar("produto 10"));
+        cache.produto(11L, carregar("produto 11"));
+        cache.produtosDaCategoria("Pizzas", carregar(List.of()));
+        cache.produtosDaCategoria("Massas", carregar(List.of()));
+    }
+
+    private <T> Supplier<T> carregar(T valor) {
+        return () -> {
+            carregamentos.incrementAndGet();
+            return valor;
+        };
+    }
+}
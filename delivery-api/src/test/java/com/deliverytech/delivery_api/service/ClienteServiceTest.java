@@ -3,6 +3,7 @@ package com.deliverytech.delivery_api.service;
 import com.deliverytech.delivery_api.dto.request.ClienteRequestDTO;
 import com.deliverytech.delivery_api.dto.response.ClienteResponseDTO;
 import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.mapper.ClienteMapper;
 import com.deliverytech.delivery_api.model.Cliente;
 import com.deliverytech.delivery_api.repository.ClienteRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -11,7 +12,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import java.util.Optional;
 
@@ -23,7 +23,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ClienteServiceTest {
 
-    @Mock private ModelMapper modelMapper;
+    @Mock private ClienteMapper clienteMapper;
     @Mock private ClienteRepository clienteRepository;
     @Mock private PasswordEncoder passwordEncoder;
 
@@ -35,7 +35,7 @@ class ClienteServiceTest {
     void salvarClienteSucesso() {
         ClienteRequestDTO request = new ClienteRequestDTO();
         // Usamos lenient() para o Mockito não reclamar se algum stub não for usado exatamente
-        lenient().when(modelMapper.map(any(), eq(Cliente.class))).thenReturn(new Cliente());
+        lenient().when(clienteMapper.paraEntidade(any())).thenReturn(new Cliente());
         lenient().when(passwordEncoder.encode(any())).thenReturn("senha_criptografada");
         lenient().when(clienteRepository.save(any(Cliente.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -62,7 +62,7 @@ class ClienteServiceTest {
         cliente.setId(1L);
 
         when(clienteRepository.findById(anyLong())).thenReturn(Optional.of(cliente));
-        lenient().when(modelMapper.map(any(), eq(ClienteResponseDTO.class))).thenReturn(new ClienteResponseDTO());
+        lenient().when(clienteMapper.paraResposta(any())).thenReturn(new ClienteResponseDTO());
 
         var resultado = clienteService.buscarClientePorId(1L);
 
@@ -0,0 +1,145 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.ClientesDistintosDTO;
+import com.deliverytech.delivery_api.dto.response.ClientesDistintosPeriodoDTO;
+import com.deliverytech.delivery_api.enums.PeriodoClientes;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.util.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+
+// Pedidos de 2022 (fora do período do DataLoader) registrados nos sketches, metade gravada na tabela antes da
+// outra metade chegar. Por dia, semana e mês, a estimativa precisa ficar perto da contagem exata dos pedidos.
+@SpringBootTest
+@Transactional
+public class ClientesDistintosIT {
+
+    private static final int PEDIDOS = 4_000;
+    private static final int CLIENTES = 600;
+    private static final LocalDate INICIO = LocalDate.of(2022, 5, 1);
+    private static final int DIAS = 45;
+
+    @Autowired private ClientesDistintosService clientesDistintosService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final Random aleatorio = new Random(17);
+    private final List<Restaurante> restaurantes = new ArrayList<>();
+    private final List<Cliente> clientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int r = 0; r < 2; r++) {
+            Restaurante restaurante = new Restaurante();
+            restaurante.setNome("Restaurante Distintos " + r);
+            restaurante.setAtivo(true);
+            restaurantes.add(restauranteRepository.saveAndFlush(restaurante));
+        }
+        for (int c = 0; c < CLIENTES; c++) {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Cliente Distinto " + c);
+            cliente.setEmail("distinto-" + c + "-" + System.nanoTime() + "@teste.com");
+            cliente.setAtivo(true);
+            clientes.add(cliente);
+        }
+        clienteRepository.saveAllAndFlush(clientes);
+    }
+
+    @Test
+    @DisplayName("Cenário: Estimativas por dia, semana e mês ficam dentro do erro documentado, com parte dos sketches gravada")
+    void deveEstimarPertoDaContagemExata() {
+        inserirPedidos(0, PEDIDOS / 2);
+        clientesDistintosService.gravarPendentes();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clientes_distintos WHERE dia >= ?", Long.class, INICIO))
+                .isPositive();
+        // A segunda metade cai nos mesmos dias: a consulta une a tabela com a memória
+        inserirPedidos(PEDIDOS / 2, PEDIDOS);
+
+        LocalDate fim = INICIO.plusDays(DIAS);
+        for (Long restauranteId : new Long[]{null, restaurantes.get(0).getId()}) {
+            for (PeriodoClientes periodo : PeriodoClientes.values()) {
+                comparar(restauranteId, INICIO.plusDays(3), fim, periodo);
+            }
+        }
+
+        // Regravar tudo não conta ninguém duas vezes
+        ClientesDistintosDTO antes = clientesDistintosService.clientesDistintos(null, INICIO, fim, PeriodoClientes.MES, false);
+        clientesDistintosService.gravarPendentes();
+        clientesDistintosService.gravarPendentes();
+        ClientesDistintosDTO depois = clientesDistintosService.clientesDistintos(null, INICIO, fim, PeriodoClientes.MES, false);
+        assertThat(depois.getClientesDistintos()).isEqualTo(antes.getClientesDistintos());
+        assertThat(depois.getPeriodos()).usingRecursiveFieldByFieldElementComparator().isEqualTo(antes.getPeriodos());
+    }
+
+    @Test
+    @DisplayName("Cenário: Intervalos invertidos ou maiores que o limite são recusados")
+    void deveRecusarIntervalosInvalidos() {
+        assertThatThrownBy(() -> clientesDistintosService.clientesDistintos(null, INICIO, INICIO, PeriodoClientes.DIA, false))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> clientesDistintosService.clientesDistintos(null, INICIO, INICIO.plusDays(400), PeriodoClientes.MES, true))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private void comparar(Long restauranteId, LocalDate inicio, LocalDate fim, PeriodoClientes periodo) {
+        ClientesDistintosDTO exato = clientesDistintosService.clientesDistintos(restauranteId, inicio, fim, periodo, true);
+        ClientesDistintosDTO estimado = clientesDistintosService.clientesDistintos(restauranteId, inicio, fim, periodo, false);
+
+        assertThat(exato.getClientesDistintos()).isPositive();
+        assertThat(estimado.getErroPadrao()).isEqualTo(HyperLogLog.ERRO_PADRAO);
+        assertThat((double) estimado.getClientesDistintos())
+                .isCloseTo(exato.getClientesDistintos(), within(limite(exato.getClientesDistintos())));
+        assertThat(estimado.getPeriodos()).hasSameSizeAs(exato.getPeriodos());
+        for (int i = 0; i < exato.getPeriodos().size(); i++) {
+            ClientesDistintosPeriodoDTO real = exato.getPeriodos().get(i);
+            ClientesDistintosPeriodoDTO aproximado = estimado.getPeriodos().get(i);
+            assertThat(aproximado.getInicio()).isEqualTo(real.getInicio());
+            assertThat(aproximado.getFim()).isEqualTo(real.getFim());
+            assertThat((double) aproximado.getClientesDistintos())
+                    .as("%s %s a %s", periodo, real.getInicio(), real.getFim())
+                    .isCloseTo(real.getClientesDistintos(), within(limite(real.getClientesDistintos())));
+        }
+        assertThat(exato.getPeriodos().get(0).getInicio()).isEqualTo(inicio);
+        assertThat(exato.getPeriodos().get(exato.getPeriodos().size() - 1).getFim()).isEqualTo(fim);
+    }
+
+    // Três erros padrão, com uma folga absoluta para contagens pequenas
+    private double limite(long real) {
+        return 3 * HyperLogLog.ERRO_PADRAO * real + 2;
+    }
+
+    private void inserirPedidos(int de, int ate) {
+        List<Object[]> pedidos = new ArrayList<>(ate - de);
+        for (int i = de; i < ate; i++) {
+            Restaurante restaurante = restaurantes.get(aleatorio.nextInt(restaurantes.size()));
+            Cliente cliente = clientes.get(aleatorio.nextInt(CLIENTES));
+            LocalDateTime data = INICIO.atStartOfDay().plusSeconds(aleatorio.nextInt(DIAS * 24 * 3600));
+            pedidos.add(new Object[]{4_000_000L + i, Timestamp.valueOf(data), "Rua dos Distintos, 1",
+                    BigDecimal.ONE, BigDecimal.TEN, "ENTREGUE", 0L, cliente.getId(), restaurante.getId()});
+            clientesDistintosService.registrar(restaurante.getId(), cliente.getId(), data.toLocalDate());
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedidos (id, data_pedido, endereco_entrega, taxa_entrega, valor_total, " +
+                "status, versao, cliente_id, restaurante_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", pedidos);
+    }
+}
@@ -0,0 +1,137 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.ConflitoException;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Sem @Transactional: cada transição precisa ser confirmada no banco para disputar com as demais threads
+@SpringBootTest
+public class PedidoConcorrenciaIT {
+
+    private static final int PEDIDOS = 20;
+    private static final int THREADS = 16;
+
+    @Autowired private PedidoService pedidoService;
+    @Autowired private PedidoRepository pedidoRepository;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+
+    @Test
+    @DisplayName("Cenário: Confirmações e cancelamentos simultâneos aplicam exatamente uma transição por pedido")
+    void deveAplicarUmaTransicaoPorPedidoSobContencao() throws Exception {
+        List<Long> ids = criarPedidos();
+        Map<Long, AtomicInteger> sucessos = new ConcurrentHashMap<>();
+        AtomicInteger conflitos = new AtomicInteger();
+        AtomicInteger recusas = new AtomicInteger();
+        List<Throwable> inesperados = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+        long inicio = System.nanoTime();
+
+        for (int t = 0; t < THREADS; t++) {
+            boolean confirma = t % 2 == 0;
+            tarefas.add(executor.submit(() -> {
+                for (Long id : ids) {
+                    try {
+                        if (confirma) pedidoService.atualizarStatusPedido(id, StatusPedidos.CONFIRMADO);
+                        else pedidoService.cancelarPedido(id);
+                        sucessos.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+                    } catch (ConflitoException e) {
+                        conflitos.incrementAndGet();
+                    } catch (BusinessException e) {
+                        recusas.incrementAndGet();
+                    } catch (Throwable e) {
+                        inesperados.add(e);
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.printf("[CONTENCAO] %d pedidos x %d threads = %d tentativas em %d ms | sucessos: %d, conflitos (409): %d, recusas (422): %d%n",
+                PEDIDOS, THREADS, PEDIDOS * THREADS, duracaoMs, sucessos.size(), conflitos.get(), recusas.get());
+
+        assertThat(inesperados).isEmpty();
+        assertThat(sucessos).hasSize(PEDIDOS);
+        assertThat(sucessos.values()).allMatch(contador -> contador.get() == 1);
+        assertThat(conflitos.get() + recusas.get()).isEqualTo(PEDIDOS * (THREADS - 1));
+
+        for (Pedido pedido : pedidoRepository.findAllById(ids)) {
+            assertThat(pedido.getStatus()).isIn(StatusPedidos.CONFIRMADO, StatusPedidos.CANCELADO);
+            assertThat(pedido.getVersao()).isEqualTo(1L);
+        }
+    }
+
+    private List<Long> criarPedidos() {
+        String sufixo = String.valueOf(System.nanoTime());
+
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente Contenção");
+        cliente.setEmail("contencao-" + sufixo + "@teste.com");
+        cliente.setEndereco("Rua da Disputa, 1");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.save(cliente);
+
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome("Restaurante Contenção " + sufixo);
+        restaurante.setAtivo(true);
+        restaurante.setTaxaEntrega(BigDecimal.valueOf(5.0));
+        restaurante = restauranteRepository.save(restaurante);
+
+        Produto produto = new Produto();
+        produto.setNome("Prato Disputado");
+        produto.setPreco(BigDecimal.valueOf(25.0));
+        produto.setCategoria("Pratos");
+        produto.setDisponivel(true);
+        produto.setRestaurante(restaurante);
+        produto = produtoRepository.save(produto);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produto.getId());
+            item.setQuantidade(1);
+
+            PedidoRequestDTO dto = new PedidoRequestDTO();
+            dto.setClienteId(cliente.getId());
+            dto.setRestauranteId(restaurante.getId());
+            dto.setEnderecoEntrega("Rua da Disputa, 1");
+            dto.setItens(List.of(item));
+            ids.add(pedidoService.criarPedido(dto).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,94 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.event.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoEventosServiceTest {
+
+    @Mock private RestauranteRepository restauranteRepository;
+
+    private PedidoEventosService eventosService;
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        eventosService = new PedidoEventosService(restauranteRepository, new ObjectMapper().registerModule(new JavaTimeModule()),
+                new DeliveryMetrics(new SimpleMeterRegistry()), 16, 60_000, 100);
+        when(restauranteRepository.existsById(1L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        eventosService.encerrar();
+    }
+
+    @Test
+    void clienteLentoNaoAtrasaOsDemaisESeuEnvioParadoEDescartado() {
+        EmissorContado lento = new EmissorContado(liberar);
+        EmissorContado rapido = new EmissorContado(null);
+        eventosService.assinar(1L, null, lento);
+        eventosService.assinar(1L, null, rapido);
+
+        for (int i = 0; i < 3; i++) {
+            eventosService.aoAlterarStatus(new PedidoStatusAlteradoEvent(1L, 10L + i, "PED-" + i, StatusPedidos.CONFIRMADO,
+                    1L, LocalDateTime.now()));
+        }
+
+        // O cliente lento segura o primeiro envio; o outro recebe os três eventos
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(rapido.enviados.get()).isEqualTo(3));
+        assertThat(lento.enviados.get()).isZero();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            eventosService.heartbeat();
+            assertThat(eventosService.conexoesAbertas()).isEqualTo(1);
+        });
+    }
+
+    // Conta os envios concluídos; com um latch, o primeiro envio fica parado até ele ser liberado
+    private static final class EmissorContado extends SseEmitter {
+
+        private final CountDownLatch bloqueio;
+        private final AtomicInteger enviados = new AtomicInteger();
+
+        private EmissorContado(CountDownLatch bloqueio) {
+            super(60_000L);
+            this.bloqueio = bloqueio;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            if (bloqueio != null) {
+                try {
+                    bloqueio.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            enviados.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.enums.FormatoExportacao;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Exporta um período com dezenas de milhares de pedidos sem guardar a saída: só as primeiras linhas
+// são retidas para conferir o formato, e a cada escrita se registra o tamanho da sessão e do heap.
+@SpringBootTest
+@Transactional
+public class PedidoExportacaoIT {
+
+    private static final int PEDIDOS = 40_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+    @Autowired private RelatorioService relatorioService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManager entityManager;
+    @Autowired private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente Exportação");
+        cliente.setEmail("exportacao-" + System.nanoTime() + "@teste.com");
+        cliente.setEndereco("Rua da Exportação, 1");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.saveAndFlush(cliente);
+
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome("Restaurante \"Exportação\", Centro");
+        restaurante.setAtivo(true);
+        restaurante.setTaxaEntrega(BigDecimal.valueOf(5.0));
+        restaurante = restauranteRepository.saveAndFlush(restaurante);
+
+        Produto produto = new Produto();
+        produto.setNome("Prato Exportado");
+        produto.setPreco(BigDecimal.valueOf(25.0));
+        produto.setCategoria("Pratos");
+        produto.setDisponivel(true);
+        produto.setRestaurante(restaurante);
+        produto = produtoRepository.saveAndFlush(produto);
+
+        // Carga direta via JDBC, em um período sem os pedidos do DataLoader: um pedido por segundo, com um item
+        List<Object[]> pedidos = new ArrayList<>(PEDIDOS);
+        List<Object[]> itens = new ArrayList<>(PEDIDOS);
+        for (int i = 0; i < PEDIDOS; i++) {
+            long id = 2_000_000L + i;
+            pedidos.add(new Object[]{id, Timestamp.valueOf(BASE.minusSeconds(i)), "Rua da Exportação, 1",
+                    BigDecimal.valueOf(5.0), BigDecimal.valueOf(30.0), "PENDENTE", 0L, cliente.getId(), restaurante.getId()});
+            itens.add(new Object[]{id, 1, BigDecimal.valueOf(25.0), BigDecimal.valueOf(25.0), id, produto.getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedidos (id, data_pedido, endereco_entrega, taxa_entrega, valor_total, " +
+                "status, versao, cliente_id, restaurante_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", pedidos);
+        jdbcTemplate.batchUpdate("INSERT INTO itens_pedido (id, quantidade, preco_unitario, subtotal, pedido_id, produto_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", itens);
+
+        // A exportação roda na transação do teste: sem isto o primeiro bloco ainda teria na sessão o produto salvo
+        // acima (o CSV não carrega itens) e a sessão passaria do limite medido por uma entidade
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Cenário: Exportação NDJSON escreve um pedido com itens por linha mantendo a sessão limitada a um bloco")
+    void deveExportarNdjsonComSessaoLimitada() throws Exception {
+        SaidaMonitorada saida = new SaidaMonitorada();
+
+        long exportados = relatorioService.exportarPedidosPorPeriodo(BASE.minusDays(1), BASE.plusSeconds(1),
+                FormatoExportacao.NDJSON, saida);
+
+        System.out.printf("[EXPORTACAO] NDJSON: %d pedidos, %d bytes | maior sessão: %d entidades, maior heap após GC: %d KB%n",
+                exportados, saida.bytes, saida.maiorSessao, saida.maiorHeapExtra / 1024);
+
+        assertThat(exportados).isEqualTo(PEDIDOS);
+        assertThat(saida.linhas).isEqualTo(PEDIDOS);
+        // Um bloco de pedidos, os itens do bloco e o cliente, o restaurante e o produto compartilhados
+        assertThat(saida.maiorSessao).isLessThanOrEqualTo(2L * PedidoRepository.FETCH_SIZE_EXPORTACAO + 3);
+        assertThat(saida.maiorHeapExtra).isLessThan(64L * 1024 * 1024);
+
+        List<String> linhas = saida.inicio().lines().limit(2).toList();
+        JsonNode primeiro = objectMapper.readTree(linhas.get(0));
+        JsonNode segundo = objectMapper.readTree(linhas.get(1));
+        assertThat(primeiro.get("id").asLong()).isEqualTo(2_000_000L);
+        assertThat(segundo.get("id").asLong()).isEqualTo(2_000_001L);
+        assertThat(primeiro.get("nomeRestaurante").asText()).isEqualTo("Restaurante \"Exportação\", Centro");
+        assertThat(primeiro.get("itens")).hasSize(1);
+        assertThat(primeiro.get("itens").get(0).get("nomeProduto").asText()).isEqualTo("Prato Exportado");
+    }
+
+    @Test
+    @DisplayName("Cenário: Exportação CSV escreve cabeçalho e um pedido por linha com campos escapados")
+    void deveExportarCsvComCamposEscapados() throws Exception {
+        SaidaMonitorada saida = new SaidaMonitorada();
+
+        long exportados = relatorioService.exportarPedidosPorPeriodo(BASE.minusDays(1), BASE.plusSeconds(1),
+                FormatoExportacao.CSV, saida);
+
+        System.out.printf("[EXPORTACAO] CSV: %d pedidos, %d bytes | maior sessão: %d entidades, maior heap após GC: %d KB%n",
+                exportados, saida.bytes, saida.maiorSessao, saida.maiorHeapExtra / 1024);
+
+        assertThat(exportados).isEqualTo(PEDIDOS);
+        assertThat(saida.linhas).isEqualTo(PEDIDOS + 1);
+        // Um bloco de pedidos com o cliente e o restaurante compartilhados
+        assertThat(saida.maiorSessao).isLessThanOrEqualTo(PedidoRepository.FETCH_SIZE_EXPORTACAO + 2);
+
+        List<String> linhas = saida.inicio().lines().limit(2).toList();
+        assertThat(linhas.get(0))
+                .isEqualTo("id,numeroPedido,dataPedido,status,cliente,restaurante,enderecoEntrega,taxaEntrega,valorTotal");
+        assertThat(linhas.get(1)).isEqualTo("2000000,," + BASE + ",PENDENTE,Cliente Exportação,"
+                + "\"Restaurante \"\"Exportação\"\", Centro\",\"Rua da Exportação, 1\",5.00,30.00");
+    }
+
+    @Test
+    @DisplayName("Cenário: Período sem pedidos exporta apenas o cabeçalho no CSV e nada no NDJSON")
+    void deveExportarPeriodoVazio() throws Exception {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        assertThat(relatorioService.exportarPedidosPorPeriodo(BASE.minusYears(5), BASE.minusYears(4), FormatoExportacao.CSV, csv)).isZero();
+        assertThat(relatorioService.exportarPedidosPorPeriodo(BASE.minusYears(5), BASE.minusYears(4), FormatoExportacao.NDJSON, ndjson)).isZero();
+
+        assertThat(csv.toString(StandardCharsets.UTF_8)).startsWith("id,numeroPedido").endsWith("\r\n").hasLineCount(1);
+        assertThat(ndjson.size()).isZero();
+    }
+
+    // Conta linhas e bytes sem guardar a saída; a cada 4.000 linhas força um GC e mede o heap em uso
+    private class SaidaMonitorada extends OutputStream {
+        private final ByteArrayOutputStream inicio = new ByteArrayOutputStream();
+        private final Session sessao = entityManager.unwrap(Session.class);
+        private final long heapInicial;
+        private long bytes;
+        private long linhas;
+        private long proximaMedicao = 4_000;
+        private long maiorSessao;
+        private long maiorHeapExtra;
+
+        SaidaMonitorada() {
+            System.gc();
+            heapInicial = heapEmUso();
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') linhas++;
+            }
+            if (inicio.size() < 4096) {
+                inicio.write(b, off, Math.min(len, 4096));
+            }
+            maiorSessao = Math.max(maiorSessao, sessao.getStatistics().getEntityCount());
+            if (linhas >= proximaMedicao) {
+                proximaMedicao += 4_000;
+                System.gc();
+                maiorHeapExtra = Math.max(maiorHeapExtra, heapEmUso() - heapInicial);
+            }
+        }
+
+        String inicio() {
+            return inicio.toString(StandardCharsets.UTF_8);
+        }
+
+        private long heapEmUso() {
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.dto.response.ProcessamentoPedidoDTO;
+import com.deliverytech.delivery_api.enums.SituacaoProcessamento;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.FilaCheiaException;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import com.deliverytech.delivery_api.util.NumeroPedidoGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoFilaServiceTest {
+
+    @Mock private PedidoService pedidoService;
+
+    private SimpleMeterRegistry registry;
+    private PedidoFilaService filaService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filaService = new PedidoFilaService(pedidoService, new NumeroPedidoGenerator(1),
+                new DeliveryMetrics(registry), true, 2, 1, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filaService.parar();
+    }
+
+    @Test
+    void recusarQuandoFilaCheia() {
+        // Sem workers iniciados nada é drenado: a terceira tentativa excede a capacidade
+        filaService.enfileirar(new PedidoRequestDTO());
+        filaService.enfileirar(new PedidoRequestDTO());
+
+        assertThatThrownBy(() -> filaService.enfileirar(new PedidoRequestDTO()))
+                .isInstanceOf(FilaCheiaException.class);
+        assertThat(registry.get("delivery_pedidos_fila_rejeitados_total").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("delivery_pedidos_fila_tamanho").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void processarPedidoEnfileirado() throws InterruptedException {
+        String numero = filaService.enfileirar(new PedidoRequestDTO()).getNumeroPedido();
+        PedidoResponseDTO criado = new PedidoResponseDTO();
+        criado.setId(10L);
+        criado.setNumeroPedido(numero);
+        when(pedidoService.criarPedido(any(PedidoRequestDTO.class), anyString())).thenReturn(criado);
+        // Concluído, o processamento sai da memória e a consulta é respondida pelo pedido gravado
+        when(pedidoService.buscarPedidoPorNumero(numero)).thenReturn(criado);
+        filaService.iniciar();
+
+        ProcessamentoPedidoDTO resultado = aguardarConclusao(numero);
+
+        assertThat(resultado.getSituacao()).isEqualTo(SituacaoProcessamento.CONCLUIDO);
+        assertThat(resultado.getPedido().getId()).isEqualTo(10L);
+        verify(pedidoService).criarPedido(any(PedidoRequestDTO.class), eq(numero));
+        verify(pedidoService).buscarPedidoPorNumero(numero);
+        assertThat(registry.get("delivery_pedidos_fila_espera_seconds").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void registrarRejeicaoDeNegocio() throws InterruptedException {
+        when(pedidoService.criarPedido(any(PedidoRequestDTO.class), anyString()))
+                .thenThrow(new BusinessException("Pedido negado: O cliente selecionado está inativo."));
+
+        String numero = filaService.enfileirar(new PedidoRequestDTO()).getNumeroPedido();
+        filaService.iniciar();
+
+        ProcessamentoPedidoDTO resultado = aguardarConclusao(numero);
+
+        assertThat(resultado.getSituacao()).isEqualTo(SituacaoProcessamento.REJEITADO);
+        assertThat(resultado.getErro()).isEqualTo("Pedido negado: O cliente selecionado está inativo.");
+    }
+
+    private ProcessamentoPedidoDTO aguardarConclusao(String numero) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ProcessamentoPedidoDTO atual = filaService.consultar(numero);
+            if (atual.getConcluidoEm() != null) {
+                return atual;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Pedido " + numero + " não foi processado a tempo");
+    }
+}
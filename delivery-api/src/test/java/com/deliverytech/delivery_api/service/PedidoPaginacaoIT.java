@@ -0,0 +1,128 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.CursorResponse;
+import com.deliverytech.delivery_api.dto.response.PagedResponse;
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.util.CursorPedido;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Compara a página 1 e a página 10.000 da listagem por OFFSET com a listagem por cursor.
+// Os tempos são apenas informativos: no H2 em memória a diferença é pequena, em disco o OFFSET cresce com a página.
+@SpringBootTest
+@Transactional
+public class PedidoPaginacaoIT {
+
+    private static final int TAMANHO = 10;
+    private static final int PAGINA_PROFUNDA = 10_000;
+    private static final int PEDIDOS = TAMANHO * (PAGINA_PROFUNDA + 1);
+
+    @Autowired private PedidoService pedidoService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente Paginação");
+        cliente.setEmail("paginacao-" + System.nanoTime() + "@teste.com");
+        cliente.setEndereco("Rua das Páginas, 1");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.saveAndFlush(cliente);
+
+        Restaurante restaurante = new Restaurante();
+        restaurante.setNome("Restaurante Paginação " + System.nanoTime());
+        restaurante.setAtivo(true);
+        restaurante.setTaxaEntrega(BigDecimal.valueOf(5.0));
+        restaurante = restauranteRepository.saveAndFlush(restaurante);
+
+        // Carga direta via JDBC: um pedido por segundo, do mais recente ao mais antigo
+        LocalDateTime base = LocalDateTime.now().minusDays(1);
+        List<Object[]> linhas = new ArrayList<>(PEDIDOS);
+        for (int i = 0; i < PEDIDOS; i++) {
+            linhas.add(new Object[]{1_000_000L + i, Timestamp.valueOf(base.minusSeconds(i)), "Rua das Páginas, 1",
+                    BigDecimal.valueOf(5.0), BigDecimal.valueOf(30.0), "PENDENTE", 0L, cliente.getId(), restaurante.getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedidos (id, data_pedido, endereco_entrega, taxa_entrega, valor_total, " +
+                "status, versao, cliente_id, restaurante_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+    }
+
+    @Test
+    @DisplayName("Cenário: Página profunda por cursor tem o mesmo conteúdo da paginação por OFFSET")
+    void deveRetornarNaPaginaProfundaOMesmoConteudoDoOffset() {
+        Sort ordem = Sort.by(Sort.Order.desc("dataPedido"), Sort.Order.desc("id"));
+
+        // Posição do último item da página anterior à profunda, como um cliente que navegou até ela
+        PagedResponse<PedidoResponseDTO> anterior = pedidoService.listarComFiltrosPaginado(null, null,
+                PageRequest.of(PAGINA_PROFUNDA - 2, TAMANHO, ordem));
+        PedidoResponseDTO ultimo = anterior.getConteudo().get(TAMANHO - 1);
+        String cursorProfundo = new CursorPedido(ultimo.getDataPedido(), ultimo.getId()).codificar();
+
+        PagedResponse<PedidoResponseDTO> offsetProfundo = pedidoService.listarComFiltrosPaginado(null, null,
+                PageRequest.of(PAGINA_PROFUNDA - 1, TAMANHO, ordem));
+        CursorResponse<PedidoResponseDTO> cursorPagina = pedidoService.listarComFiltrosPorCursor(null, null, cursorProfundo, TAMANHO);
+
+        assertThat(cursorPagina.getConteudo()).extracting(PedidoResponseDTO::getId)
+                .containsExactlyElementsOf(offsetProfundo.getConteudo().stream().map(PedidoResponseDTO::getId).toList());
+        assertThat(cursorPagina.getNextCursor()).isNotNull();
+
+        long offsetInicio = medir(() -> pedidoService.listarComFiltrosPaginado(null, null, PageRequest.of(0, TAMANHO, ordem)));
+        long offsetFim = medir(() -> pedidoService.listarComFiltrosPaginado(null, null, PageRequest.of(PAGINA_PROFUNDA - 1, TAMANHO, ordem)));
+        long cursorInicio = medir(() -> pedidoService.listarComFiltrosPorCursor(null, null, null, TAMANHO));
+        long cursorFim = medir(() -> pedidoService.listarComFiltrosPorCursor(null, null, cursorProfundo, TAMANHO));
+
+        System.out.printf("[PAGINACAO] %d pedidos | OFFSET página 1: %d µs, página %d: %d µs | cursor página 1: %d µs, página %d: %d µs%n",
+                PEDIDOS, offsetInicio, PAGINA_PROFUNDA, offsetFim, cursorInicio, PAGINA_PROFUNDA, cursorFim);
+    }
+
+    @Test
+    @DisplayName("Cenário: Seguir o nextCursor percorre os pedidos sem repetir nem pular itens")
+    void devePercorrerPaginasSeguindoONextCursor() {
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        for (int i = 0; i < 5; i++) {
+            CursorResponse<PedidoResponseDTO> pagina = pedidoService.listarComFiltrosPorCursor(null, null, cursor, TAMANHO);
+            pagina.getConteudo().forEach(p -> vistos.add(p.getId()));
+            cursor = pagina.getNextCursor();
+        }
+
+        PagedResponse<PedidoResponseDTO> referencia = pedidoService.listarComFiltrosPaginado(null, null,
+                PageRequest.of(0, TAMANHO * 5, Sort.by(Sort.Order.desc("dataPedido"), Sort.Order.desc("id"))));
+        assertThat(vistos).containsExactlyElementsOf(referencia.getConteudo().stream().map(PedidoResponseDTO::getId).toList());
+    }
+
+    // Mediana de algumas execuções, após aquecimento, em microssegundos
+    private long medir(Supplier<?> consulta) {
+        for (int i = 0; i < 3; i++) consulta.get();
+        long[] tempos = new long[7];
+        for (int i = 0; i < tempos.length; i++) {
+            long inicio = System.nanoTime();
+            consulta.get();
+            tempos[i] = (System.nanoTime() - inicio) / 1_000;
+        }
+        Arrays.sort(tempos);
+        return tempos[tempos.length / 2];
+    }
+}
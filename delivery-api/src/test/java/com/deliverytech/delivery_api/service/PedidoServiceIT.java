@@ -0,0 +1,187 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.config.ContadorSqlInspector;
+import com.deliverytech.delivery_api.dto.request.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.ResultadoLotePedidoDTO;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ItemPedidoRespository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+@SpringBootTest(properties = {ContadorSqlInspector.PROPRIEDADE, "delivery.clientes-distintos.gravacao-ms=86400000"})
+@Transactional
+public class PedidoServiceIT {
+
+    @Autowired private PedidoService pedidoService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private ItemPedidoRespository itemPedidoRespository;
+
+    private Cliente clienteSalvo;
+    private Restaurante restauranteSalvo;
+    private Restaurante outroRestaurante;
+    private final List<Produto> produtos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Cliente c = new Cliente();
+        c.setNome("Cliente Carrinho");
+        c.setEmail("carrinho@teste.com");
+        c.setEndereco("Rua do Carrinho, 12");
+        c.setAtivo(true);
+        clienteSalvo = clienteRepository.save(c);
+
+        restauranteSalvo = restauranteRepository.save(criarRestaurante("Cantina Teste"));
+        outroRestaurante = restauranteRepository.save(criarRestaurante("Outro Restaurante"));
+
+        for (int i = 0; i < 12; i++) {
+            produtos.add(produtoRepository.save(criarProduto("Prato " + i, restauranteSalvo, true)));
+        }
+    }
+
+    @Test
+    @DisplayName("Cenário: Quantidade de SELECTs por pedido não cresce com o tamanho do carrinho")
+    void deveManterConsultasConstantesPorPedido() {
+        List<Integer> selectsPorCarrinho = new ArrayList<>();
+
+        for (int tamanho : new int[]{1, 6, 12}) {
+            ContadorSqlInspector.zerar();
+            pedidoService.criarPedido(criarPedidoDTO(produtos.subList(0, tamanho)));
+            selectsPorCarrinho.add(ContadorSqlInspector.selects());
+        }
+
+        assertThat(selectsPorCarrinho).containsOnly(selectsPorCarrinho.get(0));
+        assertThat(selectsPorCarrinho.get(0)).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Cenário: Mensagens de validação dos itens são preservadas")
+    void deveManterMensagensDeValidacao() {
+        Produto indisponivel = produtoRepository.save(criarProduto("Sobremesa", restauranteSalvo, false));
+        Produto deOutroRestaurante = produtoRepository.save(criarProduto("Sushi", outroRestaurante, true));
+
+        assertThatThrownBy(() -> pedidoService.criarPedido(criarPedidoDTO(List.of(produtos.get(0), indisponivel))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("O produto Sobremesa não está disponível para pedidos.");
+
+        assertThatThrownBy(() -> pedidoService.criarPedido(criarPedidoDTO(List.of(deOutroRestaurante))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("O produto Sushi não pertence ao restaurante Cantina Teste");
+
+        PedidoRequestDTO inexistente = criarPedidoDTO(List.of(produtos.get(0)));
+        inexistente.getItens().get(0).setProdutoId(-1L);
+        assertThatThrownBy(() -> pedidoService.criarPedido(inexistente))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Produto ID -1 não existe.");
+    }
+
+    @Test
+    @DisplayName("Cenário: Lote usa consultas compartilhadas e grava pedidos e itens")
+    void deveCriarLoteComConsultasCompartilhadas() {
+        int quantidade = 50;
+        List<PedidoRequestDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            dtos.add(criarPedidoDTO(produtos.subList(0, 6)));
+        }
+
+        ContadorSqlInspector.zerar();
+        long inicioUnitario = System.nanoTime();
+        dtos.forEach(pedidoService::criarPedido);
+        long tempoUnitario = System.nanoTime() - inicioUnitario;
+        int selectsUnitario = ContadorSqlInspector.selects();
+
+        ContadorSqlInspector.zerar();
+        long inicioLote = System.nanoTime();
+        List<ResultadoLotePedidoDTO> resultados = pedidoService.criarPedidosEmLote(dtos);
+        long tempoLote = System.nanoTime() - inicioLote;
+        int selectsLote = ContadorSqlInspector.selects();
+        // Os ids vêm das sequences em faixas de 50: quantas buscas caem no lote depende de onde a faixa parou
+        long sequencesLote = ContadorSqlInspector.comandos().stream()
+                .filter(sql -> sql.toLowerCase().contains("next value for")).count();
+
+        System.out.printf("[LOTE] %d pedidos | unitário: %d ms, %d SELECTs | lote: %d ms, %d SELECTs (%d de sequences)%n",
+                quantidade, tempoUnitario / 1_000_000, selectsUnitario, tempoLote / 1_000_000, selectsLote, sequencesLote);
+
+        assertThat(resultados).hasSize(quantidade).allMatch(ResultadoLotePedidoDTO::isSucesso);
+        assertThat(selectsUnitario).isGreaterThanOrEqualTo(quantidade);
+        // Cliente, restaurantes e produtos em uma consulta cada; ids de 50 pedidos e 300 itens em até 1 + 6 faixas e
+        // mais uma para cada faixa começada antes do lote
+        assertThat(selectsLote - sequencesLote).isLessThanOrEqualTo(3);
+        assertThat(sequencesLote).isLessThanOrEqualTo(quantidade / 50 + quantidade * 6 / 50 + 2);
+
+        Long pedidoId = resultados.get(0).getPedido().getId();
+        assertThat(itemPedidoRespository.findByPedidoId(pedidoId)).hasSize(6);
+    }
+
+    @Test
+    @DisplayName("Cenário: Falhas no lote são reportadas por pedido sem impedir os demais")
+    void deveReportarFalhasPorPedidoNoLote() {
+        PedidoRequestDTO valido = criarPedidoDTO(produtos.subList(0, 2));
+        PedidoRequestDTO clienteInexistente = criarPedidoDTO(produtos.subList(0, 1));
+        clienteInexistente.setClienteId(-1L);
+        PedidoRequestDTO semEndereco = criarPedidoDTO(produtos.subList(0, 1));
+        semEndereco.setEnderecoEntrega(null);
+
+        List<ResultadoLotePedidoDTO> resultados = pedidoService.criarPedidosEmLote(List.of(valido, clienteInexistente, semEndereco));
+
+        assertThat(resultados.get(0).isSucesso()).isTrue();
+        assertThat(resultados.get(1).getErro()).isEqualTo("Cliente não encontrado com ID: -1");
+        assertThat(resultados.get(2).isSucesso()).isFalse();
+        assertThat(resultados.get(2).getIndice()).isEqualTo(2);
+    }
+
+    private PedidoRequestDTO criarPedidoDTO(List<Produto> itens) {
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setClienteId(clienteSalvo.getId());
+        dto.setRestauranteId(restauranteSalvo.getId());
+        dto.setEnderecoEntrega("Rua do Carrinho, 12");
+
+        List<ItemPedidoRequestDTO> itensDto = new ArrayList<>();
+        for (Produto produto : itens) {
+            ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+            item.setProdutoId(produto.getId());
+            item.setQuantidade(2);
+            itensDto.add(item);
+        }
+        dto.setItens(itensDto);
+        return dto;
+    }
+
+    private Restaurante criarRestaurante(String nome) {
+        Restaurante r = new Restaurante();
+        r.setNome(nome);
+        r.setAtivo(true);
+        r.setTaxaEntrega(BigDecimal.valueOf(5.0));
+        return r;
+    }
+
+    private Produto criarProduto(String nome, Restaurante restaurante, boolean disponivel) {
+        Produto p = new Produto();
+        p.setNome(nome);
+        p.setPreco(BigDecimal.valueOf(20.0));
+        p.setCategoria("Pratos");
+        p.setDisponivel(disponivel);
+        p.setRestaurante(restaurante);
+        return p;
+    }
+}
@@ -2,18 +2,27 @@ package com.deliverytech.delivery_api.service;
 
 import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
 import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.exeption.ConflitoException;
+import com.deliverytech.delivery_api.event.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.mapper.PedidoMapper;
 import com.deliverytech.delivery_api.model.Pedido;
+import com.deliverytech.delivery_api.model.Restaurante;
 import com.deliverytech.delivery_api.repository.PedidoRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -21,44 +30,127 @@ import static org.mockito.Mockito.*;
 class PedidoServiceTest {
 
     @Mock private PedidoRepository pedidoRepository;
-    @Mock private ModelMapper modelMapper;
+    @Mock private PedidoMapper pedidoMapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private VendasRestauranteService vendasRestauranteService;
+    @Mock private RollupService rollupService;
 
     @InjectMocks
     private PedidoService pedidoService;
 
+    private static final LocalDateTime DATA_PEDIDO = LocalDateTime.of(2024, 5, 10, 12, 0);
+
     @Test
     void buscarPedidoPorId() {
 
         Pedido pedido = new Pedido();
         pedido.setId(1L);
 
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
-        when(modelMapper.map(any(), eq(PedidoResponseDTO.class))).thenReturn(new PedidoResponseDTO());
+        when(pedidoRepository.findDetalhadoById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoMapper.paraResposta(any())).thenReturn(new PedidoResponseDTO());
 
         var resultado = pedidoService.buscarPedidoPorId(1L);
 
         assertThat(resultado).isNotNull();
+        verify(pedidoRepository).carregarItens(List.of(1L));
     }
 
     @Test
     void atualizarStatusPedido() {
+        Restaurante restaurante = new Restaurante();
+        restaurante.setId(7L);
         Pedido pedido = new Pedido();
         pedido.setId(1L);
         pedido.setStatus(StatusPedidos.PENDENTE);
+        pedido.setVersao(0L);
+        pedido.setDataPedido(DATA_PEDIDO);
+        pedido.setRestaurante(restaurante);
+
+        when(pedidoRepository.findDetalhadoById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(StatusPedidos.CONFIRMADO), eq(Set.of(StatusPedidos.PENDENTE)), eq(0L)))
+                .thenReturn(1);
+        when(pedidoMapper.paraResposta(pedido)).thenReturn(new PedidoResponseDTO());
+
+        PedidoResponseDTO resposta = pedidoService.atualizarStatusPedido(1L, StatusPedidos.CONFIRMADO);
+
+        assertThat(resposta.getStatus()).isEqualTo(StatusPedidos.CONFIRMADO);
+        assertThat(resposta.getVersao()).isEqualTo(1L);
+        verify(pedidoRepository, times(1)).findDetalhadoById(1L);
+        verify(pedidoRepository, never()).findSituacaoById(any());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(eventPublisher).publishEvent(new PedidoStatusAlteradoEvent(7L, 1L, null, StatusPedidos.CONFIRMADO, 1L, DATA_PEDIDO));
+        verify(vendasRestauranteService, never()).registrarCancelamento(any());
+        verify(rollupService).registrarTransicao(1L, DATA_PEDIDO, StatusPedidos.PENDENTE, StatusPedidos.CONFIRMADO);
+    }
+
+    @Test
+    void cancelarPedidoDescontaVendasDoRestaurante() {
+        PedidoRepository.SituacaoPedido situacao = situacao(StatusPedidos.PENDENTE, 0L);
+        when(pedidoRepository.findSituacaoById(1L)).thenReturn(Optional.of(situacao));
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(StatusPedidos.CANCELADO), eq(Set.of(StatusPedidos.PENDENTE)), eq(0L))).thenReturn(1);
+
+        pedidoService.cancelarPedido(1L);
+
+        verify(pedidoRepository, times(1)).findSituacaoById(1L);
+        verify(vendasRestauranteService).registrarCancelamento(1L);
+        verify(rollupService).registrarTransicao(1L, DATA_PEDIDO, StatusPedidos.PENDENTE, StatusPedidos.CANCELADO);
+        verify(eventPublisher).publishEvent(new PedidoStatusAlteradoEvent(7L, 1L, null, StatusPedidos.CANCELADO, 1L, DATA_PEDIDO));
+    }
+
+    @Test
+    void recusarTransicaoJaAplicada() {
+        PedidoRepository.SituacaoPedido situacao = situacao(StatusPedidos.CONFIRMADO, 1L);
+        when(pedidoRepository.findSituacaoById(1L)).thenReturn(Optional.of(situacao));
+
+        assertThatThrownBy(() -> pedidoService.cancelarPedido(1L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Transição de status não permitida: CONFIRMADO -> CANCELADO (permitida a partir de PENDENTE).");
+        verify(pedidoRepository, never()).atualizarStatus(any(), any(), any(), any());
+        verify(vendasRestauranteService, never()).registrarCancelamento(any());
+        verify(rollupService, never()).registrarTransicao(any(), any(), any(), any());
+    }
+
+    @Test
+    void recusarTransicaoConcorrenteJaAplicada() {
+        // Lido como PENDENTE; outra operação confirma antes do UPDATE
+        PedidoRepository.SituacaoPedido lida = situacao(StatusPedidos.PENDENTE, 0L);
+        PedidoRepository.SituacaoPedido relida = situacao(StatusPedidos.CONFIRMADO, 1L);
+        when(pedidoRepository.findSituacaoById(1L)).thenReturn(Optional.of(lida), Optional.of(relida));
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(StatusPedidos.CANCELADO), any(), eq(0L))).thenReturn(0);
+
+        assertThatThrownBy(() -> pedidoService.cancelarPedido(1L))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("CONFIRMADO -> CANCELADO");
+        verify(rollupService, never()).registrarTransicao(any(), any(), any(), any());
+    }
 
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
-        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(i -> i.getArgument(0));
+    @Test
+    void recusarStatusRepetido() {
+        PedidoRepository.SituacaoPedido situacao = situacao(StatusPedidos.CANCELADO, 1L);
+        when(pedidoRepository.findSituacaoById(1L)).thenReturn(Optional.of(situacao));
 
-        pedidoService.atualizarStatusPedido(1L, StatusPedidos.CONFIRMADO);
+        assertThatThrownBy(() -> pedidoService.cancelarPedido(1L))
+                .isInstanceOf(ConflitoException.class);
+    }
 
-        assertThat(pedido.getStatus()).isEqualTo(StatusPedidos.CONFIRMADO);
-        verify(pedidoRepository).save(any(Pedido.class));
+    @Test
+    void recusarVersaoDesatualizada() {
+        Pedido pedido = new Pedido();
+        pedido.setId(1L);
+        pedido.setStatus(StatusPedidos.PENDENTE);
+        pedido.setVersao(3L);
+        when(pedidoRepository.findDetalhadoById(1L)).thenReturn(Optional.of(pedido));
+
+        assertThatThrownBy(() -> pedidoService.atualizarStatusPedido(1L, StatusPedidos.CONFIRMADO, 2L))
+                .isInstanceOf(ConflitoException.class)
+                .hasMessageContaining("versão atual: 3");
+        verify(pedidoRepository, never()).atualizarStatus(any(), any(), any(), any());
     }
 
     @Test
     void verificarSePedidoExisteNoRepository() {
 
-        when(pedidoRepository.findById(99L)).thenReturn(Optional.empty());
+        when(pedidoRepository.findDetalhadoById(99L)).thenReturn(Optional.empty());
 
         try {
             pedidoService.buscarPedidoPorId(99L);
@@ -66,6 +158,15 @@ class PedidoServiceTest {
             assertThat(e).isNotNull();
         }
 
-        verify(pedidoRepository).findById(99L);
+        verify(pedidoRepository).findDetalhadoById(99L);
+    }
+
+    private static PedidoRepository.SituacaoPedido situacao(StatusPedidos status, Long versao) {
+        PedidoRepository.SituacaoPedido situacao = mock(PedidoRepository.SituacaoPedido.class);
+        lenient().when(situacao.getStatus()).thenReturn(status);
+        lenient().when(situacao.getVersao()).thenReturn(versao);
+        lenient().when(situacao.getRestauranteId()).thenReturn(7L);
+        lenient().when(situacao.getDataPedido()).thenReturn(DATA_PEDIDO);
+        return situacao;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.RankingDTO;
+import com.deliverytech.delivery_api.dto.response.RankingItemDTO;
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent.ProdutoVendido;
+import com.deliverytech.delivery_api.exeption.BusinessException;
+import com.deliverytech.delivery_api.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RankingServiceTest {
+
+    @Mock private PedidoRepository pedidoRepository;
+
+    private RankingService rankingService;
+
+    @BeforeEach
+    void setUp() {
+        rankingService = new RankingService(pedidoRepository, 100, 50);
+
+        registrar(1L, 10L, "Ana", new ProdutoVendido(100L, "Pizza", 2));
+        registrar(1L, 10L, "Ana", new ProdutoVendido(101L, "Refrigerante", 1), new ProdutoVendido(100L, "Pizza", 1));
+        registrar(2L, 11L, "Bruno", new ProdutoVendido(200L, "Sushi", 5));
+    }
+
+    @Test
+    void ranquearProdutosNoGeralEPorRestaurante() {
+        RankingDTO geral = rankingService.produtosMaisVendidos(null, JanelaRanking.TOTAL, 10, false);
+        RankingDTO restaurante = rankingService.produtosMaisVendidos(1L, JanelaRanking.HORA, 10, false);
+
+        assertThat(geral.isExato()).isFalse();
+        assertThat(geral.getErroMaximo()).isZero();
+        assertThat(geral.getItens()).extracting(RankingItemDTO::getNome, RankingItemDTO::getTotal)
+                .containsExactly(tuple("Sushi", 5L), tuple("Pizza", 3L), tuple("Refrigerante", 1L));
+        assertThat(restaurante.getItens()).extracting(RankingItemDTO::getId).containsExactly(100L, 101L);
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    @Test
+    void ranquearClientesPorPedidos() {
+        RankingDTO ranking = rankingService.clientesMaisAtivos(null, JanelaRanking.DIA, 1, false);
+
+        assertThat(ranking.getItens()).extracting(RankingItemDTO::getNome, RankingItemDTO::getTotal, RankingItemDTO::getErro)
+                .containsExactly(tuple("Ana", 2L, 0L));
+    }
+
+    @Test
+    void responderVazioParaRestauranteSemPedidos() {
+        assertThat(rankingService.clientesMaisAtivos(99L, JanelaRanking.TOTAL, 10, false).getItens()).isEmpty();
+    }
+
+    @Test
+    void consultarBancoQuandoExato() {
+        List<RankingItemDTO> exatos = List.of(new RankingItemDTO(100L, "Pizza", 3L, 0L));
+        when(pedidoRepository.rankingProdutos(eq(1L), any(), eq(Limit.of(5)))).thenReturn(exatos);
+        when(pedidoRepository.rankingClientes(isNull(), isNull(), eq(Limit.of(5)))).thenReturn(List.of());
+
+        RankingDTO produtos = rankingService.produtosMaisVendidos(1L, JanelaRanking.HORA, 5, true);
+        rankingService.clientesMaisAtivos(null, JanelaRanking.TOTAL, 5, true);
+
+        assertThat(produtos.isExato()).isTrue();
+        assertThat(produtos.getItens()).isSameAs(exatos);
+        verify(pedidoRepository).rankingClientes(isNull(), isNull(), eq(Limit.of(5)));
+    }
+
+    @Test
+    void recusarLimiteForaDoIntervalo() {
+        assertThatThrownBy(() -> rankingService.produtosMaisVendidos(null, JanelaRanking.TOTAL, 0, false))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> rankingService.clientesMaisAtivos(null, JanelaRanking.TOTAL, RankingService.LIMITE_MAXIMO + 1, true))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private void registrar(Long restauranteId, Long clienteId, String nomeCliente, ProdutoVendido... produtos) {
+        rankingService.aoCriarPedido(new PedidoCriadoEvent(restauranteId, clienteId, nomeCliente, List.of(produtos), null));
+    }
+}
@@ -0,0 +1,108 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.PedidoResponseDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.JanelaRanking;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.event.PedidoCriadoEvent;
+import com.deliverytech.delivery_api.event.PedidoStatusAlteradoEvent;
+import com.deliverytech.delivery_api.health.DeliveryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RelatorioCacheServiceTest {
+
+    private static final LocalDateTime JANEIRO = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime FEVEREIRO = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Mock private RelatorioService relatorioService;
+
+    private MeterRegistry registry;
+    private RelatorioCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cacheService = new RelatorioCacheService(relatorioService, new DeliveryMetrics(registry), 60, 100);
+    }
+
+    @Test
+    void repetirRelatorioSemRecalcularEExporTaxaDeAcerto() {
+        when(relatorioService.vendasPorPeriodo(JANEIRO, FEVEREIRO, AgrupamentoVendas.RESTAURANTE, 1L, null)).thenReturn(List.of());
+
+        var primeiro = cacheService.vendasPorPeriodo(JANEIRO, FEVEREIRO, AgrupamentoVendas.RESTAURANTE, 1L, null);
+        var segundo = cacheService.vendasPorPeriodo(JANEIRO, FEVEREIRO, AgrupamentoVendas.RESTAURANTE, 1L, null);
+
+        assertThat(segundo).isSameAs(primeiro);
+        assertThat(segundo.idadeSegundos()).isZero();
+        verify(relatorioService, times(1)).vendasPorPeriodo(any(), any(), any(), any(), any());
+        assertThat(registry.get("delivery_cache_taxa_acerto").tag("cache", "relatorios").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void invalidarSoOsRelatoriosQuePodemIncluirOPedido() {
+        when(relatorioService.vendasPorPeriodo(any(), any(), any(), any(), any())).thenReturn(List.of());
+        when(relatorioService.totalVendasPorRestaurante()).thenReturn(List.of());
+
+        consultarTodos();
+        // Pedido do restaurante 2 em março: só o relatório sem período (totais) é afetado
+        cacheService.aoAlterarStatus(new PedidoStatusAlteradoEvent(2L, 10L, "PED-10", StatusPedidos.CANCELADO, 1L,
+                LocalDateTime.of(2025, 3, 5, 12, 0)));
+        consultarTodos();
+        verify(relatorioService, times(2)).totalVendasPorRestaurante();
+        verify(relatorioService, times(2)).vendasPorPeriodo(any(), any(), any(), any(), any());
+
+        // Pedido do restaurante 2 em janeiro: período de todos e do restaurante 2, mas não o do restaurante 1
+        cacheService.aoCriarPedido(new PedidoCriadoEvent(2L, 5L, "Cliente", List.of(), pedidoEm(JANEIRO.plusDays(3))));
+        consultarTodos();
+        verify(relatorioService, times(3)).totalVendasPorRestaurante();
+        verify(relatorioService, times(1)).vendasPorPeriodo(any(), any(), any(), eq(1L), any());
+        verify(relatorioService, times(2)).vendasPorPeriodo(any(), any(), any(), eq(2L), any());
+    }
+
+    @Test
+    void naoGuardarPedidosPorPeriodo() {
+        when(relatorioService.pedidosPorPeriodo(JANEIRO, FEVEREIRO)).thenReturn(List.of());
+
+        cacheService.pedidosPorPeriodo(JANEIRO, FEVEREIRO);
+        cacheService.pedidosPorPeriodo(JANEIRO, FEVEREIRO);
+
+        verify(relatorioService, times(2)).pedidosPorPeriodo(JANEIRO, FEVEREIRO);
+    }
+
+    @Test
+    void naoGuardarRankingsEstimados() {
+        cacheService.produtosMaisVendidos(null, JanelaRanking.DIA, 10, false);
+        cacheService.produtosMaisVendidos(null, JanelaRanking.DIA, 10, false);
+        cacheService.clientesMaisAtivos(null, JanelaRanking.DIA, 10, true);
+        cacheService.clientesMaisAtivos(null, JanelaRanking.DIA, 10, true);
+
+        verify(relatorioService, times(2)).produtosMaisVendidos(null, JanelaRanking.DIA, 10, false);
+        verify(relatorioService, times(1)).clientesMaisAtivos(null, JanelaRanking.DIA, 10, true);
+    }
+
+    private void consultarTodos() {
+        cacheService.totalVendasPorRestaurante();
+        cacheService.vendasPorPeriodo(JANEIRO, FEVEREIRO, AgrupamentoVendas.PRODUTO, 1L, null);
+        cacheService.vendasPorPeriodo(JANEIRO, FEVEREIRO, AgrupamentoVendas.PRODUTO, 2L, null);
+    }
+
+    private PedidoResponseDTO pedidoEm(LocalDateTime data) {
+        PedidoResponseDTO pedido = new PedidoResponseDTO();
+        pedido.setDataPedido(data);
+        return pedido;
+    }
+}
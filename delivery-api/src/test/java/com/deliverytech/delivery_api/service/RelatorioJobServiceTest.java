@@ -0,0 +1,140 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.request.RelatorioJobRequestDTO;
+import com.deliverytech.delivery_api.dto.response.RelatorioJobDTO;
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.SituacaoRelatorio;
+import com.deliverytech.delivery_api.exeption.ConflitoException;
+import com.deliverytech.delivery_api.exeption.EntityNotFoundException;
+import com.deliverytech.delivery_api.exeption.LimiteExcedidoException;
+import com.deliverytech.delivery_api.service.RelatorioJobService.Parte;
+import com.deliverytech.delivery_api.util.SecurityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RelatorioJobServiceTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 1, 10, 30);
+    private static final LocalDateTime FIM = LocalDateTime.of(2025, 1, 20, 5, 0);
+
+    @Mock private RelatorioService relatorioService;
+    @Mock private SecurityUtils securityUtils;
+
+    private RelatorioJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new RelatorioJobService(relatorioService, securityUtils, 2, 1, 7, 60);
+        lenient().when(securityUtils.getCurrentUsername()).thenReturn("ana@teste.com");
+        lenient().when(securityUtils.hasRole(anyString())).thenReturn(false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.parar();
+    }
+
+    @Test
+    void dividirPeriodoEmPartesAlinhadasAoDia() {
+        assertThat(jobService.dividir(INICIO, FIM)).containsExactly(
+                new Parte(INICIO, LocalDateTime.of(2025, 1, 8, 0, 0)),
+                new Parte(LocalDateTime.of(2025, 1, 8, 0, 0), LocalDateTime.of(2025, 1, 15, 0, 0)),
+                new Parte(LocalDateTime.of(2025, 1, 15, 0, 0), FIM));
+    }
+
+    @Test
+    void somarPartesDoPeriodo() throws InterruptedException {
+        when(relatorioService.vendasPorPeriodo(any(), any(), eq(AgrupamentoVendas.RESTAURANTE), isNull(), isNull()))
+                .thenAnswer(inv -> List.of(vendas(1L, 2L, "10.00"), vendas(2L, 1L, "4.50")));
+        when(relatorioService.mesclarVendas(any())).thenCallRealMethod();
+
+        String id = jobService.submeter(definicao()).getId();
+        RelatorioJobDTO job = aguardarConclusao(id);
+
+        assertThat(job.getSituacao()).isEqualTo(SituacaoRelatorio.CONCLUIDO);
+        assertThat(job.getPartesConcluidas()).isEqualTo(3).isEqualTo(job.getTotalPartes());
+        List<VendasAgrupadasDTO> resultado = jobService.resultado(id);
+        assertThat(resultado).extracting(VendasAgrupadasDTO::getId).containsExactly(1L, 2L);
+        assertThat(resultado.get(0).getQuantidadePedidos()).isEqualTo(6L);
+        assertThat(resultado.get(0).getReceita()).isEqualByComparingTo("30.00");
+        assertThat(resultado.get(1).getReceita()).isEqualByComparingTo("13.50");
+        verify(relatorioService).vendasPorPeriodo(eq(INICIO), eq(LocalDateTime.of(2025, 1, 8, 0, 0)), any(), any(), any());
+    }
+
+    @Test
+    void recusarAcimaDoLimitePorUsuarioECancelar() throws InterruptedException {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(relatorioService.vendasPorPeriodo(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+            iniciado.countDown();
+            liberar.await();
+            return List.of();
+        });
+
+        String id = jobService.submeter(definicao()).getId();
+        // Cancelar antes de a primeira parte começar deixaria o stub sem uso (UnnecessaryStubbingException)
+        assertThat(iniciado.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> jobService.submeter(definicao()))
+                .isInstanceOf(LimiteExcedidoException.class);
+        assertThatThrownBy(() -> jobService.resultado(id))
+                .isInstanceOf(ConflitoException.class);
+
+        // Outro usuário não vê o job nem é afetado pelo limite de quem o criou
+        when(securityUtils.getCurrentUsername()).thenReturn("bruno@teste.com");
+        assertThatThrownBy(() -> jobService.consultar(id)).isInstanceOf(EntityNotFoundException.class);
+
+        when(securityUtils.getCurrentUsername()).thenReturn("ana@teste.com");
+        RelatorioJobDTO cancelado = jobService.cancelar(id);
+        liberar.countDown();
+
+        assertThat(cancelado.getSituacao()).isEqualTo(SituacaoRelatorio.CANCELADO);
+        assertThat(cancelado.getConcluidoEm()).isNotNull();
+        assertThatThrownBy(() -> jobService.cancelar(id)).isInstanceOf(ConflitoException.class);
+        assertThat(jobService.submeter(definicao()).getId()).isNotEqualTo(id); // o cancelado não conta mais no limite
+    }
+
+    private RelatorioJobRequestDTO definicao() {
+        RelatorioJobRequestDTO dto = new RelatorioJobRequestDTO();
+        dto.setInicio(INICIO);
+        dto.setFim(FIM);
+        return dto;
+    }
+
+    private VendasAgrupadasDTO vendas(Long restauranteId, Long pedidos, String receita) {
+        VendasAgrupadasDTO dto = new VendasAgrupadasDTO();
+        dto.setId(restauranteId);
+        dto.setGrupo("Restaurante " + restauranteId);
+        dto.setQuantidadePedidos(pedidos);
+        dto.setReceita(new BigDecimal(receita));
+        return dto;
+    }
+
+    private RelatorioJobDTO aguardarConclusao(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            RelatorioJobDTO atual = jobService.consultar(id);
+            if (atual.getConcluidoEm() != null) {
+                return atual;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Relatório " + id + " não foi concluído a tempo");
+    }
+}
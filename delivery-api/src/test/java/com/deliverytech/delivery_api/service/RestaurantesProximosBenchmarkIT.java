@@ -0,0 +1,103 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.RestauranteResponseDTO;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.util.IndiceGeografico;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Benchmark da busca de restaurantes próximos pelo índice em grade contra a varredura de todos os restaurantes
+// (findAll + distância a cada um, como fazia a busca por prefixo do CEP). Só roda quando pedido:
+// mvn test -Dtest=RestaurantesProximosBenchmarkIT -Dbenchmark.geo.restaurantes=100000
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark.geo.restaurantes", matches = "\\d+")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class RestaurantesProximosBenchmarkIT {
+
+    private static final int BUSCAS = 200;
+    private static final int LIMITE = 20;
+
+    @Autowired private RestauranteProximidadeService proximidadeService;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Benchmark: busca por raio no índice com o mesmo resultado da varredura completa")
+    void compararIndiceComVarredura() {
+        int restaurantes = Integer.getInteger("benchmark.geo.restaurantes");
+        carregar(restaurantes);
+
+        long t0 = System.nanoTime();
+        proximidadeService.reconstruirIndice();
+        System.out.printf("[GEO] %d restaurantes indexados em %d ms%n", restaurantes, (System.nanoTime() - t0) / 1_000_000);
+
+        Random aleatorio = new Random(23);
+        for (double raioKm : new double[]{1, 5, 20}) {
+            long tempoIndice = 0;
+            long tempoVarredura = 0;
+            for (int i = 0; i < BUSCAS; i++) {
+                double latitude = -23.8 + aleatorio.nextDouble() * 0.6;
+                double longitude = -46.9 + aleatorio.nextDouble() * 0.6;
+
+                long inicio = System.nanoTime();
+                List<RestauranteResponseDTO> indice = proximidadeService.buscarProximos("01310-100", latitude, longitude, raioKm, LIMITE);
+                tempoIndice += System.nanoTime() - inicio;
+
+                // A varredura só é medida em parte das buscas: cada uma lê todos os restaurantes do banco
+                if (i % 20 == 0) {
+                    inicio = System.nanoTime();
+                    List<Long> varredura = varrer(latitude, longitude, raioKm);
+                    tempoVarredura += (System.nanoTime() - inicio) * 20;
+                    assertThat(indice).extracting(RestauranteResponseDTO::getId).containsExactlyElementsOf(varredura);
+                }
+            }
+            System.out.printf("[GEO] raio %4.1f km | índice %8.3f ms/busca | varredura %8.3f ms/busca%n",
+                    raioKm, tempoIndice / 1e6 / BUSCAS, tempoVarredura / 1e6 / BUSCAS);
+        }
+    }
+
+    private List<Long> varrer(double latitude, double longitude, double raioKm) {
+        record Distancia(Long id, double km) {}
+        List<Distancia> candidatos = new ArrayList<>();
+        for (Restaurante r : restauranteRepository.findAll()) {
+            if (Boolean.TRUE.equals(r.getAtivo()) && r.getLatitude() != null) {
+                double km = IndiceGeografico.distanciaKm(latitude, longitude, r.getLatitude(), r.getLongitude());
+                if (km <= raioKm) {
+                    candidatos.add(new Distancia(r.getId(), km));
+                }
+            }
+        }
+        return candidatos.stream()
+                .sorted(Comparator.comparingDouble(Distancia::km).thenComparing(Distancia::id))
+                .limit(LIMITE)
+                .map(Distancia::id)
+                .toList();
+    }
+
+    // Restaurantes espalhados pela região metropolitana de São Paulo; 1 em cada 10 inativo
+    private void carregar(int restaurantes) {
+        Random aleatorio = new Random(11);
+        List<Object[]> lote = new ArrayList<>();
+        for (int i = 0; i < restaurantes; i++) {
+            lote.add(new Object[]{1_000_000L + i, "Restaurante Geo " + i, i % 10 != 0,
+                    -23.8 + aleatorio.nextDouble() * 0.6, -46.9 + aleatorio.nextDouble() * 0.6});
+            if (lote.size() == 10_000 || i == restaurantes - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO restaurantes (id, nome, ativo, latitude, longitude) VALUES (?, ?, ?, ?, ?)", lote);
+                lote.clear();
+            }
+        }
+    }
+}
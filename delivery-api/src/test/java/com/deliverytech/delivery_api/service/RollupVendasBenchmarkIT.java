@@ -0,0 +1,141 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.service.RelatorioService.PlanoVendas;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Benchmark do relatório de vendas com rollups contra a consulta direta aos pedidos, para um ano de pedidos.
+// Só roda quando pedido: mvn test -Dtest=RollupVendasBenchmarkIT -Dbenchmark.rollup.pedidos=10000000 (o H2 em memória
+// precisa de heap proporcional à carga). A carga é gravada sem transação de teste; o contexto é descartado ao final.
+@SpringBootTest(properties = "delivery.rollup.intervalo-ms=86400000")
+@EnabledIfSystemProperty(named = "benchmark.rollup.pedidos", matches = "\\d+")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class RollupVendasBenchmarkIT {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int DIAS = 365;
+    private static final int RESTAURANTES = 50;
+    private static final int PRODUTOS_POR_RESTAURANTE = 20;
+    private static final String[] CATEGORIAS = {"Pizzas", "Lanches", "Japonesa", "Bebidas", "Sobremesas", "Saladas", "Massas", "Carnes"};
+
+    @Autowired private RelatorioService relatorioService;
+    @Autowired private RollupService rollupService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Benchmark: períodos de 1 a 365 dias respondidos pelos rollups com o mesmo resultado dos pedidos")
+    void compararRollupsComPedidos() {
+        int pedidos = Integer.getInteger("benchmark.rollup.pedidos");
+        carregar(pedidos);
+
+        LocalDateTime limite = BASE.plusDays(DIAS).minusHours(5);
+        long inicioCompactacao = System.nanoTime();
+        rollupService.compactar(limite);
+        System.out.printf("[ROLLUP] %d pedidos compactados em %d ms (%d linhas de pedidos, %d de itens)%n", pedidos,
+                (System.nanoTime() - inicioCompactacao) / 1_000_000,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rollup_pedidos", Long.class),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rollup_itens", Long.class));
+
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        LocalDateTime meioDoAno = BASE.plusDays(DIAS / 2).plusMinutes(17).plusSeconds(3);
+        for (int dias : new int[]{1, 7, 30, DIAS}) {
+            // Pontas fora de hora cheia; o período do ano inteiro vai além da marca (cauda bruta)
+            LocalDateTime inicio = dias == DIAS ? BASE.plusMinutes(17) : meioDoAno.minusDays(dias / 2);
+            LocalDateTime fim = dias == DIAS ? limite.plusHours(3).plusMinutes(11) : inicio.plusDays(dias).plusMinutes(29);
+            for (AgrupamentoVendas agrupamento : List.of(AgrupamentoVendas.RESTAURANTE, AgrupamentoVendas.CATEGORIA)) {
+                // O H2 reaproveita o resultado de um SELECT repetido: cada medição desloca o início em um segundo
+                List<VendasAgrupadasDTO> planejado = null;
+                List<VendasAgrupadasDTO> bruto = null;
+                long tempoRollups = Long.MAX_VALUE;
+                long tempoPedidos = Long.MAX_VALUE;
+                for (int repeticao = 1; repeticao <= 3; repeticao++) {
+                    LocalDateTime deslocado = inicio.plusSeconds(repeticao);
+                    long t0 = System.nanoTime();
+                    planejado = leitura.execute(status -> relatorioService.vendasPorPeriodo(deslocado, fim, agrupamento, null, null));
+                    tempoRollups = Math.min(tempoRollups, System.nanoTime() - t0);
+                }
+                for (int repeticao = 3; repeticao >= 2; repeticao--) {
+                    LocalDateTime deslocado = inicio.plusSeconds(repeticao);
+                    long t0 = System.nanoTime();
+                    bruto = leitura.execute(status -> relatorioService.vendas(PlanoVendas.bruto(deslocado, fim), agrupamento, null, null));
+                    tempoPedidos = Math.min(tempoPedidos, System.nanoTime() - t0);
+                }
+
+                System.out.printf("[ROLLUP] %3d dias por %-11s | rollups %9.1f ms | pedidos %9.1f ms%n",
+                        dias, agrupamento, tempoRollups / 1e6, tempoPedidos / 1e6);
+                assertThat(planejado).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(bruto);
+            }
+        }
+    }
+
+    private void carregar(int pedidos) {
+        Random aleatorio = new Random(10);
+        BigDecimal[][] precos = new BigDecimal[RESTAURANTES][PRODUTOS_POR_RESTAURANTE];
+        for (int r = 0; r < RESTAURANTES; r++) {
+            jdbcTemplate.update("INSERT INTO restaurantes (id, nome, ativo) VALUES (?, ?, TRUE)", 10_000L + r, "Restaurante Benchmark " + r);
+            for (int p = 0; p < PRODUTOS_POR_RESTAURANTE; p++) {
+                precos[r][p] = BigDecimal.valueOf(500 + aleatorio.nextInt(5_000), 2);
+                jdbcTemplate.update("INSERT INTO produtos (id, nome, categoria, preco, disponivel, restaurante_id) VALUES (?, ?, ?, ?, TRUE, ?)",
+                        produto(r, p), "Produto " + r + "-" + p, CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)], precos[r][p], 10_000L + r);
+            }
+        }
+        Long clienteId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM clientes", Long.class);
+
+        // Lotes de 50 mil pedidos, em ordem aleatória ao longo do ano, com 1 a 3 itens cada
+        StatusPedidos[] status = StatusPedidos.values();
+        List<Object[]> lotePedidos = new ArrayList<>();
+        List<Object[]> loteItens = new ArrayList<>();
+        for (int i = 0; i < pedidos; i++) {
+            long id = 100_000_000L + i;
+            int r = aleatorio.nextInt(RESTAURANTES);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int n = 0, itens = 1 + aleatorio.nextInt(3); n < itens; n++) {
+                int p = aleatorio.nextInt(PRODUTOS_POR_RESTAURANTE);
+                int quantidade = 1 + aleatorio.nextInt(3);
+                BigDecimal subtotal = precos[r][p].multiply(BigDecimal.valueOf(quantidade));
+                total = total.add(subtotal);
+                loteItens.add(new Object[]{id * 4 + n, quantidade, precos[r][p], subtotal, id, produto(r, p)});
+            }
+            BigDecimal taxa = BigDecimal.valueOf(aleatorio.nextInt(1_000), 2);
+            lotePedidos.add(new Object[]{id, Timestamp.valueOf(BASE.plusSeconds((long) (aleatorio.nextDouble() * DIAS * 86_400))),
+                    taxa, total.add(taxa), status[aleatorio.nextInt(status.length)].name(), 0L, clienteId, 10_000L + r});
+            if (lotePedidos.size() == 50_000 || i == pedidos - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO pedidos (id, data_pedido, taxa_entrega, valor_total, status, " +
+                        "versao, cliente_id, restaurante_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", lotePedidos);
+                jdbcTemplate.batchUpdate("INSERT INTO itens_pedido (id, quantidade, preco_unitario, subtotal, " +
+                        "pedido_id, produto_id) VALUES (?, ?, ?, ?, ?, ?)", loteItens);
+                lotePedidos.clear();
+                loteItens.clear();
+            }
+        }
+        // Recomeça a compactação pelo primeiro pedido da carga (a do início do contexto só viu os do DataLoader)
+        jdbcTemplate.update("DELETE FROM rollup_pedidos");
+        jdbcTemplate.update("DELETE FROM rollup_itens");
+        jdbcTemplate.update("UPDATE rollup_controle SET compactado_ate = NULL");
+    }
+
+    private static long produto(int restaurante, int produto) {
+        return 100_000L + (long) restaurante * PRODUTOS_POR_RESTAURANTE + produto;
+    }
+}
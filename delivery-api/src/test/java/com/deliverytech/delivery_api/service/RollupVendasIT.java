@@ -0,0 +1,211 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.response.VendasAgrupadasDTO;
+import com.deliverytech.delivery_api.enums.AgrupamentoVendas;
+import com.deliverytech.delivery_api.enums.StatusPedidos;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import com.deliverytech.delivery_api.service.RelatorioService.PlanoVendas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Pedidos de três dias em 2021 (antes dos pedidos do DataLoader), compactados em etapas. Para períodos
+// aleatórios, o relatório planejado (rollups + pontas brutas) precisa ser idêntico ao calculado só com os pedidos.
+@SpringBootTest
+@Transactional
+public class RollupVendasIT {
+
+    private static final int PEDIDOS = 3_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 3, 1, 0, 0);
+    private static final StatusPedidos[] STATUS = StatusPedidos.values();
+
+    @Autowired private RelatorioService relatorioService;
+    @Autowired private RollupService rollupService;
+    @Autowired private PedidoService pedidoService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final Random aleatorio = new Random(15);
+    private final Map<Long, StatusPedidos> statusPorPedido = new HashMap<>();
+    private final List<Restaurante> restaurantes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Rollups vazios: a compactação recomeça pelo primeiro pedido, que é o desta carga
+        jdbcTemplate.update("DELETE FROM rollup_pedidos");
+        jdbcTemplate.update("DELETE FROM rollup_itens");
+        jdbcTemplate.update("UPDATE rollup_controle SET compactado_ate = NULL, reconciliar_desde = NULL");
+
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente Rollup");
+        cliente.setEmail("rollup-" + System.nanoTime() + "@teste.com");
+        cliente.setAtivo(true);
+        cliente = clienteRepository.saveAndFlush(cliente);
+
+        Map<Long, List<Produto>> cardapios = new HashMap<>();
+        for (int r = 0; r < 3; r++) {
+            Restaurante restaurante = new Restaurante();
+            restaurante.setNome("Restaurante Rollup " + r);
+            restaurante.setAtivo(true);
+            restaurante = restauranteRepository.saveAndFlush(restaurante);
+            restaurantes.add(restaurante);
+            for (int p = 0; p < 4; p++) {
+                Produto produto = new Produto();
+                produto.setNome("Produto " + r + "-" + p);
+                produto.setCategoria(p % 2 == 0 ? "Pratos" : "Bebidas");
+                produto.setPreco(BigDecimal.valueOf(10 + p));
+                produto.setDisponivel(true);
+                produto.setRestaurante(restaurante);
+                cardapios.computeIfAbsent(restaurante.getId(), id -> new ArrayList<>()).add(produtoRepository.saveAndFlush(produto));
+            }
+        }
+
+        List<Object[]> pedidos = new ArrayList<>(PEDIDOS);
+        List<Object[]> itens = new ArrayList<>();
+        for (int i = 0; i < PEDIDOS; i++) {
+            long id = 3_000_000L + i;
+            Restaurante restaurante = restaurantes.get(aleatorio.nextInt(restaurantes.size()));
+            StatusPedidos status = STATUS[aleatorio.nextInt(STATUS.length)];
+            statusPorPedido.put(id, status);
+            BigDecimal subtotais = BigDecimal.ZERO;
+            for (int n = 1 + aleatorio.nextInt(3); n > 0; n--) {
+                Produto produto = cardapios.get(restaurante.getId()).get(aleatorio.nextInt(4));
+                int quantidade = 1 + aleatorio.nextInt(3);
+                BigDecimal subtotal = produto.getPreco().multiply(BigDecimal.valueOf(quantidade)).setScale(2);
+                subtotais = subtotais.add(subtotal);
+                itens.add(new Object[]{id * 10 + n, quantidade, produto.getPreco(), subtotal, id, produto.getId()});
+            }
+            BigDecimal taxa = BigDecimal.valueOf(aleatorio.nextInt(900), 2);
+            pedidos.add(new Object[]{id, Timestamp.valueOf(BASE.plusSeconds(aleatorio.nextInt(3 * 24 * 3600))), "Rua do Rollup, 1",
+                    taxa, subtotais.add(taxa), status.name(), 0L, cliente.getId(), restaurante.getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO pedidos (id, data_pedido, endereco_entrega, taxa_entrega, valor_total, " +
+                "status, versao, cliente_id, restaurante_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", pedidos);
+        jdbcTemplate.batchUpdate("INSERT INTO itens_pedido (id, quantidade, preco_unitario, subtotal, pedido_id, produto_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", itens);
+    }
+
+    @Test
+    @DisplayName("Cenário: Planejamento usa dias inteiros, horas inteiras e pontas brutas apenas antes da marca")
+    void devePlanejarFaixasDoPeriodo() {
+        LocalDateTime marca = BASE.plusDays(2).plusHours(6);
+
+        PlanoVendas plano = PlanoVendas.planejar(BASE.plusMinutes(30), BASE.plusDays(3), marca);
+        assertThat(plano).isEqualTo(new PlanoVendas(BASE.plusMinutes(30), BASE.plusHours(1), BASE.plusDays(1),
+                BASE.plusDays(2), marca, BASE.plusDays(3)));
+
+        // Menos de um dia inteiro: só horas
+        plano = PlanoVendas.planejar(BASE.plusHours(20).plusSeconds(1), BASE.plusDays(1).plusHours(3).plusMinutes(5), marca);
+        assertThat(plano.hora0()).isEqualTo(BASE.plusHours(21));
+        assertThat(plano.dia0()).isEqualTo(plano.hora1()).isEqualTo(plano.dia1()).isEqualTo(BASE.plusDays(1).plusHours(3));
+
+        // Dentro de uma hora, ou depois da marca: tudo bruto
+        assertThat(PlanoVendas.planejar(BASE.plusMinutes(5), BASE.plusMinutes(50), marca))
+                .isEqualTo(PlanoVendas.bruto(BASE.plusMinutes(5), BASE.plusMinutes(50)));
+        assertThat(PlanoVendas.planejar(marca, marca.plusDays(3), marca)).isEqualTo(PlanoVendas.bruto(marca, marca.plusDays(3)));
+        assertThat(PlanoVendas.planejar(BASE, BASE.plusDays(1), null)).isEqualTo(PlanoVendas.bruto(BASE, BASE.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Cenário: Compactação em etapas dá o mesmo resultado dos pedidos, inclusive com a marca no meio do dia")
+    void deveResponderComoOsPedidosAposCadaCompactacao() {
+        assertThat(rollupService.compactar(BASE.plusHours(13))).isEqualTo(BASE.plusHours(13));
+        compararPeriodosAleatorios(40);
+
+        assertThat(rollupService.compactar(BASE.plusDays(2).plusHours(7))).isEqualTo(BASE.plusDays(2).plusHours(7));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rollup_pedidos WHERE granularidade = 'DIA'", Long.class))
+                .isPositive();
+        compararPeriodosAleatorios(40);
+    }
+
+    @Test
+    @DisplayName("Cenário: Transições de pedidos já compactados movem os valores entre status nos rollups")
+    void deveRepassarTransicoesDePedidosCompactados() {
+        rollupService.compactar(BASE.plusDays(2).plusHours(7));
+
+        int alterados = 0;
+        for (Map.Entry<Long, StatusPedidos> pedido : statusPorPedido.entrySet()) {
+            if (alterados == 300) break;
+            if (pedido.getValue() == StatusPedidos.PENDENTE) {
+                if (alterados % 2 == 0) {
+                    pedidoService.cancelarPedido(pedido.getKey());
+                } else {
+                    pedidoService.atualizarStatusPedido(pedido.getKey(), StatusPedidos.CONFIRMADO);
+                }
+                alterados++;
+            } else if (pedido.getValue() == StatusPedidos.CONFIRMADO) {
+                pedidoService.atualizarStatusPedido(pedido.getKey(), StatusPedidos.ENTREGUE);
+                alterados++;
+            }
+        }
+
+        compararPeriodosAleatorios(60);
+        // Um período inteiro por status: nenhum grupo esvaziado sobra nos rollups com contagem zero
+        compararPeriodo(BASE, BASE.plusDays(3), AgrupamentoVendas.STATUS, null, null);
+    }
+
+    @Test
+    @DisplayName("Cenário: A execução seguinte reconcilia transições que não chegaram aos rollups")
+    void deveReconciliarTransicoesNaoRepassadas() {
+        LocalDateTime limite = BASE.plusDays(2).plusHours(7);
+        rollupService.compactar(limite);
+
+        // Como uma transição que leu a marca antiga enquanto a compactação do seu período terminava
+        List<Object[]> cancelados = new ArrayList<>();
+        for (Map.Entry<Long, StatusPedidos> pedido : statusPorPedido.entrySet()) {
+            if (pedido.getValue() == StatusPedidos.PENDENTE && cancelados.size() < 200) {
+                cancelados.add(new Object[]{pedido.getKey()});
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE pedidos SET status = 'CANCELADO', versao = versao + 1 WHERE id = ?", cancelados);
+
+        assertThat(rollupService.compactar(limite)).isEqualTo(limite);
+        assertThat(jdbcTemplate.queryForObject("SELECT reconciliar_desde FROM rollup_controle", LocalDateTime.class)).isNull();
+        compararPeriodosAleatorios(40);
+        compararPeriodo(BASE, BASE.plusDays(3), AgrupamentoVendas.STATUS, null, null);
+    }
+
+    private void compararPeriodosAleatorios(int quantidade) {
+        AgrupamentoVendas[] agrupamentos = AgrupamentoVendas.values();
+        for (int i = 0; i < quantidade; i++) {
+            LocalDateTime inicio = BASE.minusHours(6).plusSeconds(aleatorio.nextInt(4 * 24 * 3600));
+            LocalDateTime fim = inicio.plusSeconds(1 + aleatorio.nextInt(3 * 24 * 3600));
+            Long restauranteId = i % 3 == 0 ? restaurantes.get(i % restaurantes.size()).getId() : null;
+            StatusPedidos status = i % 4 == 1 ? STATUS[i % STATUS.length] : null;
+            compararPeriodo(inicio, fim, agrupamentos[i % agrupamentos.length], restauranteId, status);
+        }
+    }
+
+    private void compararPeriodo(LocalDateTime inicio, LocalDateTime fim, AgrupamentoVendas agrupamento,
+                                 Long restauranteId, StatusPedidos status) {
+        List<VendasAgrupadasDTO> planejado = relatorioService.vendasPorPeriodo(inicio, fim, agrupamento, restauranteId, status);
+        List<VendasAgrupadasDTO> bruto = relatorioService.vendas(PlanoVendas.bruto(inicio, fim), agrupamento, restauranteId, status);
+
+        assertThat(planejado)
+                .as("%s de %s a %s (restaurante %s, status %s)", agrupamento, inicio, fim, restauranteId, status)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(bruto);
+    }
+}
@@ -0,0 +1,131 @@
+package com.deliverytech.delivery_api.service;
+
+import com.deliverytech.delivery_api.dto.TotalVendasPorRestauranteDTO;
+import com.deliverytech.delivery_api.dto.request.ItemPedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.request.PedidoRequestDTO;
+import com.deliverytech.delivery_api.dto.response.ReconstrucaoVendasDTO;
+import com.deliverytech.delivery_api.model.Cliente;
+import com.deliverytech.delivery_api.model.Produto;
+import com.deliverytech.delivery_api.model.Restaurante;
+import com.deliverytech.delivery_api.repository.ClienteRepository;
+import com.deliverytech.delivery_api.repository.ProdutoRepository;
+import com.deliverytech.delivery_api.repository.RestauranteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+@SpringBootTest
+@Transactional
+public class VendasRestauranteIT {
+
+    @Autowired private PedidoService pedidoService;
+    @Autowired private RelatorioService relatorioService;
+    @Autowired private VendasRestauranteService vendasRestauranteService;
+    @Autowired private ClienteRepository clienteRepository;
+    @Autowired private RestauranteRepository restauranteRepository;
+    @Autowired private ProdutoRepository produtoRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Cliente cliente;
+    private Restaurante restauranteA;
+    private Restaurante restauranteB;
+    private Produto produtoA;
+    private Produto produtoB;
+
+    @BeforeEach
+    void setUp() {
+        Cliente c = new Cliente();
+        c.setNome("Cliente Vendas");
+        c.setEmail("vendas-" + System.nanoTime() + "@teste.com");
+        c.setEndereco("Rua das Vendas, 5");
+        c.setAtivo(true);
+        cliente = clienteRepository.save(c);
+
+        // Mesmo nome de propósito: o relatório antigo (GROUP BY nome) somava os dois
+        restauranteA = restauranteRepository.save(criarRestaurante("Cantina Homônima"));
+        restauranteB = restauranteRepository.save(criarRestaurante("Cantina Homônima"));
+        produtoA = produtoRepository.save(criarProduto(restauranteA, "20.00"));
+        produtoB = produtoRepository.save(criarProduto(restauranteB, "30.00"));
+    }
+
+    @Test
+    @DisplayName("Cenário: Agregado acompanha criação e cancelamento, separado por ID do restaurante")
+    void deveManterTotaisPorRestaurante() {
+        Long cancelado = pedidoService.criarPedido(criarPedidoDTO(restauranteA, produtoA)).getId();
+        pedidoService.criarPedido(criarPedidoDTO(restauranteA, produtoA));
+        pedidoService.criarPedidosEmLote(List.of(criarPedidoDTO(restauranteB, produtoB), criarPedidoDTO(restauranteB, produtoB)));
+        pedidoService.cancelarPedido(cancelado);
+
+        assertTotais(restauranteA, 1, "25.00", "5.00");
+        assertTotais(restauranteB, 2, "70.00", "10.00");
+        assertThat(vendasRestauranteService.reconstruir().getRestaurantesDivergentes())
+                .doesNotContain(restauranteA.getId(), restauranteB.getId());
+    }
+
+    @Test
+    @DisplayName("Cenário: Reconstrução recalcula pelos pedidos e aponta o restaurante divergente")
+    void deveReconstruirAgregadoDivergente() {
+        pedidoService.criarPedido(criarPedidoDTO(restauranteA, produtoA));
+        pedidoService.criarPedido(criarPedidoDTO(restauranteB, produtoB));
+        jdbcTemplate.update("UPDATE vendas_restaurante SET receita = receita + 100 WHERE restaurante_id = ?", restauranteA.getId());
+
+        ReconstrucaoVendasDTO primeira = vendasRestauranteService.reconstruir();
+        assertThat(primeira.getRestaurantesDivergentes()).contains(restauranteA.getId()).doesNotContain(restauranteB.getId());
+        assertTotais(restauranteA, 1, "25.00", "5.00");
+
+        ReconstrucaoVendasDTO segunda = vendasRestauranteService.reconstruir();
+        assertThat(segunda.isConsistente()).isTrue();
+        assertThat(segunda.getRestaurantesVerificados()).isGreaterThanOrEqualTo(2);
+    }
+
+    private void assertTotais(Restaurante restaurante, long pedidos, String receita, String taxas) {
+        TotalVendasPorRestauranteDTO totais = relatorioService.totalVendasPorRestaurante().stream()
+                .filter(t -> t.getRestauranteId().equals(restaurante.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(totais.getRestaurante()).isEqualTo("Cantina Homônima");
+        assertThat(totais.getQuantidadePedidos()).isEqualTo(pedidos);
+        assertThat(totais.getTotalVendas()).isEqualByComparingTo(receita);
+        assertThat(totais.getTotalTaxasEntrega()).isEqualByComparingTo(taxas);
+    }
+
+    private Restaurante criarRestaurante(String nome) {
+        Restaurante r = new Restaurante();
+        r.setNome(nome);
+        r.setAtivo(true);
+        r.setTaxaEntrega(new BigDecimal("5.00"));
+        return r;
+    }
+
+    private Produto criarProduto(Restaurante restaurante, String preco) {
+        Produto p = new Produto();
+        p.setNome("Prato da Casa");
+        p.setPreco(new BigDecimal(preco));
+        p.setCategoria("Pratos");
+        p.setDisponivel(true);
+        p.setRestaurante(restaurante);
+        return p;
+    }
+
+    private PedidoRequestDTO criarPedidoDTO(Restaurante restaurante, Produto produto) {
+        ItemPedidoRequestDTO item = new ItemPedidoRequestDTO();
+        item.setProdutoId(produto.getId());
+        item.setQuantidade(1);
+
+        PedidoRequestDTO dto = new PedidoRequestDTO();
+        dto.setClienteId(cliente.getId());
+        dto.setRestauranteId(restaurante.getId());
+        dto.setEnderecoEntrega("Rua das Vendas, 5");
+        dto.setItens(List.of(item));
+        return dto;
+    }
+}
@@ -0,0 +1,146 @@
+package com.deliverytech.delivery_api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheExpiravelTest {
+
+    @Test
+    @DisplayName("Chamadas simultâneas para a mesma chave executam o carregador uma única vez")
+    void colapsarCarregamentosSimultaneos() throws Exception {
+        CacheExpiravel<String, Integer> cache = new CacheExpiravel<>(10, Duration.ofMinutes(1));
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resultados.add(executor.submit(() -> cache.obter("chave", k -> {
+                execucoes.incrementAndGet();
+                aguardar(liberar);
+                return 42;
+            })));
+        }
+        Thread.sleep(100);
+        liberar.countDown();
+
+        for (Future<Integer> resultado : resultados) {
+            assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        executor.shutdown();
+
+        assertThat(execucoes.get()).isEqualTo(1);
+        assertThat(cache.getFaltas()).isEqualTo(1);
+        assertThat(cache.getColapsos() + cache.getAcertos()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Entradas expiram após o TTL")
+    void expirarAposTtl() {
+        AtomicLong agora = new AtomicLong(0);
+        CacheExpiravel<String, String> cache = new CacheExpiravel<>(10, Duration.ofSeconds(30), agora::get);
+
+        cache.colocar("a", "valor");
+        agora.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(cache.consultar("a")).isEqualTo("valor");
+
+        agora.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(cache.consultar("a")).isNull();
+        assertThat(cache.obter("a", k -> "novo")).isEqualTo("novo");
+    }
+
+    @Test
+    @DisplayName("Capacidade é respeitada removendo as entradas mais antigas")
+    void respeitarCapacidade() {
+        CacheExpiravel<Integer, Integer> cache = new CacheExpiravel<>(3, Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            cache.colocar(i, i);
+        }
+
+        assertThat(cache.tamanho()).isEqualTo(3);
+        assertThat(cache.consultar(0)).isNull();
+        assertThat(cache.consultar(4)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Falhas do carregador não ficam em cache")
+    void naoGuardarFalhas() {
+        CacheExpiravel<String, String> cache = new CacheExpiravel<>(10, Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> cache.obter("a", k -> { throw new IllegalStateException("falhou"); }))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cache.obter("a", k -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("Invalidação por predicado remove só as chaves atendidas, e um carregamento interrompido não fica em cache")
+    void invalidarPorPredicado() throws Exception {
+        CacheExpiravel<Integer, String> cache = new CacheExpiravel<>(10, Duration.ofMinutes(1));
+        for (int i = 0; i < 6; i++) {
+            cache.colocar(i, "v" + i);
+        }
+
+        assertThat(cache.invalidarSe(chave -> chave % 2 == 0)).isEqualTo(3);
+        assertThat(cache.consultar(2)).isNull();
+        assertThat(cache.consultar(3)).isEqualTo("v3");
+
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> carregando = executor.submit(() -> cache.obter(10, k -> {
+            iniciado.countDown();
+            aguardar(liberar);
+            return "antigo";
+        }));
+        iniciado.await();
+        assertThat(cache.invalidarSe(chave -> chave == 10)).isEqualTo(1);
+        liberar.countDown();
+
+        assertThat(carregando.get(5, TimeUnit.SECONDS)).isEqualTo("antigo");
+        assertThat(cache.obter(10, k -> "novo")).isEqualTo("novo");
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Valores invalidados não ficam retidos pela fila de expiração até o TTL")
+    void liberarValoresInvalidados() throws Exception {
+        CacheExpiravel<String, byte[]> cache = new CacheExpiravel<>(10, Duration.ofMinutes(1));
+        byte[] valor = new byte[1024];
+        WeakReference<byte[]> referencia = new WeakReference<>(valor);
+        cache.colocar("a", valor);
+        cache.colocar("b", new byte[1]);
+        valor = null;
+
+        cache.invalidar("a");
+        assertThat(cache.invalidarSe("b"::equals)).isEqualTo(1);
+
+        for (int tentativa = 0; tentativa < 50 && referencia.get() != null; tentativa++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertThat(referencia.get()).isNull();
+        assertThat(cache.tamanho()).isZero();
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.deliverytech.delivery_api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Com poucos distintos a contagem linear é praticamente exata")
+    void contarPoucosDistintos() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertThat(sketch.estimar()).isZero();
+
+        for (long cliente = 1; cliente <= 50; cliente++) {
+            sketch.adicionar(cliente);
+        }
+        assertThat(sketch.estimar()).isBetween(49L, 50L);
+
+        for (long cliente = 51; cliente <= 2_000; cliente++) {
+            sketch.adicionar(cliente);
+        }
+        assertThat((double) sketch.estimar()).isCloseTo(2_000, within(2_000 * HyperLogLog.ERRO_PADRAO));
+    }
+
+    @Test
+    @DisplayName("Com muitos distintos a estimativa fica dentro de 3 erros padrão do valor real")
+    void respeitarErroPadrao() {
+        Random aleatorio = new Random(17);
+        for (int n : new int[]{20_000, 100_000, 500_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            long base = aleatorio.nextLong();
+            for (int i = 0; i < n; i++) {
+                sketch.adicionar(base + i);
+            }
+            assertThat((double) sketch.estimar()).isCloseTo(n, within(3 * HyperLogLog.ERRO_PADRAO * n));
+        }
+    }
+
+    @Test
+    @DisplayName("Repetições não mudam o sketch e a mescla é igual ao sketch da união")
+    void mesclarComoUniao() {
+        HyperLogLog segunda = new HyperLogLog();
+        HyperLogLog terca = new HyperLogLog();
+        HyperLogLog semana = new HyperLogLog();
+        for (long cliente = 0; cliente < 30_000; cliente++) {
+            (cliente < 20_000 ? segunda : terca).adicionar(cliente);
+            if (cliente >= 10_000) {
+                segunda.adicionar(cliente - 10_000); // clientes que voltam no mesmo dia
+                terca.adicionar(cliente - 10_000);   // e no dia seguinte
+            }
+            semana.adicionar(cliente);
+        }
+
+        HyperLogLog mescla = segunda.copiar();
+        mescla.mesclar(terca);
+        assertThat(mescla).isEqualTo(semana);
+        assertThat((double) mescla.estimar()).isCloseTo(30_000, within(3 * HyperLogLog.ERRO_PADRAO * 30_000));
+
+        mescla.mesclar(terca);
+        assertThat(mescla).isEqualTo(semana);
+        assertThat(segunda).isNotEqualTo(semana);
+    }
+
+    @Test
+    @DisplayName("A serialização é esparsa para poucos clientes, densa para muitos e reversível nos dois casos")
+    void serializarEDesserializar() {
+        HyperLogLog pequeno = new HyperLogLog();
+        for (long cliente = 1; cliente <= 50; cliente++) {
+            pequeno.adicionar(cliente);
+        }
+        byte[] esparso = pequeno.serializar();
+        assertThat(esparso).hasSizeLessThanOrEqualTo(2 + 3 * 50);
+        assertThat(HyperLogLog.desserializar(esparso)).isEqualTo(pequeno);
+
+        HyperLogLog grande = new HyperLogLog();
+        for (long cliente = 1; cliente <= 50_000; cliente++) {
+            grande.adicionar(cliente);
+        }
+        byte[] denso = grande.serializar();
+        assertThat(denso).hasSize(2 + HyperLogLog.REGISTRADORES);
+        assertThat(HyperLogLog.desserializar(denso)).isEqualTo(grande);
+        assertThat(HyperLogLog.desserializar(new HyperLogLog().serializar()).estimar()).isZero();
+
+        assertThatThrownBy(() -> HyperLogLog.desserializar(new byte[]{10, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.desserializar(new byte[]{HyperLogLog.PRECISAO, 0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
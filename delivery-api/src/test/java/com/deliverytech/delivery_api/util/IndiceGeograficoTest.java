@@ -0,0 +1,88 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.IndiceGeografico.Vizinho;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class IndiceGeograficoTest {
+
+    private record Ponto(long id, double latitude, double longitude) {}
+
+    @Test
+    @DisplayName("A busca pelo índice devolve os mesmos vizinhos, na mesma ordem, que medir a distância a todos")
+    void compararComBuscaExaustiva() {
+        Random aleatorio = new Random(19);
+        IndiceGeografico indice = new IndiceGeografico(0.02);
+        List<Ponto> pontos = new ArrayList<>();
+        // Região metropolitana de São Paulo, com alguns pontos repetidos (empates de distância)
+        for (long id = 1; id <= 20_000; id++) {
+            Ponto ponto = id % 100 == 0
+                    ? new Ponto(id, pontos.get(0).latitude(), pontos.get(0).longitude())
+                    : new Ponto(id, -23.8 + aleatorio.nextDouble() * 0.6, -46.9 + aleatorio.nextDouble() * 0.6);
+            pontos.add(ponto);
+            indice.colocar(ponto.id(), ponto.latitude(), ponto.longitude());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            double latitude = -23.8 + aleatorio.nextDouble() * 0.6;
+            double longitude = -46.9 + aleatorio.nextDouble() * 0.6;
+            double raioKm = 0.5 + aleatorio.nextDouble() * 10;
+            int limite = 1 + aleatorio.nextInt(30);
+            assertThat(indice.buscar(latitude, longitude, raioKm, limite))
+                    .isEqualTo(exaustiva(pontos, latitude, longitude, raioKm, limite));
+        }
+        assertThat(indice.buscar(pontos.get(0).latitude(), pontos.get(0).longitude(), 0.001, 3))
+                .extracting(Vizinho::id).containsExactly(1L, 100L, 200L);
+    }
+
+    @Test
+    @DisplayName("Mover, desativar e reinserir um ponto atualiza a busca")
+    void atualizarPontos() {
+        IndiceGeografico indice = new IndiceGeografico(0.02);
+        indice.colocar(1, -23.5614, -46.6559); // Av. Paulista
+        indice.colocar(2, -23.5581, -46.6351); // Liberdade
+
+        assertThat(indice.buscar(-23.5614, -46.6559, 1, 10)).extracting(Vizinho::id).containsExactly(1L);
+
+        indice.colocar(1, -23.5855, -46.6799); // mudou para o Itaim Bibi
+        assertThat(indice.buscar(-23.5614, -46.6559, 1, 10)).isEmpty();
+        assertThat(indice.buscar(-23.5614, -46.6559, 5, 10)).extracting(Vizinho::id).containsExactly(2L, 1L);
+
+        indice.remover(2);
+        assertThat(indice.buscar(-23.5614, -46.6559, 5, 10)).extracting(Vizinho::id).containsExactly(1L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Distâncias de haversine conhecidas, busca perto do antimeridiano e coordenadas inválidas")
+    void distanciasEBordas() {
+        // São Paulo (Praça da Sé) - Rio de Janeiro (Centro): ~361 km
+        assertThat(IndiceGeografico.distanciaKm(-23.5503, -46.6339, -22.9035, -43.1780)).isCloseTo(361, within(2.0));
+        assertThat(IndiceGeografico.distanciaKm(0, 179.99, 0, -179.99)).isCloseTo(2.22, within(0.01));
+
+        IndiceGeografico indice = new IndiceGeografico(0.5);
+        indice.colocar(1, 0, 179.99);
+        indice.colocar(2, 0, -179.99);
+        assertThat(indice.buscar(0, 179.995, 5, 10)).extracting(Vizinho::id).containsExactly(1L, 2L);
+
+        assertThatThrownBy(() -> indice.colocar(3, 91, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new IndiceGeografico(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Vizinho> exaustiva(List<Ponto> pontos, double latitude, double longitude, double raioKm, int limite) {
+        return pontos.stream()
+                .map(p -> new Vizinho(p.id(), IndiceGeografico.distanciaKm(latitude, longitude, p.latitude(), p.longitude())))
+                .filter(v -> v.distanciaKm() <= raioKm)
+                .sorted(Comparator.comparingDouble(Vizinho::distanciaKm).thenComparingLong(Vizinho::id))
+                .limit(limite)
+                .toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.IndiceInvertido.Documento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Benchmark de latência da busca de produtos no IndiceInvertido com o número de produtos pedido, comparada à
+// varredura de todos os nomes (o LIKE '%termo%' que a busca fazia). Só roda quando pedido:
+// mvn test -Dtest=IndiceInvertidoBenchmarkTest -Dbenchmark.busca.produtos=1000000
+@EnabledIfSystemProperty(named = "benchmark.busca.produtos", matches = "\\d+")
+class IndiceInvertidoBenchmarkTest {
+
+    private static final int BUSCAS = 2_000;
+
+    private static final String[] PRATOS = {"pizza", "hamburguer", "pastel", "coxinha", "esfiha", "lasanha", "sushi",
+            "temaki", "acai", "salada", "frango", "picanha", "feijoada", "moqueca", "tapioca", "crepe", "sanduiche",
+            "yakisoba", "risoto", "nhoque", "parmegiana", "strogonoff", "brigadeiro", "pudim", "torta", "suco",
+            "refrigerante", "cerveja", "cafe", "pao", "queijo", "batata", "mandioca", "calabresa", "bacon"};
+    private static final String[] COMPLEMENTOS = {"de", "com", "especial", "tradicional", "grande", "media",
+            "pequena", "artesanal", "caseiro", "picante", "vegano", "integral", "recheado", "gelado", "duplo"};
+    private static final String[] CATEGORIAS = {"Pizzas", "Lanches", "Japonesa", "Brasileira", "Sobremesas",
+            "Bebidas", "Saudável", "Árabe", "Italiana", "Doces"};
+
+    @Test
+    @DisplayName("Benchmark: latência da busca no índice invertido")
+    void medirBuscas() {
+        int produtos = Integer.getInteger("benchmark.busca.produtos");
+        Random aleatorio = new Random(41);
+        // Marcas inventadas: dão ao dicionário o tamanho de um catálogo real
+        String[] marcas = new String[Math.max(1_000, produtos / 20)];
+        for (int i = 0; i < marcas.length; i++) {
+            marcas[i] = palavra(aleatorio, 5 + aleatorio.nextInt(6));
+        }
+
+        IndiceInvertido indice = new IndiceInvertido();
+        String[] nomes = new String[produtos];
+        System.gc();
+        long memoriaAntes = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < produtos; i++) {
+            String nome = PRATOS[aleatorio.nextInt(PRATOS.length)] + " " + COMPLEMENTOS[aleatorio.nextInt(COMPLEMENTOS.length)]
+                    + " " + marcas[aleatorio.nextInt(marcas.length)];
+            String descricao = PRATOS[aleatorio.nextInt(PRATOS.length)] + " com " + PRATOS[aleatorio.nextInt(PRATOS.length)]
+                    + " e " + COMPLEMENTOS[aleatorio.nextInt(COMPLEMENTOS.length)] + " " + (100 + aleatorio.nextInt(900)) + "g";
+            nomes[i] = nome;
+            indice.colocar(new Documento(i + 1, 1 + aleatorio.nextInt(Math.max(1, produtos / 50)), aleatorio.nextInt(10) != 0,
+                    nome, descricao, CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)]));
+        }
+        long tempoCarga = System.nanoTime() - inicio;
+        System.gc();
+        long memoriaDepois = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory() - estimarNomes(nomes);
+        System.out.printf("[BUSCA] %d produtos indexados em %d ms | %d termos | ~%d MB de heap%n", produtos,
+                tempoCarga / 1_000_000, indice.quantidadeTermos(), (memoriaDepois - memoriaAntes) / (1024 * 1024));
+
+        String marca = marcas[7];
+        medir("termo raro (marca)", () -> indice.buscar(marca, null, null, 20));
+        medir("dois termos", () -> indice.buscar("pizza calabresa", null, null, 20));
+        medir("prefixo", () -> indice.buscar("hamb", null, null, 20));
+        medir("erro de digitação", () -> indice.buscar("hamburgur artesanl", null, null, 20));
+        medir("termo comum + filtros", () -> indice.buscar("pizza", 3L, true, 20));
+        medir("termo muito comum", () -> indice.buscar("com", null, null, 20));
+
+        // Referência: varredura dos nomes, como o LIKE; poucas repetições, cada uma lê todos os produtos
+        String termo = marca.toLowerCase(Locale.ROOT);
+        long[] tempos = new long[20];
+        int encontrados = 0;
+        for (int r = 0; r < tempos.length; r++) {
+            long t0 = System.nanoTime();
+            encontrados = 0;
+            for (String nome : nomes) {
+                if (nome.toLowerCase(Locale.ROOT).contains(termo)) {
+                    encontrados++;
+                }
+            }
+            tempos[r] = System.nanoTime() - t0;
+        }
+        Arrays.sort(tempos);
+        System.out.printf("[BUSCA] %-24s | p50 %9.3f ms | (%d encontrados)%n", "varredura dos nomes",
+                tempos[tempos.length / 2] / 1e6, encontrados);
+        assertThat(indice.buscar(marca, null, null, 1_000)).hasSizeGreaterThanOrEqualTo(Math.min(encontrados, 1_000));
+    }
+
+    private static void medir(String consulta, Supplier<?> busca) {
+        for (int i = 0; i < BUSCAS / 4; i++) {
+            busca.get(); // aquecimento
+        }
+        long[] tempos = new long[BUSCAS];
+        for (int i = 0; i < BUSCAS; i++) {
+            long t0 = System.nanoTime();
+            busca.get();
+            tempos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(tempos);
+        System.out.printf("[BUSCA] %-24s | p50 %9.3f ms | p99 %9.3f ms%n", consulta,
+                tempos[BUSCAS / 2] / 1e6, tempos[BUSCAS * 99 / 100] / 1e6);
+    }
+
+    private static String palavra(Random aleatorio, int tamanho) {
+        StringBuilder palavra = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            palavra.append((char) ('a' + aleatorio.nextInt(26)));
+        }
+        return palavra.toString();
+    }
+
+    // Os nomes ficam vivos só para a varredura de referência: não contam como memória do índice
+    private static long estimarNomes(String[] nomes) {
+        long bytes = 16L + 4L * nomes.length;
+        for (String nome : nomes) {
+            bytes += 40 + nome.length();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,177 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.IndiceInvertido.Documento;
+import com.deliverytech.delivery_api.util.IndiceInvertido.Resultado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndiceInvertidoTest {
+
+    @Test
+    @DisplayName("Termos sem acentos e em minúsculas; busca por igualdade, prefixo e com erro de digitação")
+    void normalizarEBuscar() {
+        assertThat(IndiceInvertido.tokens("Pão de Queijo (6un.) - AÇAÍ")).containsExactly("pao", "de", "queijo", "6un", "acai");
+        assertThat(IndiceInvertido.distancia("frnago", "frango", 2)).isEqualTo(1); // transposição
+        assertThat(IndiceInvertido.distancia("hamburguer", "hamburger", 2)).isEqualTo(1);
+        assertThat(IndiceInvertido.distancia("pizza", "pastel", 2)).isEqualTo(3); // passou do limite
+
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.colocar(new Documento(1, 10, true, "Pão de Queijo", "Porção com 6 unidades", "Lanches"));
+        indice.colocar(new Documento(2, 10, true, "Pizza Margherita", "Molho de tomate e manjericão", "Pizza"));
+        indice.colocar(new Documento(3, 20, true, "Calzone", "Massa de pizza recheada", "Pizza"));
+        indice.colocar(new Documento(4, 20, false, "Açaí 500ml", "Com granola", "Sobremesas"));
+
+        assertThat(ids(indice.buscar("pao de queijo", null, null, 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("ACAI", null, null, 10))).containsExactly(4L);
+        assertThat(ids(indice.buscar("marg", null, null, 10))).containsExactly(2L);
+        assertThat(ids(indice.buscar("margherta", null, null, 10))).containsExactly(2L); // 1 edição
+        assertThat(ids(indice.buscar("manjerciao", null, null, 10))).containsExactly(2L); // 2 edições (8+ letras)
+        assertThat(indice.buscar("xyz", null, null, 10)).isEmpty();
+        assertThat(indice.buscar("pizza xyz", null, null, 10)).isEmpty();
+        assertThat(indice.buscar(" - ", null, null, 10)).isEmpty();
+
+        // Nome pesa mais que categoria, que pesa mais que descrição
+        List<Resultado> pizza = indice.buscar("pizza", null, null, 10);
+        assertThat(ids(pizza)).containsExactly(2L, 3L);
+        assertThat(pizza.get(0).pontuacao()).isCloseTo(3.0, within(1e-9));
+        assertThat(pizza.get(1).pontuacao()).isCloseTo(2.0, within(1e-9));
+
+        assertThat(ids(indice.buscar("pizza", 20L, null, 10))).containsExactly(3L);
+        assertThat(ids(indice.buscar("com", null, true, 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("com", null, null, 1))).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Substituir e remover documentos, inclusive depois da compactação")
+    void atualizarDocumentos() {
+        IndiceInvertido indice = new IndiceInvertido();
+        for (long id = 1; id <= 3_000; id++) {
+            indice.colocar(new Documento(id, id % 3, true, "Produto " + id, null, "Categoria " + (id % 5)));
+        }
+        indice.colocar(new Documento(7, 1, false, "Esfiha de carne", null, "Árabe"));
+        assertThat(indice.buscar("produto 7", null, null, 10)).extracting(Resultado::id).doesNotContain(7L);
+        assertThat(ids(indice.buscar("esfiha", null, false, 10))).containsExactly(7L);
+
+        // Mortos passam dos vivos: compacta e continua respondendo igual
+        for (long id = 1; id <= 2_000; id++) {
+            if (id != 7) {
+                indice.remover(id);
+            }
+        }
+        for (long id = 2_001; id <= 2_600; id++) {
+            indice.colocar(new Documento(id, 9, true, "Item " + id, null, "Categoria " + (id % 5)));
+        }
+        assertThat(indice.tamanho()).isEqualTo(1_001);
+        assertThat(ids(indice.buscar("esfiha", null, null, 10))).containsExactly(7L);
+        assertThat(ids(indice.buscar("2600", null, null, 10))).containsExactly(2600L);
+        assertThat(indice.buscar("produto", null, null, 2_000)).hasSize(400);
+        assertThat(indice.buscar("item", 9L, null, 2_000)).hasSize(600);
+        assertThat(indice.buscar("produto 1500", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Com vocabulário pequeno, a busca devolve o mesmo top-K que pontuar todos os documentos")
+    void compararComBuscaExaustiva() {
+        Random aleatorio = new Random(24);
+        String[] vocabulario = {"pizza", "pizzaria", "pizzas", "pastel", "pastelaria", "pao", "queijo", "queijos",
+                "frango", "frita", "fritas", "batata", "bacon", "calabresa", "carne", "molho", "tomate", "suco",
+                "laranja", "lanche", "de", "com", "acai", "granola", "hamburguer", "chocolate"};
+        IndiceInvertido indice = new IndiceInvertido();
+        Map<Long, Documento> documentos = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = 1 + aleatorio.nextInt(2_000); // ids repetidos: substituições
+            Documento documento = new Documento(id, 1 + aleatorio.nextInt(5), aleatorio.nextBoolean(),
+                    frase(aleatorio, vocabulario, 1 + aleatorio.nextInt(3)), frase(aleatorio, vocabulario, aleatorio.nextInt(6)),
+                    vocabulario[aleatorio.nextInt(vocabulario.length)]);
+            if (aleatorio.nextInt(10) == 0) {
+                indice.remover(id);
+                documentos.remove(id);
+            } else {
+                indice.colocar(documento);
+                documentos.put(id, documento);
+            }
+        }
+
+        String[] consultas = {"pizza", "piza", "pizz", "queijo batata", "fritas com", "pastelria", "mlho", "p",
+                "chocolat", "de", "hamburger bacon", "laranja suco"};
+        for (String consulta : consultas) {
+            for (Long restaurante : new Long[]{null, 2L}) {
+                for (Boolean disponivel : new Boolean[]{null, true}) {
+                    assertThat(indice.buscar(consulta, restaurante, disponivel, 15))
+                            .as(consulta)
+                            .usingElementComparator(Comparator.comparingLong(Resultado::id)
+                                    .thenComparing(Resultado::pontuacao, (a, b) -> Math.abs(a - b) < 1e-9 ? 0 : Double.compare(a, b)))
+                            .containsExactlyElementsOf(exaustiva(documentos, consulta, restaurante, disponivel, 15));
+                }
+            }
+        }
+    }
+
+    private static List<Long> ids(List<Resultado> resultados) {
+        return resultados.stream().map(Resultado::id).toList();
+    }
+
+    private static String frase(Random aleatorio, String[] vocabulario, int palavras) {
+        List<String> frase = new ArrayList<>();
+        for (int i = 0; i < palavras; i++) {
+            frase.add(vocabulario[aleatorio.nextInt(vocabulario.length)]);
+        }
+        return String.join(" ", frase);
+    }
+
+    // Mesmas regras do índice, documento a documento (o vocabulário não chega ao limite de expansões)
+    private static List<Resultado> exaustiva(Map<Long, Documento> documentos, String consulta, Long restaurante,
+                                             Boolean disponivel, int limite) {
+        List<Resultado> resultados = new ArrayList<>();
+        for (Documento d : documentos.values()) {
+            if ((restaurante != null && d.restauranteId() != restaurante) || (disponivel != null && d.disponivel() != disponivel)) {
+                continue;
+            }
+            double total = 0;
+            for (String token : new LinkedHashSet<>(IndiceInvertido.tokens(consulta))) {
+                double melhor = Math.max(Math.max(
+                        melhor(token, d.nome(), 3), melhor(token, d.categoria(), 2)), melhor(token, d.descricao(), 1));
+                if (melhor == 0) {
+                    total = 0;
+                    break;
+                }
+                total += melhor;
+            }
+            if (total > 0) {
+                resultados.add(new Resultado(d.id(), total));
+            }
+        }
+        return resultados.stream()
+                .sorted(Comparator.comparingDouble(Resultado::pontuacao).reversed().thenComparingLong(Resultado::id))
+                .limit(limite)
+                .toList();
+    }
+
+    private static double melhor(String token, String campo, double pesoCampo) {
+        double melhor = 0;
+        int limite = IndiceInvertido.edicoesToleradas(token);
+        for (String termo : IndiceInvertido.tokens(campo)) {
+            double peso = 0;
+            if (termo.equals(token)) {
+                peso = 1.0;
+            } else if (termo.startsWith(token)) {
+                peso = 0.6;
+            } else if (limite > 0 && termo.charAt(0) == token.charAt(0)) {
+                int d = IndiceInvertido.distancia(token, termo, limite);
+                peso = d > limite ? 0 : d == 1 ? 0.5 : 0.3;
+            }
+            melhor = Math.max(melhor, peso * pesoCampo);
+        }
+        return melhor;
+    }
+}
@@ -0,0 +1,93 @@
+package com.deliverytech.delivery_api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NumeroPedidoGeneratorTest {
+
+    @Test
+    @DisplayName("Deve gerar números únicos sob concorrência")
+    void gerarUnicosSobConcorrencia() throws Exception {
+        NumeroPedidoGenerator generator = new NumeroPedidoGenerator(7);
+        Set<String> numeros = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int porThread = 50_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    numeros.add(generator.gerar());
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertThat(numeros).hasSize(threads * porThread);
+        assertThat(numeros).allMatch(n -> n.length() == NumeroPedidoGenerator.TAMANHO);
+    }
+
+    @Test
+    @DisplayName("Deve manter a ordem temporal mesmo com relógio parado ou voltando")
+    void manterOrdemComRelogioInstavel() {
+        AtomicLong agora = new AtomicLong(1_800_000_000_000L);
+        NumeroPedidoGenerator generator = new NumeroPedidoGenerator(1, agora::get);
+
+        String anterior = generator.gerar();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                agora.addAndGet(-60_000); // relógio ajustado para trás
+            }
+            String atual = generator.gerar();
+            assertThat(atual).isGreaterThan(anterior);
+            anterior = atual;
+        }
+    }
+
+    @Test
+    @DisplayName("Nós diferentes nunca geram o mesmo número no mesmo instante")
+    void nosDiferentesNaoColidem() {
+        NumeroPedidoGenerator a = new NumeroPedidoGenerator(1, () -> 1_800_000_000_000L);
+        NumeroPedidoGenerator b = new NumeroPedidoGenerator(2, () -> 1_800_000_000_000L);
+
+        assertThat(a.gerar()).isNotEqualTo(b.gerar());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar node-id fora do intervalo")
+    void rejeitarNoInvalido() {
+        assertThatThrownBy(() -> new NumeroPedidoGenerator(1024, System::currentTimeMillis))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Sem node-id, só deriva o nó do hostname nos perfis dev e test")
+    void exigirNoForaDeDevETest() {
+        MockEnvironment producao = new MockEnvironment();
+        producao.setActiveProfiles("prod");
+        assertThatThrownBy(() -> new NumeroPedidoGenerator(-1, producao))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("delivery.pedidos.node-id");
+        assertThat(new NumeroPedidoGenerator(3, producao).gerar()).hasSize(NumeroPedidoGenerator.TAMANHO);
+
+        MockEnvironment desenvolvimento = new MockEnvironment();
+        desenvolvimento.setActiveProfiles("dev");
+        assertThat(NumeroPedidoGenerator.noPeloHost(desenvolvimento)).isBetween(0L, 1023L);
+    }
+}
@@ -0,0 +1,142 @@
+package com.deliverytech.delivery_api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SpaceSavingTest {
+
+    private static final int CAPACIDADE = 100;
+    private static final int CHAVES = 10_000;
+    private static final int EVENTOS = 200_000;
+
+    @Test
+    @DisplayName("Em um fluxo com cauda longa, as contagens respeitam os limites de erro e o top 10 é o real")
+    void respeitarLimitesDeErro() {
+        SpaceSaving<Integer> sketch = new SpaceSaving<>(CAPACIDADE);
+        Map<Integer, Long> real = alimentar(List.of(sketch), new Random(42));
+
+        verificarLimites(sketch.top(CAPACIDADE), real);
+        assertThat(chaves(sketch.top(10))).containsExactlyElementsOf(topReal(real, 10));
+    }
+
+    @Test
+    @DisplayName("A mescla de sketches de períodos distintos mantém os limites sobre o total")
+    void mesclarPeriodos() {
+        List<SpaceSaving<Integer>> periodos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            periodos.add(new SpaceSaving<>(CAPACIDADE));
+        }
+        Map<Integer, Long> real = alimentar(periodos, new Random(7));
+
+        SpaceSaving.Top<Integer> mescla = SpaceSaving.mesclar(periodos, CAPACIDADE);
+
+        verificarLimites(mescla, real);
+        assertThat(chaves(SpaceSaving.mesclar(periodos, 10))).containsExactlyElementsOf(topReal(real, 10));
+    }
+
+    @Test
+    @DisplayName("Sem descartes as contagens são exatas e o rótulo mais recente da chave é mantido")
+    void contarExatamenteAbaixoDaCapacidade() {
+        record Rotulada(long id, String nome) {
+            @Override
+            public boolean equals(Object outro) {
+                return outro instanceof Rotulada rotulada && rotulada.id == id;
+            }
+
+            @Override
+            public int hashCode() {
+                return Long.hashCode(id);
+            }
+        }
+        SpaceSaving<Rotulada> sketch = new SpaceSaving<>(3);
+        sketch.adicionar(new Rotulada(1, "Pizza"), 2);
+        sketch.adicionar(new Rotulada(2, "Sushi"), 1);
+        sketch.adicionar(new Rotulada(1, "Pizza Grande"), 3);
+
+        SpaceSaving.Top<Rotulada> top = sketch.top(5);
+
+        assertThat(top.erroMaximo()).isZero();
+        assertThat(top.total()).isEqualTo(6);
+        assertThat(top.itens()).extracting(e -> e.chave().nome(), SpaceSaving.Estimativa::contagem, SpaceSaving.Estimativa::erro)
+                .containsExactly(
+                        tuple("Pizza Grande", 5L, 0L),
+                        tuple("Sushi", 1L, 0L));
+    }
+
+    @Test
+    @DisplayName("Chave nova em sketch cheio herda o menor contador como erro")
+    void herdarMenorContador() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.adicionar("a", 5);
+        sketch.adicionar("b", 2);
+        sketch.adicionar("c", 1);
+
+        SpaceSaving.Top<String> top = sketch.top(2);
+
+        assertThat(top.itens()).extracting(SpaceSaving.Estimativa::chave).containsExactly("a", "c");
+        assertThat(top.itens().get(1).contagem()).isEqualTo(3);
+        assertThat(top.itens().get(1).erro()).isEqualTo(2);
+        assertThat(top.erroMaximo()).isEqualTo(3);
+        assertThatThrownBy(() -> sketch.adicionar("d", 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Zipf (s = 1,1) sobre CHAVES chaves com pesos de 1 a 3, distribuído em rodízio entre os sketches
+    private Map<Integer, Long> alimentar(List<SpaceSaving<Integer>> sketches, Random aleatorio) {
+        double[] acumulado = new double[CHAVES];
+        double soma = 0;
+        for (int i = 0; i < CHAVES; i++) {
+            soma += 1 / Math.pow(i + 1, 1.1);
+            acumulado[i] = soma;
+        }
+        Map<Integer, Long> real = new HashMap<>();
+        for (int i = 0; i < EVENTOS; i++) {
+            int posicao = Arrays.binarySearch(acumulado, aleatorio.nextDouble() * soma);
+            int chave = posicao < 0 ? -posicao - 1 : posicao;
+            long peso = 1 + aleatorio.nextInt(3);
+            real.merge(chave, peso, Long::sum);
+            sketches.get(i % sketches.size()).adicionar(chave, peso);
+        }
+        return real;
+    }
+
+    private void verificarLimites(SpaceSaving.Top<Integer> top, Map<Integer, Long> real) {
+        long total = real.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(top.total()).isEqualTo(total);
+        assertThat(top.erroMaximo()).isLessThanOrEqualTo(total / CAPACIDADE);
+
+        for (SpaceSaving.Estimativa<Integer> estimativa : top.itens()) {
+            long valorReal = real.get(estimativa.chave());
+            assertThat(valorReal).isBetween(estimativa.minimo(), estimativa.contagem());
+            assertThat(estimativa.erro()).isLessThanOrEqualTo(top.erroMaximo());
+        }
+        // Toda chave acima do erro máximo precisa estar listada
+        Set<Integer> listadas = top.itens().stream().map(SpaceSaving.Estimativa::chave).collect(Collectors.toSet());
+        real.forEach((chave, valor) -> {
+            if (valor > top.erroMaximo()) assertThat(listadas).contains(chave);
+        });
+    }
+
+    private List<Integer> chaves(SpaceSaving.Top<Integer> top) {
+        return top.itens().stream().map(SpaceSaving.Estimativa::chave).toList();
+    }
+
+    private List<Integer> topReal(Map<Integer, Long> real, int n) {
+        return real.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,69 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega.Faixa;
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega.Zona;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Benchmark das consultas da TabelaTaxasEntrega (CEP em texto -> zona -> taxa) com uma tabela de faixas do tamanho
+// pedido e 10 mil restaurantes com taxas próprias. Só roda quando pedido:
+// mvn test -Dtest=TabelaTaxasEntregaBenchmarkTest -Dbenchmark.taxas.faixas=100000
+@EnabledIfSystemProperty(named = "benchmark.taxas.faixas", matches = "\\d+")
+class TabelaTaxasEntregaBenchmarkTest {
+
+    private static final int CONSULTAS = 5_000_000;
+    private static final int RODADAS = 5;
+
+    @Test
+    @DisplayName("Benchmark: consultas de taxa por CEP")
+    void medirConsultas() {
+        int quantidadeFaixas = Integer.getInteger("benchmark.taxas.faixas");
+        Random aleatorio = new Random(29);
+
+        List<Zona> zonas = new ArrayList<>();
+        for (int z = 1; z <= 200; z++) {
+            zonas.add(new Zona(z, "Zona " + z, aleatorio.nextInt(2_000)));
+        }
+        List<Faixa> faixas = new ArrayList<>(quantidadeFaixas);
+        int largura = 99_000_000 / quantidadeFaixas;
+        for (int i = 0; i < quantidadeFaixas; i++) {
+            int inicio = 1_000_000 + i * largura;
+            faixas.add(new Faixa(inicio, inicio + largura - 1 - aleatorio.nextInt(Math.max(1, largura / 10)), 1 + aleatorio.nextInt(200)));
+        }
+        Map<Long, Map<Integer, Long>> taxasProprias = new HashMap<>();
+        for (long r = 1; r <= 10_000; r++) {
+            taxasProprias.put(r * 3, Map.of(1 + aleatorio.nextInt(200), (long) aleatorio.nextInt(1_500)));
+        }
+
+        long inicioCarga = System.nanoTime();
+        TabelaTaxasEntrega tabela = new TabelaTaxasEntrega(zonas, faixas, taxasProprias, 500);
+        System.out.printf("[TAXAS] %d faixas e %d restaurantes carregados em %d ms%n",
+                quantidadeFaixas, taxasProprias.size(), (System.nanoTime() - inicioCarga) / 1_000_000);
+
+        String[] ceps = new String[4_096];
+        for (int i = 0; i < ceps.length; i++) {
+            ceps[i] = String.format("%05d-%03d", aleatorio.nextInt(100_000), aleatorio.nextInt(1_000));
+        }
+
+        for (int rodada = 1; rodada <= RODADAS; rodada++) {
+            long soma = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < CONSULTAS; i++) {
+                int zona = tabela.zona(TabelaTaxasEntrega.cep(ceps[i & 4_095]));
+                soma += tabela.taxa(i % 40_000, 799, zona);
+            }
+            long decorrido = System.nanoTime() - inicio;
+            assertThat(soma).isPositive();
+            System.out.printf("[TAXAS] rodada %d: %.1f ns/consulta%n", rodada, (double) decorrido / CONSULTAS);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega.Faixa;
+import com.deliverytech.delivery_api.util.TabelaTaxasEntrega.Zona;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class TabelaTaxasEntregaTest {
+
+    private static final List<Zona> ZONAS = List.of(
+            new Zona(1, "Centro", 0), new Zona(2, "Zona Norte", 200), new Zona(7, "Interior", 1200));
+
+    private static final List<Faixa> FAIXAS = List.of(
+            new Faixa(11_000_000, 19_999_999, 7), new Faixa(1_000_000, 1_999_999, 1), new Faixa(2_000_000, 2_999_999, 2));
+
+    @Test
+    @DisplayName("CEP é lido com ou sem separadores e rejeitado fora do formato de 8 dígitos")
+    void lerCep() {
+        assertThat(TabelaTaxasEntrega.cep("01310-100")).isEqualTo(1_310_100);
+        assertThat(TabelaTaxasEntrega.cep("01.310-100")).isEqualTo(1_310_100);
+        assertThat(TabelaTaxasEntrega.cep("99999999")).isEqualTo(99_999_999);
+        assertThat(TabelaTaxasEntrega.cep("0131010")).isEqualTo(TabelaTaxasEntrega.CEP_INVALIDO);
+        assertThat(TabelaTaxasEntrega.cep("013101000")).isEqualTo(TabelaTaxasEntrega.CEP_INVALIDO);
+        assertThat(TabelaTaxasEntrega.cep("01310 100")).isEqualTo(TabelaTaxasEntrega.CEP_INVALIDO);
+        assertThat(TabelaTaxasEntrega.cep(null)).isEqualTo(TabelaTaxasEntrega.CEP_INVALIDO);
+    }
+
+    @Test
+    @DisplayName("A zona da busca binária é a mesma de percorrer todas as faixas, inclusive nas bordas e nos buracos")
+    void compararComBuscaLinear() {
+        Random aleatorio = new Random(5);
+        List<Faixa> faixas = new ArrayList<>();
+        List<Zona> zonas = new ArrayList<>();
+        for (int z = 1; z <= 40; z++) {
+            zonas.add(new Zona(z, "Zona " + z, z * 10L));
+        }
+        int inicio = 1_000_000;
+        while (inicio < 99_000_000) {
+            int fim = inicio + aleatorio.nextInt(50_000);
+            faixas.add(new Faixa(inicio, fim, 1 + aleatorio.nextInt(40)));
+            inicio = fim + 1 + (aleatorio.nextBoolean() ? 0 : aleatorio.nextInt(20_000)); // buracos entre faixas
+        }
+        TabelaTaxasEntrega tabela = new TabelaTaxasEntrega(zonas, faixas, Map.of(), 500);
+
+        List<Integer> ceps = new ArrayList<>(List.of(0, 999_999, 99_999_999));
+        for (Faixa faixa : faixas.subList(0, 500)) {
+            ceps.addAll(List.of(faixa.cepInicio() - 1, faixa.cepInicio(), faixa.cepFim(), faixa.cepFim() + 1));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            ceps.add(aleatorio.nextInt(100_000_000));
+        }
+        for (int cep : ceps) {
+            int zona = tabela.zona(cep);
+            Integer esperada = faixas.stream()
+                    .filter(f -> f.cepInicio() <= cep && cep <= f.cepFim())
+                    .map(Faixa::zonaId)
+                    .findFirst().orElse(TabelaTaxasEntrega.FORA_DE_ZONA);
+            assertThat(tabela.idZona(zona)).as("CEP %d", cep).isEqualTo(esperada);
+        }
+    }
+
+    @Test
+    @DisplayName("Taxa própria do restaurante prevalece na sua zona; nas demais vale taxa base + acréscimo")
+    void taxasPropriasPorZona() {
+        TabelaTaxasEntrega tabela = new TabelaTaxasEntrega(ZONAS, FAIXAS, Map.of(10L, Map.of(7, 990L)), 500);
+        int centro = tabela.zona(1_310_100);
+        int norte = tabela.zona(2_011_000);
+        int interior = tabela.zona(13_000_000);
+
+        assertThat(tabela.nomeZona(norte)).isEqualTo("Zona Norte");
+        assertThat(tabela.taxa(10, 800, interior)).isEqualTo(990);
+        assertThat(tabela.taxa(10, 800, norte)).isEqualTo(1000);
+        assertThat(tabela.taxa(11, 800, interior)).isEqualTo(2000);
+        assertThat(tabela.taxa(11, 800, centro)).isEqualTo(800);
+        assertThat(tabela.taxa(11, 800, tabela.zona(30_000_000))).isEqualTo(1300);
+
+        // Cópia na alteração: a tabela anterior continua válida para quem já a leu
+        TabelaTaxasEntrega alterada = tabela.comTaxasDoRestaurante(11, Map.of(1, 0L))
+                .comTaxasDoRestaurante(10, Map.of());
+        assertThat(alterada.taxa(11, 800, centro)).isZero();
+        assertThat(alterada.taxa(10, 800, interior)).isEqualTo(2000);
+        assertThat(tabela.taxa(10, 800, interior)).isEqualTo(990);
+        assertThat(tabela.taxa(11, 800, centro)).isEqualTo(800);
+    }
+
+    @Test
+    @DisplayName("Faixas sobrepostas ou de zona inexistente são rejeitadas na carga")
+    void rejeitarTabelaInconsistente() {
+        assertThatThrownBy(() -> new TabelaTaxasEntrega(ZONAS,
+                List.of(new Faixa(1_000_000, 1_999_999, 1), new Faixa(1_999_999, 2_999_999, 2)), Map.of(), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sobrepostas");
+        assertThatThrownBy(() -> new TabelaTaxasEntrega(ZONAS, List.of(new Faixa(1_000_000, 1_999_999, 3)), Map.of(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TabelaTaxasEntrega(ZONAS, FAIXAS, Map.of(10L, Map.of(3, 100L)), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Ler o CEP, achar a zona e calcular a taxa não alocam memória")
+    void consultaSemAlocacao() {
+        assumeThat(ManagementFactory.getThreadMXBean()).isInstanceOf(com.sun.management.ThreadMXBean.class);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        TabelaTaxasEntrega tabela = new TabelaTaxasEntrega(ZONAS, FAIXAS, Map.of(10L, Map.of(7, 990L), 20L, Map.of(1, 0L)), 500);
+        String[] ceps = {"01310-100", "02011000", "13000-000", "30140-071"};
+        long soma = consultar(tabela, ceps, 1_000); // aquecimento
+
+        long thread = Thread.currentThread().getId();
+        long antes = threads.getThreadAllocatedBytes(thread);
+        soma += consultar(tabela, ceps, 100_000);
+        long alocados = threads.getThreadAllocatedBytes(thread) - antes;
+
+        assertThat(soma).isPositive();
+        // Margem para alocações da própria JVM na thread (ex.: compilação), muito abaixo de 1 byte por consulta
+        assertThat(alocados).isLessThan(4_096);
+    }
+
+    private static long consultar(TabelaTaxasEntrega tabela, String[] ceps, int vezes) {
+        long soma = 0;
+        for (int i = 0; i < vezes; i++) {
+            int zona = tabela.zona(TabelaTaxasEntrega.cep(ceps[i & 3]));
+            soma += tabela.taxa(i % 30, 800, zona);
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,81 @@
+package com.deliverytech.delivery_api.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKJanelaTest {
+
+    @Test
+    @DisplayName("Contagens saem da janela quando o balde em que entraram fica mais antigo que ela")
+    void expirarBaldesForaDaJanela() {
+        AtomicLong agora = new AtomicLong(0);
+        TopKJanela<String> hora = new TopKJanela<>(10, Duration.ofHours(1), 12, agora::get);
+
+        hora.adicionar("pizza", 5);
+        avancar(agora, Duration.ofMinutes(30));
+        hora.adicionar("sushi", 3);
+        assertThat(hora.top(5).itens()).extracting(SpaceSaving.Estimativa::chave).containsExactly("pizza", "sushi");
+
+        // A janela cobre a última hora mais o balde de 5 minutos em andamento
+        avancar(agora, Duration.ofMinutes(34));
+        assertThat(hora.top(5).itens()).extracting(SpaceSaving.Estimativa::chave).containsExactly("pizza", "sushi");
+
+        avancar(agora, Duration.ofMinutes(2));
+        assertThat(hora.top(5).itens()).extracting(SpaceSaving.Estimativa::chave).containsExactly("sushi");
+
+        avancar(agora, Duration.ofHours(1));
+        assertThat(hora.top(5).itens()).isEmpty();
+        assertThat(hora.top(5).total()).isZero();
+    }
+
+    @Test
+    @DisplayName("A consulta incremental (encerrados + balde atual) é igual à mescla de todos os baldes")
+    void consultarComoMesclaDosBaldes() {
+        AtomicLong agora = new AtomicLong(0);
+        TopKJanela<Integer> dia = new TopKJanela<>(50, Duration.ofDays(1), 24, agora::get);
+        List<SpaceSaving<Integer>> baldes = new ArrayList<>();
+        Random aleatorio = new Random(3);
+
+        for (int hora = 0; hora < 25; hora++) {
+            SpaceSaving<Integer> balde = new SpaceSaving<>(50);
+            for (int i = 0; i < 2_000; i++) {
+                int chave = (int) Math.abs(aleatorio.nextGaussian() * 80);
+                dia.adicionar(chave, 1);
+                balde.adicionar(chave, 1);
+            }
+            baldes.add(balde);
+            if (hora < 24) avancar(agora, Duration.ofHours(1));
+            // A mescla dos encerrados fica em cache enquanto o balde atual continua mudando
+            SpaceSaving.Top<Integer> esperado = SpaceSaving.mesclar(baldes, Integer.MAX_VALUE);
+            SpaceSaving.Top<Integer> obtido = dia.top(10);
+
+            assertThat(obtido.total()).isEqualTo(esperado.total());
+            assertThat(obtido.erroMaximo()).isEqualTo(esperado.erroMaximo());
+            // Empates podem sair em outra ordem: compara as contagens por posição e cada estimativa pela chave
+            assertThat(obtido.itens()).extracting(SpaceSaving.Estimativa::contagem)
+                    .containsExactlyElementsOf(esperado.itens().subList(0, 10).stream().map(SpaceSaving.Estimativa::contagem).toList());
+            assertThat(esperado.itens()).containsAll(obtido.itens());
+        }
+    }
+
+    @Test
+    @DisplayName("Sem duração, acumula desde a criação")
+    void acumularSemJanela() {
+        TopKJanela<String> total = new TopKJanela<>(10);
+        total.adicionar("pizza", 2);
+        total.adicionar("pizza", 2);
+
+        assertThat(total.top(1).itens().get(0).contagem()).isEqualTo(4);
+    }
+
+    private void avancar(AtomicLong agora, Duration duracao) {
+        agora.addAndGet(duracao.toNanos());
+    }
+}
@@ -0,0 +1,109 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.TrieSugestoes.Sugestao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+// Benchmark das sugestões da busca com o número de produtos pedido: carga, memória estimada, latência das consultas
+// por prefixos de 1 a 6 letras e das atualizações de peso. Só roda quando pedido:
+// mvn test -Dtest=TrieSugestoesBenchmarkTest -Dbenchmark.sugestoes.produtos=1000000
+@EnabledIfSystemProperty(named = "benchmark.sugestoes.produtos", matches = "\\d+")
+class TrieSugestoesBenchmarkTest {
+
+    private static final int CONSULTAS = 20_000;
+
+    private static final String[] PRATOS = {"pizza", "hamburguer", "pastel", "coxinha", "esfiha", "lasanha", "sushi",
+            "temaki", "açaí", "salada", "frango", "picanha", "feijoada", "moqueca", "tapioca", "crepe", "sanduíche",
+            "yakisoba", "risoto", "nhoque", "parmegiana", "strogonoff", "brigadeiro", "pudim", "torta", "suco",
+            "refrigerante", "cerveja", "café", "pão", "queijo", "batata", "mandioca", "calabresa", "bacon"};
+    private static final String[] COMPLEMENTOS = {"de", "com", "especial", "tradicional", "grande", "média",
+            "pequena", "artesanal", "caseiro", "picante", "vegano", "integral", "recheado", "gelado", "duplo"};
+    private static final String[] CATEGORIAS = {"Pizzas", "Lanches", "Japonesa", "Brasileira", "Sobremesas",
+            "Bebidas", "Saudável", "Árabe", "Italiana", "Doces"};
+
+    @Test
+    @DisplayName("Benchmark: carga, memória e latência das sugestões")
+    void medirSugestoes() {
+        int produtos = Integer.getInteger("benchmark.sugestoes.produtos");
+        Random aleatorio = new Random(25);
+        String[] marcas = new String[Math.max(1_000, produtos / 20)];
+        for (int i = 0; i < marcas.length; i++) {
+            marcas[i] = palavra(aleatorio, 5 + aleatorio.nextInt(6));
+        }
+
+        // Popularidade concentrada (Zipf aproximado): poucos produtos vendem muito
+        List<Sugestao<String>> termos = new ArrayList<>(produtos * 2 + produtos / 50);
+        String[] nomes = new String[produtos];
+        for (int i = 0; i < produtos; i++) {
+            nomes[i] = primeiraMaiuscula(PRATOS[aleatorio.nextInt(PRATOS.length)]) + " "
+                    + COMPLEMENTOS[aleatorio.nextInt(COMPLEMENTOS.length)] + " " + marcas[aleatorio.nextInt(marcas.length)];
+            long peso = 1 + (long) (1_000 / Math.pow(1 + aleatorio.nextInt(10_000), 0.8));
+            termos.add(new Sugestao<>("PRODUTO", nomes[i], peso));
+            termos.add(new Sugestao<>("CATEGORIA", CATEGORIAS[aleatorio.nextInt(CATEGORIAS.length)], peso));
+        }
+        for (int i = 0; i < Math.max(100, produtos / 50); i++) {
+            termos.add(new Sugestao<>("RESTAURANTE", "Restaurante " + marcas[aleatorio.nextInt(marcas.length)],
+                    1 + aleatorio.nextInt(500)));
+        }
+
+        TrieSugestoes<String> trie = new TrieSugestoes<>();
+        long inicio = System.nanoTime();
+        trie.reconstruir(termos);
+        long tempoCarga = System.nanoTime() - inicio;
+        System.out.printf("[SUGESTOES] %d produtos carregados em %d ms | %d termos | %d nós | ~%d MB estimados%n",
+                produtos, tempoCarga / 1_000_000, trie.quantidadeTermos(), trie.quantidadeNos(),
+                trie.memoriaEstimada() / (1024 * 1024));
+
+        for (int letras = 1; letras <= 6; letras++) {
+            String[] prefixos = new String[1_000];
+            for (int i = 0; i < prefixos.length; i++) {
+                String nome = nomes[aleatorio.nextInt(produtos)];
+                String palavra = nome.split(" ")[aleatorio.nextInt(3) == 0 ? 2 : 0];
+                prefixos[i] = palavra.substring(0, Math.min(letras, palavra.length()));
+            }
+            medir("prefixo de " + letras + " letra(s)", i -> trie.sugerir(prefixos[i % prefixos.length], TrieSugestoes.MAXIMO));
+        }
+        medir("atualizar peso (venda)", i -> {
+            trie.somar("PRODUTO", nomes[(i * 7919) % produtos], 1);
+            return null;
+        });
+
+        assertThat(trie.sugerir(nomes[0].substring(0, 3), TrieSugestoes.MAXIMO)).hasSize(TrieSugestoes.MAXIMO);
+    }
+
+    private static void medir(String operacao, IntFunction<?> acao) {
+        for (int i = 0; i < CONSULTAS / 4; i++) {
+            acao.apply(i); // aquecimento
+        }
+        long[] tempos = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            long t0 = System.nanoTime();
+            acao.apply(i);
+            tempos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(tempos);
+        System.out.printf("[SUGESTOES] %-24s | p50 %8.2f µs | p99 %8.2f µs%n", operacao,
+                tempos[CONSULTAS / 2] / 1e3, tempos[CONSULTAS * 99 / 100] / 1e3);
+    }
+
+    private static String palavra(Random aleatorio, int tamanho) {
+        StringBuilder palavra = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            palavra.append((char) ('a' + aleatorio.nextInt(26)));
+        }
+        return palavra.toString();
+    }
+
+    private static String primeiraMaiuscula(String palavra) {
+        return Character.toUpperCase(palavra.charAt(0)) + palavra.substring(1);
+    }
+}
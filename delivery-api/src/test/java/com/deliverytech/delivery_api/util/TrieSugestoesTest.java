@@ -0,0 +1,128 @@
+package com.deliverytech.delivery_api.util;
+
+import com.deliverytech.delivery_api.util.TrieSugestoes.Sugestao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrieSugestoesTest {
+
+    @Test
+    @DisplayName("Sugere pelo início do texto ou de uma palavra, sem acentos, do mais pesado ao mais leve")
+    void sugerirPorPrefixo() {
+        TrieSugestoes<String> trie = new TrieSugestoes<>();
+        trie.somar("PRODUTO", "Pizza Calabresa", 30);
+        trie.somar("PRODUTO", "Pizza de Queijo", 10);
+        trie.somar("PRODUTO", "Pão de Queijo", 20);
+        trie.somar("RESTAURANTE", "Pizzaria Bella", 15);
+        trie.somar("CATEGORIA", "Pizzas", 40);
+
+        assertThat(textos(trie.sugerir("piz", 10)))
+                .containsExactly("Pizzas", "Pizza Calabresa", "Pizzaria Bella", "Pizza de Queijo");
+        assertThat(textos(trie.sugerir("PIZZA ", 2))).containsExactly("Pizzas", "Pizza Calabresa");
+        assertThat(textos(trie.sugerir("pizza d", 10))).containsExactly("Pizza de Queijo");
+        assertThat(textos(trie.sugerir("cala", 10))).containsExactly("Pizza Calabresa");
+        assertThat(textos(trie.sugerir("queijo", 10))).containsExactly("Pão de Queijo", "Pizza de Queijo");
+        assertThat(textos(trie.sugerir("pão", 10))).containsExactly("Pão de Queijo");
+        assertThat(trie.sugerir("de", 10)).isEmpty(); // palavra curta não abre chave
+        assertThat(trie.sugerir("pizzax", 10)).isEmpty();
+        assertThat(trie.sugerir(" ", 10)).isEmpty();
+
+        // Peso muda a ordem; chegar a zero remove o termo
+        trie.somar("PRODUTO", "pizza de queijo", 50);
+        assertThat(textos(trie.sugerir("piz", 1))).containsExactly("Pizza de Queijo");
+        trie.somar("CATEGORIA", "Pizzas", -40);
+        assertThat(textos(trie.sugerir("piz", 10))).doesNotContain("Pizzas").hasSize(3);
+        assertThat(trie.quantidadeTermos()).isEqualTo(4);
+        assertThat(trie.memoriaEstimada()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Com somas e remoções aleatórias, as sugestões são as mesmas de filtrar e ordenar todos os termos")
+    void compararComBuscaExaustiva() {
+        Random aleatorio = new Random(25);
+        String[] palavras = {"pizza", "pizzaria", "pao", "pastel", "pastelaria", "queijo", "de", "com", "frango",
+                "frita", "fritas", "acai", "bacon", "burguer", "calabresa", "suco", "laranja", "lanche", "x"};
+        String[] tipos = {"PRODUTO", "RESTAURANTE", "CATEGORIA"};
+        TrieSugestoes<String> trie = new TrieSugestoes<>();
+        Map<String, Long> pesos = new HashMap<>(); // "tipo|texto" -> peso
+        List<Sugestao<String>> carga = new ArrayList<>();
+
+        for (int i = 0; i < 400; i++) {
+            String tipo = tipos[aleatorio.nextInt(tipos.length)];
+            String texto = frase(aleatorio, palavras);
+            long peso = 1 + aleatorio.nextInt(50);
+            carga.add(new Sugestao<>(tipo, texto, peso));
+            pesos.merge(tipo + "|" + texto, peso, Long::sum);
+        }
+        trie.reconstruir(carga);
+
+        for (int rodada = 0; rodada < 3_000; rodada++) {
+            String tipo = tipos[aleatorio.nextInt(tipos.length)];
+            String texto = frase(aleatorio, palavras);
+            long atual = pesos.getOrDefault(tipo + "|" + texto, 0L);
+            long delta = aleatorio.nextInt(3) == 0 ? -atual : aleatorio.nextInt(60) - 20;
+            trie.somar(tipo, texto, delta);
+            if (atual > 0 || delta > 0) {
+                long novo = atual + delta;
+                if (novo > 0) {
+                    pesos.put(tipo + "|" + texto, novo);
+                } else {
+                    pesos.remove(tipo + "|" + texto);
+                }
+            }
+
+            if (rodada % 100 == 0) {
+                for (String prefixo : new String[]{"p", "pi", "pizza", "pizza p", "pas", "queijo", "fr", "frita", "x", "c"}) {
+                    assertThat(trie.sugerir(prefixo, TrieSugestoes.MAXIMO))
+                            .as(prefixo)
+                            .containsExactlyElementsOf(exaustiva(pesos, prefixo));
+                }
+                // A memória mantida a cada alteração bate com a de percorrer a árvore
+                assertThat(trie.memoriaEstimada()).isEqualTo(trie.calcularMemoria());
+            }
+        }
+        assertThat(trie.quantidadeTermos()).isEqualTo(pesos.size());
+        assertThat(trie.memoriaEstimada()).isEqualTo(trie.calcularMemoria());
+    }
+
+    private static List<String> textos(List<Sugestao<String>> sugestoes) {
+        return sugestoes.stream().map(Sugestao::texto).toList();
+    }
+
+    private static String frase(Random aleatorio, String[] palavras) {
+        List<String> frase = new ArrayList<>();
+        for (int i = 1 + aleatorio.nextInt(3); i > 0; i--) {
+            frase.add(palavras[aleatorio.nextInt(palavras.length)]);
+        }
+        return String.join(" ", frase);
+    }
+
+    // Mesmas regras da trie, termo a termo
+    private static List<Sugestao<String>> exaustiva(Map<String, Long> pesos, String prefixo) {
+        List<Sugestao<String>> encontradas = new ArrayList<>();
+        pesos.forEach((id, peso) -> {
+            String[] partes = id.split("\\|");
+            String[] palavras = partes[1].split(" ");
+            boolean casa = partes[1].startsWith(prefixo);
+            for (int i = 1; i < palavras.length && !casa; i++) {
+                casa = palavras[i].length() >= 3 && String.join(" ", List.of(palavras).subList(i, palavras.length)).startsWith(prefixo);
+            }
+            if (casa) {
+                encontradas.add(new Sugestao<>(partes[0], partes[1], peso));
+            }
+        });
+        return encontradas.stream()
+                .sorted(Comparator.comparingLong((Sugestao<String> s) -> -s.peso())
+                        .thenComparing(Sugestao::texto).thenComparing(Sugestao::tipo))
+                .limit(TrieSugestoes.MAXIMO)
+                .toList();
+    }
+}